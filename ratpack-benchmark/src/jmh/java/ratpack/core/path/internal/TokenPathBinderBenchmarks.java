@@ -0,0 +1,73 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.path.internal;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ratpack.core.path.PathBinder;
+import ratpack.core.path.PathBinding;
+
+/**
+ * Compares binding with the segment matcher against binding with the equivalent regex.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class TokenPathBinderBenchmarks {
+
+  @Param({
+    "api/users|api/users",
+    "api/users/:id|api/users/1234",
+    "api/users/:id/orders/:orderId|api/users/1234/orders/5678",
+    "api/users/:id?/:format?|api/users/1234/json",
+    "api/users/:id|api/users/john%20smith",
+    "api/users/:id|api/orders/1234"
+  })
+  public String scenario;
+
+  private TokenPathBinder segments;
+  private TokenPathBinder regex;
+  private PathBinding parent;
+
+  @Setup
+  public void setup() {
+    String[] parts = scenario.split("\\|");
+    segments = (TokenPathBinder) PathBinder.parse(parts[0], true);
+    regex = segments.regexBinder();
+    parent = new RootPathBinding(parts[1]);
+  }
+
+  @Benchmark
+  public Optional<PathBinding> segments() {
+    return segments.bind(parent);
+  }
+
+  @Benchmark
+  public Optional<PathBinding> regex() {
+    return regex.bind(parent);
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.bytebuf.internal;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import ratpack.exec.ExecController;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A cache of values that hold {@link CachedBuffer direct buffers}.
+ * <p>
+ * Buffers are released as soon as their values are removed from the cache.
+ * Direct buffers are not released by garbage collection,
+ * so all values are also removed when the exec controller of any server that added to the cache is closed.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public final class BufferCache<K, V> {
+
+  private final Cache<K, V> cache;
+  // the controllers of servers that have added to this cache, that have not yet closed
+  private final Set<ExecController> controllers = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+  public BufferCache(Caffeine<K, V> builder, Function<? super V, CachedBuffer> buffer) {
+    this.cache = builder
+      // Release buffers as soon as they are evicted, rather than asynchronously
+      .executor(Runnable::run)
+      .removalListener((K key, V value, RemovalCause cause) -> {
+        if (value != null) {
+          buffer.apply(value).evict();
+        }
+      })
+      .build();
+  }
+
+  public Cache<K, V> getCache() {
+    return cache;
+  }
+
+  /**
+   * Adds the value, removing all values when the given controller is closed.
+   */
+  public void put(ExecController controller, K key, V value) {
+    invalidateOnClose(controller);
+    cache.put(key, value);
+  }
+
+  private void invalidateOnClose(ExecController controller) {
+    if (controllers.add(controller)) {
+      boolean registered = controller.onClose(() -> {
+        controllers.remove(controller);
+        invalidateAll();
+      });
+      if (!registered) {
+        controllers.remove(controller);
+      }
+    }
+  }
+
+  public long getWeightedSize() {
+    return cache.policy().eviction()
+      .map(eviction -> eviction.weightedSize().orElse(0))
+      .orElse(0L);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+}
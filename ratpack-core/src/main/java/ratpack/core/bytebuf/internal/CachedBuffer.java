@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.bytebuf.internal;
+
+import io.netty.buffer.ByteBuf;
+import ratpack.func.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A buffer held by a cache, that readers can take duplicates of concurrently with its eviction.
+ * <p>
+ * A pooled buffer may be handed to another allocation as soon as it is released,
+ * so a reader must never retain the buffer after eviction may have released it, even if it then catches the failure.
+ * Instead, readers hold this entry's own count while retaining the buffer, and the buffer is released when the count reaches zero.
+ */
+public final class CachedBuffer {
+
+  private final ByteBuf buffer;
+  // one for the cache, plus one for each reader that is retaining the buffer
+  private final AtomicInteger holders = new AtomicInteger(1);
+
+  public CachedBuffer(ByteBuf buffer) {
+    this.buffer = buffer;
+  }
+
+  public int capacity() {
+    return buffer.capacity();
+  }
+
+  /**
+   * A retained duplicate of the buffer, to be released by the caller, or {@code null} if the buffer has been evicted.
+   */
+  @Nullable
+  public ByteBuf retainedDuplicate() {
+    while (true) {
+      int current = holders.get();
+      if (current == 0) {
+        return null;
+      }
+      if (holders.compareAndSet(current, current + 1)) {
+        try {
+          return buffer.retainedDuplicate();
+        } finally {
+          release();
+        }
+      }
+    }
+  }
+
+  /**
+   * Gives up the cache's hold on the buffer, when it is evicted.
+   */
+  public void evict() {
+    release();
+  }
+
+  private void release() {
+    if (holders.decrementAndGet() == 0) {
+      buffer.release();
+    }
+  }
+
+}
@@ -40,6 +40,10 @@ import java.net.InetAddress;
 import java.net.URI;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
 
@@ -88,6 +92,9 @@ public class ServerConfigDataDeserializer extends JsonDeserializer<ServerConfigD
     if (serverNode.hasNonNull("threads")) {
       data.setThreads(serverNode.get("threads").asInt(ServerConfig.DEFAULT_THREADS));
     }
+    if (serverNode.hasNonNull("acceptorThreads")) {
+      data.setAcceptorThreads(serverNode.get("acceptorThreads").asInt(0));
+    }
     if (serverNode.hasNonNull("registerShutdownHook")) {
       data.setRegisterShutdownHook(serverNode.get("registerShutdownHook").asBoolean(true));
     }
@@ -106,6 +113,32 @@ public class ServerConfigDataDeserializer extends JsonDeserializer<ServerConfigD
     if (serverNode.hasNonNull("maxHeaderSize")) {
       data.setMaxHeaderSize(serverNode.get("maxHeaderSize").asInt(ServerConfig.DEFAULT_MAX_HEADER_SIZE));
     }
+    if (serverNode.hasNonNull("http2")) {
+      data.setHttp2(serverNode.get("http2").asBoolean(false));
+    }
+    if (serverNode.hasNonNull("http2MaxConcurrentStreams")) {
+      data.setHttp2MaxConcurrentStreams(serverNode.get("http2MaxConcurrentStreams").asInt(ServerConfig.DEFAULT_HTTP2_MAX_CONCURRENT_STREAMS));
+    }
+    if (serverNode.hasNonNull("http2InitialWindowSize")) {
+      data.setHttp2InitialWindowSize(serverNode.get("http2InitialWindowSize").asInt(ServerConfig.DEFAULT_HTTP2_INITIAL_WINDOW_SIZE));
+    }
+    if (serverNode.hasNonNull("compiledRouting")) {
+      data.setCompiledRouting(serverNode.get("compiledRouting").asBoolean(false));
+    }
+    if (serverNode.hasNonNull("compressionEncodings")) {
+      data.setCompressionEncodings(toStringList(serverNode.get("compressionEncodings")));
+    }
+    if (serverNode.hasNonNull("compressionLevels")) {
+      Map<String, Integer> levels = new LinkedHashMap<>();
+      serverNode.get("compressionLevels").fields().forEachRemaining(e -> levels.put(e.getKey(), e.getValue().asInt()));
+      data.setCompressionLevels(levels);
+    }
+    if (serverNode.hasNonNull("compressionMinLength")) {
+      data.setCompressionMinLength(serverNode.get("compressionMinLength").asInt(0));
+    }
+    if (serverNode.hasNonNull("compressionContentTypes")) {
+      data.setCompressionContentTypes(toStringList(serverNode.get("compressionContentTypes")));
+    }
     if (serverNode.hasNonNull("requireClientSslAuth")) {
       data.setRequireClientSslAuth(serverNode.get("requireClientSslAuth").asBoolean(false));
     }
@@ -147,6 +180,21 @@ public class ServerConfigDataDeserializer extends JsonDeserializer<ServerConfigD
     return node.isInt() ? node.asInt() : ServerEnvironment.parsePortValue("config", node.asText());
   }
 
+  // Lists may also be given as comma separated values, e.g. via environment variables or system properties
+  private static List<String> toStringList(JsonNode node) {
+    List<String> values = new ArrayList<>();
+    if (node.isArray()) {
+      node.forEach(element -> values.add(element.asText()));
+    } else {
+      for (String value : node.asText().split(",")) {
+        if (!value.trim().isEmpty()) {
+          values.add(value.trim());
+        }
+      }
+    }
+    return values;
+  }
+
   private static <T> T toValue(ObjectCodec codec, JsonNode node, Class<T> valueType) throws JsonProcessingException {
     if (node.isPojo()) {
       Object pojo = ((POJONode) node).getPojo();
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.file;
+
+import ratpack.core.file.internal.DefaultFileContentCache;
+import ratpack.func.Action;
+
+/**
+ * An in memory cache of the contents of small files, used by file handlers to serve files without accessing the file system.
+ * <p>
+ * File contents are held in direct buffers, bounded by the total number of bytes cached.
+ * A cached file is reloaded if its last modified time or size differ from that of the file being served.
+ * Note that file metadata is itself cached when not in development, so changes to files are only picked up in development.
+ * <p>
+ * All contents are discarded when the exec controller of the server that loaded them is closed, which happens when the server stops.
+ * <p>
+ * A cache may be shared by multiple file handlers.
+ *
+ * @see FileHandlerSpec#contentCache(FileContentCache)
+ * @since 2.0
+ */
+public interface FileContentCache {
+
+  /**
+   * Creates a new cache.
+   *
+   * @param spec the configuration of the cache
+   * @return a new cache
+   * @throws Exception any thrown by {@code spec}
+   */
+  static FileContentCache of(Action<? super FileContentCacheSpec> spec) throws Exception {
+    return DefaultFileContentCache.of(spec);
+  }
+
+  /**
+   * The number of times a file was served from the cache.
+   * <p>
+   * Always 0 unless {@link FileContentCacheSpec#recordStats(boolean) recording of stats} is enabled.
+   *
+   * @return the number of cache hits
+   */
+  long getHitCount();
+
+  /**
+   * The number of times a file that may be cached had to be read from the file system.
+   * <p>
+   * Always 0 unless {@link FileContentCacheSpec#recordStats(boolean) recording of stats} is enabled.
+   *
+   * @return the number of cache misses
+   */
+  long getMissCount();
+
+  /**
+   * The total number of bytes currently cached.
+   *
+   * @return the total number of bytes currently cached
+   */
+  long getSize();
+
+  /**
+   * Discards all cached file contents.
+   */
+  void invalidateAll();
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.file;
+
+/**
+ * A specification of a {@link FileContentCache}.
+ *
+ * @see FileContentCache#of(ratpack.func.Action)
+ * @since 2.0
+ */
+public interface FileContentCacheSpec {
+
+  /**
+   * The default maximum number of bytes to cache, 32 MiB.
+   */
+  long DEFAULT_MAX_SIZE = 32 * 1024 * 1024;
+
+  /**
+   * The default maximum size of a file that is cached, 64 KiB.
+   */
+  int DEFAULT_MAX_FILE_SIZE = 64 * 1024;
+
+  /**
+   * The maximum number of bytes to cache.
+   * <p>
+   * When the cache exceeds this size, the contents of the least valuable files are discarded.
+   * Defaults to {@link #DEFAULT_MAX_SIZE}.
+   *
+   * @param maxSize the maximum number of bytes to cache
+   * @return {@code this}
+   */
+  FileContentCacheSpec maxSize(long maxSize);
+
+  /**
+   * The maximum size of a file whose contents are cached.
+   * <p>
+   * Larger files are always served from the file system.
+   * Defaults to {@link #DEFAULT_MAX_FILE_SIZE}.
+   *
+   * @param maxFileSize the maximum size in bytes of a file whose contents are cached
+   * @return {@code this}
+   */
+  FileContentCacheSpec maxFileSize(int maxFileSize);
+
+  /**
+   * Whether to record the number of hits and misses of the cache.
+   * <p>
+   * Defaults to {@code false}.
+   *
+   * @param recordStats whether to record the number of hits and misses
+   * @return {@code this}
+   * @see FileContentCache#getHitCount()
+   * @see FileContentCache#getMissCount()
+   */
+  FileContentCacheSpec recordStats(boolean recordStats);
+
+}
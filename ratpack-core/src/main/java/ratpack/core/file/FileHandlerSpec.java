@@ -190,4 +190,114 @@ public interface FileHandlerSpec {
    */
   FileHandlerSpec indexFiles(String... indexFiles);
 
+  /**
+   * The content encodings of precompressed variants of files that may be served instead of the files, in order of preference.
+   * <p>
+   * A precompressed variant is a file next to the requested file, with an extra extension for its encoding.
+   * The supported encodings are {@code "br"} ({@code .br} files), {@code "zstd"} ({@code .zst} files) and {@code "gzip"} ({@code .gz} files).
+   * The first variant that exists for an encoding accepted by the request's {@code Accept-Encoding} header is served,
+   * with the content type of the requested file and the corresponding {@code Content-Encoding}.
+   * Encodings that the request accepts with a higher quality value are preferred.
+   * Variants are served as is, without any further compression.
+   * <p>
+   * Responses for files served by the handler vary by the {@code Accept-Encoding} header.
+   * When not in development, the existence of variants is cached along with the rest of the file metadata.
+   * By default, no variants are served.
+   *
+   * <pre class="java">{@code
+   * import ratpack.core.http.client.ReceivedResponse;
+   * import ratpack.test.embed.EphemeralBaseDir;
+   * import ratpack.test.embed.EmbeddedApp;
+   *
+   * import static org.junit.jupiter.api.Assertions.assertEquals;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     EphemeralBaseDir.tmpDir().use(baseDir -> {
+   *       baseDir.write("a.txt", "a");
+   *       baseDir.write("a.txt.br", "brotli compressed a");
+   *       EmbeddedApp.of(s -> s
+   *         .serverConfig(c -> c.baseDir(baseDir.getRoot()))
+   *         .handlers(c -> c
+   *           .files(f -> f.precompressed("br", "gzip"))
+   *         )
+   *       ).test(httpClient -> {
+   *         assertEquals("a", httpClient.getText("a.txt"));
+   *
+   *         httpClient.requestSpec(r -> r
+   *           .decompressResponse(false)
+   *           .headers(h -> h.set("Accept-Encoding", "gzip, br"))
+   *         );
+   *         ReceivedResponse response = httpClient.get("a.txt");
+   *         assertEquals("brotli compressed a", response.getBody().getText());
+   *         assertEquals("br", response.getHeaders().get("Content-Encoding"));
+   *         assertEquals("text/plain", response.getHeaders().get("Content-Type"));
+   *       });
+   *     });
+   *   }
+   * }
+   * }</pre>
+   *
+   * @param encodings the encodings of the variants, in order of preference
+   * @return {@code this}
+   * @throws IllegalArgumentException if an encoding is not supported
+   * @since 2.0
+   */
+  FileHandlerSpec precompressed(String... encodings);
+
+  /**
+   * A cache of file contents to serve small files from memory.
+   * <p>
+   * Files no larger than the cache's {@link FileContentCacheSpec#maxFileSize(int) maximum file size} are read into the cache when first served,
+   * and subsequently served from memory.
+   * Requests for ranges of files are always served from the file system.
+   * By default, file contents are not cached.
+   *
+   * <pre class="java">{@code
+   * import ratpack.core.file.FileContentCache;
+   * import ratpack.test.embed.EphemeralBaseDir;
+   * import ratpack.test.embed.EmbeddedApp;
+   *
+   * import static org.junit.jupiter.api.Assertions.assertEquals;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     FileContentCache cache = FileContentCache.of(c -> c.maxSize(1024 * 1024).recordStats(true));
+   *     EphemeralBaseDir.tmpDir().use(baseDir -> {
+   *       baseDir.write("a.txt", "a");
+   *       EmbeddedApp.of(s -> s
+   *         .serverConfig(c -> c.baseDir(baseDir.getRoot()))
+   *         .handlers(c -> c
+   *           .files(f -> f.contentCache(cache))
+   *         )
+   *       ).test(httpClient -> {
+   *         assertEquals("a", httpClient.getText("a.txt"));
+   *         assertEquals("a", httpClient.getText("a.txt"));
+   *         assertEquals(1, cache.getMissCount());
+   *         assertEquals(1, cache.getHitCount());
+   *       });
+   *     });
+   *   }
+   * }
+   * }</pre>
+   *
+   * @param contentCache the cache of file contents
+   * @return {@code this}
+   * @since 2.0
+   */
+  FileHandlerSpec contentCache(FileContentCache contentCache);
+
+  /**
+   * Creates a cache of file contents to serve small files from memory, that is used only by this handler.
+   *
+   * @param spec the configuration of the cache
+   * @return {@code this}
+   * @throws Exception any thrown by {@code spec}
+   * @see #contentCache(FileContentCache)
+   * @since 2.0
+   */
+  default FileHandlerSpec contentCache(Action<? super FileContentCacheSpec> spec) throws Exception {
+    return contentCache(FileContentCache.of(spec));
+  }
+
 }
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.file.internal;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import ratpack.core.bytebuf.internal.BufferCache;
+import ratpack.core.bytebuf.internal.CachedBuffer;
+import ratpack.core.file.FileContentCache;
+import ratpack.core.file.FileContentCacheSpec;
+import ratpack.exec.Blocking;
+import ratpack.exec.ExecController;
+import ratpack.exec.Promise;
+import ratpack.func.Action;
+import ratpack.func.Nullable;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.atomic.LongAdder;
+
+public class DefaultFileContentCache implements FileContentCache {
+
+  private final BufferCache<Path, Entry> cache;
+  private final int maxFileSize;
+  private final LongAdder hits;
+  private final LongAdder misses;
+
+  private DefaultFileContentCache(Spec spec) {
+    this.maxFileSize = spec.maxFileSize;
+    this.cache = new BufferCache<>(
+      Caffeine.newBuilder()
+        .maximumWeight(spec.maxSize)
+        .<Path, Entry>weigher((file, entry) -> entry.content.capacity()),
+      entry -> entry.content
+    );
+    this.hits = spec.recordStats ? new LongAdder() : null;
+    this.misses = spec.recordStats ? new LongAdder() : null;
+  }
+
+  public static DefaultFileContentCache of(Action<? super FileContentCacheSpec> spec) throws Exception {
+    return new DefaultFileContentCache(Action.with(new Spec(), spec));
+  }
+
+  public boolean isCacheable(BasicFileAttributes attributes) {
+    return attributes.size() <= maxFileSize;
+  }
+
+  /**
+   * The cached contents of the given file, if they are current with the given attributes.
+   *
+   * @return a retained duplicate of the cached contents, to be released by the caller, or {@code null}
+   */
+  @Nullable
+  public ByteBuf get(Path file, BasicFileAttributes attributes) {
+    Entry entry = cache.getCache().getIfPresent(file);
+    if (entry != null) {
+      if (entry.isCurrent(attributes)) {
+        ByteBuf content = entry.content.retainedDuplicate();
+        if (content != null) {
+          record(hits);
+          return content;
+        }
+      } else {
+        cache.getCache().asMap().remove(file, entry);
+      }
+    }
+    record(misses);
+    return null;
+  }
+
+  /**
+   * Reads the contents of the given file into the cache.
+   *
+   * @return a retained duplicate of the read contents, to be released by the caller
+   */
+  public Promise<ByteBuf> load(Path file, BasicFileAttributes attributes, ByteBufAllocator allocator) {
+    return Blocking.get(() -> read(file, (int) attributes.size(), allocator))
+      .map(content -> {
+        ByteBuf readOnly = content.asReadOnly();
+        ByteBuf duplicate = readOnly.retainedDuplicate();
+        cache.put(ExecController.require(), file, new Entry(new CachedBuffer(readOnly), attributes));
+        return duplicate;
+      });
+  }
+
+  private static ByteBuf read(Path file, int size, ByteBufAllocator allocator) throws IOException {
+    ByteBuf content = allocator.directBuffer(size, size);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long position = 0;
+      while (content.isWritable()) {
+        int read = content.writeBytes(channel, position, content.writableBytes());
+        if (read < 0) {
+          break;
+        }
+        position += read;
+      }
+    } catch (IOException | RuntimeException e) {
+      content.release();
+      throw e;
+    }
+    return content;
+  }
+
+  private static void record(@Nullable LongAdder counter) {
+    if (counter != null) {
+      counter.increment();
+    }
+  }
+
+  @Override
+  public long getHitCount() {
+    return hits == null ? 0 : hits.sum();
+  }
+
+  @Override
+  public long getMissCount() {
+    return misses == null ? 0 : misses.sum();
+  }
+
+  @Override
+  public long getSize() {
+    return cache.getWeightedSize();
+  }
+
+  @Override
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  private static final class Entry {
+
+    private final CachedBuffer content;
+    private final long lastModified;
+    private final long size;
+
+    Entry(CachedBuffer content, BasicFileAttributes attributes) {
+      this.content = content;
+      this.lastModified = attributes.lastModifiedTime().toMillis();
+      this.size = attributes.size();
+    }
+
+    boolean isCurrent(BasicFileAttributes attributes) {
+      return lastModified == attributes.lastModifiedTime().toMillis() && size == attributes.size();
+    }
+  }
+
+  private static final class Spec implements FileContentCacheSpec {
+
+    private long maxSize = DEFAULT_MAX_SIZE;
+    private int maxFileSize = DEFAULT_MAX_FILE_SIZE;
+    private boolean recordStats;
+
+    @Override
+    public FileContentCacheSpec maxSize(long maxSize) {
+      Preconditions.checkArgument(maxSize >= 0, "maxSize must be >= 0");
+      this.maxSize = maxSize;
+      return this;
+    }
+
+    @Override
+    public FileContentCacheSpec maxFileSize(int maxFileSize) {
+      Preconditions.checkArgument(maxFileSize >= 0, "maxFileSize must be >= 0");
+      this.maxFileSize = maxFileSize;
+      return this;
+    }
+
+    @Override
+    public FileContentCacheSpec recordStats(boolean recordStats) {
+      this.recordStats = recordStats;
+      return this;
+    }
+  }
+
+}
@@ -18,6 +18,7 @@ package ratpack.core.file.internal;
 
 import com.google.common.collect.ImmutableList;
 import ratpack.core.file.BaseDirRequiredException;
+import ratpack.core.file.FileContentCache;
 import ratpack.core.file.FileHandlerSpec;
 import ratpack.core.handling.Handler;
 import ratpack.core.handling.Handlers;
@@ -29,6 +30,8 @@ public class DefaultFileHandlerSpec implements FileHandlerSpec {
   private String path;
   private String dir;
   private ImmutableList<String> indexFiles = ImmutableList.of();
+  private ImmutableList<PrecompressedEncoding> precompressed = ImmutableList.of();
+  private DefaultFileContentCache contentCache;
 
   @Override
   public FileHandlerSpec path(String path) {
@@ -48,13 +51,29 @@ public class DefaultFileHandlerSpec implements FileHandlerSpec {
     return this;
   }
 
+  @Override
+  public FileHandlerSpec precompressed(String... encodings) {
+    ImmutableList.Builder<PrecompressedEncoding> builder = ImmutableList.builder();
+    for (String encoding : encodings) {
+      builder.add(PrecompressedEncoding.of(encoding));
+    }
+    this.precompressed = builder.build();
+    return this;
+  }
+
+  @Override
+  public FileHandlerSpec contentCache(FileContentCache contentCache) {
+    this.contentCache = (DefaultFileContentCache) contentCache;
+    return this;
+  }
+
   public static Handler build(ServerConfig serverConfig, Action<? super FileHandlerSpec> config) throws Exception {
     if (!serverConfig.isHasBaseDir()) {
       throw new BaseDirRequiredException("no base dir set for application");
     }
     DefaultFileHandlerSpec spec = new DefaultFileHandlerSpec();
     config.execute(spec);
-    Handler handler = new FileHandler(spec.indexFiles, !serverConfig.isDevelopment());
+    Handler handler = new FileHandler(spec.indexFiles, spec.precompressed, spec.contentCache, !serverConfig.isDevelopment());
     if (spec.dir != null) {
       handler = Handlers.fileSystem(serverConfig, spec.dir, handler);
     }
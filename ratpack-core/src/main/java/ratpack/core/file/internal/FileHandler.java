@@ -19,13 +19,19 @@ package ratpack.core.file.internal;
 import com.google.common.collect.ImmutableList;
 import io.netty.handler.codec.http.QueryStringDecoder;
 import io.netty.util.CharsetUtil;
+import ratpack.core.file.MimeTypes;
 import ratpack.core.handling.Context;
 import ratpack.core.handling.Handler;
 import ratpack.core.http.Request;
+import ratpack.core.http.Response;
+import ratpack.core.http.internal.HttpHeaderConstants;
 import ratpack.core.path.internal.PathBindingStorage;
+import ratpack.func.Nullable;
 
 import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
 
 import static io.netty.util.internal.StringUtil.EMPTY_STRING;
 import static ratpack.core.file.internal.FileRenderer.readAttributes;
@@ -34,10 +40,19 @@ import static ratpack.core.file.internal.FileRenderer.sendFile;
 public class FileHandler implements Handler {
 
   private final ImmutableList<String> indexFiles;
+  private final ImmutableList<PrecompressedEncoding> precompressed;
+  private final DefaultFileContentCache contentCache;
   private final boolean cacheMetadata;
 
-  public FileHandler(ImmutableList<String> indexFiles, boolean cacheMetadata) {
+  public FileHandler(
+    ImmutableList<String> indexFiles,
+    ImmutableList<PrecompressedEncoding> precompressed,
+    @Nullable DefaultFileContentCache contentCache,
+    boolean cacheMetadata
+  ) {
     this.indexFiles = indexFiles;
+    this.precompressed = precompressed;
+    this.contentCache = contentCache;
     this.cacheMetadata = cacheMetadata;
   }
 
@@ -59,7 +74,7 @@ public class FileHandler implements Handler {
         context.next();
       } else if (attributes.isRegularFile()) {
         if (context.getRequest().getMethod().isGet()) {
-          sendFile(context, file, attributes);
+          serveFile(context, file, attributes);
         } else {
           context.clientError(405);
         }
@@ -85,7 +100,7 @@ public class FileHandler implements Handler {
         if (attributes != null && attributes.isRegularFile()) {
           String path = context.getRequest().getPath();
           if (path.endsWith("/") || path.isEmpty()) {
-            sendFile(context, indexFile, attributes);
+            serveFile(context, indexFile, attributes);
           } else {
             context.redirect(currentUriWithTrailingSlash(context));
           }
@@ -96,6 +111,37 @@ public class FileHandler implements Handler {
     }
   }
 
+  private void serveFile(Context context, Path file, BasicFileAttributes attributes) throws Exception {
+    if (precompressed.isEmpty()) {
+      sendFile(context, file, attributes, contentCache);
+    } else {
+      context.getResponse().getHeaders().add(HttpHeaderConstants.VARY, HttpHeaderConstants.ACCEPT_ENCODING);
+      String acceptEncoding = context.getRequest().getHeaders().get(HttpHeaderConstants.ACCEPT_ENCODING);
+      maybeSendVariant(context, file, attributes, PrecompressedEncoding.acceptable(precompressed, acceptEncoding), 0);
+    }
+  }
+
+  // Variant lookups go through the same (cached) attribute reads as the files themselves
+  private void maybeSendVariant(Context context, Path file, BasicFileAttributes attributes, List<PrecompressedEncoding> encodings, int i) throws Exception {
+    if (i == encodings.size()) {
+      sendFile(context, file, attributes, contentCache);
+    } else {
+      PrecompressedEncoding encoding = encodings.get(i);
+      Path variant = file.resolveSibling(file.getFileName().toString() + encoding.getExtension());
+      readAttributes(variant, cacheMetadata, variantAttributes -> {
+        if (variantAttributes != null && variantAttributes.isRegularFile()) {
+          Response response = context.getResponse();
+          response.contentTypeIfNotSet(() -> context.get(MimeTypes.class).getContentType(file.getFileName().toString()));
+          // An existing content encoding means the response is sent as is, without compression
+          response.getHeaders().set(HttpHeaderConstants.CONTENT_ENCODING, encoding.getName());
+          sendFile(context, variant, variantAttributes, contentCache);
+        } else {
+          maybeSendVariant(context, file, attributes, encodings, i + 1);
+        }
+      });
+    }
+  }
+
   private String currentUriWithTrailingSlash(Context context) {
     Request request = context.getRequest();
     String redirectUri = "/" + request.getPath() + "/";
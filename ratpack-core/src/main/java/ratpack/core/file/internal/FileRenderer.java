@@ -19,10 +19,17 @@ package ratpack.core.file.internal;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.reflect.TypeToken;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import ratpack.core.file.MimeTypes;
 import ratpack.core.handling.Context;
+import ratpack.core.http.MutableHeaders;
+import ratpack.core.http.Request;
 import ratpack.core.http.Response;
+import ratpack.core.http.internal.ByteRange;
+import ratpack.core.http.internal.ByteRangesBody;
+import ratpack.core.http.internal.DefaultResponse;
 import ratpack.core.http.internal.HttpHeaderConstants;
 import ratpack.core.render.Renderer;
 import ratpack.core.render.RendererSupport;
@@ -30,15 +37,19 @@ import ratpack.exec.Blocking;
 import ratpack.func.Action;
 import ratpack.func.Factory;
 import ratpack.func.Exceptions;
+import ratpack.func.Nullable;
 import ratpack.func.Types;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 import static io.netty.handler.codec.http.HttpResponseStatus.NOT_MODIFIED;
+import static io.netty.handler.codec.http.HttpResponseStatus.PARTIAL_CONTENT;
+import static io.netty.handler.codec.http.HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE;
 
 public class FileRenderer extends RendererSupport<Path> {
 
@@ -67,6 +78,10 @@ public class FileRenderer extends RendererSupport<Path> {
   }
 
   public static void sendFile(Context context, Path file, BasicFileAttributes attributes) {
+    sendFile(context, file, attributes, null);
+  }
+
+  public static void sendFile(Context context, Path file, BasicFileAttributes attributes, @Nullable DefaultFileContentCache contentCache) {
     Date date = new Date(attributes.lastModifiedTime().toMillis());
 
     context.lastModified(date, () -> {
@@ -78,15 +93,81 @@ public class FileRenderer extends RendererSupport<Path> {
       }
 
       response.contentTypeIfNotSet(() -> context.get(MimeTypes.class).getContentType(file.getFileName().toString()));
-      response.getHeaders().set(HttpHeaderConstants.CONTENT_LENGTH, Long.toString(attributes.size()));
-      try {
-        response.sendFile(file);
-      } catch (Exception e) {
-        throw Exceptions.uncheck(e);
+
+      List<ByteRange> ranges = null;
+      if (response instanceof DefaultResponse) {
+        response.getHeaders().set(HttpHeaderConstants.ACCEPT_RANGES, HttpHeaderConstants.BYTES);
+        ranges = requestedRanges(context.getRequest(), date, attributes.size());
+      }
+
+      if (ranges == null) {
+        if (contentCache != null && contentCache.isCacheable(attributes)) {
+          sendContent(context, file, attributes, contentCache);
+          return;
+        }
+        response.getHeaders().set(HttpHeaderConstants.CONTENT_LENGTH, Long.toString(attributes.size()));
+        try {
+          response.sendFile(file);
+        } catch (Exception e) {
+          throw Exceptions.uncheck(e);
+        }
+      } else if (ranges.isEmpty()) {
+        response.getHeaders().set(HttpHeaderConstants.CONTENT_RANGE, ByteRange.unsatisfiedContentRange(attributes.size()));
+        response.status(REQUESTED_RANGE_NOT_SATISFIABLE.code()).send();
+      } else {
+        sendRanges((DefaultResponse) response, file, attributes.size(), ranges);
       }
     });
   }
 
+  private static void sendContent(Context context, Path file, BasicFileAttributes attributes, DefaultFileContentCache contentCache) {
+    ByteBuf content = contentCache.get(file, attributes);
+    if (content == null) {
+      contentCache.load(file, attributes, context.get(ByteBufAllocator.class))
+        .then(context.getResponse()::send);
+    } else {
+      context.getResponse().send(content);
+    }
+  }
+
+  // Ranges are only honoured for GET requests, and if the file has not changed since the client obtained the part it has
+  @Nullable
+  private static List<ByteRange> requestedRanges(Request request, Date lastModified, long size) {
+    String range = request.getHeaders().get(HttpHeaderConstants.RANGE);
+    if (range == null || !request.getMethod().isGet()) {
+      return null;
+    }
+
+    String ifRange = request.getHeaders().get(HttpHeaderConstants.IF_RANGE);
+    if (ifRange != null) {
+      // Entity tags can never match, as they are not sent for files
+      Date ifRangeDate = request.getHeaders().getDate(HttpHeaderConstants.IF_RANGE);
+      if (ifRangeDate == null || ifRangeDate.getTime() / 1000 != lastModified.getTime() / 1000) {
+        return null;
+      }
+    }
+
+    return ByteRange.parse(range, size);
+  }
+
+  private static void sendRanges(DefaultResponse response, Path file, long size, List<ByteRange> ranges) {
+    MutableHeaders headers = response.getHeaders();
+    ByteRangesBody body = ByteRangesBody.of(ranges, size, headers.get(HttpHeaderConstants.CONTENT_TYPE));
+    if (body.isMultipart()) {
+      headers.set(HttpHeaderConstants.CONTENT_TYPE, body.getMultipartContentType());
+    } else {
+      headers.set(HttpHeaderConstants.CONTENT_RANGE, body.getContentRange());
+    }
+    headers.set(HttpHeaderConstants.CONTENT_LENGTH, Long.toString(body.getContentLength()));
+
+    // The range applies to the file, so it must not be compressed (unless the file is itself compressed)
+    if (!headers.contains(HttpHeaderConstants.CONTENT_ENCODING)) {
+      response.noCompress();
+    }
+    response.status(PARTIAL_CONTENT.code());
+    response.sendFile(file, body);
+  }
+
   private static Factory<BasicFileAttributes> getter(Path file) {
     return () -> {
       if (Files.exists(file)) {
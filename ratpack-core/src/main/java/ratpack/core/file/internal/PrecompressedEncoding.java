@@ -0,0 +1,132 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.file.internal;
+
+import com.google.common.collect.ImmutableList;
+import ratpack.func.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A content coding of precompressed files, which are stored next to the original file with an extra extension.
+ */
+public enum PrecompressedEncoding {
+
+  BR("br", ".br"),
+  ZSTD("zstd", ".zst"),
+  GZIP("gzip", ".gz");
+
+  private final String name;
+  private final String extension;
+
+  PrecompressedEncoding(String name, String extension) {
+    this.name = name;
+    this.extension = extension;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+
+  public static PrecompressedEncoding of(String name) {
+    for (PrecompressedEncoding encoding : values()) {
+      if (encoding.name.equalsIgnoreCase(name)) {
+        return encoding;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported precompressed encoding '" + name + "', supported encodings are: br, zstd, gzip");
+  }
+
+  /**
+   * The given encodings that are acceptable according to the given {@code Accept-Encoding} header value.
+   * <p>
+   * Encodings are ordered by descending quality value, then by the order of the given encodings.
+   *
+   * @param encodings the encodings in order of preference
+   * @param acceptEncoding the value of the {@code Accept-Encoding} header
+   * @return the acceptable encodings, in order of preference
+   */
+  public static List<PrecompressedEncoding> acceptable(List<PrecompressedEncoding> encodings, @Nullable String acceptEncoding) {
+    if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+      return ImmutableList.of();
+    }
+
+    List<PrecompressedEncoding> acceptable = new ArrayList<>(encodings.size());
+    float[] qualities = new float[values().length];
+    for (PrecompressedEncoding encoding : encodings) {
+      float quality = quality(acceptEncoding, encoding.name);
+      if (quality > 0) {
+        qualities[encoding.ordinal()] = quality;
+        acceptable.add(encoding);
+      }
+    }
+    if (acceptable.size() > 1) {
+      acceptable.sort(Comparator.comparingDouble(encoding -> -qualities[encoding.ordinal()]));
+    }
+    return acceptable;
+  }
+
+  // The quality of the given coding, falling back to that of "*", or 0 if not accepted
+  private static float quality(String acceptEncoding, String coding) {
+    float wildcard = 0;
+    int pos = 0;
+    int length = acceptEncoding.length();
+    while (pos < length) {
+      int end = acceptEncoding.indexOf(',', pos);
+      if (end < 0) {
+        end = length;
+      }
+      int paramsStart = acceptEncoding.indexOf(';', pos);
+      int nameEnd = paramsStart < 0 || paramsStart > end ? end : paramsStart;
+      String name = acceptEncoding.substring(pos, nameEnd).trim();
+      if (name.equalsIgnoreCase(coding)) {
+        return parseQuality(acceptEncoding, nameEnd, end);
+      } else if (name.equals("*")) {
+        wildcard = parseQuality(acceptEncoding, nameEnd, end);
+      }
+      pos = end + 1;
+    }
+    return wildcard;
+  }
+
+  private static float parseQuality(String acceptEncoding, int start, int end) {
+    int pos = start;
+    while (pos < end) {
+      int paramEnd = acceptEncoding.indexOf(';', pos + 1);
+      if (paramEnd < 0 || paramEnd > end) {
+        paramEnd = end;
+      }
+      String param = acceptEncoding.substring(pos + 1, paramEnd).trim();
+      if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+        try {
+          return Float.parseFloat(param.substring(2));
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+      pos = paramEnd;
+    }
+    return 1;
+  }
+
+}
@@ -20,6 +20,8 @@ import ratpack.core.file.FileHandlerSpec;
 import ratpack.config.FileSystemBinding;
 import ratpack.core.file.internal.DefaultFileHandlerSpec;
 import ratpack.core.file.internal.FileSystemBindingHandler;
+import ratpack.core.http.ResponseCache;
+import ratpack.core.http.internal.ResponseCacheHandler;
 import ratpack.core.handling.internal.*;
 import ratpack.core.path.PathBinder;
 import ratpack.core.path.PathBinding;
@@ -28,8 +30,11 @@ import ratpack.core.server.ServerConfig;
 import ratpack.func.Nullable;
 import ratpack.func.Action;
 import ratpack.func.Block;
+import ratpack.func.Function;
 import ratpack.func.Predicate;
 import ratpack.exec.registry.Registry;
+import ratpack.exec.util.KeyedRateLimiter;
+import ratpack.exec.util.RateLimiter;
 
 import java.util.List;
 
@@ -65,6 +70,107 @@ public abstract class Handlers {
     return DefaultFileHandlerSpec.build(serverConfig, config);
   }
 
+  /**
+   * A handler that responds with cached responses where possible, and otherwise caches the response of the next handlers.
+   * <p>
+   * Responses to {@code GET} and {@code HEAD} requests are cached according to their {@code Cache-Control} headers.
+   * See {@link ResponseCache} for the details of what is cached and when cached responses are used.
+   * Note that any headers set by upstream handlers are cached along with the response.
+   *
+   * <pre class="java">{@code
+   * import ratpack.core.handling.Handlers;
+   * import ratpack.core.http.ResponseCache;
+   * import ratpack.test.embed.EmbeddedApp;
+   *
+   * import java.util.concurrent.atomic.AtomicInteger;
+   *
+   * import static org.junit.jupiter.api.Assertions.assertEquals;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     ResponseCache cache = ResponseCache.of(c -> c.maxSize(1024 * 1024));
+   *     AtomicInteger counter = new AtomicInteger();
+   *     EmbeddedApp.of(s -> s
+   *       .handlers(c -> c
+   *         .all(Handlers.cache(cache))
+   *         .get(ctx -> {
+   *           ctx.getResponse().getHeaders().set("Cache-Control", "max-age=60");
+   *           ctx.render(Integer.toString(counter.incrementAndGet()));
+   *         })
+   *       )
+   *     ).test(httpClient -> {
+   *       assertEquals("1", httpClient.getText());
+   *       assertEquals("1", httpClient.getText());
+   *     });
+   *   }
+   * }
+   * }</pre>
+   *
+   * @param cache the cache of responses
+   * @return a caching handler
+   * @since 2.0
+   */
+  public static Handler cache(ResponseCache cache) {
+    return new ResponseCacheHandler(cache);
+  }
+
+  /**
+   * A handler that limits the rate of requests that proceed to the next handler.
+   * <p>
+   * Requests wait for a permit from the given limiter, without blocking a thread.
+   * If a permit is not available within the limiter's {@link ratpack.exec.util.RateLimiterSpec#maxWait(java.time.Duration) maximum wait},
+   * a {@code Retry-After} header is set and a {@code 429} {@link Context#clientError(int) client error} is raised.
+   *
+   * <pre class="java">{@code
+   * import ratpack.core.handling.Handlers;
+   * import ratpack.exec.util.RateLimiter;
+   * import ratpack.test.embed.EmbeddedApp;
+   *
+   * import java.time.Duration;
+   *
+   * import static org.junit.jupiter.api.Assertions.assertEquals;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     RateLimiter limiter = RateLimiter.of(s -> s.rate(1, Duration.ofMinutes(1)));
+   *     EmbeddedApp.of(s -> s
+   *       .handlers(c -> c
+   *         .all(Handlers.rateLimit(limiter))
+   *         .get(ctx -> ctx.render("ok"))
+   *       )
+   *     ).test(httpClient -> {
+   *       assertEquals(200, httpClient.get().getStatusCode());
+   *       assertEquals(429, httpClient.get().getStatusCode());
+   *       assertEquals("60", httpClient.get().getHeaders().get("Retry-After"));
+   *     });
+   *   }
+   * }
+   * }</pre>
+   *
+   * @param limiter the rate limiter
+   * @return a rate limiting handler
+   * @since 2.0
+   */
+  public static Handler rateLimit(RateLimiter limiter) {
+    return new RateLimitHandler(ctx -> limiter);
+  }
+
+  /**
+   * A handler that limits the rate of requests that proceed to the next handler, per key.
+   * <p>
+   * The key function is called for each request, to determine the limiter to use, such as by tenant or client address.
+   * Otherwise, this behaves as {@link #rateLimit(RateLimiter)}.
+   *
+   * @param limiter the keyed rate limiter
+   * @param key the function that determines the key of a request
+   * @param <K> the type of key
+   * @return a rate limiting handler
+   * @since 2.0
+   */
+  public static <K> Handler rateLimit(KeyedRateLimiter<K> limiter, Function<? super Context, ? extends K> key) {
+    return new RateLimitHandler(ctx -> limiter.get(key.apply(ctx)));
+  }
+
   /**
    * Builds a handler chain, with no backing registry.
    *
@@ -87,7 +193,7 @@ public abstract class Handlers {
    * @throws Exception any thrown by {@code action}
    */
   public static Handler chain(@Nullable ServerConfig serverConfig, @Nullable Registry registry, Action<? super Chain> action) throws Exception {
-    return ChainBuilders.build(new ChainActionTransformer(serverConfig, registry), action);
+    return ChainBuilders.build(serverConfig, new ChainActionTransformer(serverConfig, registry), action);
   }
 
   /**
@@ -18,10 +18,13 @@ package ratpack.core.handling;
 
 import ratpack.core.http.Request;
 import ratpack.core.http.SentResponse;
+import ratpack.exec.ExecutionTiming;
+import ratpack.exec.ExecutionTimingInterceptor;
 import ratpack.func.Action;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Optional;
 
 /**
  * The outcome of processing a request.
@@ -67,4 +70,48 @@ public interface RequestOutcome {
     return Duration.between(getRequest().getTimestamp(), getSentAt());
   }
 
+  /**
+   * The timing of the execution that processed the request, if recorded by an {@link ExecutionTimingInterceptor}.
+   * <p>
+   * The timing includes all segments of the execution that completed before the response was sent,
+   * which typically is all of the processing of the request.
+   * If the execution continues after the response is sent, the timing continues to accumulate.
+   *
+   * <pre class="java">{@code
+   * import ratpack.exec.ExecutionTiming;
+   * import ratpack.exec.ExecutionTimingInterceptor;
+   * import ratpack.test.embed.EmbeddedApp;
+   *
+   * import java.util.concurrent.CompletableFuture;
+   *
+   * import static org.junit.jupiter.api.Assertions.assertEquals;
+   * import static org.junit.jupiter.api.Assertions.assertTrue;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     CompletableFuture<ExecutionTiming> timing = new CompletableFuture<>();
+   *     EmbeddedApp.of(s -> s
+   *       .registryOf(r -> r.add(ExecutionTimingInterceptor.instance()))
+   *       .handlers(c -> c
+   *         .all(ctx -> {
+   *           ctx.onClose(outcome -> timing.complete(outcome.getTiming().get()));
+   *           ctx.next();
+   *         })
+   *         .get(ctx -> ctx.render("ok"))
+   *       )
+   *     ).test(httpClient -> {
+   *       assertEquals("ok", httpClient.getText());
+   *       assertTrue(timing.get().getComputeSegmentCount() > 0);
+   *     });
+   *   }
+   * }
+   * }</pre>
+   *
+   * @return the timing of the execution that processed the request, or empty if timing is not being recorded
+   * @since 2.0
+   */
+  default Optional<ExecutionTiming> getTiming() {
+    return Optional.empty();
+  }
+
 }
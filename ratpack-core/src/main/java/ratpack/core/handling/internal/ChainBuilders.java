@@ -19,18 +19,25 @@ package ratpack.core.handling.internal;
 import com.google.common.collect.Lists;
 import ratpack.core.handling.Handler;
 import ratpack.core.handling.Handlers;
+import ratpack.core.path.internal.PathRoutingHandler;
+import ratpack.core.server.ServerConfig;
 import ratpack.func.Action;
 import ratpack.func.Function;
+import ratpack.func.Nullable;
 
 import java.util.List;
 
 public class ChainBuilders {
 
-  public static <T> Handler build(final Function<List<Handler>, ? extends T> toChainBuilder, final Action<? super T> chainBuilderAction) throws Exception {
+  public static <T> Handler build(@Nullable ServerConfig serverConfig, final Function<List<Handler>, ? extends T> toChainBuilder, final Action<? super T> chainBuilderAction) throws Exception {
     List<Handler> handlers = Lists.newLinkedList();
     T chainBuilder = toChainBuilder.apply(handlers);
     chainBuilderAction.execute(chainBuilder);
-    return Handlers.chain(handlers.toArray(new Handler[handlers.size()]));
+    Handler[] handlersArray = handlers.toArray(new Handler[handlers.size()]);
+    if (serverConfig != null && serverConfig.isCompiledRouting()) {
+      handlersArray = PathRoutingHandler.compile(handlersArray);
+    }
+    return Handlers.chain(handlersArray);
   }
 
 }
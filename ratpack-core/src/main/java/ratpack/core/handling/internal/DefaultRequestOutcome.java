@@ -19,19 +19,28 @@ package ratpack.core.handling.internal;
 import ratpack.core.handling.RequestOutcome;
 import ratpack.core.http.Request;
 import ratpack.core.http.SentResponse;
+import ratpack.exec.ExecutionTiming;
+import ratpack.func.Nullable;
 
 import java.time.Instant;
+import java.util.Optional;
 
 public class DefaultRequestOutcome implements RequestOutcome {
 
   private final Request request;
   private final SentResponse response;
   private final Instant sentAt;
+  private final ExecutionTiming timing;
 
   public DefaultRequestOutcome(Request request, SentResponse response, Instant sentAt) {
+    this(request, response, sentAt, null);
+  }
+
+  public DefaultRequestOutcome(Request request, SentResponse response, Instant sentAt, @Nullable ExecutionTiming timing) {
     this.request = request;
     this.response = response;
     this.sentAt = sentAt;
+    this.timing = timing;
   }
 
   @Override
@@ -48,4 +57,9 @@ public class DefaultRequestOutcome implements RequestOutcome {
   public Instant getSentAt() {
     return sentAt;
   }
+
+  @Override
+  public Optional<ExecutionTiming> getTiming() {
+    return Optional.ofNullable(timing);
+  }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.handling.internal;
+
+import ratpack.core.handling.Context;
+import ratpack.core.handling.Handler;
+import ratpack.core.http.Status;
+import ratpack.core.http.internal.HttpHeaderConstants;
+import ratpack.exec.util.RateLimitExceededException;
+import ratpack.exec.util.RateLimiter;
+import ratpack.func.Function;
+
+import java.util.concurrent.TimeUnit;
+
+public class RateLimitHandler implements Handler {
+
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final Function<? super Context, ? extends RateLimiter> limiter;
+
+  public RateLimitHandler(Function<? super Context, ? extends RateLimiter> limiter) {
+    this.limiter = limiter;
+  }
+
+  @Override
+  public void handle(Context ctx) throws Exception {
+    limiter.apply(ctx).acquire()
+      .onError(RateLimitExceededException.class, e -> {
+        // Retry-After is in whole seconds, so round up to avoid clients retrying too early
+        long seconds = Math.max(1, (e.getRetryAfter().toNanos() + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        ctx.getResponse().getHeaders().set(HttpHeaderConstants.RETRY_AFTER, Long.toString(seconds));
+        ctx.clientError(Status.TOO_MANY_REQUESTS.getCode());
+      })
+      .then(ctx::next);
+  }
+
+}
@@ -267,6 +267,19 @@ public interface Response {
    */
   Response noCompress();
 
+  /**
+   * Compresses the response regardless of its length and content type, if the client accepts a compressed response.
+   * <p>
+   * By default, responses are only compressed if they meet the server's {@link ratpack.core.server.ServerConfig#getCompressionMinLength() minimum length}
+   * and {@link ratpack.core.server.ServerConfig#getCompressionContentTypes() content types} for compression.
+   * This method overrides those criteria (and a previous call to {@link #noCompress()}) for this response.
+   * Responses are still only compressed with the server's {@link ratpack.core.server.ServerConfig#getCompressionEncodings() compression encodings}.
+   *
+   * @return {@code this}
+   * @since 2.0
+   */
+  Response forceCompress();
+
   /**
    * Forces the closing of the current connection, even if the client requested it to be kept alive.
    * <p>
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.http;
+
+import ratpack.core.handling.Handlers;
+import ratpack.core.http.internal.DefaultResponseCache;
+import ratpack.func.Action;
+
+/**
+ * An in memory cache of complete responses, used by {@link Handlers#cache(ResponseCache) caching handlers} to respond to requests without invoking downstream handlers.
+ * <p>
+ * Responses to {@code GET} and {@code HEAD} requests that are sent from memory, that is with one of the {@code send()} methods of {@link Response}, may be cached.
+ * Responses that are sent as files or streams are never cached.
+ * Whether and for how long a response is cached is determined by its {@code Cache-Control} header, as it would be by a shared cache:
+ * <ul>
+ *   <li>a response is only cached if it specifies a positive {@code s-maxage} or {@code max-age},
+ *   and does not specify {@code no-store}, {@code no-cache} or {@code private}</li>
+ *   <li>a response is not cached if it sets cookies, or varies by {@code *}</li>
+ *   <li>a response that specifies {@code stale-while-revalidate} continues to be served once stale for the given number of seconds, while a single request revalidates it</li>
+ * </ul>
+ * <p>
+ * Cached responses are keyed by request method and URI, and the values of the request headers named by the response's {@code Vary} header.
+ * Requests that include {@code Authorization} or that specify {@code no-store} are never served from the cache,
+ * and requests that specify {@code no-cache} are not served from the cache but may update it.
+ * Conditional requests with an {@code If-None-Match} header that matches the {@code ETag} of the cached response are responded to with a {@code 304}.
+ * <p>
+ * Response bodies are held in direct buffers, bounded by the total number of bytes cached.
+ * A cache may be shared by multiple caching handlers, as long as each handler has distinct downstream handlers for the same URIs.
+ *
+ * @see Handlers#cache(ResponseCache)
+ * @since 2.0
+ */
+public interface ResponseCache {
+
+  /**
+   * Creates a new cache.
+   *
+   * @param spec the configuration of the cache
+   * @return a new cache
+   * @throws Exception any thrown by {@code spec}
+   */
+  static ResponseCache of(Action<? super ResponseCacheSpec> spec) throws Exception {
+    return DefaultResponseCache.of(spec);
+  }
+
+  /**
+   * The number of times a request was responded to from the cache, including with stale responses.
+   * <p>
+   * Always 0 unless {@link ResponseCacheSpec#recordStats(boolean) recording of stats} is enabled.
+   *
+   * @return the number of cache hits
+   */
+  long getHitCount();
+
+  /**
+   * The number of times a request that may be responded to from the cache was passed to downstream handlers.
+   * <p>
+   * Always 0 unless {@link ResponseCacheSpec#recordStats(boolean) recording of stats} is enabled.
+   *
+   * @return the number of cache misses
+   */
+  long getMissCount();
+
+  /**
+   * The total number of bytes currently cached.
+   *
+   * @return the total number of bytes currently cached
+   */
+  long getSize();
+
+  /**
+   * Discards all cached responses.
+   */
+  void invalidateAll();
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.http;
+
+/**
+ * A specification of a {@link ResponseCache}.
+ *
+ * @see ResponseCache#of(ratpack.func.Action)
+ * @since 2.0
+ */
+public interface ResponseCacheSpec {
+
+  /**
+   * The default maximum number of bytes to cache, 64 MiB.
+   */
+  long DEFAULT_MAX_SIZE = 64 * 1024 * 1024;
+
+  /**
+   * The default maximum size of a response body that is cached, 1 MiB.
+   */
+  int DEFAULT_MAX_BODY_SIZE = 1024 * 1024;
+
+  /**
+   * The maximum number of bytes to cache.
+   * <p>
+   * The size of a cached response is that of its body and headers.
+   * When the cache exceeds this size, the least valuable responses are discarded.
+   * Defaults to {@link #DEFAULT_MAX_SIZE}.
+   *
+   * @param maxSize the maximum number of bytes to cache
+   * @return {@code this}
+   */
+  ResponseCacheSpec maxSize(long maxSize);
+
+  /**
+   * The maximum size of a response body that is cached.
+   * <p>
+   * Responses with larger bodies are never cached.
+   * Defaults to {@link #DEFAULT_MAX_BODY_SIZE}.
+   *
+   * @param maxBodySize the maximum size in bytes of a response body that is cached
+   * @return {@code this}
+   */
+  ResponseCacheSpec maxBodySize(int maxBodySize);
+
+  /**
+   * Whether to record the number of hits and misses of the cache.
+   * <p>
+   * Defaults to {@code false}.
+   *
+   * @param recordStats whether to record the number of hits and misses
+   * @return {@code this}
+   * @see ResponseCache#getHitCount()
+   * @see ResponseCache#getMissCount()
+   */
+  ResponseCacheSpec recordStats(boolean recordStats);
+
+}
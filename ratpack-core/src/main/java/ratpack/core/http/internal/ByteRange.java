@@ -0,0 +1,190 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.http.internal;
+
+import com.google.common.collect.ImmutableList;
+import ratpack.func.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A range of bytes of a representation, as requested via the {@code Range} header (RFC 7233).
+ */
+public final class ByteRange {
+
+  // Requests for more ranges than this are most likely abusive, so are served the full representation
+  public static final int MAX_RANGES = 32;
+
+  private static final String BYTES_UNIT = "bytes=";
+  private static final long INVALID = -2;
+
+  private final long start;
+  private final long end;
+
+  public ByteRange(long start, long end) {
+    this.start = start;
+    this.end = end;
+  }
+
+  /**
+   * The first byte of the range.
+   */
+  public long getStart() {
+    return start;
+  }
+
+  /**
+   * The last byte of the range, inclusive.
+   */
+  public long getEnd() {
+    return end;
+  }
+
+  public long getLength() {
+    return end - start + 1;
+  }
+
+  public String toContentRange(long size) {
+    return "bytes " + start + "-" + end + "/" + size;
+  }
+
+  public static String unsatisfiedContentRange(long size) {
+    return "bytes */" + size;
+  }
+
+  /**
+   * Parses the value of a {@code Range} header, for a representation of the given size.
+   * <p>
+   * The returned ranges are sorted, with overlapping and adjacent ranges coalesced.
+   *
+   * @param value the header value
+   * @param size the size of the representation
+   * @return the satisfiable ranges (empty if none are satisfiable), or {@code null} if the header is invalid and should be ignored
+   */
+  @Nullable
+  public static List<ByteRange> parse(String value, long size) {
+    if (!value.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+      return null;
+    }
+
+    List<ByteRange> ranges = new ArrayList<>(1);
+    int specs = 0;
+    int pos = BYTES_UNIT.length();
+    int length = value.length();
+    while (pos <= length) {
+      int specEnd = value.indexOf(',', pos);
+      if (specEnd < 0) {
+        specEnd = length;
+      }
+      String spec = value.substring(pos, specEnd).trim();
+      pos = specEnd + 1;
+      if (spec.isEmpty()) {
+        continue;
+      }
+      if (++specs > MAX_RANGES) {
+        return null;
+      }
+
+      int dash = spec.indexOf('-');
+      if (dash < 0) {
+        return null;
+      }
+
+      long first = dash == 0 ? -1 : parseLong(spec.substring(0, dash).trim());
+      long last = dash == spec.length() - 1 ? -1 : parseLong(spec.substring(dash + 1).trim());
+      if (first == INVALID || last == INVALID || first == -1 && last == -1) {
+        return null;
+      } else if (first == -1) {
+        // suffix range, for the last n bytes
+        if (last > 0 && size > 0) {
+          ranges.add(new ByteRange(Math.max(0, size - last), size - 1));
+        }
+      } else if (last != -1 && last < first) {
+        return null;
+      } else if (first < size) {
+        ranges.add(new ByteRange(first, last == -1 || last >= size ? size - 1 : last));
+      }
+    }
+
+    if (specs == 0) {
+      return null;
+    }
+    return coalesce(ranges);
+  }
+
+  private static List<ByteRange> coalesce(List<ByteRange> ranges) {
+    if (ranges.size() < 2) {
+      return ranges;
+    }
+
+    ranges.sort(Comparator.comparingLong(ByteRange::getStart));
+    ImmutableList.Builder<ByteRange> coalesced = ImmutableList.builder();
+    ByteRange current = ranges.get(0);
+    for (int i = 1; i < ranges.size(); ++i) {
+      ByteRange next = ranges.get(i);
+      if (next.start <= current.end + 1) {
+        current = new ByteRange(current.start, Math.max(current.end, next.end));
+      } else {
+        coalesced.add(current);
+        current = next;
+      }
+    }
+    return coalesced.add(current).build();
+  }
+
+  private static long parseLong(String value) {
+    if (value.isEmpty()) {
+      return INVALID;
+    }
+    for (int i = 0; i < value.length(); ++i) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return INVALID;
+      }
+    }
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      return INVALID;
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    ByteRange byteRange = (ByteRange) o;
+    return start == byteRange.start && end == byteRange.end;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Long.hashCode(start) + Long.hashCode(end);
+  }
+
+  @Override
+  public String toString() {
+    return start + "-" + end;
+  }
+}
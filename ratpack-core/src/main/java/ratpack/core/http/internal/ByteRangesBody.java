@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.http.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import ratpack.func.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The body of a partial content response, being one or more ranges of a file.
+ * <p>
+ * A single range is sent as is, while multiple ranges are sent as a {@code multipart/byteranges} body,
+ * where each range is preceded by a part header.
+ */
+public final class ByteRangesBody {
+
+  private static final String CRLF = "\r\n";
+
+  private final List<ByteRange> ranges;
+  private final long size;
+  private final String boundary;
+  private final String[] partHeaders;
+  private final String trailer;
+  private final long contentLength;
+
+  private ByteRangesBody(List<ByteRange> ranges, long size, @Nullable CharSequence partContentType) {
+    this.ranges = ranges;
+    this.size = size;
+
+    long contentLength = 0;
+    for (ByteRange range : ranges) {
+      contentLength += range.getLength();
+    }
+
+    if (ranges.size() == 1) {
+      this.boundary = null;
+      this.partHeaders = null;
+      this.trailer = null;
+    } else {
+      this.boundary = newBoundary();
+      this.partHeaders = new String[ranges.size()];
+      for (int i = 0; i < partHeaders.length; ++i) {
+        StringBuilder header = new StringBuilder();
+        if (i > 0) {
+          header.append(CRLF);
+        }
+        header.append("--").append(boundary).append(CRLF);
+        if (partContentType != null) {
+          header.append(HttpHeaderConstants.CONTENT_TYPE).append(": ").append(partContentType).append(CRLF);
+        }
+        header.append(HttpHeaderConstants.CONTENT_RANGE).append(": ").append(ranges.get(i).toContentRange(size)).append(CRLF).append(CRLF);
+        partHeaders[i] = header.toString();
+        contentLength += partHeaders[i].length();
+      }
+      this.trailer = CRLF + "--" + boundary + "--" + CRLF;
+      contentLength += trailer.length();
+    }
+
+    this.contentLength = contentLength;
+  }
+
+  /**
+   * Creates the body for the given ranges.
+   *
+   * @param ranges the ranges, which must be sorted and not overlap
+   * @param size the size of the file
+   * @param partContentType the content type of the file, used in the part headers of a multipart body
+   * @return the body
+   */
+  public static ByteRangesBody of(List<ByteRange> ranges, long size, @Nullable CharSequence partContentType) {
+    if (ranges.isEmpty()) {
+      throw new IllegalArgumentException("ranges must not be empty");
+    }
+    return new ByteRangesBody(ranges, size, partContentType);
+  }
+
+  private static String newBoundary() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    return Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong());
+  }
+
+  public List<ByteRange> getRanges() {
+    return ranges;
+  }
+
+  public boolean isMultipart() {
+    return boundary != null;
+  }
+
+  /**
+   * The value of the {@code Content-Type} header for a multipart body.
+   */
+  public String getMultipartContentType() {
+    return "multipart/byteranges; boundary=" + boundary;
+  }
+
+  /**
+   * The value of the {@code Content-Range} header for a single range body.
+   */
+  public String getContentRange() {
+    return ranges.get(0).toContentRange(size);
+  }
+
+  public long getContentLength() {
+    return contentLength;
+  }
+
+  @Nullable
+  public ByteBuf partHeader(int index) {
+    return partHeaders == null ? null : Unpooled.copiedBuffer(partHeaders[index], StandardCharsets.US_ASCII);
+  }
+
+  @Nullable
+  public ByteBuf trailer() {
+    return trailer == null ? null : Unpooled.copiedBuffer(trailer, StandardCharsets.US_ASCII);
+  }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.http.internal;
+
+import ratpack.func.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The directives of {@code Cache-Control} headers that are relevant to a shared cache.
+ */
+final class CacheControl {
+
+  private static final CacheControl NONE = new CacheControl(false, false, false, -1, -1, -1);
+
+  private final boolean noStore;
+  private final boolean noCache;
+  private final boolean isPrivate;
+  private final long maxAge;
+  private final long sMaxAge;
+  private final long staleWhileRevalidate;
+
+  private CacheControl(boolean noStore, boolean noCache, boolean isPrivate, long maxAge, long sMaxAge, long staleWhileRevalidate) {
+    this.noStore = noStore;
+    this.noCache = noCache;
+    this.isPrivate = isPrivate;
+    this.maxAge = maxAge;
+    this.sMaxAge = sMaxAge;
+    this.staleWhileRevalidate = staleWhileRevalidate;
+  }
+
+  static CacheControl parse(List<String> headerValues) {
+    if (headerValues.isEmpty()) {
+      return NONE;
+    }
+
+    boolean noStore = false;
+    boolean noCache = false;
+    boolean isPrivate = false;
+    long maxAge = -1;
+    long sMaxAge = -1;
+    long staleWhileRevalidate = -1;
+
+    for (String headerValue : headerValues) {
+      for (String directive : split(headerValue)) {
+        int equals = directive.indexOf('=');
+        String name = (equals < 0 ? directive : directive.substring(0, equals)).trim().toLowerCase(Locale.ROOT);
+        String argument = equals < 0 ? null : unquote(directive.substring(equals + 1).trim());
+        switch (name) {
+          case "no-store":
+            noStore = true;
+            break;
+          case "no-cache":
+            noCache = true;
+            break;
+          case "private":
+            isPrivate = true;
+            break;
+          case "max-age":
+            maxAge = seconds(argument, maxAge);
+            break;
+          case "s-maxage":
+            sMaxAge = seconds(argument, sMaxAge);
+            break;
+          case "stale-while-revalidate":
+            staleWhileRevalidate = seconds(argument, staleWhileRevalidate);
+            break;
+          default:
+            break;
+        }
+      }
+    }
+
+    return new CacheControl(noStore, noCache, isPrivate, maxAge, sMaxAge, staleWhileRevalidate);
+  }
+
+  // Splits on commas that are not within quoted strings
+  private static List<String> split(String headerValue) {
+    List<String> directives = new ArrayList<>(2);
+    boolean quoted = false;
+    int start = 0;
+    for (int i = 0; i < headerValue.length(); ++i) {
+      char c = headerValue.charAt(i);
+      if (c == '"') {
+        quoted = !quoted;
+      } else if (c == ',' && !quoted) {
+        directives.add(headerValue.substring(start, i));
+        start = i + 1;
+      }
+    }
+    directives.add(headerValue.substring(start));
+    return directives;
+  }
+
+  private static String unquote(String argument) {
+    if (argument.length() >= 2 && argument.charAt(0) == '"' && argument.charAt(argument.length() - 1) == '"') {
+      return argument.substring(1, argument.length() - 1);
+    }
+    return argument;
+  }
+
+  private static long seconds(@Nullable String argument, long defaultValue) {
+    if (argument == null) {
+      return defaultValue;
+    }
+    try {
+      return Math.max(0, Long.parseLong(argument));
+    } catch (NumberFormatException e) {
+      // an invalid value makes the response stale
+      return 0;
+    }
+  }
+
+  boolean isNoStore() {
+    return noStore;
+  }
+
+  boolean isNoCache() {
+    return noCache;
+  }
+
+  boolean isPrivate() {
+    return isPrivate;
+  }
+
+  /**
+   * The number of seconds a response is fresh for a shared cache, or -1 if not specified.
+   */
+  long getSharedMaxAge() {
+    return sMaxAge >= 0 ? sMaxAge : maxAge;
+  }
+
+  /**
+   * The number of seconds a stale response may be served while it is revalidated, or -1 if not specified.
+   */
+  long getStaleWhileRevalidate() {
+    return staleWhileRevalidate;
+  }
+
+}
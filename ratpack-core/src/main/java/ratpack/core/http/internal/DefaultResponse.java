@@ -62,6 +62,7 @@ public class DefaultResponse implements Response {
   private boolean contentTypeSet;
   private Set<Cookie> cookies;
   private List<Action<? super Response>> responseFinalizers;
+  private List<Consumer<? super ByteBuf>> bodyListeners;
 
   public DefaultResponse(MutableHeaders headers, ByteBufAllocator byteBufAllocator, ResponseTransmitter responseTransmitter, RequestIdleTimeout requestIdleTimeout) {
     this.byteBufAllocator = byteBufAllocator;
@@ -217,6 +218,15 @@ public class DefaultResponse implements Response {
     return this;
   }
 
+  @Override
+  public Response forceCompress() {
+    if (HttpHeaderValues.IDENTITY.contentEqualsIgnoreCase(headers.get(HttpHeaderNames.CONTENT_ENCODING))) {
+      headers.remove(HttpHeaderNames.CONTENT_ENCODING);
+    }
+    responseTransmitter.forceCompress();
+    return this;
+  }
+
   @Override
   public MutableHeaders getHeaders() {
     return headers;
@@ -286,6 +296,16 @@ public class DefaultResponse implements Response {
     });
   }
 
+  // Sends ranges of the file, the headers for which must have already been set
+  public void sendFile(Path file, ByteRangesBody ranges) {
+    finalizeResponse(() -> {
+      setCookieHeader();
+      responseTransmitter.transmit(status.getNettyStatus(), file, ranges);
+    }, t -> {
+      throw t;
+    });
+  }
+
   @Override
   public void sendStream(Publisher<? extends ByteBuf> stream) {
     sendStream(stream, true);
@@ -304,6 +324,16 @@ public class DefaultResponse implements Response {
     });
   }
 
+  // Receives the body of a response sent from memory, after the response has been finalized and before it is transmitted.
+  // The listener must not release the body.
+  // Listeners are called in the order they were registered.
+  public void onCommit(Consumer<? super ByteBuf> bodyListener) {
+    if (bodyListeners == null) {
+      bodyListeners = Lists.newArrayListWithCapacity(1);
+    }
+    bodyListeners.add(bodyListener);
+  }
+
   @Override
   public Response beforeSend(Action<? super Response> responseFinalizer) {
     responseFinalizers.add(responseFinalizer);
@@ -356,6 +386,11 @@ public class DefaultResponse implements Response {
     }
     finalizeResponse(() -> {
       setCookieHeader();
+      if (bodyListeners != null) {
+        for (Consumer<? super ByteBuf> bodyListener : bodyListeners) {
+          bodyListener.accept(buffer);
+        }
+      }
       responseTransmitter.transmit(status.getNettyStatus(), buffer);
     }, t -> {
       buffer.release();
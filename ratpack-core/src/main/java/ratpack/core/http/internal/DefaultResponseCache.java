@@ -0,0 +1,327 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.http.internal;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import ratpack.core.bytebuf.internal.BufferCache;
+import ratpack.core.bytebuf.internal.CachedBuffer;
+import ratpack.core.http.Headers;
+import ratpack.core.http.ResponseCache;
+import ratpack.core.http.ResponseCacheSpec;
+import ratpack.core.http.Status;
+import ratpack.exec.ExecController;
+import ratpack.func.Action;
+import ratpack.func.Nullable;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+public class DefaultResponseCache implements ResponseCache {
+
+  private static final int MAX_VARYING_RESOURCES = 10_000;
+
+  // The statuses that are cacheable by default, when the response has an explicit freshness lifetime
+  private static final Set<Integer> CACHEABLE_STATUSES = ImmutableSet.of(200, 203, 204, 300, 301, 308, 404, 405, 410, 414, 501);
+
+  private static final Set<String> UNCACHED_HEADERS = ImmutableSet.of(
+    HttpHeaderConstants.CONTENT_LENGTH.toString(),
+    HttpHeaderConstants.TRANSFER_ENCODING.toString(),
+    HttpHeaderConstants.CONNECTION.toString(),
+    HttpHeaderConstants.AGE.toString(),
+    "keep-alive"
+  );
+
+  private final BufferCache<String, Entry> cache;
+  private final Cache<String, List<String>> varyingHeaders;
+  private final int maxBodySize;
+  private final LongAdder hits;
+  private final LongAdder misses;
+
+  private DefaultResponseCache(Spec spec) {
+    this.maxBodySize = spec.maxBodySize;
+    this.cache = new BufferCache<>(
+      Caffeine.newBuilder()
+        .maximumWeight(spec.maxSize)
+        .<String, Entry>weigher((key, entry) -> entry.weight)
+        .expireAfter(new Expiry<String, Entry>() {
+          @Override
+          public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return entry.lifetime;
+          }
+
+          @Override
+          public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return entry.lifetime;
+          }
+
+          @Override
+          public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        }),
+      entry -> entry.body
+    );
+    this.varyingHeaders = Caffeine.newBuilder()
+      .maximumSize(MAX_VARYING_RESOURCES)
+      .build();
+    this.hits = spec.recordStats ? new LongAdder() : null;
+    this.misses = spec.recordStats ? new LongAdder() : null;
+  }
+
+  public static DefaultResponseCache of(Action<? super ResponseCacheSpec> spec) throws Exception {
+    return new DefaultResponseCache(Action.with(new Spec(), spec));
+  }
+
+  /**
+   * The cached response for the given resource, that matches the given request headers.
+   *
+   * @param resource the request method and URI
+   * @param requestHeaders the headers of the request
+   * @return the cached response, or {@code null}
+   */
+  @Nullable
+  Entry get(String resource, Headers requestHeaders) {
+    List<String> vary = varyingHeaders.getIfPresent(resource);
+    return cache.getCache().getIfPresent(key(resource, vary == null ? ImmutableList.of() : vary, requestHeaders));
+  }
+
+  /**
+   * Caches the given response, if it is cacheable.
+   *
+   * @param resource the request method and URI
+   * @param requestHeaders the headers of the request
+   * @param status the status of the response
+   * @param responseHeaders the finalized headers of the response
+   * @param body the body of the response, which is not released
+   * @param allocator the allocator for the cached copy of the body
+   */
+  void put(String resource, Headers requestHeaders, Status status, HttpHeaders responseHeaders, ByteBuf body, ByteBufAllocator allocator) {
+    int bodySize = body.readableBytes();
+    if (bodySize > maxBodySize || !CACHEABLE_STATUSES.contains(status.getCode()) || responseHeaders.contains(HttpHeaderConstants.SET_COOKIE)) {
+      return;
+    }
+
+    CacheControl cacheControl = CacheControl.parse(responseHeaders.getAll(HttpHeaderConstants.CACHE_CONTROL));
+    long maxAge = cacheControl.getSharedMaxAge();
+    if (cacheControl.isNoStore() || cacheControl.isNoCache() || cacheControl.isPrivate() || maxAge <= 0) {
+      return;
+    }
+
+    List<String> vary = vary(responseHeaders.getAll(HttpHeaderConstants.VARY));
+    if (vary == null) {
+      return;
+    }
+
+    String key = key(resource, vary, requestHeaders);
+    HttpHeaders headers = new DefaultHttpHeaders(false);
+    int weight = key.length() + bodySize;
+    for (Map.Entry<String, String> header : responseHeaders) {
+      if (!UNCACHED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+        headers.add(header.getKey(), header.getValue());
+        weight += header.getKey().length() + header.getValue().length();
+      }
+    }
+
+    ByteBuf copy = allocator.directBuffer(bodySize, bodySize);
+    copy.writeBytes(body, body.readerIndex(), bodySize);
+
+    long staleWhileRevalidate = Math.max(0, cacheControl.getStaleWhileRevalidate());
+    Entry entry = new Entry(status, headers, new CachedBuffer(copy.asReadOnly()), weight, TimeUnit.SECONDS.toNanos(maxAge), TimeUnit.SECONDS.toNanos(staleWhileRevalidate));
+
+    if (vary.isEmpty()) {
+      varyingHeaders.invalidate(resource);
+    } else {
+      varyingHeaders.put(resource, vary);
+    }
+    cache.put(ExecController.require(), key, entry);
+  }
+
+  // The normalised names of the headers that a response varies by, or null if it varies by anything
+  @Nullable
+  private static List<String> vary(List<String> headerValues) {
+    if (headerValues.isEmpty()) {
+      return ImmutableList.of();
+    }
+    Set<String> names = new TreeSet<>();
+    for (String headerValue : headerValues) {
+      for (String name : headerValue.split(",")) {
+        name = name.trim().toLowerCase(Locale.ROOT);
+        if (name.equals("*")) {
+          return null;
+        } else if (!name.isEmpty()) {
+          names.add(name);
+        }
+      }
+    }
+    return ImmutableList.copyOf(names);
+  }
+
+  private static String key(String resource, List<String> vary, Headers requestHeaders) {
+    if (vary.isEmpty()) {
+      return resource;
+    }
+    StringBuilder key = new StringBuilder(resource);
+    for (String name : vary) {
+      key.append('\n').append(name).append(':').append(String.join(",", requestHeaders.getAll(name)));
+    }
+    return key.toString();
+  }
+
+  void hit() {
+    record(hits);
+  }
+
+  void miss() {
+    record(misses);
+  }
+
+  private static void record(@Nullable LongAdder counter) {
+    if (counter != null) {
+      counter.increment();
+    }
+  }
+
+  @Override
+  public long getHitCount() {
+    return hits == null ? 0 : hits.sum();
+  }
+
+  @Override
+  public long getMissCount() {
+    return misses == null ? 0 : misses.sum();
+  }
+
+  @Override
+  public long getSize() {
+    return cache.getWeightedSize();
+  }
+
+  @Override
+  public void invalidateAll() {
+    cache.invalidateAll();
+    varyingHeaders.invalidateAll();
+  }
+
+  static final class Entry {
+
+    private final Status status;
+    private final HttpHeaders headers;
+    private final CachedBuffer body;
+    private final int weight;
+    private final long storedAt;
+    private final long freshFor;
+    private final long lifetime;
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+
+    Entry(Status status, HttpHeaders headers, CachedBuffer body, int weight, long freshFor, long staleFor) {
+      this.status = status;
+      this.headers = headers;
+      this.body = body;
+      this.weight = weight;
+      this.storedAt = System.nanoTime();
+      this.freshFor = freshFor;
+      this.lifetime = freshFor + staleFor;
+    }
+
+    Status getStatus() {
+      return status;
+    }
+
+    HttpHeaders getHeaders() {
+      return headers;
+    }
+
+    @Nullable
+    String getETag() {
+      return headers.get(HttpHeaderConstants.ETAG);
+    }
+
+    /**
+     * A retained duplicate of the body, to be released by the caller, or {@code null} if the entry was concurrently evicted.
+     */
+    @Nullable
+    ByteBuf retainedBody() {
+      return body.retainedDuplicate();
+    }
+
+    long getAgeSeconds(long now) {
+      return TimeUnit.NANOSECONDS.toSeconds(now - storedAt);
+    }
+
+    boolean isFresh(long now) {
+      return now - storedAt < freshFor;
+    }
+
+    boolean isServableWhileRevalidating(long now) {
+      return now - storedAt < lifetime;
+    }
+
+    /**
+     * Whether the caller should revalidate this entry, which is true for only one caller until {@link #revalidated()}.
+     */
+    boolean tryRevalidate() {
+      return revalidating.compareAndSet(false, true);
+    }
+
+    void revalidated() {
+      revalidating.set(false);
+    }
+  }
+
+  private static final class Spec implements ResponseCacheSpec {
+
+    private long maxSize = DEFAULT_MAX_SIZE;
+    private int maxBodySize = DEFAULT_MAX_BODY_SIZE;
+    private boolean recordStats;
+
+    @Override
+    public ResponseCacheSpec maxSize(long maxSize) {
+      Preconditions.checkArgument(maxSize >= 0, "maxSize must be >= 0");
+      this.maxSize = maxSize;
+      return this;
+    }
+
+    @Override
+    public ResponseCacheSpec maxBodySize(int maxBodySize) {
+      Preconditions.checkArgument(maxBodySize >= 0, "maxBodySize must be >= 0");
+      this.maxBodySize = maxBodySize;
+      return this;
+    }
+
+    @Override
+    public ResponseCacheSpec recordStats(boolean recordStats) {
+      this.recordStats = recordStats;
+      return this;
+    }
+  }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.http.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.http.HttpHeaders;
+import ratpack.core.handling.Context;
+import ratpack.core.handling.Handler;
+import ratpack.core.http.HttpMethod;
+import ratpack.core.http.MutableHeaders;
+import ratpack.core.http.Request;
+import ratpack.core.http.Response;
+import ratpack.core.http.ResponseCache;
+import ratpack.core.http.Status;
+import ratpack.func.Nullable;
+
+import java.util.List;
+
+public class ResponseCacheHandler implements Handler {
+
+  private final DefaultResponseCache cache;
+
+  public ResponseCacheHandler(ResponseCache cache) {
+    this.cache = (DefaultResponseCache) cache;
+  }
+
+  @Override
+  public void handle(Context ctx) throws Exception {
+    Request request = ctx.getRequest();
+    HttpMethod method = request.getMethod();
+    if (!(method.isGet() || method.isHead()) || !(ctx.getResponse() instanceof DefaultResponse) || request.getHeaders().contains(HttpHeaderConstants.AUTHORIZATION)) {
+      ctx.next();
+      return;
+    }
+
+    CacheControl cacheControl = CacheControl.parse(request.getHeaders().getAll(HttpHeaderConstants.CACHE_CONTROL));
+    if (cacheControl.isNoStore()) {
+      ctx.next();
+      return;
+    }
+
+    String resource = method.getName() + " " + request.getRawUri();
+    if (!cacheControl.isNoCache()) {
+      DefaultResponseCache.Entry entry = cache.get(resource, request.getHeaders());
+      if (entry != null) {
+        long now = System.nanoTime();
+        if (entry.isFresh(now)) {
+          if (send(ctx, entry, now)) {
+            return;
+          }
+        } else if (entry.isServableWhileRevalidating(now)) {
+          // The first request for a stale response revalidates it, while other requests are served the stale response
+          if (entry.tryRevalidate()) {
+            ctx.onClose(outcome -> entry.revalidated());
+          } else if (send(ctx, entry, now)) {
+            return;
+          }
+        }
+      }
+    }
+
+    cache.miss();
+    DefaultResponse response = (DefaultResponse) ctx.getResponse();
+    ByteBufAllocator allocator = ctx.get(ByteBufAllocator.class);
+    response.onCommit(body ->
+      cache.put(resource, request.getHeaders(), response.getStatus(), response.getHeaders().getNettyHeaders(), body, allocator)
+    );
+    ctx.next();
+  }
+
+  private boolean send(Context ctx, DefaultResponseCache.Entry entry, long now) {
+    ByteBuf body = entry.retainedBody();
+    if (body == null) {
+      return false;
+    }
+
+    cache.hit();
+    Response response = ctx.getResponse();
+    MutableHeaders headers = response.getHeaders();
+    HttpHeaders cachedHeaders = entry.getHeaders();
+    for (String name : cachedHeaders.names()) {
+      headers.set(name, cachedHeaders.getAll(name));
+    }
+    headers.set(HttpHeaderConstants.AGE, entry.getAgeSeconds(now));
+
+    if (entry.getStatus().getCode() == 200 && matches(entry.getETag(), ctx.getRequest().getHeaders().getAll(HttpHeaderConstants.IF_NONE_MATCH))) {
+      body.release();
+      response.status(Status.NOT_MODIFIED).send();
+    } else {
+      response.status(entry.getStatus()).send(body);
+    }
+    return true;
+  }
+
+  // Weak comparison, as for If-None-Match
+  private static boolean matches(@Nullable String etag, List<String> ifNoneMatch) {
+    if (etag == null || ifNoneMatch.isEmpty()) {
+      return false;
+    }
+    String opaqueTag = opaqueTag(etag);
+    for (String headerValue : ifNoneMatch) {
+      for (String candidate : headerValue.split(",")) {
+        candidate = candidate.trim();
+        if (candidate.equals("*") || opaqueTag(candidate).equals(opaqueTag)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static String opaqueTag(String etag) {
+    return etag.startsWith("W/") ? etag.substring(2) : etag;
+  }
+
+}
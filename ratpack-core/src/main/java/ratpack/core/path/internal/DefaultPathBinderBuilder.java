@@ -30,6 +30,8 @@ public class DefaultPathBinderBuilder implements PathBinderBuilder {
   private final ImmutableList.Builder<String> tokensBuilder = ImmutableList.builder();
   private final StringBuilder pattern = new StringBuilder();
   private final StringBuilder description = new StringBuilder();
+  private final PathRoute.Builder route = new PathRoute.Builder();
+  private final PathSegmentMatcher.Builder matcher = new PathSegmentMatcher.Builder();
   private boolean addedOptional;
   private boolean addedToken;
 
@@ -40,6 +42,8 @@ public class DefaultPathBinderBuilder implements PathBinderBuilder {
     addedToken = true;
     tokensBuilder.add(token);
     this.pattern.append(String.format("(?:(?:^|/)(%s))", pattern));
+    route.unroutable();
+    matcher.unsupported();
     appendDescriptionSegment(":").append(token).append(":").append(pattern);
     return this;
   }
@@ -49,6 +53,8 @@ public class DefaultPathBinderBuilder implements PathBinderBuilder {
     addedToken = true;
     tokensBuilder.add(token);
     this.pattern.append(String.format("(?:(?:^|/)(%s))?", pattern));
+    route.unroutable();
+    matcher.unsupported();
     appendDescriptionSegment(":").append(token).append("?:").append(pattern);
     return this;
   }
@@ -60,6 +66,8 @@ public class DefaultPathBinderBuilder implements PathBinderBuilder {
     addedToken = true;
     tokensBuilder.add(token);
     pattern.append("(?:(?:^|/)([^/?&#]+))");
+    route.token();
+    matcher.token();
     appendDescriptionSegment(":").append(token);
     return this;
   }
@@ -69,12 +77,16 @@ public class DefaultPathBinderBuilder implements PathBinderBuilder {
     addedToken = true;
     tokensBuilder.add(token);
     pattern.append("(?:(?:^|/)([^/?&#]*))?");
+    route.unroutable();
+    matcher.optionalToken();
     appendDescriptionSegment(":").append(token).append("?");
     return this;
   }
 
   public PathBinderBuilder literalPattern(String pattern) {
     this.pattern.append("(?:(?:^|/)").append("(?:").append(pattern).append("))");
+    route.unroutable();
+    matcher.unsupported();
     appendDescriptionSegment("::").append(pattern);
     return this;
   }
@@ -82,6 +94,8 @@ public class DefaultPathBinderBuilder implements PathBinderBuilder {
   public PathBinderBuilder literal(String literal) {
     this.pattern.append("\\Q").append(literal).append("\\E");
     this.description.append(literal);
+    route.literal(literal);
+    matcher.literal(literal);
     return this;
   }
 
@@ -95,7 +109,7 @@ public class DefaultPathBinderBuilder implements PathBinderBuilder {
   public PathBinder build(boolean exhaustive) {
     String regex = (addedToken ? "(\\Q\\E" : "(") + pattern + (addedToken ? "\\Q\\E)" : ")") + (exhaustive ? "(?:/|$)" : "(?:/.*)?");
     Pattern compiled = Pattern.compile(regex);
-    return new TokenPathBinder(tokensBuilder.build(), description.toString(), compiled);
+    return new TokenPathBinder(tokensBuilder.build(), description.toString(), compiled, route.build(exhaustive), matcher.build(exhaustive));
   }
 
   public static PathBinder parse(String path, boolean exact) {
@@ -31,6 +31,15 @@ public class DefaultPathBinding implements PathBinding {
   private final PathTokens tokens;
   private final PathTokens allTokens;
 
+  public DefaultPathBinding(String binding, String pastBinding, PathTokens tokens, PathBinding parent, String description) {
+    this.binding = binding;
+    this.pastBinding = pastBinding;
+    this.parent = parent;
+    this.description = description;
+    this.tokens = tokens;
+    this.allTokens = mergeTokens(tokens, parent.getAllTokens());
+  }
+
   public DefaultPathBinding(String binding, ImmutableMap<String, String> tokens, PathBinding parent, String description) {
     this.binding = binding;
     this.parent = parent;
@@ -51,6 +51,10 @@ public class PathHandler implements Handler {
     this.handler = withPop;
   }
 
+  public PathBinder getBinder() {
+    return binder;
+  }
+
   public void handle(Context ctx) throws ExecutionException {
     PathBindingStorage pathBindings = ctx.getExecution().get(PathBindingStorage.TYPE);
     PathBinding pathBinding = pathBindings.peek();
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.path.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The leading path segments that a path must have to be bound by a binder.
+ * <p>
+ * Each segment is either a literal value, or {@code null} for a token that binds any single non empty segment.
+ * If the route is complete, a path must have exactly these segments (optionally followed by a trailing slash) to be bound.
+ * Otherwise, the binder may bind any path that starts with these segments.
+ */
+public final class PathRoute {
+
+  public static final PathRoute UNKNOWN = new PathRoute(Collections.emptyList(), false);
+
+  private final List<String> segments;
+  private final boolean complete;
+
+  private PathRoute(List<String> segments, boolean complete) {
+    this.segments = segments;
+    this.complete = complete;
+  }
+
+  public List<String> getSegments() {
+    return segments;
+  }
+
+  public boolean isComplete() {
+    return complete;
+  }
+
+  static class Builder {
+
+    private final List<String> segments = new ArrayList<>();
+    private final StringBuilder literal = new StringBuilder();
+    private boolean incomplete;
+
+    void literal(String literal) {
+      if (!incomplete) {
+        this.literal.append(literal);
+      }
+    }
+
+    void token() {
+      flushLiteral();
+      if (!incomplete) {
+        segments.add(null);
+      }
+    }
+
+    // Optional tokens and patterns may bind empty or multiple segments, so cannot be routed
+    void unroutable() {
+      flushLiteral();
+      incomplete = true;
+    }
+
+    PathRoute build(boolean exhaustive) {
+      flushLiteral();
+      return new PathRoute(Collections.unmodifiableList(new ArrayList<>(segments)), exhaustive && !incomplete);
+    }
+
+    private void flushLiteral() {
+      if (incomplete || literal.length() == 0) {
+        return;
+      }
+
+      String value = literal.toString();
+      literal.setLength(0);
+
+      // Tokens bind the separator before their value, so literals after tokens must start with one to start a new segment
+      int start = 0;
+      if (!segments.isEmpty()) {
+        if (value.charAt(0) != '/') {
+          incomplete = true;
+          return;
+        }
+        start = 1;
+      }
+
+      while (start <= value.length()) {
+        int end = value.indexOf('/', start);
+        if (end < 0) {
+          end = value.length();
+        }
+        if (end == start) {
+          incomplete = true;
+          return;
+        }
+        segments.add(value.substring(start, end));
+        start = end + 1;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.path.internal;
+
+import com.google.common.primitives.Ints;
+import ratpack.core.handling.Context;
+import ratpack.core.handling.Handler;
+import ratpack.core.path.PathBinder;
+import ratpack.core.path.PathBinding;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes requests to consecutive path handlers of a chain via a tree of path segments.
+ * <p>
+ * The tree is only used to narrow down the path handlers that may bind the request path.
+ * The candidates are inserted in their original order and still bind the path themselves,
+ * which means that routing is equivalent to trying each path handler in turn.
+ */
+public class PathRoutingHandler implements Handler {
+
+  private static final Handler[] NO_HANDLERS = new Handler[0];
+
+  private final PathHandler[] handlers;
+  private final Node root = new Node();
+
+  private PathRoutingHandler(List<PathHandler> handlers) {
+    this.handlers = handlers.toArray(new PathHandler[0]);
+    for (int i = 0; i < this.handlers.length; ++i) {
+      PathBinder binder = this.handlers[i].getBinder();
+      PathRoute route = binder instanceof TokenPathBinder ? ((TokenPathBinder) binder).getRoute() : PathRoute.UNKNOWN;
+      root.add(route, 0, i);
+    }
+    root.seal();
+  }
+
+  /**
+   * Replaces each run of consecutive path handlers in the given handlers with a routing handler.
+   *
+   * @param handlers the handlers of a chain
+   * @return the handlers to use for the chain
+   */
+  public static Handler[] compile(Handler[] handlers) {
+    List<Handler> compiled = new ArrayList<>(handlers.length);
+    List<PathHandler> run = new ArrayList<>();
+    for (Handler handler : handlers) {
+      if (handler instanceof PathHandler) {
+        run.add((PathHandler) handler);
+      } else {
+        addRun(run, compiled);
+        compiled.add(handler);
+      }
+    }
+    addRun(run, compiled);
+    return compiled.toArray(NO_HANDLERS);
+  }
+
+  private static void addRun(List<PathHandler> run, List<Handler> compiled) {
+    if (run.size() == 1) {
+      compiled.add(run.get(0));
+    } else if (run.size() > 1) {
+      compiled.add(new PathRoutingHandler(run));
+    }
+    run.clear();
+  }
+
+  @Override
+  public void handle(Context ctx) throws Exception {
+    PathBinding pathBinding = ctx.getExecution().get(PathBindingStorage.TYPE).peek();
+    Handler[] candidates = route(pathBinding.getPastBinding());
+    if (candidates.length == 0) {
+      ctx.next();
+    } else {
+      ctx.insert(candidates);
+    }
+  }
+
+  Handler[] route(String path) {
+    int length = path.length();
+    if (length > 0) {
+      // Binders are lenient with separators that the tree can't represent, so leave such paths to the binders
+      if (path.charAt(0) == '/' || path.contains("//")) {
+        return handlers;
+      }
+      // Exhaustive binders also bind the path with a trailing slash
+      if (path.charAt(length - 1) == '/') {
+        --length;
+      }
+    }
+
+    BitSet matches = new BitSet(handlers.length);
+    root.collect(path, 0, length, matches);
+
+    Handler[] candidates = new Handler[matches.cardinality()];
+    int c = 0;
+    for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+      candidates[c++] = handlers[i];
+    }
+    return candidates;
+  }
+
+  private static final class Node {
+
+    private final Map<String, Node> literals = new HashMap<>();
+    private Node token;
+
+    private List<Integer> reachedBuilder = new ArrayList<>();
+    private List<Integer> terminalBuilder = new ArrayList<>();
+
+    // handlers that are candidates for all paths that reach this node
+    private int[] reached;
+    // handlers that are candidates for paths that end at this node
+    private int[] terminal;
+
+    void add(PathRoute route, int depth, int index) {
+      List<String> segments = route.getSegments();
+      if (depth == segments.size()) {
+        (route.isComplete() ? terminalBuilder : reachedBuilder).add(index);
+      } else {
+        String segment = segments.get(depth);
+        Node child;
+        if (segment == null) {
+          if (token == null) {
+            token = new Node();
+          }
+          child = token;
+        } else {
+          child = literals.computeIfAbsent(segment, s -> new Node());
+        }
+        child.add(route, depth + 1, index);
+      }
+    }
+
+    void seal() {
+      reached = Ints.toArray(reachedBuilder);
+      terminal = Ints.toArray(terminalBuilder);
+      reachedBuilder = null;
+      terminalBuilder = null;
+      literals.values().forEach(Node::seal);
+      if (token != null) {
+        token.seal();
+      }
+    }
+
+    void collect(String path, int start, int end, BitSet matches) {
+      for (int index : reached) {
+        matches.set(index);
+      }
+      if (start >= end) {
+        for (int index : terminal) {
+          matches.set(index);
+        }
+        return;
+      }
+
+      int segmentEnd = path.indexOf('/', start);
+      if (segmentEnd < 0 || segmentEnd > end) {
+        segmentEnd = end;
+      }
+
+      if (!literals.isEmpty()) {
+        Node literal = literals.get(path.substring(start, segmentEnd));
+        if (literal != null) {
+          literal.collect(path, segmentEnd + 1, end, matches);
+        }
+      }
+      if (token != null) {
+        token.collect(path, segmentEnd + 1, end, matches);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.path.internal;
+
+import ratpack.func.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Matches paths built from literals, tokens and optional tokens without using a regular expression.
+ * <p>
+ * The matcher is equivalent to the regular expression built by {@link DefaultPathBinderBuilder} for the same path,
+ * trying the same alternatives in the same order.
+ * As each token ends at a separator (or the end of the path), there is at most one candidate value for each token alternative,
+ * which means that the path is effectively scanned once.
+ */
+final class PathSegmentMatcher {
+
+  private static final byte LITERAL = 0;
+  private static final byte TOKEN = 1;
+  private static final byte OPTIONAL_TOKEN = 2;
+
+  private final byte[] types;
+  private final String[] literals;
+  private final int tokenCount;
+  private final boolean exhaustive;
+
+  private PathSegmentMatcher(byte[] types, String[] literals, int tokenCount, boolean exhaustive) {
+    this.types = types;
+    this.literals = literals;
+    this.tokenCount = tokenCount;
+    this.exhaustive = exhaustive;
+  }
+
+  int getTokenCount() {
+    return tokenCount;
+  }
+
+  /**
+   * Matches the given path, setting the values of the tokens that are bound.
+   *
+   * @param path the path to match
+   * @param values the token values, with an element for each token
+   * @return the length of the bound path, or -1 if the path does not match
+   */
+  int match(String path, String[] values) {
+    return match(path, 0, 0, 0, values);
+  }
+
+  private int match(String path, int element, int pos, int token, String[] values) {
+    if (element == types.length) {
+      return matchesEnd(path, pos) ? pos : -1;
+    }
+
+    switch (types[element]) {
+      case LITERAL:
+        String literal = literals[element];
+        return path.startsWith(literal, pos) ? match(path, element + 1, pos + literal.length(), token, values) : -1;
+      case TOKEN:
+        return matchToken(path, element, pos, token, false, values);
+      default:
+        int end = matchToken(path, element, pos, token, true, values);
+        if (end < 0) {
+          values[token] = null;
+          end = match(path, element + 1, pos, token + 1, values);
+        }
+        return end;
+    }
+  }
+
+  // Tokens are preceded by the start of the path or a separator, in that order of preference
+  private int matchToken(String path, int element, int pos, int token, boolean optional, String[] values) {
+    if (pos == 0) {
+      int end = matchValue(path, element, 0, token, optional, values);
+      if (end >= 0) {
+        return end;
+      }
+    }
+    if (pos < path.length() && path.charAt(pos) == '/') {
+      return matchValue(path, element, pos + 1, token, optional, values);
+    }
+    return -1;
+  }
+
+  private int matchValue(String path, int element, int start, int token, boolean optional, String[] values) {
+    int valueEnd = valueEnd(path, start);
+
+    // Everything after a value starts with a separator, unless the value is empty at the start of the path
+    if ((valueEnd > start || optional) && (valueEnd == path.length() || path.charAt(valueEnd) == '/' || valueEnd == 0)) {
+      values[token] = path.substring(start, valueEnd);
+      int end = match(path, element + 1, valueEnd, token + 1, values);
+      if (end >= 0) {
+        return end;
+      }
+    }
+    if (optional && start == 0 && valueEnd > 0) {
+      values[token] = "";
+      int end = match(path, element + 1, 0, token + 1, values);
+      if (end >= 0) {
+        return end;
+      }
+    }
+
+    values[token] = null;
+    return -1;
+  }
+
+  private static int valueEnd(String path, int start) {
+    int length = path.length();
+    for (int i = start; i < length; ++i) {
+      char c = path.charAt(i);
+      if (c == '/' || c == '?' || c == '&' || c == '#') {
+        return i;
+      }
+    }
+    return length;
+  }
+
+  private boolean matchesEnd(String path, int pos) {
+    int length = path.length();
+    if (pos == length) {
+      return true;
+    } else if (path.charAt(pos) == '/') {
+      return !exhaustive || pos + 1 == length;
+    } else {
+      return false;
+    }
+  }
+
+  static class Builder {
+
+    private final List<Byte> types = new ArrayList<>();
+    private final List<String> literals = new ArrayList<>();
+    private final StringBuilder literal = new StringBuilder();
+    private int tokenCount;
+    private boolean unsupported;
+
+    void literal(String literal) {
+      this.literal.append(literal);
+    }
+
+    void token() {
+      add(TOKEN, null);
+    }
+
+    void optionalToken() {
+      add(OPTIONAL_TOKEN, null);
+    }
+
+    void unsupported() {
+      unsupported = true;
+    }
+
+    @Nullable
+    PathSegmentMatcher build(boolean exhaustive) {
+      flushLiteral();
+      if (unsupported) {
+        return null;
+      }
+
+      byte[] typesArray = new byte[types.size()];
+      for (int i = 0; i < typesArray.length; ++i) {
+        typesArray[i] = types.get(i);
+      }
+      return new PathSegmentMatcher(typesArray, literals.toArray(new String[0]), tokenCount, exhaustive);
+    }
+
+    private void add(byte type, @Nullable String literal) {
+      flushLiteral();
+      if (type != LITERAL) {
+        ++tokenCount;
+      }
+      types.add(type);
+      literals.add(literal);
+    }
+
+    private void flushLiteral() {
+      if (literal.length() == 0) {
+        return;
+      }
+
+      String value = literal.toString();
+      literal.setLength(0);
+
+      // A literal that continues the segment of a token needs the token value to be backtracked, which is left to the regex
+      if (!types.isEmpty() && value.charAt(0) != '/') {
+        unsupported = true;
+      }
+      add(LITERAL, value);
+    }
+  }
+
+}
@@ -22,6 +22,8 @@ import io.netty.handler.codec.http.QueryStringDecoder;
 import ratpack.core.path.InvalidPathEncodingException;
 import ratpack.core.path.PathBinder;
 import ratpack.core.path.PathBinding;
+import ratpack.core.path.PathTokens;
+import ratpack.func.Nullable;
 
 import java.util.Optional;
 import java.util.regex.MatchResult;
@@ -33,14 +35,66 @@ public class TokenPathBinder implements PathBinder {
   private final ImmutableList<String> tokenNames;
   private final String target;
   private final Pattern regex;
+  private final PathRoute route;
+  private final PathSegmentMatcher matcher;
 
-  protected TokenPathBinder(ImmutableList<String> tokenNames, String target, Pattern regex) {
+  protected TokenPathBinder(ImmutableList<String> tokenNames, String target, Pattern regex, PathRoute route, @Nullable PathSegmentMatcher matcher) {
     this.tokenNames = tokenNames;
     this.target = target;
     this.regex = regex;
+    this.route = route;
+    this.matcher = matcher;
+  }
+
+  public PathRoute getRoute() {
+    return route;
+  }
+
+  // The equivalent binder that always uses the regex, for comparison
+  TokenPathBinder regexBinder() {
+    return new TokenPathBinder(tokenNames, target, regex, route, null);
   }
 
   public Optional<PathBinding> bind(PathBinding parentBinding) {
+    return matcher == null ? bindRegex(parentBinding) : bindSegments(parentBinding);
+  }
+
+  private Optional<PathBinding> bindSegments(PathBinding parentBinding) {
+    String path = parentBinding.getPastBinding();
+    String[] values = new String[matcher.getTokenCount()];
+    int end = matcher.match(path, values);
+    if (end < 0) {
+      return Optional.empty();
+    }
+
+    String boundPath = end == path.length() ? path : path.substring(0, end);
+    String pastBinding = end + 1 >= path.length() ? "" : path.substring(end + 1);
+    return Optional.of(new DefaultPathBinding(boundPath, pastBinding, tokens(values), parentBinding, target));
+  }
+
+  private PathTokens tokens(String[] values) {
+    switch (values.length) {
+      case 0:
+        return DefaultPathTokens.empty();
+      case 1:
+        return values[0] == null ? DefaultPathTokens.empty() : DefaultPathTokens.of(ImmutableMap.of(tokenNames.get(0), decodeIfEncoded(values[0])));
+      default:
+        ImmutableMap.Builder<String, String> tokens = ImmutableMap.builderWithExpectedSize(values.length);
+        for (int i = 0; i < values.length; ++i) {
+          if (values[i] != null) {
+            tokens.put(tokenNames.get(i), decodeIfEncoded(values[i]));
+          }
+        }
+        return DefaultPathTokens.of(tokens.build());
+    }
+  }
+
+  // Decoding leaves values without escapes unchanged, as the '+' is not decoded as a space
+  private String decodeIfEncoded(String value) {
+    return value.indexOf('%') < 0 ? value : decodeURIComponent(value);
+  }
+
+  private Optional<PathBinding> bindRegex(PathBinding parentBinding) {
     Matcher matcher = regex.matcher(parentBinding.getPastBinding());
     if (matcher.matches()) {
       MatchResult matchResult = matcher.toMatchResult();
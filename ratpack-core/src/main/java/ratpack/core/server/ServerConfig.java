@@ -16,6 +16,7 @@
 
 package ratpack.core.server;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.reflect.TypeToken;
 import io.netty.handler.ssl.SslContext;
@@ -37,6 +38,8 @@ import java.net.InetAddress;
 import java.net.URI;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -118,6 +121,34 @@ public interface ServerConfig extends ConfigData {
    */
   int DEFAULT_MAX_HEADER_SIZE = 8192;
 
+  /**
+   * The default maximum number of concurrent streams a client may open on a single HTTP/2 connection.
+   * <p>
+   * Defaults to {@value}
+   *
+   * @see #getHttp2MaxConcurrentStreams()
+   * @since 2.0
+   */
+  int DEFAULT_HTTP2_MAX_CONCURRENT_STREAMS = 100;
+
+  /**
+   * The default initial HTTP/2 flow control window size of each stream, in bytes.
+   * <p>
+   * Defaults to {@value}, which is the initial window size defined by the HTTP/2 specification.
+   *
+   * @see #getHttp2InitialWindowSize()
+   * @since 2.0
+   */
+  int DEFAULT_HTTP2_INITIAL_WINDOW_SIZE = 65535;
+
+  /**
+   * The content encodings that responses are compressed with by default, being {@code gzip} and {@code deflate}.
+   *
+   * @see #getCompressionEncodings()
+   * @since 2.0
+   */
+  List<String> DEFAULT_COMPRESSION_ENCODINGS = ImmutableList.of("gzip", "deflate");
+
   /**
    * Creates a builder configured for development mode and an ephemeral port.
    *
@@ -209,6 +240,22 @@ public interface ServerConfig extends ConfigData {
    */
   int getThreads();
 
+  /**
+   * The number of threads dedicated to accepting connections.
+   * <p>
+   * If the value is greater than 0, an event loop group of this size is created for accepting connections,
+   * which are then handled by the {@link #getThreads() compute threads}.
+   * This keeps the acceptance of new connections responsive when the compute threads are busy,
+   * and allows the compute threads to be sized to exactly the number of available cores.
+   * A single thread is typically sufficient.
+   * <p>
+   * If the value is 0 (default), connections are accepted by the compute threads.
+   *
+   * @return the number of threads dedicated to accepting connections
+   * @since 2.0
+   */
+  int getAcceptorThreads();
+
   /**
    * Whether a JVM shutdown hook was registered for the application in order to shut it down gracefully.
    * <p>
@@ -422,4 +469,145 @@ public interface ServerConfig extends ConfigData {
    */
   DecodingErrorLevel getDecodingErrorLevel();
 
+  /**
+   * Whether the server accepts HTTP/2 connections, in addition to HTTP/1.1 connections.
+   * <p>
+   * When the server is using {@link #getSslContext() SSL}, the protocol is negotiated via ALPN.
+   * For HTTP/2 to be negotiated, the configured SSL context must advertise the {@code h2} protocol (as well as {@code http/1.1}),
+   * via {@link io.netty.handler.ssl.SslContextBuilder#applicationProtocolConfig(io.netty.handler.ssl.ApplicationProtocolConfig)}.
+   * Clients that do not negotiate {@code h2} are served HTTP/1.1.
+   * <p>
+   * When the server is not using SSL, cleartext HTTP/2 ({@code h2c}) is accepted both via the HTTP/1.1 {@code Upgrade} mechanism
+   * and via “prior knowledge” (i.e. the client sending the HTTP/2 connection preface immediately).
+   * <p>
+   * Each HTTP/2 stream is handled as an individual request, with its own execution.
+   * Request and response semantics (e.g. request body reading, response streaming, idle timeouts) are the same as for HTTP/1.1 requests.
+   * WebSocket connections are not supported over HTTP/2.
+   * <p>
+   * Defaults to {@code false}.
+   *
+   * @return whether the server accepts HTTP/2 connections
+   * @see #getHttp2MaxConcurrentStreams()
+   * @see #getHttp2InitialWindowSize()
+   * @since 2.0
+   */
+  boolean isHttp2();
+
+  /**
+   * The maximum number of concurrent streams that a client may open on a single HTTP/2 connection.
+   * <p>
+   * This is advertised to clients as the {@code SETTINGS_MAX_CONCURRENT_STREAMS} setting,
+   * effectively bounding the number of concurrent requests (and therefore executions) per connection.
+   * <p>
+   * Defaults to {@link #DEFAULT_HTTP2_MAX_CONCURRENT_STREAMS}.
+   * Only relevant if {@link #isHttp2()} is {@code true}.
+   *
+   * @return the maximum number of concurrent streams per HTTP/2 connection
+   * @since 2.0
+   */
+  int getHttp2MaxConcurrentStreams();
+
+  /**
+   * The initial flow control window size of each HTTP/2 stream, in bytes.
+   * <p>
+   * This is advertised to clients as the {@code SETTINGS_INITIAL_WINDOW_SIZE} setting,
+   * and is the number of request body bytes a client may send on a stream before the application reads them.
+   * Request body bytes are acknowledged to the client as they are consumed,
+   * which means that this value provides back pressure for request bodies per stream instead of per connection.
+   * <p>
+   * Defaults to {@link #DEFAULT_HTTP2_INITIAL_WINDOW_SIZE}.
+   * Only relevant if {@link #isHttp2()} is {@code true}.
+   *
+   * @return the initial flow control window size of each HTTP/2 stream
+   * @since 2.0
+   */
+  int getHttp2InitialWindowSize();
+
+  /**
+   * Whether chains route requests to their path handlers via a compiled routing table.
+   * <p>
+   * By default, each path handler of a chain (e.g. those added via {@link ratpack.core.handling.Chain#path(String, ratpack.core.handling.Handler)},
+   * {@link ratpack.core.handling.Chain#get(String, ratpack.core.handling.Handler)} or {@link ratpack.core.handling.Chain#prefix(String, ratpack.func.Action)})
+   * tries to bind the request path in turn.
+   * For chains with many paths, this means that requests for paths declared towards the end of the chain pay for many failed binding attempts.
+   * <p>
+   * When enabled, consecutive path handlers of each chain are compiled into a tree of path segments when the chain is built.
+   * Each request then walks the tree once to determine the path handlers that could bind it,
+   * making the cost of finding a path handler proportional to the length of the request path instead of the number of paths.
+   * Literal segments and tokens are routed via the tree, while optional tokens and tokens and literals with regular expressions are tried
+   * for all requests that reach the segment they are declared at.
+   * <p>
+   * Routing is semantically equivalent to the default.
+   * Candidate path handlers are invoked in the order that they were added to the chain, and may delegate to the next handler as usual.
+   * <p>
+   * Defaults to {@code false}.
+   *
+   * @return whether chains route requests to their path handlers via a compiled routing table
+   * @since 2.0
+   */
+  boolean isCompiledRouting();
+
+  /**
+   * The content encodings that responses may be compressed with.
+   * <p>
+   * The supported encodings are {@code br}, {@code zstd}, {@code gzip} and {@code deflate}.
+   * Compression with {@code br} requires {@code com.aayushatharva.brotli4j:brotli4j} (and its native library for the platform) to be on the classpath,
+   * while compression with {@code zstd} requires {@code com.github.luben:zstd-jni}.
+   * Encodings whose libraries are not available are ignored.
+   * <p>
+   * A response is compressed with the encoding that the client prefers via the request's {@code Accept-Encoding} header.
+   * Where the client has no preference, {@code br} is preferred over {@code zstd}, {@code gzip} and {@code deflate}, in that order.
+   * No responses are compressed if this is empty.
+   * <p>
+   * Defaults to {@link #DEFAULT_COMPRESSION_ENCODINGS}.
+   *
+   * @return the content encodings that responses may be compressed with
+   * @see #getCompressionLevels()
+   * @see #getCompressionMinLength()
+   * @see #getCompressionContentTypes()
+   * @see ratpack.core.http.Response#noCompress()
+   * @see ratpack.core.http.Response#forceCompress()
+   * @since 2.0
+   */
+  List<String> getCompressionEncodings();
+
+  /**
+   * The compression level to use for each content encoding.
+   * <p>
+   * Levels range from 0 to 9 for {@code gzip} and {@code deflate} (default 6), 0 to 11 for {@code br} (default 4), and 0 to 22 for {@code zstd} (default 3).
+   * Higher levels compress better but take longer.
+   * Encodings without a level use their default.
+   *
+   * @return the compression level to use for each content encoding
+   * @since 2.0
+   */
+  Map<String, Integer> getCompressionLevels();
+
+  /**
+   * The minimum length of a response body, in bytes, for it to be compressed.
+   * <p>
+   * Compressing small bodies often costs more than it saves.
+   * Responses whose {@code Content-Length} is less than this are not compressed.
+   * Responses without a known length (e.g. streamed responses) are not subject to this minimum.
+   * <p>
+   * Defaults to {@code 0}, which means that bodies of all lengths may be compressed.
+   *
+   * @return the minimum length of a response body for it to be compressed
+   * @since 2.0
+   */
+  int getCompressionMinLength();
+
+  /**
+   * The content types of responses that may be compressed.
+   * <p>
+   * Each content type is either a media type (e.g. {@code application/json}), or a wildcard for all subtypes of a type (e.g. {@code text/*}).
+   * Parameters of response content types (e.g. {@code charset}) are ignored when matching.
+   * <p>
+   * Defaults to empty, which means that responses of all content types may be compressed.
+   *
+   * @return the content types of responses that may be compressed
+   * @since 2.0
+   */
+  List<String> getCompressionContentTypes();
+
 }
@@ -172,6 +172,18 @@ public interface ServerConfigBuilder extends ConfigDataBuilder {
    */
   ServerConfigBuilder threads(int threads);
 
+  /**
+   * The number of threads dedicated to accepting connections.
+   * <p>
+   * Defaults to 0, which means that connections are accepted by the compute threads.
+   *
+   * @param acceptorThreads the size of the acceptor event loop group, or 0 to accept connections on the compute threads
+   * @return {@code this}
+   * @see ServerConfig#getAcceptorThreads()
+   * @since 2.0
+   */
+  ServerConfigBuilder acceptorThreads(int acceptorThreads);
+
   /**
    * Whether or not to register a JVM shutdown hook to gracefully stop the server.
    * <p>
@@ -241,6 +253,101 @@ public interface ServerConfigBuilder extends ConfigDataBuilder {
    */
   ServerConfigBuilder maxHeaderSize(int maxHeaderSize);
 
+  /**
+   * Whether the server accepts HTTP/2 connections.
+   * <p>
+   * Default value is {@code false}.
+   *
+   * @param http2 whether the server accepts HTTP/2 connections
+   * @return {@code this}
+   * @see ServerConfig#isHttp2()
+   * @since 2.0
+   */
+  ServerConfigBuilder http2(boolean http2);
+
+  /**
+   * The maximum number of concurrent streams a client may open on a single HTTP/2 connection.
+   * <p>
+   * Default value is {@link ServerConfig#DEFAULT_HTTP2_MAX_CONCURRENT_STREAMS}.
+   *
+   * @param http2MaxConcurrentStreams the maximum number of concurrent streams per connection
+   * @return {@code this}
+   * @see ServerConfig#getHttp2MaxConcurrentStreams()
+   * @since 2.0
+   */
+  ServerConfigBuilder http2MaxConcurrentStreams(int http2MaxConcurrentStreams);
+
+  /**
+   * The initial flow control window size of each HTTP/2 stream, in bytes.
+   * <p>
+   * Default value is {@link ServerConfig#DEFAULT_HTTP2_INITIAL_WINDOW_SIZE}.
+   *
+   * @param http2InitialWindowSize the initial flow control window size of each stream
+   * @return {@code this}
+   * @see ServerConfig#getHttp2InitialWindowSize()
+   * @since 2.0
+   */
+  ServerConfigBuilder http2InitialWindowSize(int http2InitialWindowSize);
+
+  /**
+   * Whether chains route requests to their path handlers via a compiled routing table.
+   * <p>
+   * Default value is {@code false}.
+   *
+   * @param compiledRouting whether chains route requests to their path handlers via a compiled routing table
+   * @return {@code this}
+   * @see ServerConfig#isCompiledRouting()
+   * @since 2.0
+   */
+  ServerConfigBuilder compiledRouting(boolean compiledRouting);
+
+  /**
+   * The content encodings that responses may be compressed with.
+   * <p>
+   * Default value is {@link ServerConfig#DEFAULT_COMPRESSION_ENCODINGS}.
+   *
+   * @param compressionEncodings the content encodings that responses may be compressed with
+   * @return {@code this}
+   * @see ServerConfig#getCompressionEncodings()
+   * @since 2.0
+   */
+  ServerConfigBuilder compressionEncodings(String... compressionEncodings);
+
+  /**
+   * The compression level to use for the given content encoding.
+   *
+   * @param encoding the content encoding
+   * @param level the compression level
+   * @return {@code this}
+   * @see ServerConfig#getCompressionLevels()
+   * @since 2.0
+   */
+  ServerConfigBuilder compressionLevel(String encoding, int level);
+
+  /**
+   * The minimum length of a response body, in bytes, for it to be compressed.
+   * <p>
+   * Default value is {@code 0}.
+   *
+   * @param compressionMinLength the minimum length of a response body for it to be compressed
+   * @return {@code this}
+   * @see ServerConfig#getCompressionMinLength()
+   * @since 2.0
+   */
+  ServerConfigBuilder compressionMinLength(int compressionMinLength);
+
+  /**
+   * The content types of responses that may be compressed.
+   * <p>
+   * Default value is empty, which means that responses of all content types may be compressed.
+   *
+   * @param compressionContentTypes the content types of responses that may be compressed
+   * @return {@code this}
+   * @see ServerConfig#getCompressionContentTypes()
+   * @since 2.0
+   */
+  ServerConfigBuilder compressionContentTypes(String... compressionContentTypes);
+
   /**
    * The connect timeout of the channel.
    *
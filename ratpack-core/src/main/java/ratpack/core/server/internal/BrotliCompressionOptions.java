@@ -0,0 +1,35 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.server.internal;
+
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import io.netty.handler.codec.compression.CompressionOptions;
+import io.netty.handler.codec.compression.StandardCompressionOptions;
+
+/**
+ * Isolates the use of brotli4j, which is an optional dependency, so that this class is only loaded if brotli4j is available.
+ */
+final class BrotliCompressionOptions {
+
+  private BrotliCompressionOptions() {
+  }
+
+  static CompressionOptions of(int quality) {
+    return StandardCompressionOptions.brotli(new Encoder.Parameters().setQuality(quality).setMode(Encoder.Mode.TEXT));
+  }
+
+}
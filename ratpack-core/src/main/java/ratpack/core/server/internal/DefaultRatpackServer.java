@@ -21,17 +21,11 @@ import com.google.common.reflect.TypeToken;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.*;
-import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpRequest;
-import io.netty.handler.codec.http.HttpRequestDecoder;
-import io.netty.handler.codec.http.HttpResponseEncoder;
-import io.netty.handler.ssl.SniHandler;
-import io.netty.handler.ssl.SslContext;
-import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.util.AttributeKey;
-import io.netty.util.Mapping;
 import io.netty.util.ReferenceCountUtil;
 import io.netty.util.ResourceLeakDetector;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ratpack.config.ConfigObject;
@@ -80,6 +74,8 @@ public class DefaultRatpackServer implements RatpackServer {
     private final InetSocketAddress boundAddress;
     private final Channel channel;
     private final ExecController execController;
+    @Nullable
+    private final EventLoopGroup acceptorGroup;
     private final boolean useSsl;
     private final DefaultRatpackServer.ApplicationState applicationState;
     private final CountDownLatch stopLatch = new CountDownLatch(1);
@@ -90,6 +86,7 @@ public class DefaultRatpackServer implements RatpackServer {
       InetSocketAddress boundAddress,
       Channel channel,
       ExecController execController,
+      @Nullable EventLoopGroup acceptorGroup,
       boolean inheritedExecController,
       boolean useSsl,
       DefaultRatpackServer.ApplicationState applicationState
@@ -97,6 +94,7 @@ public class DefaultRatpackServer implements RatpackServer {
       this.boundAddress = boundAddress;
       this.channel = channel;
       this.execController = execController;
+      this.acceptorGroup = acceptorGroup;
       this.inheritedExecController = inheritedExecController;
       this.useSsl = useSsl;
       this.applicationState = applicationState;
@@ -161,6 +159,9 @@ public class DefaultRatpackServer implements RatpackServer {
         .numThreads(serverConfig.getThreads())
         .build()
       );
+    EventLoopGroup acceptorGroup = serverConfig.getAcceptorThreads() > 0
+      ? TransportDetector.eventLoopGroup(serverConfig.getAcceptorThreads(), new DefaultThreadFactory("ratpack-acceptor", Thread.MAX_PRIORITY))
+      : null;
     try {
       ChannelHandler channelHandler = ExecThreadBinding.bindFor(true, execController, () ->
         buildHandler(
@@ -173,7 +174,7 @@ public class DefaultRatpackServer implements RatpackServer {
           this::buildUserDefinition
         )
       );
-      Channel channel = buildChannel(serverConfig, channelHandler, execController);
+      Channel channel = buildChannel(serverConfig, channelHandler, execController, acceptorGroup);
       InetSocketAddress boundAddress = (InetSocketAddress) channel.localAddress();
 
       // App is now considered running
@@ -181,11 +182,15 @@ public class DefaultRatpackServer implements RatpackServer {
         boundAddress,
         channel,
         execController,
+        acceptorGroup,
         inheritedExecController,
         serverConfig.getSslContext() != null,
         applicationState
       );
     } catch (Throwable e) {
+      if (acceptorGroup != null) {
+        acceptorGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+      }
       execController.close();
       throw e;
     }
@@ -279,7 +284,7 @@ public class DefaultRatpackServer implements RatpackServer {
     }
   }
 
-  private static Channel buildChannel(ServerConfig serverConfig, ChannelHandler handlerAdapter, ExecController execController) throws InterruptedException {
+  private static Channel buildChannel(ServerConfig serverConfig, ChannelHandler handlerAdapter, ExecController execController, @Nullable EventLoopGroup acceptorGroup) throws InterruptedException {
 
     ServerBootstrap serverBootstrap = new ServerBootstrap();
 
@@ -312,32 +317,9 @@ public class DefaultRatpackServer implements RatpackServer {
     applyServerChildOptions(serverConfig, serverBootstrap);
 
     return serverBootstrap
-      .group(execController.getEventLoopGroup())
+      .group(acceptorGroup == null ? execController.getEventLoopGroup() : acceptorGroup, execController.getEventLoopGroup())
       .channel(TransportDetector.getServerSocketChannelImpl())
-      .childHandler(new ChannelInitializer<SocketChannel>() {
-        @Override
-        protected void initChannel(SocketChannel ch) {
-          ChannelPipeline pipeline = ch.pipeline();
-
-          Mapping<String, SslContext> sniSslContext = serverConfig.getSslContext();
-          if (sniSslContext != null) {
-            pipeline.addLast("ssl", new SniHandler(sniSslContext));
-          }
-
-          pipeline.addLast("decoder", new HttpRequestDecoder(
-            serverConfig.getMaxInitialLineLength(),
-            serverConfig.getMaxHeaderSize(),
-            serverConfig.getMaxChunkSize(),
-            false)
-          );
-          pipeline.addLast("encoder", new HttpResponseEncoder());
-          pipeline.addLast("deflater", new IgnorableHttpContentCompressor());
-          pipeline.addLast("chunkedWriter", new ChunkedWriteHandler());
-          pipeline.addLast("adapter", handlerAdapter);
-
-          ch.config().setAutoRead(false);
-        }
-      })
+      .childHandler(new ServerChannelInitializer(serverConfig, handlerAdapter))
       .bind(buildSocketAddress(serverConfig))
       .sync()
       .channel();
@@ -441,6 +423,9 @@ public class DefaultRatpackServer implements RatpackServer {
       if (runningState.channel != null) {
         runningState.channel.close().sync();
       }
+      if (runningState.acceptorGroup != null) {
+        runningState.acceptorGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+      }
 
       try {
         shutdownServices(runningState.applicationState, reloadingState);
@@ -20,12 +20,15 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.http2.Http2StreamChannel;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.util.concurrent.Future;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ratpack.func.Nullable;
+import ratpack.exec.Execution;
+import ratpack.exec.ExecutionTiming;
 import ratpack.exec.Promise;
 import ratpack.func.Action;
 import ratpack.core.handling.RequestOutcome;
@@ -62,14 +65,17 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
   private final HttpHeaders responseHeaders;
   private final RequestBody requestBody;
   private final boolean isSsl;
+  private final boolean isHttp2;
   private final HttpRequest nettyRequest;
 
   private final Runnable onRequestFinished;
   private List<Action<? super RequestOutcome>> outcomeListeners;
 
   private Instant stopTime;
+  private ExecutionTiming timing;
   private ResponseBodyWriter responseBodyWriter;
   private boolean done;
+  private boolean forceCompress;
 
   public DefaultResponseTransmitter(
     AtomicBoolean responseInitiated,
@@ -89,6 +95,7 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
     this.requestBody = requestBody;
     this.nettyRequest = nettyRequest;
     this.isSsl = channel.pipeline().get(SslHandler.class) != null;
+    this.isHttp2 = channel instanceof Http2StreamChannel;
     this.onRequestFinished = onRequestFinished;
   }
 
@@ -96,6 +103,7 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
     if (responseInitiated.compareAndSet(false, true)) {
       this.responseBodyWriter = responseBodyWriter;
       stopTime = clock.instant();
+      timing = Execution.currentOpt().flatMap(Execution::getTiming).orElse(null);
       if (requestBody == null) {
         sendResponse(responseStatus, responseBodyWriter, true);
       } else if (drainRequestBeforeResponse) {
@@ -149,7 +157,9 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
         addConnectionCloseResponseHeader();
       }
 
-      HttpResponse headersResponse = new DefaultHttpResponse(HttpVersion.HTTP_1_1, responseStatus, responseHeaders);
+      HttpResponse headersResponse = forceCompress
+        ? new IgnorableHttpContentCompressor.ForcedCompressionResponse(HttpVersion.HTTP_1_1, responseStatus, responseHeaders)
+        : new DefaultHttpResponse(HttpVersion.HTTP_1_1, responseStatus, responseHeaders);
 
       boolean isImplicitlyChunked = mustHaveBody(responseStatus)
         && keepAlive
@@ -265,6 +275,11 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
     return (code < 100 || code >= 200) && code != 204 && code != 304;
   }
 
+  @Override
+  public void forceCompress() {
+    forceCompress = true;
+  }
+
   @Override
   public void transmit(HttpResponseStatus responseStatus, ByteBuf body) {
     if (body.readableBytes() == 0) {
@@ -287,10 +302,7 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
       String sizeString = responseHeaders.getAsString(HttpHeaderConstants.CONTENT_LENGTH);
       long size = sizeString == null ? 0 : Long.parseLong(sizeString);
 
-      boolean compress = !responseHeaders.contains(HttpHeaderConstants.CONTENT_ENCODING, HttpHeaderConstants.IDENTITY, true);
-      boolean zeroCopy = !isSsl && !compress && file.getFileSystem().equals(FileSystems.getDefault());
-
-      ResponseBodyWriter responseBodyWriter = zeroCopy
+      ResponseBodyWriter responseBodyWriter = isZeroCopy(file)
         ? new ZeroCopyFileResponseBodyWriter(file, size)
         : new ChunkedFileResponseBodyWriter(file);
 
@@ -298,6 +310,21 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
     }
   }
 
+  @Override
+  public void transmit(HttpResponseStatus status, Path file, ByteRangesBody ranges) {
+    if (isHead()) {
+      preSendResponse(status, EMPTY_BODY, true);
+    } else {
+      preSendResponse(status, new FileRangesResponseBodyWriter(file, ranges, isZeroCopy(file)), true);
+    }
+  }
+
+  private boolean isZeroCopy(Path file) {
+    IgnorableHttpContentCompressor compressor = channel.pipeline().get(IgnorableHttpContentCompressor.class);
+    boolean compress = compressor != null && compressor.isCompressible(responseHeaders, forceCompress);
+    return !isSsl && !isHttp2 && !compress && file.getFileSystem().equals(FileSystems.getDefault());
+  }
+
   @Override
   public void transmit(HttpResponseStatus status, Publisher<? extends ByteBuf> publisher, boolean drainRequestBeforeResponse) {
     preSendResponse(status, new StreamingResponseBodyWriter(publisher), drainRequestBeforeResponse);
@@ -307,7 +334,7 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
     done = true;
     if (outcomeListeners != null) {
       SentResponse sentResponse = new DefaultSentResponse(new NettyHeadersBackedHeaders(responseHeaders), new DefaultStatus(responseStatus));
-      RequestOutcome requestOutcome = new DefaultRequestOutcome(ratpackRequest, sentResponse, stopTime);
+      RequestOutcome requestOutcome = new DefaultRequestOutcome(ratpackRequest, sentResponse, stopTime, timing);
       for (Action<? super RequestOutcome> outcomeListener : outcomeListeners) {
         try {
           outcomeListener.execute(requestOutcome);
@@ -33,6 +33,8 @@ import java.net.InetAddress;
 import java.net.URI;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class DefaultServerConfig extends DelegatingConfigData implements ServerConfig {
@@ -79,6 +81,11 @@ public class DefaultServerConfig extends DelegatingConfigData implements ServerC
     return serverConfigData.getThreads();
   }
 
+  @Override
+  public int getAcceptorThreads() {
+    return serverConfigData.getAcceptorThreads();
+  }
+
   @Override
   public boolean isRegisterShutdownHook() {
     return serverConfigData.isRegisterShutdownHook();
@@ -168,4 +175,44 @@ public class DefaultServerConfig extends DelegatingConfigData implements ServerC
   public DecodingErrorLevel getDecodingErrorLevel() {
     return serverConfigData.getDecodingErrorLevel();
   }
+
+  @Override
+  public boolean isHttp2() {
+    return serverConfigData.isHttp2();
+  }
+
+  @Override
+  public int getHttp2MaxConcurrentStreams() {
+    return serverConfigData.getHttp2MaxConcurrentStreams();
+  }
+
+  @Override
+  public int getHttp2InitialWindowSize() {
+    return serverConfigData.getHttp2InitialWindowSize();
+  }
+
+  @Override
+  public boolean isCompiledRouting() {
+    return serverConfigData.isCompiledRouting();
+  }
+
+  @Override
+  public List<String> getCompressionEncodings() {
+    return serverConfigData.getCompressionEncodings();
+  }
+
+  @Override
+  public Map<String, Integer> getCompressionLevels() {
+    return serverConfigData.getCompressionLevels();
+  }
+
+  @Override
+  public int getCompressionMinLength() {
+    return serverConfigData.getCompressionMinLength();
+  }
+
+  @Override
+  public List<String> getCompressionContentTypes() {
+    return serverConfigData.getCompressionContentTypes();
+  }
 }
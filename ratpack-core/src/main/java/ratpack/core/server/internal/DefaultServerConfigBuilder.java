@@ -18,6 +18,7 @@ package ratpack.core.server.internal;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
@@ -142,6 +143,14 @@ public class DefaultServerConfigBuilder implements ServerConfigBuilder {
     return addToServer(n -> n.put("threads", threads));
   }
 
+  @Override
+  public ServerConfigBuilder acceptorThreads(int acceptorThreads) {
+    if (acceptorThreads < 0) {
+      throw new IllegalArgumentException("'acceptorThreads' must be >= 0");
+    }
+    return addToServer(n -> n.put("acceptorThreads", acceptorThreads));
+  }
+
   @Override
   public ServerConfigBuilder registerShutdownHook(boolean registerShutdownHook) {
     return addToServer(n -> n.put("registerShutdownHook", registerShutdownHook));
@@ -172,6 +181,69 @@ public class DefaultServerConfigBuilder implements ServerConfigBuilder {
     return addToServer(n -> n.put("maxHeaderSize", maxHeaderSize));
   }
 
+  @Override
+  public ServerConfigBuilder http2(boolean http2) {
+    return addToServer(n -> n.put("http2", http2));
+  }
+
+  @Override
+  public ServerConfigBuilder http2MaxConcurrentStreams(int http2MaxConcurrentStreams) {
+    if (http2MaxConcurrentStreams < 1) {
+      throw new IllegalArgumentException("'http2MaxConcurrentStreams' must be > 0");
+    }
+    return addToServer(n -> n.put("http2MaxConcurrentStreams", http2MaxConcurrentStreams));
+  }
+
+  @Override
+  public ServerConfigBuilder http2InitialWindowSize(int http2InitialWindowSize) {
+    if (http2InitialWindowSize < 1) {
+      throw new IllegalArgumentException("'http2InitialWindowSize' must be > 0");
+    }
+    return addToServer(n -> n.put("http2InitialWindowSize", http2InitialWindowSize));
+  }
+
+  @Override
+  public ServerConfigBuilder compiledRouting(boolean compiledRouting) {
+    return addToServer(n -> n.put("compiledRouting", compiledRouting));
+  }
+
+  @Override
+  public ServerConfigBuilder compressionEncodings(String... compressionEncodings) {
+    for (String encoding : compressionEncodings) {
+      ResponseCompression.checkEncoding(encoding);
+    }
+    return addToServer(n -> {
+      ArrayNode encodings = n.putArray("compressionEncodings");
+      for (String encoding : compressionEncodings) {
+        encodings.add(encoding);
+      }
+    });
+  }
+
+  @Override
+  public ServerConfigBuilder compressionLevel(String encoding, int level) {
+    ResponseCompression.checkLevel(encoding, level);
+    return addToServer(n -> n.putObject("compressionLevels").put(encoding, level));
+  }
+
+  @Override
+  public ServerConfigBuilder compressionMinLength(int compressionMinLength) {
+    if (compressionMinLength < 0) {
+      throw new IllegalArgumentException("'compressionMinLength' must be >= 0");
+    }
+    return addToServer(n -> n.put("compressionMinLength", compressionMinLength));
+  }
+
+  @Override
+  public ServerConfigBuilder compressionContentTypes(String... compressionContentTypes) {
+    return addToServer(n -> {
+      ArrayNode contentTypes = n.putArray("compressionContentTypes");
+      for (String contentType : compressionContentTypes) {
+        contentTypes.add(contentType);
+      }
+    });
+  }
+
   @Override
   public ServerConfigBuilder connectTimeoutMillis(int connectTimeoutMillis) {
     return addToServer(n -> n.put("connectTimeoutMillis", connectTimeoutMillis));
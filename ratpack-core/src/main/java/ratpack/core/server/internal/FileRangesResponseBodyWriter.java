@@ -0,0 +1,234 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.server.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.handler.stream.ChunkedNioFile;
+import ratpack.core.http.internal.ByteRange;
+import ratpack.core.http.internal.ByteRangesBody;
+import ratpack.exec.Blocking;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes ranges of a file, with {@link DefaultFileRegion} slices when zero copy is possible and {@link ChunkedNioFile} slices otherwise.
+ * <p>
+ * Each range is read via its own file channel, as each slice closes its channel when done.
+ */
+class FileRangesResponseBodyWriter implements ResponseBodyWriter {
+
+  private static final Set<OpenOption> OPEN_OPTIONS = Collections.singleton(StandardOpenOption.READ);
+  private static final int CHUNK_SIZE = 8192;
+
+  private final Path file;
+  private final ByteRangesBody body;
+  private final boolean zeroCopy;
+
+  FileRangesResponseBodyWriter(Path file, ByteRangesBody body, boolean zeroCopy) {
+    this.file = file;
+    this.body = body;
+    this.zeroCopy = zeroCopy;
+  }
+
+  @Override
+  public ChannelFuture write(Channel channel) {
+    ChannelPromise channelPromise = channel.newPromise();
+    Blocking.get(this::open)
+      .onError(channelPromise::setFailure)
+      .then(fileChannels -> {
+        if (zeroCopy) {
+          List<DefaultFileRegion> regions;
+          try {
+            regions = regions(fileChannels);
+          } catch (Throwable e) {
+            fail(fileChannels, channelPromise, e);
+            return;
+          }
+          writeRegions(channel, regions, channelPromise);
+        } else {
+          ByteRangesChunkedInput input;
+          try {
+            input = new ByteRangesChunkedInput(body, fileChannels);
+          } catch (Throwable e) {
+            fail(fileChannels, channelPromise, e);
+            return;
+          }
+          channel.writeAndFlush(input, channelPromise);
+        }
+      });
+    return channelPromise;
+  }
+
+  private List<FileChannel> open() throws IOException {
+    List<FileChannel> fileChannels = new ArrayList<>(body.getRanges().size());
+    try {
+      for (int i = 0; i < body.getRanges().size(); ++i) {
+        fileChannels.add(FileChannel.open(file, OPEN_OPTIONS));
+      }
+    } catch (IOException e) {
+      close(fileChannels, e);
+      throw e;
+    }
+    return fileChannels;
+  }
+
+  // Nothing has been written yet, so the channels are not yet owned by slices that would close them
+  private static void fail(List<FileChannel> fileChannels, ChannelPromise channelPromise, Throwable failure) {
+    close(fileChannels, failure);
+    channelPromise.setFailure(failure);
+  }
+
+  private static void close(List<FileChannel> fileChannels, Throwable failure) {
+    for (FileChannel fileChannel : fileChannels) {
+      try {
+        fileChannel.close();
+      } catch (IOException e) {
+        failure.addSuppressed(e);
+      }
+    }
+  }
+
+  private List<DefaultFileRegion> regions(List<FileChannel> fileChannels) {
+    List<ByteRange> ranges = body.getRanges();
+    List<DefaultFileRegion> regions = new ArrayList<>(ranges.size());
+    for (int i = 0; i < ranges.size(); ++i) {
+      ByteRange range = ranges.get(i);
+      regions.add(new DefaultFileRegion(fileChannels.get(i), range.getStart(), range.getLength()));
+    }
+    return regions;
+  }
+
+  private void writeRegions(Channel channel, List<DefaultFileRegion> regions, ChannelPromise channelPromise) {
+    for (int i = 0; i < regions.size(); ++i) {
+      ByteBuf partHeader = body.partHeader(i);
+      if (partHeader != null) {
+        channel.write(new DefaultHttpContent(partHeader), channel.voidPromise());
+      }
+      channel.write(regions.get(i), channel.voidPromise());
+    }
+    ByteBuf trailer = body.trailer();
+    channel.write(trailer == null ? LastHttpContent.EMPTY_LAST_CONTENT : new DefaultLastHttpContent(trailer), channelPromise);
+    channel.flush();
+  }
+
+  private static final class ByteRangesChunkedInput implements ChunkedInput<HttpContent> {
+
+    private final ByteRangesBody body;
+    private final List<ChunkedNioFile> slices;
+
+    private int index;
+    private boolean partHeaderSent;
+    private boolean endOfInput;
+    private long progress;
+
+    ByteRangesChunkedInput(ByteRangesBody body, List<FileChannel> fileChannels) throws IOException {
+      this.body = body;
+      this.slices = new ArrayList<>(fileChannels.size());
+      List<ByteRange> ranges = body.getRanges();
+      for (int i = 0; i < ranges.size(); ++i) {
+        ByteRange range = ranges.get(i);
+        slices.add(new ChunkedNioFile(fileChannels.get(i), range.getStart(), range.getLength(), CHUNK_SIZE));
+      }
+    }
+
+    @Override
+    public boolean isEndOfInput() {
+      return endOfInput;
+    }
+
+    @Override
+    public void close() throws Exception {
+      for (int i = index; i < slices.size(); ++i) {
+        slices.get(i).close();
+      }
+    }
+
+    @Deprecated
+    @Override
+    public HttpContent readChunk(ChannelHandlerContext ctx) throws Exception {
+      return readChunk(ctx.alloc());
+    }
+
+    @Override
+    public HttpContent readChunk(ByteBufAllocator allocator) throws Exception {
+      if (endOfInput) {
+        return null;
+      }
+
+      while (index < slices.size()) {
+        if (!partHeaderSent) {
+          partHeaderSent = true;
+          ByteBuf partHeader = body.partHeader(index);
+          if (partHeader != null) {
+            progress += partHeader.readableBytes();
+            return new DefaultHttpContent(partHeader);
+          }
+        }
+
+        ChunkedNioFile slice = slices.get(index);
+        ByteBuf chunk = slice.readChunk(allocator);
+        if (chunk != null) {
+          progress += chunk.readableBytes();
+          return new DefaultHttpContent(chunk);
+        }
+
+        slice.close();
+        ++index;
+        partHeaderSent = false;
+      }
+
+      endOfInput = true;
+      ByteBuf trailer = body.trailer();
+      if (trailer == null) {
+        return LastHttpContent.EMPTY_LAST_CONTENT;
+      } else {
+        progress += trailer.readableBytes();
+        return new DefaultLastHttpContent(trailer);
+      }
+    }
+
+    @Override
+    public long length() {
+      return body.getContentLength();
+    }
+
+    @Override
+    public long progress() {
+      return progress;
+    }
+  }
+
+}
@@ -16,13 +16,24 @@
 
 package ratpack.core.server.internal;
 
+import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.HttpContentCompressor;
 import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
 import ratpack.core.http.internal.HttpHeaderConstants;
 
 public class IgnorableHttpContentCompressor extends HttpContentCompressor {
 
+  private final ResponseCompression compression;
+
+  IgnorableHttpContentCompressor(ResponseCompression compression) {
+    super(0, compression.getOptions());
+    this.compression = compression;
+  }
+
   @Override
   protected Result beginEncode(HttpResponse res, String acceptEncoding) throws Exception {
     String contentEncoding = res.headers().getAsString(HttpHeaderConstants.CONTENT_ENCODING);
@@ -35,6 +46,28 @@ public class IgnorableHttpContentCompressor extends HttpContentCompressor {
       return null;
     }
 
+    if (!isCompressible(res.headers(), res instanceof ForcedCompressionResponse)) {
+      return null;
+    }
+
     return super.beginEncode(res, acceptEncoding);
   }
+
+  /**
+   * Whether a response with the given headers may be compressed, depending on the encodings accepted by the client.
+   */
+  boolean isCompressible(HttpHeaders headers, boolean forced) {
+    return compression.isEnabled()
+      && !headers.contains(HttpHeaderConstants.CONTENT_ENCODING)
+      && (forced || compression.isCompressible(headers));
+  }
+
+  /**
+   * A response that is compressed regardless of its length and content type.
+   */
+  static final class ForcedCompressionResponse extends DefaultHttpResponse {
+    ForcedCompressionResponse(HttpVersion version, HttpResponseStatus status, HttpHeaders headers) {
+      super(version, status, headers);
+    }
+  }
 }
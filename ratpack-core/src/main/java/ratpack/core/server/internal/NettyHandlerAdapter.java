@@ -21,6 +21,7 @@ import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.*;
 import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.http2.Http2StreamChannel;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.ssl.SslHandshakeCompletionEvent;
 import io.netty.handler.timeout.IdleStateEvent;
@@ -66,6 +67,8 @@ public class NettyHandlerAdapter extends ChannelInboundHandlerAdapter {
 
   private final static Logger LOGGER = LoggerFactory.getLogger(NettyHandlerAdapter.class);
 
+  private static final HttpVersion HTTP_2 = HttpVersion.valueOf("HTTP/2.0");
+
   private final Handler[] handlers;
 
   private final DefaultContext.ApplicationConstants applicationConstants;
@@ -97,6 +100,16 @@ public class NettyHandlerAdapter extends ChannelInboundHandlerAdapter {
     if (attr.get() == null) {
       ChannelState state = new ChannelState(new ConnectionIdleTimeout(ctx.pipeline(), idleTimeout));
       attr.set(state);
+
+      // HTTP/2 streams are child channels, and the TLS handshake happens on the parent (connection) channel
+      Channel parent = ctx.channel().parent();
+      if (parent != null) {
+        SslHandler sslHandler = parent.pipeline().get(SslHandler.class);
+        if (sslHandler != null) {
+          state.sslSession = clientAuthSslSession(sslHandler.engine());
+        }
+      }
+
       ctx.channel().closeFuture().addListener(future -> {
         if (state.responseTransmitter != null) {
           state.responseTransmitter.onConnectionClosed();
@@ -141,6 +154,10 @@ public class NettyHandlerAdapter extends ChannelInboundHandlerAdapter {
     state.requestedNextRequest = false;
     if (state.responseTransmitter == null) {
       newRequest(ctx, request, state);
+      if (request instanceof LastHttpContent) {
+        // The HTTP/2 stream codec emits full requests for streams that have no body
+        handleContent(ctx, (LastHttpContent) request, state);
+      }
     } else {
       state.messageQueue = new ArrayDeque<>();
       state.messageQueue.add(request);
@@ -195,7 +212,7 @@ public class NettyHandlerAdapter extends ChannelInboundHandlerAdapter {
       clock.instant(),
       requestHeaders,
       nettyRequest.method(),
-      nettyRequest.protocolVersion(),
+      channel instanceof Http2StreamChannel ? HTTP_2 : nettyRequest.protocolVersion(),
       nettyRequest.uri(),
       remoteAddress,
       socketAddress,
@@ -353,10 +370,7 @@ public class NettyHandlerAdapter extends ChannelInboundHandlerAdapter {
       ctx.close();
     }
     if (evt instanceof SslHandshakeCompletionEvent && ((SslHandshakeCompletionEvent) evt).isSuccess()) {
-      SSLEngine engine = ctx.pipeline().get(SslHandler.class).engine();
-      if (engine.getWantClientAuth() || engine.getNeedClientAuth()) {
-        state.sslSession = engine.getSession();
-      }
+      state.sslSession = clientAuthSslSession(ctx.pipeline().get(SslHandler.class).engine());
     }
 
     super.userEventTriggered(ctx, evt);
@@ -373,7 +387,16 @@ public class NettyHandlerAdapter extends ChannelInboundHandlerAdapter {
     super.channelWritabilityChanged(ctx);
   }
 
-  private static boolean isIgnorableException(Throwable throwable) {
+  @Nullable
+  private static SSLSession clientAuthSslSession(SSLEngine engine) {
+    if (engine.getWantClientAuth() || engine.getNeedClientAuth()) {
+      return engine.getSession();
+    } else {
+      return null;
+    }
+  }
+
+  static boolean isIgnorableException(Throwable throwable) {
     if (throwable instanceof ClosedChannelException) {
       return true;
     } else if (throwable instanceof IOException) {
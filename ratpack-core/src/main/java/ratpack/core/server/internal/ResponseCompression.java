@@ -0,0 +1,174 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.server.internal;
+
+import com.google.common.collect.ImmutableList;
+import io.netty.handler.codec.compression.Brotli;
+import io.netty.handler.codec.compression.CompressionOptions;
+import io.netty.handler.codec.compression.StandardCompressionOptions;
+import io.netty.handler.codec.compression.Zstd;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.core.http.internal.HttpHeaderConstants;
+import ratpack.core.server.ServerConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The response compression settings of a server, shared by the compressors of all channels.
+ */
+final class ResponseCompression {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResponseCompression.class);
+
+  private static final int WINDOW_BITS = 15;
+  private static final int MEM_LEVEL = 8;
+  private static final int ZSTD_BLOCK_SIZE = 1 << 16;
+  private static final int ZSTD_MAX_ENCODE_SIZE = 1 << 25;
+
+  private final CompressionOptions[] options;
+  private final int minLength;
+  private final List<String> contentTypes;
+
+  private ResponseCompression(CompressionOptions[] options, int minLength, List<String> contentTypes) {
+    this.options = options;
+    this.minLength = minLength;
+    this.contentTypes = contentTypes;
+  }
+
+  static ResponseCompression of(ServerConfig serverConfig) {
+    Map<String, Integer> levels = serverConfig.getCompressionLevels();
+    levels.forEach(ResponseCompression::checkLevel);
+
+    List<CompressionOptions> options = new ArrayList<>();
+    for (String encoding : serverConfig.getCompressionEncodings()) {
+      Integer level = levels.get(checkEncoding(encoding));
+      switch (encoding) {
+        case "br":
+          if (Brotli.isAvailable()) {
+            options.add(level == null ? StandardCompressionOptions.brotli() : BrotliCompressionOptions.of(level));
+          } else {
+            LOGGER.warn("Responses will not be compressed with 'br' as brotli4j is not available");
+          }
+          break;
+        case "zstd":
+          if (Zstd.isAvailable()) {
+            options.add(level == null ? StandardCompressionOptions.zstd() : StandardCompressionOptions.zstd(level, ZSTD_BLOCK_SIZE, ZSTD_MAX_ENCODE_SIZE));
+          } else {
+            LOGGER.warn("Responses will not be compressed with 'zstd' as zstd-jni is not available");
+          }
+          break;
+        case "gzip":
+          options.add(level == null ? StandardCompressionOptions.gzip() : StandardCompressionOptions.gzip(level, WINDOW_BITS, MEM_LEVEL));
+          break;
+        default:
+          options.add(level == null ? StandardCompressionOptions.deflate() : StandardCompressionOptions.deflate(level, WINDOW_BITS, MEM_LEVEL));
+          break;
+      }
+    }
+
+    ImmutableList.Builder<String> contentTypes = ImmutableList.builder();
+    for (String contentType : serverConfig.getCompressionContentTypes()) {
+      contentTypes.add(contentType.trim().toLowerCase(Locale.ROOT));
+    }
+
+    return new ResponseCompression(options.toArray(new CompressionOptions[0]), serverConfig.getCompressionMinLength(), contentTypes.build());
+  }
+
+  static String checkEncoding(String encoding) {
+    switch (encoding) {
+      case "br":
+      case "zstd":
+      case "gzip":
+      case "deflate":
+        return encoding;
+      default:
+        throw new IllegalArgumentException("Unsupported compression encoding '" + encoding + "', supported encodings are: br, zstd, gzip, deflate");
+    }
+  }
+
+  static void checkLevel(String encoding, int level) {
+    int max;
+    switch (checkEncoding(encoding)) {
+      case "br":
+        max = 11;
+        break;
+      case "zstd":
+        max = 22;
+        break;
+      default:
+        max = 9;
+        break;
+    }
+    if (level < 0 || level > max) {
+      throw new IllegalArgumentException("Compression level for '" + encoding + "' must be between 0 and " + max + " (was " + level + ")");
+    }
+  }
+
+  boolean isEnabled() {
+    return options.length > 0;
+  }
+
+  CompressionOptions[] getOptions() {
+    return options;
+  }
+
+  /**
+   * Whether a response with the given headers is eligible for compression, unless compression is forced.
+   */
+  boolean isCompressible(HttpHeaders headers) {
+    if (minLength > 0) {
+      String contentLength = headers.get(HttpHeaderConstants.CONTENT_LENGTH);
+      if (contentLength != null) {
+        try {
+          if (Long.parseLong(contentLength) < minLength) {
+            return false;
+          }
+        } catch (NumberFormatException ignore) {
+          // leave it to the codec
+        }
+      }
+    }
+
+    if (!contentTypes.isEmpty()) {
+      String contentType = headers.get(HttpHeaderConstants.CONTENT_TYPE);
+      return contentType != null && isCompressibleContentType(contentType);
+    }
+
+    return true;
+  }
+
+  private boolean isCompressibleContentType(String contentType) {
+    int paramsStart = contentType.indexOf(';');
+    String mediaType = (paramsStart < 0 ? contentType : contentType.substring(0, paramsStart)).trim().toLowerCase(Locale.ROOT);
+    for (String allowed : contentTypes) {
+      if (allowed.endsWith("/*")) {
+        if (allowed.equals("*/*") || mediaType.startsWith(allowed.substring(0, allowed.length() - 1))) {
+          return true;
+        }
+      } else if (allowed.equals(mediaType)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
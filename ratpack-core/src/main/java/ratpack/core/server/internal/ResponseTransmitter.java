@@ -20,16 +20,21 @@ import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import org.reactivestreams.Publisher;
 import ratpack.core.handling.RequestOutcome;
+import ratpack.core.http.internal.ByteRangesBody;
 import ratpack.func.Action;
 
 import java.nio.file.Path;
 
 public interface ResponseTransmitter {
 
+  void forceCompress();
+
   void transmit(HttpResponseStatus status, ByteBuf body);
 
   void transmit(HttpResponseStatus status, Path file);
 
+  void transmit(HttpResponseStatus status, Path file, ByteRangesBody ranges);
+
   void transmit(HttpResponseStatus status, Publisher<? extends ByteBuf> publisher, boolean drainRequestBodyBeforeResponse);
 
   void onWritabilityChanged();
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.server.internal;
+
+import io.netty.channel.*;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.HttpRequestDecoder;
+import io.netty.handler.codec.http.HttpResponseEncoder;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpServerUpgradeHandler;
+import io.netty.handler.codec.http2.*;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
+import io.netty.handler.ssl.SniHandler;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.AsciiString;
+import io.netty.util.Mapping;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.core.server.ServerConfig;
+
+/**
+ * Initializes the pipeline of accepted connections.
+ * <p>
+ * HTTP/1.1 connections use a single pipeline, where the adapter handles each request of the connection in turn.
+ * HTTP/2 connections (negotiated via ALPN, upgraded from HTTP/1.1 or using prior knowledge) multiplex streams as child channels,
+ * each of which has the same handlers as an HTTP/1.1 connection behind a stream frame to HTTP object codec.
+ * This means that each stream is handled as a single request, with its own execution.
+ */
+class ServerChannelInitializer extends ChannelInitializer<SocketChannel> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ServerChannelInitializer.class);
+
+  private static final String[] HTTP1_HANDLER_NAMES = {"decoder", "encoder", "deflater", "chunkedWriter", "adapter"};
+
+  private final ServerConfig serverConfig;
+  private final ChannelHandler handlerAdapter;
+  private final ResponseCompression compression;
+  private final ChannelHandler streamInitializer;
+
+  ServerChannelInitializer(ServerConfig serverConfig, ChannelHandler handlerAdapter) {
+    this.serverConfig = serverConfig;
+    this.handlerAdapter = handlerAdapter;
+    this.compression = ResponseCompression.of(serverConfig);
+    this.streamInitializer = new StreamInitializer(handlerAdapter, compression);
+  }
+
+  @Override
+  protected void initChannel(SocketChannel ch) {
+    ChannelPipeline pipeline = ch.pipeline();
+
+    Mapping<String, SslContext> sniSslContext = serverConfig.getSslContext();
+    if (sniSslContext != null) {
+      pipeline.addLast("ssl", new SniHandler(sniSslContext));
+      if (serverConfig.isHttp2()) {
+        pipeline.addLast("alpn", new ProtocolNegotiationHandler());
+      } else {
+        addHttp1Handlers(pipeline);
+      }
+    } else if (serverConfig.isHttp2()) {
+      addCleartextHandlers(pipeline);
+    } else {
+      addHttp1Handlers(pipeline);
+    }
+
+    ch.config().setAutoRead(false);
+  }
+
+  private void addHttp1Handlers(ChannelPipeline pipeline) {
+    pipeline.addLast("decoder", new HttpRequestDecoder(
+      serverConfig.getMaxInitialLineLength(),
+      serverConfig.getMaxHeaderSize(),
+      serverConfig.getMaxChunkSize(),
+      false)
+    );
+    pipeline.addLast("encoder", new HttpResponseEncoder());
+    addHttpObjectHandlers(pipeline, handlerAdapter, compression);
+  }
+
+  private static void addHttpObjectHandlers(ChannelPipeline pipeline, ChannelHandler handlerAdapter, ResponseCompression compression) {
+    pipeline.addLast("deflater", new IgnorableHttpContentCompressor(compression));
+    pipeline.addLast("chunkedWriter", new ChunkedWriteHandler());
+    pipeline.addLast("adapter", handlerAdapter);
+  }
+
+  private void addCleartextHandlers(ChannelPipeline pipeline) {
+    HttpServerCodec httpServerCodec = new HttpServerCodec(
+      serverConfig.getMaxInitialLineLength(),
+      serverConfig.getMaxHeaderSize(),
+      serverConfig.getMaxChunkSize(),
+      false
+    );
+    HttpServerUpgradeHandler upgradeHandler = new HttpServerUpgradeHandler(
+      httpServerCodec,
+      protocol -> AsciiString.contentEquals(Http2CodecUtil.HTTP_UPGRADE_PROTOCOL_NAME, protocol)
+        ? new Http2ServerUpgradeCodec(frameCodec(), multiplexHandler(), new Http1HandlersRemover())
+        : null,
+      serverConfig.getMaxContentLength()
+    );
+
+    pipeline.addLast("h2c", new CleartextHttp2ServerUpgradeHandler(httpServerCodec, upgradeHandler, new Http2HandlersInstaller()));
+    addHttpObjectHandlers(pipeline, handlerAdapter, compression);
+  }
+
+  private Http2FrameCodec frameCodec() {
+    return Http2FrameCodecBuilder.forServer()
+      .initialSettings(Http2Settings.defaultSettings()
+        .maxConcurrentStreams(serverConfig.getHttp2MaxConcurrentStreams())
+        .initialWindowSize(serverConfig.getHttp2InitialWindowSize())
+        .maxHeaderListSize(serverConfig.getMaxHeaderSize())
+      )
+      .validateHeaders(false)
+      .build();
+  }
+
+  private Http2MultiplexHandler multiplexHandler() {
+    return new Http2MultiplexHandler(streamInitializer);
+  }
+
+  private static void removeHttp1Handlers(ChannelHandlerContext ctx) {
+    ChannelPipeline pipeline = ctx.pipeline();
+    for (String name : HTTP1_HANDLER_NAMES) {
+      if (pipeline.get(name) != null) {
+        pipeline.remove(name);
+      }
+    }
+    if (pipeline.get(IdleStateHandler.class) != null) {
+      pipeline.remove(IdleStateHandler.class);
+    }
+    pipeline.remove(ctx.handler());
+    pipeline.addLast("http2Errors", ConnectionExceptionHandler.INSTANCE);
+    enableAutoRead(ctx);
+  }
+
+  // Back pressure for HTTP/2 connections is provided by stream flow control, with each stream channel only reading on demand.
+  // The connection itself must always be read so that frames for all streams (including window updates) are received.
+  private static void enableAutoRead(ChannelHandlerContext ctx) {
+    ctx.channel().config().setAutoRead(true);
+  }
+
+  private final class ProtocolNegotiationHandler extends ApplicationProtocolNegotiationHandler {
+
+    ProtocolNegotiationHandler() {
+      super(ApplicationProtocolNames.HTTP_1_1);
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) throws Exception {
+      // Nothing else is in the pipeline to start reading the TLS handshake until the protocol is known
+      ctx.read();
+      super.channelActive(ctx);
+    }
+
+    @Override
+    protected void configurePipeline(ChannelHandlerContext ctx, String protocol) {
+      ChannelPipeline pipeline = ctx.pipeline();
+      if (ApplicationProtocolNames.HTTP_2.equals(protocol)) {
+        pipeline.addLast("http2", frameCodec());
+        pipeline.addLast("http2Multiplexer", multiplexHandler());
+        pipeline.addLast("http2Errors", ConnectionExceptionHandler.INSTANCE);
+        enableAutoRead(ctx);
+      } else if (ApplicationProtocolNames.HTTP_1_1.equals(protocol)) {
+        addHttp1Handlers(pipeline);
+        // The adapter missed the channel becoming active, which is when it would normally request the first read
+        ctx.read();
+      } else {
+        throw new IllegalStateException("unsupported application protocol: " + protocol);
+      }
+    }
+  }
+
+  private final class Http2HandlersInstaller extends ChannelHandlerAdapter {
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+      ChannelPipeline pipeline = ctx.pipeline();
+      pipeline.addAfter(ctx.name(), "http2", frameCodec());
+      pipeline.addAfter("http2", "http2Multiplexer", multiplexHandler());
+      removeHttp1Handlers(ctx);
+    }
+  }
+
+  private static final class Http1HandlersRemover extends ChannelHandlerAdapter {
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+      removeHttp1Handlers(ctx);
+    }
+  }
+
+  // Errors for individual streams are handled by the adapter of the stream channel, leaving connection level errors
+  @ChannelHandler.Sharable
+  private static final class ConnectionExceptionHandler extends ChannelInboundHandlerAdapter {
+
+    static final ChannelHandler INSTANCE = new ConnectionExceptionHandler();
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      if (!NettyHandlerAdapter.isIgnorableException(cause)) {
+        LOGGER.error("", cause);
+      }
+      ctx.close();
+    }
+  }
+
+  @ChannelHandler.Sharable
+  private static final class StreamInitializer extends ChannelInitializer<Http2StreamChannel> {
+
+    private final ChannelHandler handlerAdapter;
+    private final ResponseCompression compression;
+
+    StreamInitializer(ChannelHandler handlerAdapter, ResponseCompression compression) {
+      this.handlerAdapter = handlerAdapter;
+      this.compression = compression;
+    }
+
+    @Override
+    protected void initChannel(Http2StreamChannel ch) {
+      ChannelPipeline pipeline = ch.pipeline();
+      pipeline.addLast("codec", new Http2StreamFrameToHttpObjectCodec(true, false));
+      addHttpObjectHandlers(pipeline, handlerAdapter, compression);
+      ch.config().setAutoRead(false);
+    }
+  }
+
+}
@@ -16,6 +16,8 @@
 
 package ratpack.core.server.internal;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.netty.handler.ssl.SslContext;
 import io.netty.util.Mapping;
 import ratpack.config.FileSystemBinding;
@@ -30,6 +32,8 @@ import java.net.URISyntaxException;
 import java.net.UnknownHostException;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class ServerConfigData {
@@ -39,6 +43,7 @@ public class ServerConfigData {
   private InetAddress address;
   private boolean development;
   private int threads = ServerConfig.DEFAULT_THREADS;
+  private int acceptorThreads;
   private URI publicAddress;
   private Mapping<String, SslContext> sslContext;
   private boolean requireClientSslAuth;
@@ -53,6 +58,14 @@ public class ServerConfigData {
   private int maxInitialLineLength = ServerConfig.DEFAULT_MAX_INITIAL_LINE_LENGTH;
   private int maxHeaderSize = ServerConfig.DEFAULT_MAX_HEADER_SIZE;
   private DecodingErrorLevel decodingErrorLevel = DecodingErrorLevel.WARN;
+  private boolean http2;
+  private int http2MaxConcurrentStreams = ServerConfig.DEFAULT_HTTP2_MAX_CONCURRENT_STREAMS;
+  private int http2InitialWindowSize = ServerConfig.DEFAULT_HTTP2_INITIAL_WINDOW_SIZE;
+  private boolean compiledRouting;
+  private List<String> compressionEncodings = ServerConfig.DEFAULT_COMPRESSION_ENCODINGS;
+  private Map<String, Integer> compressionLevels = ImmutableMap.of();
+  private int compressionMinLength;
+  private List<String> compressionContentTypes = ImmutableList.of();
 
   private Duration idleTimeout = Duration.ZERO;
   private boolean registerShutdownHook = true;
@@ -92,6 +105,10 @@ public class ServerConfigData {
     return threads;
   }
 
+  public int getAcceptorThreads() {
+    return acceptorThreads;
+  }
+
   public URI getPublicAddress() {
     return publicAddress;
   }
@@ -140,6 +157,10 @@ public class ServerConfigData {
     this.threads = threads;
   }
 
+  public void setAcceptorThreads(int acceptorThreads) {
+    this.acceptorThreads = acceptorThreads;
+  }
+
   public void setPublicAddress(URI publicAddress) {
     this.publicAddress = publicAddress;
   }
@@ -261,4 +282,68 @@ public class ServerConfigData {
   public void setTcpKeepAlive(boolean tcpKeepAlive) {
     this.tcpKeepAlive = tcpKeepAlive;
   }
+
+  public boolean isHttp2() {
+    return http2;
+  }
+
+  public void setHttp2(boolean http2) {
+    this.http2 = http2;
+  }
+
+  public int getHttp2MaxConcurrentStreams() {
+    return http2MaxConcurrentStreams;
+  }
+
+  public void setHttp2MaxConcurrentStreams(int http2MaxConcurrentStreams) {
+    this.http2MaxConcurrentStreams = http2MaxConcurrentStreams;
+  }
+
+  public int getHttp2InitialWindowSize() {
+    return http2InitialWindowSize;
+  }
+
+  public void setHttp2InitialWindowSize(int http2InitialWindowSize) {
+    this.http2InitialWindowSize = http2InitialWindowSize;
+  }
+
+  public boolean isCompiledRouting() {
+    return compiledRouting;
+  }
+
+  public void setCompiledRouting(boolean compiledRouting) {
+    this.compiledRouting = compiledRouting;
+  }
+
+  public List<String> getCompressionEncodings() {
+    return compressionEncodings;
+  }
+
+  public void setCompressionEncodings(List<String> compressionEncodings) {
+    this.compressionEncodings = ImmutableList.copyOf(compressionEncodings);
+  }
+
+  public Map<String, Integer> getCompressionLevels() {
+    return compressionLevels;
+  }
+
+  public void setCompressionLevels(Map<String, Integer> compressionLevels) {
+    this.compressionLevels = ImmutableMap.copyOf(compressionLevels);
+  }
+
+  public int getCompressionMinLength() {
+    return compressionMinLength;
+  }
+
+  public void setCompressionMinLength(int compressionMinLength) {
+    this.compressionMinLength = compressionMinLength;
+  }
+
+  public List<String> getCompressionContentTypes() {
+    return compressionContentTypes;
+  }
+
+  public void setCompressionContentTypes(List<String> compressionContentTypes) {
+    this.compressionContentTypes = ImmutableList.copyOf(compressionContentTypes);
+  }
 }
@@ -390,6 +390,117 @@ class StaticFileSpec extends RatpackGroovyDslSpec {
     fileSize = 2131795 // taken from original bug report
   }
 
+  def "can serve #range of static file"() {
+    given:
+    write("public/file.txt", "0123456789")
+
+    and:
+    handlers {
+      files { dir "public" }
+    }
+
+    and:
+    requestSpec { RequestSpec request -> request.headers.add(RANGE, range) } as Action<? super RequestSpec>
+
+    expect:
+    def response = get("file.txt")
+    response.statusCode == PARTIAL_CONTENT.code()
+    response.headers.get(CONTENT_RANGE) == contentRange
+    response.headers.get(CONTENT_LENGTH) == body.length().toString()
+    response.headers.get(ACCEPT_RANGES) == "bytes"
+    response.body.text == body
+
+    where:
+    range           | contentRange  | body
+    "bytes=2-4"     | "bytes 2-4/10" | "234"
+    "bytes=7-"      | "bytes 7-9/10" | "789"
+    "bytes=-2"      | "bytes 8-9/10" | "89"
+    "bytes=8-20"    | "bytes 8-9/10" | "89"
+    "bytes=1-2,3-4" | "bytes 1-4/10" | "1234"
+  }
+
+  def "can serve multiple ranges of static file"() {
+    given:
+    write("public/file.txt", "0123456789")
+
+    and:
+    handlers {
+      files { dir "public" }
+    }
+
+    and:
+    requestSpec { RequestSpec request -> request.headers.add(RANGE, "bytes=0-1,5-6") } as Action<? super RequestSpec>
+
+    when:
+    def response = get("file.txt")
+    def boundary = response.headers.get(CONTENT_TYPE) - "multipart/byteranges; boundary="
+
+    then:
+    response.statusCode == PARTIAL_CONTENT.code()
+    response.headers.get(CONTENT_LENGTH) == response.body.bytes.length.toString()
+    response.body.text == [
+      "--$boundary",
+      "content-type: text/plain",
+      "content-range: bytes 0-1/10",
+      "",
+      "01",
+      "--$boundary",
+      "content-type: text/plain",
+      "content-range: bytes 5-6/10",
+      "",
+      "56",
+      "--$boundary--",
+      ""
+    ].join("\r\n")
+  }
+
+  def "responds with 416 for unsatisfiable range"() {
+    given:
+    write("public/file.txt", "0123456789")
+
+    and:
+    handlers {
+      files { dir "public" }
+    }
+
+    and:
+    requestSpec { RequestSpec request -> request.headers.add(RANGE, "bytes=10-") } as Action<? super RequestSpec>
+
+    expect:
+    def response = get("file.txt")
+    response.statusCode == REQUESTED_RANGE_NOT_SATISFIABLE.code()
+    response.headers.get(CONTENT_RANGE) == "bytes */10"
+  }
+
+  def "serves whole file if range is #state"() {
+    given:
+    def file = write("public/file.txt", "0123456789")
+
+    and:
+    handlers {
+      files { dir "public" }
+    }
+
+    and:
+    requestSpec { RequestSpec request ->
+      request.headers.add(RANGE, range)
+      if (ifRangeOffset != null) {
+        request.headers.add(IF_RANGE, formatDateHeader(getLastModifiedTime(file).toMillis() + ifRangeOffset))
+      }
+    } as Action<? super RequestSpec>
+
+    expect:
+    def response = get("file.txt")
+    response.statusCode == OK.code()
+    response.body.text == "0123456789"
+
+    where:
+    range       | ifRangeOffset | state
+    "bytes=2-4" | -2000         | "modified since if-range"
+    "bytes=4-2" | null          | "invalid"
+    "lines=1-2" | null          | "not in bytes"
+  }
+
   def "asset handler passes through on not found"() {
     given:
     write "public/foo.txt", "bar"
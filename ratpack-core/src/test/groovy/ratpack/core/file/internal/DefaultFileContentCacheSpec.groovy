@@ -0,0 +1,178 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.file.internal
+
+import io.netty.handler.codec.http.HttpHeaderNames
+import ratpack.core.file.FileContentCache
+import ratpack.groovy.test.embed.GroovyEmbeddedApp
+import ratpack.test.internal.RatpackGroovyDslSpec
+
+import java.nio.file.Files
+import java.nio.file.attribute.FileTime
+
+class DefaultFileContentCacheSpec extends RatpackGroovyDslSpec {
+
+  def cache = FileContentCache.of { it.maxFileSize(10).recordStats(true) }
+
+  def setup() {
+    serverConfig { development(true) }
+  }
+
+  def "serves small files from cache"() {
+    given:
+    write("public/file.txt", "abc")
+
+    when:
+    handlers {
+      files { dir "public" contentCache cache }
+    }
+
+    then:
+    getText("file.txt") == "abc"
+    getText("file.txt") == "abc"
+    response.headers.get(HttpHeaderNames.CONTENT_TYPE) == "text/plain"
+    response.headers.get(HttpHeaderNames.CONTENT_LENGTH) == "3"
+    cache.missCount == 1
+    cache.hitCount == 1
+    cache.size == 3
+  }
+
+  def "reloads file that has been modified"() {
+    given:
+    def file = write("public/file.txt", "abc")
+
+    when:
+    handlers {
+      files { dir "public" contentCache cache }
+    }
+
+    then:
+    getText("file.txt") == "abc"
+
+    when:
+    file.text = "abcd"
+    Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000))
+
+    then:
+    getText("file.txt") == "abcd"
+    cache.missCount == 2
+    cache.size == 4
+  }
+
+  def "serves large files and ranges from file system"() {
+    given:
+    write("public/large.txt", "0123456789abc")
+    write("public/small.txt", "0123456789")
+
+    when:
+    handlers {
+      files { dir "public" contentCache cache }
+    }
+
+    then:
+    getText("large.txt") == "0123456789abc"
+
+    when:
+    requestSpec { it.headers.set(HttpHeaderNames.RANGE, "bytes=2-4") }
+
+    then:
+    getText("small.txt") == "234"
+    cache.missCount == 0
+    cache.hitCount == 0
+    cache.size == 0
+  }
+
+  def "releases contents when invalidated"() {
+    given:
+    write("public/file.txt", "abc")
+
+    when:
+    handlers {
+      files { dir "public" contentCache cache }
+    }
+
+    then:
+    getText("file.txt") == "abc"
+
+    when:
+    cache.invalidateAll()
+
+    then:
+    cache.size == 0
+    getText("file.txt") == "abc"
+    cache.missCount == 2
+  }
+
+  def "releases contents when the server stops"() {
+    given:
+    write("public/file.txt", "abc")
+
+    when:
+    handlers {
+      files { dir "public" contentCache cache }
+    }
+
+    then:
+    getText("file.txt") == "abc"
+    cache.size == 3
+
+    when:
+    application.server.stop()
+
+    then:
+    cache.size == 0
+  }
+
+  def "releases contents when any server that loaded them stops"() {
+    given:
+    write("public/file.txt", "abc")
+    write("public/other.txt", "abcd")
+    handlers {
+      files { dir "public" contentCache cache }
+    }
+    def other = GroovyEmbeddedApp.of {
+      serverConfig { baseDir(this.baseDir.root) }
+      handlers { files { dir "public" contentCache cache } }
+    }
+
+    when:
+    assert getText("file.txt") == "abc"
+    assert other.httpClient.getText("other.txt") == "abcd"
+
+    then:
+    cache.size == 7
+
+    when:
+    application.server.stop()
+
+    then:
+    cache.size == 0
+
+    when:
+    other.httpClient.getText("other.txt")
+
+    then:
+    cache.size == 4
+
+    when:
+    other.close()
+
+    then:
+    cache.size == 0
+  }
+
+}
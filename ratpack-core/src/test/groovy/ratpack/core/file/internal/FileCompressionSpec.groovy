@@ -69,4 +69,103 @@ class FileCompressionSpec extends RatpackGroovyDslSpec {
     response.headers.get("Content-Length").toInteger() < bytes.length
   }
 
+  def "serves precompressed variant for #acceptEncoding"() {
+    given:
+    path("public/file.txt.br") << "br"
+    path("public/file.txt.gz") << "gz"
+    requestSpec {
+      it.decompressResponse(false)
+      it.headers.set(HttpHeaderNames.ACCEPT_ENCODING, acceptEncoding)
+    }
+
+    when:
+    handlers {
+      files { dir "public" precompressed "br", "gzip" }
+    }
+
+    then:
+    get("file.txt")
+    response.headers.get("Content-Encoding") == contentEncoding
+    response.headers.get("Content-Type") == "text/plain"
+    response.headers.get("Vary") == "accept-encoding"
+    response.body.text == body
+
+    where:
+    acceptEncoding           | contentEncoding | body
+    "br, gzip"               | "br"            | "br"
+    "gzip, br"               | "br"            | "br"
+    "gzip"                   | "gzip"          | "gz"
+    "gzip;q=1, br;q=0.5"     | "gzip"          | "gz"
+    "br;q=0, *"              | "gzip"          | "gz"
+  }
+
+  def "serves next acceptable variant if preferred variant does not exist"() {
+    given:
+    path("public/file.txt.gz") << "gz"
+    requestSpec {
+      it.decompressResponse(false)
+      it.headers.set(HttpHeaderNames.ACCEPT_ENCODING, "br, gzip")
+    }
+
+    when:
+    handlers {
+      files { dir "public" precompressed "br", "gzip" }
+    }
+
+    then:
+    get("file.txt")
+    response.headers.get("Content-Encoding") == "gzip"
+    response.body.text == "gz"
+  }
+
+  def "serves file if no variant is acceptable"() {
+    given:
+    path("public/file.txt.br") << "br"
+    requestSpec {
+      it.decompressResponse(false)
+      it.headers.set(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.IDENTITY)
+    }
+
+    when:
+    handlers {
+      files { dir "public" precompressed "br" }
+    }
+
+    then:
+    get("file.txt")
+    response.headers.get("Content-Encoding") == null
+    response.headers.get("Vary") == "accept-encoding"
+    response.body.bytes == bytes
+  }
+
+  def "serves range of precompressed variant"() {
+    given:
+    path("public/file.txt.gz") << "0123456789"
+    requestSpec {
+      it.decompressResponse(false)
+      it.headers.set(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.GZIP)
+      it.headers.set(HttpHeaderNames.RANGE, "bytes=2-4")
+    }
+
+    when:
+    handlers {
+      files { dir "public" precompressed "gzip" }
+    }
+
+    then:
+    get("file.txt")
+    response.statusCode == 206
+    response.headers.get("Content-Encoding") == "gzip"
+    response.headers.get("Content-Range") == "bytes 2-4/10"
+    response.body.text == "234"
+  }
+
+  def "rejects unsupported precompressed encoding"() {
+    when:
+    new DefaultFileHandlerSpec().precompressed("deflate")
+
+    then:
+    thrown IllegalArgumentException
+  }
+
 }
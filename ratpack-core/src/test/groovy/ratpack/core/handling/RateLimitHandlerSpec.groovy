@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.handling
+
+import ratpack.exec.util.KeyedRateLimiter
+import ratpack.exec.util.RateLimiter
+import ratpack.test.internal.RatpackGroovyDslSpec
+
+import java.time.Duration
+
+class RateLimitHandlerSpec extends RatpackGroovyDslSpec {
+
+  def "rejects requests over the limit with retry after"() {
+    given:
+    def limiter = RateLimiter.of { it.rate(1, Duration.ofSeconds(30)).burst(2) }
+
+    when:
+    handlers {
+      all(Handlers.rateLimit(limiter))
+      get { render "ok" }
+    }
+
+    then:
+    text == "ok"
+    text == "ok"
+    with(get()) {
+      statusCode == 429
+      headers.get("Retry-After") == "30"
+    }
+  }
+
+  def "waits for permit within max wait"() {
+    given:
+    def limiter = RateLimiter.of { it.rate(10, Duration.ofSeconds(1)).maxWait(Duration.ofSeconds(1)) }
+
+    when:
+    handlers {
+      all(Handlers.rateLimit(limiter))
+      get { render "ok" }
+    }
+
+    then:
+    3.times { assert text == "ok" }
+    limiter.rejectedCount == 0
+  }
+
+  def "limits per key"() {
+    given:
+    def limiter = KeyedRateLimiter.<String> of { it.rate(1, Duration.ofMinutes(1)) }
+
+    when:
+    handlers {
+      all(Handlers.rateLimit(limiter) { it.request.queryParams.tenant })
+      get { render "ok" }
+    }
+
+    then:
+    get("?tenant=a").statusCode == 200
+    get("?tenant=b").statusCode == 200
+    get("?tenant=a").statusCode == 429
+  }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.http
+
+import io.netty.handler.codec.http.HttpHeaderNames
+import ratpack.core.handling.Handlers
+import ratpack.exec.Promise
+import ratpack.test.internal.RatpackGroovyDslSpec
+
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+
+class ResponseCacheSpec extends RatpackGroovyDslSpec {
+
+  def cache = ResponseCache.of { it.recordStats(true) }
+  def counter = new AtomicInteger()
+
+  def setup() {
+    handlers {
+      all(Handlers.cache(cache))
+      get("cached") {
+        response.headers.set(HttpHeaderNames.CACHE_CONTROL, "max-age=60")
+        response.headers.set(HttpHeaderNames.ETAG, '"tag"')
+        render "cached-${counter.incrementAndGet()}"
+      }
+      get("varying") {
+        response.headers.set(HttpHeaderNames.CACHE_CONTROL, "max-age=60")
+        response.headers.set(HttpHeaderNames.VARY, "Accept-Language")
+        render "${request.headers.get(HttpHeaderNames.ACCEPT_LANGUAGE)}-${counter.incrementAndGet()}"
+      }
+      get("private") {
+        response.headers.set(HttpHeaderNames.CACHE_CONTROL, "private, max-age=60")
+        render "private-${counter.incrementAndGet()}"
+      }
+      get("uncached") {
+        render "uncached-${counter.incrementAndGet()}"
+      }
+      get("cookie") {
+        response.headers.set(HttpHeaderNames.CACHE_CONTROL, "max-age=60")
+        response.cookie("a", "b")
+        render "cookie-${counter.incrementAndGet()}"
+      }
+      get("stale") {
+        response.headers.set(HttpHeaderNames.CACHE_CONTROL, "max-age=1, stale-while-revalidate=60")
+        def value = "stale-${counter.incrementAndGet()}"
+        Promise.value(value).defer(Duration.ofMillis(500)).then { render it }
+      }
+    }
+  }
+
+  def "serves cacheable responses from the cache"() {
+    expect:
+    getText("cached") == "cached-1"
+    getText("cached") == "cached-1"
+    getText("cached?a=b") == "cached-2"
+    response.headers.get(HttpHeaderNames.AGE) == "0"
+    response.headers.get(HttpHeaderNames.CONTENT_TYPE) == "text/plain;charset=UTF-8"
+    cache.hitCount == 1
+    cache.missCount == 2
+    cache.size > 0
+
+    when:
+    cache.invalidateAll()
+
+    then:
+    getText("cached") == "cached-3"
+    cache.size > 0
+  }
+
+  def "does not cache responses that are not cacheable"() {
+    expect:
+    getText(path) == "$path-1"
+    getText(path) == "$path-2"
+
+    where:
+    path << ["private", "uncached", "cookie"]
+  }
+
+  def "responds with not modified if the etag matches"() {
+    given:
+    getText("cached")
+
+    when:
+    requestSpec { it.headers.set(HttpHeaderNames.IF_NONE_MATCH, 'W/"other", W/"tag"') }
+    get("cached")
+
+    then:
+    response.statusCode == 304
+    response.headers.get(HttpHeaderNames.ETAG) == '"tag"'
+    counter.get() == 1
+  }
+
+  def "caches variants of responses by the request headers they vary by"() {
+    when:
+    requestSpec { it.headers.set(HttpHeaderNames.ACCEPT_LANGUAGE, "en") }
+
+    then:
+    getText("varying") == "en-1"
+    getText("varying") == "en-1"
+
+    when:
+    requestSpec { it.headers.set(HttpHeaderNames.ACCEPT_LANGUAGE, "fr") }
+
+    then:
+    getText("varying") == "fr-2"
+    getText("varying") == "fr-2"
+  }
+
+  def "honours request cache control"() {
+    given:
+    getText("cached")
+
+    when:
+    requestSpec { it.headers.set(HttpHeaderNames.CACHE_CONTROL, "no-cache") }
+
+    then:
+    getText("cached") == "cached-2"
+
+    when:
+    resetRequest()
+
+    then:
+    getText("cached") == "cached-2"
+
+    when:
+    requestSpec { it.headers.set(HttpHeaderNames.AUTHORIZATION, "Basic Zm9vOmJhcg==") }
+
+    then:
+    getText("cached") == "cached-3"
+  }
+
+  def "serves stale responses while a single request revalidates"() {
+    given:
+    getText("stale")
+    sleep 1100
+
+    when:
+    def revalidation = Thread.start { "${applicationUnderTest.address}stale".toURL().text }
+    sleep 200
+
+    then:
+    getText("stale") == "stale-1"
+    getText("stale") == "stale-1"
+
+    when:
+    revalidation.join()
+
+    then:
+    getText("stale") == "stale-2"
+    counter.get() == 2
+  }
+
+  def "nested caches each capture the response"() {
+    given:
+    def inner = ResponseCache.of { it.recordStats(true) }
+    handlers {
+      all(Handlers.cache(cache))
+      all(Handlers.cache(inner))
+      get("cached") {
+        response.headers.set(HttpHeaderNames.CACHE_CONTROL, "max-age=60")
+        render "cached-${counter.incrementAndGet()}"
+      }
+    }
+
+    expect:
+    getText("cached") == "cached-1"
+    cache.size > 0
+    inner.size > 0
+
+    when:
+    cache.invalidateAll()
+
+    then:
+    getText("cached") == "cached-1"
+    inner.hitCount == 1
+  }
+
+  def "releases cached responses when the server stops"() {
+    expect:
+    getText("cached") == "cached-1"
+    cache.size > 0
+
+    when:
+    application.server.stop()
+
+    then:
+    cache.size == 0
+  }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.http
+
+import io.netty.handler.codec.http.HttpHeaderNames
+import ratpack.test.internal.RatpackGroovyDslSpec
+
+import java.util.zip.GZIPInputStream
+
+class ResponseCompressionSpec extends RatpackGroovyDslSpec {
+
+  def large = "a" * 2000
+
+  def setup() {
+    requestSpec {
+      it.decompressResponse(false)
+      it.headers.set(HttpHeaderNames.ACCEPT_ENCODING, "gzip, deflate")
+    }
+    handlers {
+      get("small") { response.send("text/plain", "small") }
+      get("large") { response.send("text/plain", large) }
+      get("json") { response.send("application/json;charset=UTF-8", large) }
+      get("binary") { response.send("application/octet-stream", large) }
+      get("forced") { response.forceCompress().send("application/octet-stream", "small") }
+      get("skipped") { response.noCompress().send("text/plain", large) }
+    }
+  }
+
+  def "compresses with gzip and deflate by default"() {
+    expect:
+    get("small").headers.get(HttpHeaderNames.CONTENT_ENCODING) == "gzip"
+    get("binary").headers.get(HttpHeaderNames.CONTENT_ENCODING) == "gzip"
+    get("skipped").headers.get(HttpHeaderNames.CONTENT_ENCODING) == null
+  }
+
+  def "compresses with the configured encodings and level"() {
+    given:
+    serverConfig {
+      compressionEncodings("deflate")
+      compressionLevel("deflate", 1)
+    }
+
+    expect:
+    get("large").headers.get(HttpHeaderNames.CONTENT_ENCODING) == "deflate"
+  }
+
+  def "does not compress if no encodings are configured"() {
+    given:
+    serverConfig { compressionEncodings() }
+
+    expect:
+    get("large").headers.get(HttpHeaderNames.CONTENT_ENCODING) == null
+    get("forced").headers.get(HttpHeaderNames.CONTENT_ENCODING) == null
+  }
+
+  def "only compresses responses of at least the min length"() {
+    given:
+    serverConfig { compressionMinLength(1000) }
+
+    expect:
+    get("small").headers.get(HttpHeaderNames.CONTENT_ENCODING) == null
+    get("small").body.text == "small"
+    get("large").headers.get(HttpHeaderNames.CONTENT_ENCODING) == "gzip"
+    new GZIPInputStream(new ByteArrayInputStream(get("large").body.bytes)).text == large
+  }
+
+  def "only compresses responses of the configured content types"() {
+    given:
+    serverConfig { compressionContentTypes("text/*", "application/json") }
+
+    expect:
+    get("large").headers.get(HttpHeaderNames.CONTENT_ENCODING) == "gzip"
+    get("json").headers.get(HttpHeaderNames.CONTENT_ENCODING) == "gzip"
+    get("binary").headers.get(HttpHeaderNames.CONTENT_ENCODING) == null
+  }
+
+  def "can force compression of a response"() {
+    given:
+    serverConfig {
+      compressionMinLength(1000)
+      compressionContentTypes("text/*")
+    }
+
+    expect:
+    get("forced").headers.get(HttpHeaderNames.CONTENT_ENCODING) == "gzip"
+    new GZIPInputStream(new ByteArrayInputStream(get("forced").body.bytes)).text == "small"
+  }
+
+}
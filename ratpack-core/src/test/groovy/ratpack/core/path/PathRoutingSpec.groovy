@@ -371,4 +371,47 @@ class PathRoutingSpec extends RatpackGroovyDslSpec {
     getText("bar/") == "0"
     //    getText("bar//") == "1" // The httpurl spec under the covers will fix this bar// before it is ever passed to ratpack
   }
+
+  def "can route via compiled routing"() {
+    when:
+    serverConfig {
+      compiledRouting(true)
+    }
+    handlers {
+      get("a") {
+        render "a"
+      }
+      get("a/:id") {
+        render "a/${pathTokens.id}"
+      }
+      path("b/:id") {
+        next()
+      }
+      get("b/c") {
+        render "b/c"
+      }
+      prefix("c") {
+        get(":id?") {
+          render "c/${pathTokens.id}"
+        }
+        get("d/e") {
+          render "c/d/e"
+        }
+      }
+      get(":x/:y") {
+        render "${pathTokens.x}-${pathTokens.y}"
+      }
+    }
+
+    then:
+    getText("a") == "a"
+    getText("a/") == "a"
+    getText("a/1") == "a/1"
+    getText("b/c") == "b/c"
+    getText("c") == "c/"
+    getText("c/1") == "c/1"
+    getText("c/d/e") == "c/d/e"
+    getText("d/e") == "d-e"
+    get("a/1/2").statusCode == NOT_FOUND.code()
+  }
 }
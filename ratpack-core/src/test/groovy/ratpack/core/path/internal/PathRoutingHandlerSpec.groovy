@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.path.internal
+
+import ratpack.core.handling.Handler
+import ratpack.core.handling.Handlers
+import ratpack.core.path.PathBinder
+import ratpack.test.internal.BaseRatpackSpec
+
+class PathRoutingHandlerSpec extends BaseRatpackSpec {
+
+  static final List<String> PATTERNS = [
+    "", "a", "a/b", "a/b/c", "b", "a/:x", ":x", ":x/b", ":x/:y", "a/:x/c", ":x?", "a/:x?", ":x/:y?",
+    "::a.*", "a/::[bc]", ":x:\\d+", "a/:x?:\\d+", ":x.json", "a/b/", "/a", "a//b", "%20", "a b"
+  ]
+
+  static final List<String> PATHS = [
+    "", "/", "a", "a/", "a/b", "a/b/", "a/b/c", "a/b/c/d", "b", "b/b", "c/b", "a/1", "1", "1/2", "12/b",
+    "x.json", "a/c", "aa", "a//b", "/a", "//a", "a/b//", "%20", "a b", "a/b/x"
+  ]
+
+  def "routes paths to all path handlers that may bind them"() {
+    given:
+    List<PathHandler> handlers = []
+    [true, false].each { exact ->
+      PATTERNS.each { handlers << new PathHandler(PathBinder.parse(it, exact), Handlers.next()) }
+    }
+    def router = PathRoutingHandler.compile(handlers as Handler[])[0] as PathRoutingHandler
+
+    expect:
+    PATHS.each { path ->
+      def candidates = router.route(path).toList()
+      def binding = new RootPathBinding(path)
+      handlers.each { handler ->
+        if (handler.binder.bind(binding).present) {
+          assert handler in candidates
+        }
+      }
+      assert candidates == handlers.findAll { it in candidates }
+    }
+  }
+
+  def "narrows down candidates for literal and token paths"() {
+    given:
+    def handlers = ["a", "a/b", "b/:x", "c", ":x/d"].collect { new PathHandler(PathBinder.parse(it, true), Handlers.next()) }
+    def router = PathRoutingHandler.compile(handlers as Handler[])[0] as PathRoutingHandler
+
+    expect:
+    router.route(path).collect { handlers.indexOf(it) } == candidates
+
+    where:
+    path    | candidates
+    "a"     | [0]
+    "a/"    | [0]
+    "a/b"   | [1]
+    "b/1"   | [2]
+    "b/d"   | [2, 4]
+    "c"     | [3]
+    "e"     | []
+    "a/b/c" | []
+  }
+
+  def "only compiles runs of path handlers"() {
+    given:
+    Handler other = Handlers.next()
+    def path = { new PathHandler(PathBinder.parse(it, true), Handlers.next()) }
+    def a = path("a")
+
+    when:
+    def compiled = PathRoutingHandler.compile([a, other, path("b"), path("c"), other] as Handler[])
+
+    then:
+    compiled.length == 4
+    compiled[0].is(a)
+    compiled[1].is(other)
+    compiled[2] instanceof PathRoutingHandler
+    compiled[3].is(other)
+  }
+
+}
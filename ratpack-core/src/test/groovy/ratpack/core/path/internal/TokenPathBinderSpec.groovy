@@ -80,5 +80,29 @@ class TokenPathBinderSpec extends BaseRatpackSpec {
     e.message == "Cannot add mandatory parameter c after optional parameters"
   }
 
+  def "segment matching is equivalent to regex matching"() {
+    given:
+    def patterns = [
+      "", "a", "a/b", "a/:x", ":x", ":x/b", ":x/:y", ":x?", "a/:x?", ":x/:y?", ":x?/b", ":x?/b/:y?", ":x/:y?/b",
+      "a/", "/a", "a//b", "/:x", "/:x?", ":x?//b"
+    ]
+    def paths = [
+      "", "/", "a", "a/", "a/b", "a/b/", "a/b/c", "/a", "//a", "a//b", "b", "/b", "a/b//", "1//3", "%20", "a/%20",
+      "a+b", "a&b", "a/b&c", "a?b", "a/#"
+    ]
+
+    expect:
+    [true, false].each { exact ->
+      patterns.each { pattern ->
+        def binder = PathBinder.parse(pattern, exact) as TokenPathBinder
+        def regexBinder = binder.regexBinder()
+        paths.each { path ->
+          def parent = new RootPathBinding(path)
+          assert binder.bind(parent) == regexBinder.bind(parent)
+        }
+      }
+    }
+  }
+
 
 }
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.server
+
+import io.netty.handler.ssl.ApplicationProtocolConfig
+import io.netty.handler.ssl.ApplicationProtocolNames
+import io.netty.handler.ssl.SslContextBuilder
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory
+import io.netty.handler.ssl.util.SelfSignedCertificate
+import ratpack.exec.Blocking
+import ratpack.exec.Execution
+import ratpack.test.internal.RatpackGroovyDslSpec
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+import static ratpack.core.server.Http2TestClient.get
+import static ratpack.core.server.Http2TestClient.post
+
+class Http2Spec extends RatpackGroovyDslSpec {
+
+  @Shared
+  SelfSignedCertificate cert = new SelfSignedCertificate("localhost")
+
+  @AutoCleanup
+  Http2TestClient h2
+
+  def cleanupSpec() {
+    cert.delete()
+  }
+
+  static ApplicationProtocolConfig alpn() {
+    new ApplicationProtocolConfig(
+      ApplicationProtocolConfig.Protocol.ALPN,
+      ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+      ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+      ApplicationProtocolNames.HTTP_2,
+      ApplicationProtocolNames.HTTP_1_1
+    )
+  }
+
+  void echoHandlers() {
+    handlers {
+      get { render "${request.protocol} ${request.method}" }
+      post("echo") { request.body.then { render it.text } }
+    }
+  }
+
+  def "serves requests with prior knowledge"() {
+    given:
+    serverConfig { http2(true) }
+    echoHandlers()
+    h2 = Http2TestClient.priorKnowledge(application.address)
+
+    expect:
+    with(h2.send(get("/"))) {
+      status == 200
+      body == "HTTP/2.0 GET"
+    }
+    with(h2.send(post("/echo", "a" * 100_000))) {
+      status == 200
+      body == "a" * 100_000
+    }
+  }
+
+  def "serves requests negotiated with alpn"() {
+    given:
+    serverConfig {
+      http2(true)
+      ssl SslContextBuilder.forServer(cert.certificate(), cert.privateKey()).applicationProtocolConfig(alpn()).build()
+    }
+    echoHandlers()
+    h2 = Http2TestClient.alpn(
+      application.address,
+      SslContextBuilder.forClient().trustManager(InsecureTrustManagerFactory.INSTANCE).applicationProtocolConfig(alpn()).build()
+    )
+
+    expect:
+    h2.applicationProtocol == ApplicationProtocolNames.HTTP_2
+    h2.send(get("/")).body == "HTTP/2.0 GET"
+    h2.send(post("/echo", "foo")).body == "foo"
+  }
+
+  def "serves http 1.1 to clients that do not negotiate h2"() {
+    given:
+    def sslContext = SslContextBuilder.forServer(cert.certificate(), cert.privateKey()).applicationProtocolConfig(alpn()).build()
+    serverConfig {
+      http2(true)
+      ssl sslContext
+    }
+    echoHandlers()
+
+    when:
+    requestSpec { it.sslContext(SslContextBuilder.forClient().trustManager(InsecureTrustManagerFactory.INSTANCE).build()) }
+
+    then:
+    text == "HTTP/1.1 GET"
+  }
+
+  def "upgrades cleartext connections"() {
+    given:
+    serverConfig { http2(true) }
+    echoHandlers()
+
+    when:
+    def upgrade = Http2TestClient.upgrade(application.address, post("/echo", "upgrade"))
+    h2 = upgrade.first
+
+    then:
+    upgrade.second.get(10, TimeUnit.SECONDS).body == "upgrade"
+    h2.send(get("/")).body == "HTTP/2.0 GET"
+    h2.send(post("/echo", "foo")).body == "foo"
+  }
+
+  def "serves http 1.1 connections alongside upgraded connections"() {
+    given:
+    serverConfig { http2(true) }
+    echoHandlers()
+
+    expect:
+    text == "HTTP/1.1 GET"
+
+    when:
+    h2 = Http2TestClient.upgrade(application.address, get("/")).first
+    assert h2.send(get("/")).body == "HTTP/2.0 GET"
+
+    then:
+    text == "HTTP/1.1 GET"
+    postText("echo") == ""
+    text == "HTTP/1.1 GET"
+  }
+
+  def "handles concurrent streams of a connection in their own executions"() {
+    given:
+    serverConfig { http2(true) }
+    def executions = ConcurrentHashMap.<Execution> newKeySet()
+    def latch = new CountDownLatch(2)
+    handlers {
+      get {
+        executions << Execution.current()
+        Blocking.get { latch.countDown(); latch.await(5, TimeUnit.SECONDS) }.then { render it.toString() }
+      }
+    }
+    h2 = Http2TestClient.priorKnowledge(application.address)
+
+    when:
+    def responses = [h2.request(get("/")), h2.request(get("/"))]*.get(10, TimeUnit.SECONDS)
+
+    then:
+    responses*.body == ["true", "true"]
+    executions.size() == 2
+  }
+
+  def "serves files over streams"() {
+    given:
+    serverConfig { http2(true) }
+    def content = "0123456789" * 20_000
+    write("file.txt", content)
+    handlers {
+      get { render file("file.txt") }
+    }
+    h2 = Http2TestClient.priorKnowledge(application.address)
+
+    expect:
+    with(h2.send(get("/"))) {
+      status == 200
+      body == content
+    }
+  }
+
+}
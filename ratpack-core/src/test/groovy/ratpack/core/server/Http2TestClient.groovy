@@ -0,0 +1,238 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.core.server
+
+import io.netty.bootstrap.Bootstrap
+import io.netty.buffer.Unpooled
+import io.netty.channel.Channel
+import io.netty.channel.ChannelHandler
+import io.netty.channel.ChannelHandlerContext
+import io.netty.channel.ChannelInboundHandlerAdapter
+import io.netty.channel.ChannelInitializer
+import io.netty.channel.ChannelPipeline
+import io.netty.channel.EventLoopGroup
+import io.netty.channel.SimpleChannelInboundHandler
+import io.netty.channel.nio.NioEventLoopGroup
+import io.netty.channel.socket.SocketChannel
+import io.netty.channel.socket.nio.NioSocketChannel
+import io.netty.handler.codec.http.DefaultFullHttpRequest
+import io.netty.handler.codec.http.FullHttpRequest
+import io.netty.handler.codec.http.FullHttpResponse
+import io.netty.handler.codec.http.HttpClientCodec
+import io.netty.handler.codec.http.HttpClientUpgradeHandler
+import io.netty.handler.codec.http.HttpHeaderNames
+import io.netty.handler.codec.http.HttpHeaders
+import io.netty.handler.codec.http.HttpMethod
+import io.netty.handler.codec.http.HttpObjectAggregator
+import io.netty.handler.codec.http.HttpVersion
+import io.netty.handler.codec.http2.Http2ClientUpgradeCodec
+import io.netty.handler.codec.http2.Http2FrameCodec
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder
+import io.netty.handler.codec.http2.Http2MultiplexHandler
+import io.netty.handler.codec.http2.Http2StreamChannel
+import io.netty.handler.codec.http2.Http2StreamChannelBootstrap
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec
+import io.netty.handler.codec.http2.HttpConversionUtil
+import io.netty.handler.ssl.SslContext
+import io.netty.handler.ssl.SslHandler
+
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+
+/**
+ * A minimal HTTP/2 client, for testing the server's HTTP/2 support.
+ * <p>
+ * Each request is sent on its own stream of a single connection.
+ */
+class Http2TestClient implements Closeable {
+
+  static class Response {
+    final int status
+    final HttpHeaders headers
+    final String body
+
+    Response(FullHttpResponse response) {
+      this.status = response.status().code()
+      this.headers = response.headers()
+      this.body = response.content().toString(StandardCharsets.UTF_8)
+    }
+  }
+
+  private final EventLoopGroup group = new NioEventLoopGroup(1)
+  private final URI address
+  private final String scheme
+  private Channel channel
+
+  private Http2TestClient(URI address, String scheme) {
+    this.address = address
+    this.scheme = scheme
+  }
+
+  /**
+   * Connects with cleartext HTTP/2, sending the connection preface immediately.
+   */
+  static Http2TestClient priorKnowledge(URI address) {
+    def client = new Http2TestClient(address, "http")
+    client.connect { ChannelPipeline p ->
+      p.addLast(frameCodec(), new Http2MultiplexHandler(ignoreInboundStreams()))
+    }
+    client
+  }
+
+  /**
+   * Connects with TLS, negotiating the protocol with ALPN.
+   *
+   * @return the client, and the negotiated protocol
+   */
+  static Http2TestClient alpn(URI address, SslContext sslContext) {
+    def client = new Http2TestClient(address, "https")
+    client.connect { ChannelPipeline p ->
+      p.addLast(sslContext.newHandler(p.channel().alloc(), address.host, address.port))
+      p.addLast(frameCodec(), new Http2MultiplexHandler(ignoreInboundStreams()))
+    }
+    client.channel.pipeline().get(SslHandler).handshakeFuture().sync()
+    client
+  }
+
+  /**
+   * Connects with HTTP/1.1, and upgrades to cleartext HTTP/2 with the given request.
+   *
+   * @return the client, and the response to the upgrade request, which is received on stream 1
+   */
+  static Tuple2<Http2TestClient, CompletableFuture<Response>> upgrade(URI address, FullHttpRequest upgradeRequest) {
+    def client = new Http2TestClient(address, "http")
+    def upgraded = new CompletableFuture<Void>()
+    def response = new CompletableFuture<Response>()
+    client.connect { ChannelPipeline p ->
+      def sourceCodec = new HttpClientCodec()
+      def upgradeCodec = new Http2ClientUpgradeCodec(frameCodec(), new Http2MultiplexHandler(ignoreInboundStreams(), streamHandler(response)))
+      p.addLast(sourceCodec, new HttpClientUpgradeHandler(sourceCodec, upgradeCodec, 65536))
+      p.addLast(new ChannelInboundHandlerAdapter() {
+        @Override
+        void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+          if (evt == HttpClientUpgradeHandler.UpgradeEvent.UPGRADE_SUCCESSFUL) {
+            upgraded.complete(null)
+          } else if (evt == HttpClientUpgradeHandler.UpgradeEvent.UPGRADE_REJECTED) {
+            upgraded.completeExceptionally(new IllegalStateException("upgrade rejected"))
+          }
+          super.userEventTriggered(ctx, evt)
+        }
+      })
+    }
+    upgradeRequest.headers().set(HttpHeaderNames.HOST, client.authority)
+    client.channel.writeAndFlush(upgradeRequest)
+    upgraded.get(10, TimeUnit.SECONDS)
+    new Tuple2(client, response)
+  }
+
+  static FullHttpRequest get(String path) {
+    new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, path)
+  }
+
+  static FullHttpRequest post(String path, String body) {
+    def request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, path, Unpooled.copiedBuffer(body, StandardCharsets.UTF_8))
+    request.headers().set(HttpHeaderNames.CONTENT_LENGTH, request.content().readableBytes())
+    request
+  }
+
+  String getApplicationProtocol() {
+    channel.pipeline().get(SslHandler)?.applicationProtocol()
+  }
+
+  /**
+   * Sends the request on a new stream.
+   */
+  CompletableFuture<Response> request(FullHttpRequest request) {
+    def response = new CompletableFuture<Response>()
+    Http2StreamChannel stream = new Http2StreamChannelBootstrap(channel)
+      .handler(streamHandler(response))
+      .open()
+      .sync()
+      .getNow()
+
+    request.headers().set(HttpHeaderNames.HOST, authority)
+    request.headers().set(HttpConversionUtil.ExtensionHeaderNames.SCHEME.text(), scheme)
+    stream.writeAndFlush(request)
+    response
+  }
+
+  Response send(FullHttpRequest request) {
+    this.request(request).get(10, TimeUnit.SECONDS)
+  }
+
+  @Override
+  void close() {
+    channel?.close()?.sync()
+    group.shutdownGracefully(0, 0, TimeUnit.SECONDS).sync()
+  }
+
+  private String getAuthority() {
+    "$address.host:$address.port"
+  }
+
+  private void connect(Closure<?> initializer) {
+    channel = new Bootstrap()
+      .group(group)
+      .channel(NioSocketChannel)
+      .handler(new ChannelInitializer<SocketChannel>() {
+        @Override
+        protected void initChannel(SocketChannel ch) {
+          initializer.call(ch.pipeline())
+        }
+      })
+      .connect(address.host, address.port)
+      .sync()
+      .channel()
+  }
+
+  private static Http2FrameCodec frameCodec() {
+    Http2FrameCodecBuilder.forClient().build()
+  }
+
+  private static ChannelHandler ignoreInboundStreams() {
+    new SimpleChannelInboundHandler<Object>() {
+      @Override
+      protected void channelRead0(ChannelHandlerContext ctx, Object msg) {
+      }
+    }
+  }
+
+  private static ChannelHandler streamHandler(CompletableFuture<Response> response) {
+    new ChannelInitializer<Channel>() {
+      @Override
+      protected void initChannel(Channel ch) {
+        ch.pipeline().addLast(
+          new Http2StreamFrameToHttpObjectCodec(false),
+          new HttpObjectAggregator(1024 * 1024),
+          new SimpleChannelInboundHandler<FullHttpResponse>() {
+            @Override
+            protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse msg) {
+              response.complete(new Response(msg))
+            }
+
+            @Override
+            void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+              response.completeExceptionally(cause)
+            }
+          }
+        )
+      }
+    }
+  }
+
+}
@@ -117,6 +117,24 @@ class ServerConfigBuilderSpec extends BaseRatpackSpec {
     thrown IllegalArgumentException
   }
 
+  def "new builder has no acceptor threads"() {
+    expect:
+    builder.build().acceptorThreads == 0
+  }
+
+  def "set acceptor threads"() {
+    expect:
+    builder.acceptorThreads(1).build().acceptorThreads == 1
+  }
+
+  def "acceptor threads must not be negative"() {
+    when:
+    builder.acceptorThreads(-1)
+
+    then:
+    thrown IllegalArgumentException
+  }
+
   def "new builder has default public address"() {
     expect:
     builder.build().publicAddress == null
@@ -200,6 +218,72 @@ class ServerConfigBuilderSpec extends BaseRatpackSpec {
     mapping.map("ratpack.com") == defaultContext
   }
 
+  def "new builder has http2 disabled"() {
+    expect:
+    !builder.build().http2
+    builder.build().http2MaxConcurrentStreams == ServerConfig.DEFAULT_HTTP2_MAX_CONCURRENT_STREAMS
+    builder.build().http2InitialWindowSize == ServerConfig.DEFAULT_HTTP2_INITIAL_WINDOW_SIZE
+  }
+
+  def "set http2"() {
+    when:
+    def config = builder.http2(true).http2MaxConcurrentStreams(10).http2InitialWindowSize(1024 * 1024).build()
+
+    then:
+    config.http2
+    config.http2MaxConcurrentStreams == 10
+    config.http2InitialWindowSize == 1024 * 1024
+  }
+
+  def "minimum of 1 http2 concurrent stream"() {
+    when:
+    builder.http2MaxConcurrentStreams(0)
+
+    then:
+    thrown IllegalArgumentException
+  }
+
+  def "new builder has default compression settings"() {
+    expect:
+    builder.build().compressionEncodings == ServerConfig.DEFAULT_COMPRESSION_ENCODINGS
+    builder.build().compressionLevels.isEmpty()
+    builder.build().compressionMinLength == 0
+    builder.build().compressionContentTypes.isEmpty()
+  }
+
+  def "set compression settings"() {
+    when:
+    def config = builder
+      .compressionEncodings("br", "gzip")
+      .compressionLevel("gzip", 9)
+      .compressionLevel("br", 11)
+      .compressionMinLength(1024)
+      .compressionContentTypes("text/*", "application/json")
+      .build()
+
+    then:
+    config.compressionEncodings == ["br", "gzip"]
+    config.compressionLevels == [gzip: 9, br: 11]
+    config.compressionMinLength == 1024
+    config.compressionContentTypes == ["text/*", "application/json"]
+  }
+
+  def "rejects invalid compression settings"() {
+    when:
+    action.call(builder)
+
+    then:
+    thrown IllegalArgumentException
+
+    where:
+    action << [
+      { it.compressionEncodings("compress") },
+      { it.compressionLevel("gzip", 10) },
+      { it.compressionLevel("zstd", -1) },
+      { it.compressionMinLength(-1) },
+    ]
+  }
+
   def "new builder has default connect timeout millis"() {
     expect:
     !builder.build().connectTimeoutMillis.present
@@ -109,6 +109,23 @@ class ServerConfigBuilderSystemPropertiesSpec extends BaseRatpackSpec {
     thrown IllegalArgumentException
   }
 
+  def "set compression settings"() {
+    given:
+    properties.setProperty('ratpack.server.compressionEncodings', 'br, gzip')
+    properties.setProperty('ratpack.server.compressionLevels.gzip', '9')
+    properties.setProperty('ratpack.server.compressionMinLength', '1024')
+    properties.setProperty('ratpack.server.compressionContentTypes', 'text/*,application/json')
+
+    when:
+    def config = builder.sysProps().build()
+
+    then:
+    config.compressionEncodings == ["br", "gzip"]
+    config.compressionLevels == [gzip: 9]
+    config.compressionMinLength == 1024
+    config.compressionContentTypes == ["text/*", "application/json"]
+  }
+
   def "set development"() {
     given:
     properties.setProperty('ratpack.server.development', 'true')
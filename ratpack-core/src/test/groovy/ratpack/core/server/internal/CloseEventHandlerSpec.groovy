@@ -16,6 +16,8 @@
 
 package ratpack.core.server.internal
 
+import ratpack.exec.Blocking
+import ratpack.exec.ExecutionTimingInterceptor
 import ratpack.test.internal.RatpackGroovyDslSpec
 
 import java.util.concurrent.CountDownLatch
@@ -120,4 +122,62 @@ class CloseEventHandlerSpec extends RatpackGroovyDslSpec {
     latch.count == 0
     events == ["event1", "event2"]
   }
+
+  def "outcome includes execution timing when recorded"() {
+    def latch = new CountDownLatch(1)
+    def timing = null
+
+    given:
+    bindings {
+      bindInstance(ExecutionTimingInterceptor.instance())
+    }
+    handlers {
+      all {
+        onClose {
+          timing = it.timing.orElse(null)
+          latch.countDown()
+        }
+        next()
+      }
+
+      path("foo") {
+        Blocking.get { "foo" } then { render it }
+      }
+    }
+
+    when:
+    getText("foo")
+    latch.await(2, TimeUnit.SECONDS)
+
+    then:
+    timing.computeSegmentCount >= 1
+    timing.blockingSegmentCount == 1
+  }
+
+  def "outcome does not include execution timing when not recorded"() {
+    def latch = new CountDownLatch(1)
+    def outcome = null
+
+    given:
+    handlers {
+      all {
+        onClose {
+          outcome = it
+          latch.countDown()
+        }
+        next()
+      }
+
+      path("foo") {
+        render ""
+      }
+    }
+
+    when:
+    getText("foo")
+    latch.await(2, TimeUnit.SECONDS)
+
+    then:
+    !outcome.timing.present
+  }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec;
+
+/**
+ * A specification of an adaptive {@link Throttle}.
+ * <p>
+ * An adaptive throttle adjusts its size, or limit, according to the round trip times of the promises it throttles.
+ * The limit is increased while round trip times are close to their long term average,
+ * and decreased when they increase relative to it, which typically indicates that the throttled resource is queueing work.
+ *
+ * @see Throttle#adaptive(ratpack.func.Action)
+ * @since 2.0
+ */
+public interface AdaptiveThrottleSpec {
+
+  /**
+   * The default initial limit, 20.
+   */
+  int DEFAULT_INITIAL_LIMIT = 20;
+
+  /**
+   * The default minimum limit, 1.
+   */
+  int DEFAULT_MIN_LIMIT = 1;
+
+  /**
+   * The default maximum limit, 1000.
+   */
+  int DEFAULT_MAX_LIMIT = 1000;
+
+  /**
+   * The default round trip time tolerance, 1.5.
+   */
+  double DEFAULT_RTT_TOLERANCE = 1.5;
+
+  /**
+   * The default smoothing factor, 0.2.
+   */
+  double DEFAULT_SMOOTHING = 0.2;
+
+  /**
+   * The limit before any round trip times have been observed.
+   * <p>
+   * Defaults to {@link #DEFAULT_INITIAL_LIMIT}.
+   *
+   * @param initialLimit the initial limit
+   * @return {@code this}
+   */
+  AdaptiveThrottleSpec initialLimit(int initialLimit);
+
+  /**
+   * The limit below which the throttle will not reduce its limit.
+   * <p>
+   * Defaults to {@link #DEFAULT_MIN_LIMIT}.
+   *
+   * @param minLimit the minimum limit
+   * @return {@code this}
+   */
+  AdaptiveThrottleSpec minLimit(int minLimit);
+
+  /**
+   * The limit above which the throttle will not increase its limit.
+   * <p>
+   * Defaults to {@link #DEFAULT_MAX_LIMIT}.
+   *
+   * @param maxLimit the maximum limit
+   * @return {@code this}
+   */
+  AdaptiveThrottleSpec maxLimit(int maxLimit);
+
+  /**
+   * How much longer than the long term average a round trip time may be before the limit is reduced, as a ratio.
+   * <p>
+   * A tolerance of {@code 1.5} allows round trip times up to 50% longer than average without reducing the limit.
+   * Must be at least {@code 1}.
+   * Defaults to {@link #DEFAULT_RTT_TOLERANCE}.
+   *
+   * @param rttTolerance the tolerated ratio of round trip time to the long term average
+   * @return {@code this}
+   */
+  AdaptiveThrottleSpec rttTolerance(double rttTolerance);
+
+  /**
+   * How quickly the limit changes in response to each round trip time, between {@code 0} (exclusive) and {@code 1}.
+   * <p>
+   * Defaults to {@link #DEFAULT_SMOOTHING}.
+   *
+   * @param smoothing the weight of each new limit estimate
+   * @return {@code this}
+   */
+  AdaptiveThrottleSpec smoothing(double smoothing);
+
+  /**
+   * The maximum number of promises that may wait to execute.
+   * <p>
+   * Promises that are throttled when this many are already waiting fail with a {@link java.util.concurrent.RejectedExecutionException}, without executing.
+   * Defaults to {@link Integer#MAX_VALUE}, which effectively means that promises are never rejected.
+   *
+   * @param maxWaiting the maximum number of waiting promises
+   * @return {@code this}
+   */
+  AdaptiveThrottleSpec maxWaiting(int maxWaiting);
+
+}
@@ -16,17 +16,14 @@
 
 package ratpack.exec;
 
-import io.netty.channel.EventLoop;
+import ratpack.exec.internal.DefaultBlocking;
 import ratpack.exec.internal.DefaultExecution;
-import ratpack.exec.internal.DefaultPromise;
 import ratpack.exec.internal.ExecThreadBinding;
 import ratpack.func.Block;
 import ratpack.func.Factory;
 
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Supplier;
 
 /**
  * Facilitates working with code that blocks (e.g. synchronous IO)
@@ -51,39 +48,28 @@ public abstract class Blocking {
    * @return a promise for the return value of the given blocking operation
    */
   public static <T> Promise<T> get(Factory<T> factory) {
-    return new DefaultPromise<>(downstream -> {
-      DefaultExecution execution = DefaultExecution.require();
-      EventLoop eventLoop = execution.getEventLoop();
-      execution.delimit(downstream::error, continuation ->
-        eventLoop.execute(() ->
-          CompletableFuture.supplyAsync(
-            new Supplier<Result<T>>() {
-              Result<T> result;
-
-              @Override
-              public Result<T> get() {
-                try {
-                  execution.bindToThread();
-                  DefaultExecution.intercept(execution, ExecInterceptor.ExecType.BLOCKING, execution.getAllInterceptors().iterator(), () -> {
-                    try {
-                      result = Result.success(factory.create());
-                    } catch (Throwable e) {
-                      result = Result.error(e);
-                    }
-                  });
-                  return result;
-                } catch (Throwable e) {
-                  DefaultExecution.interceptorError(e);
-                  return result;
-                } finally {
-                  execution.unbindFromThread();
-                }
-              }
-            }, execution.getController().getBlockingExecutor()
-          ).thenAcceptAsync(v -> continuation.resume(() -> downstream.accept(v)), eventLoop)
-        )
-      );
-    });
+    return DefaultBlocking.get(factory, ExecController::getBlockingExecutor);
+  }
+
+  /**
+   * The {@link Bulkhead bulkhead} with the given name, of the current exec controller.
+   * <p>
+   * Blocking operations performed via the bulkhead are isolated from other blocking operations.
+   *
+   * <pre class="java">{@code
+   * Blocking.bulkhead("jdbc").get(() -> queryDatabase())
+   * }</pre>
+   *
+   * @param name the name of the bulkhead
+   * @return the bulkhead with the given name
+   * @throws UnmanagedThreadException if called outside of a Ratpack managed thread
+   * @throws IllegalArgumentException if the exec controller has no bulkhead with the given name
+   * @see ExecControllerSpec#bulkhead(String, ratpack.func.Action)
+   * @since 2.0
+   */
+  public static Bulkhead bulkhead(String name) throws UnmanagedThreadException, IllegalArgumentException {
+    return ExecController.require().getBulkhead(name)
+      .orElseThrow(() -> new IllegalArgumentException("No bulkhead named '" + name + "' is defined"));
   }
 
   /**
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec;
+
+import ratpack.func.Block;
+import ratpack.func.Factory;
+
+/**
+ * A bounded pool of threads for performing a particular kind of blocking operation, isolated from other blocking operations.
+ * <p>
+ * All operations performed with {@link Blocking#get(Factory)} share the exec controller's {@link ExecController#getBlockingExecutor() blocking executor}.
+ * If a dependency becomes slow, operations using it can occupy an ever increasing number of blocking threads,
+ * starving operations that use other dependencies.
+ * Performing the operations for a dependency via a bulkhead bounds the number of threads they can occupy,
+ * and the number of operations that can wait for them.
+ * Operations in excess of the bounds are rejected, according to the bulkhead's {@link BulkheadSpec#rejectionPolicy(BulkheadSpec.RejectionPolicy) rejection policy}.
+ * <p>
+ * Bulkheads are {@link ExecControllerSpec#bulkhead(String, ratpack.func.Action) defined} when building the exec controller,
+ * and obtained by name via {@link Blocking#bulkhead(String)}.
+ * Operations performed via a bulkhead are bound to the execution, and are intercepted, in the same way as other blocking operations.
+ *
+ * <pre class="java">{@code
+ * import ratpack.exec.Blocking;
+ * import ratpack.exec.Bulkhead;
+ * import ratpack.exec.ExecController;
+ * import ratpack.test.exec.ExecHarness;
+ * import ratpack.test.exec.internal.DefaultExecHarness;
+ *
+ * import static org.junit.jupiter.api.Assertions.assertEquals;
+ *
+ * public class Example {
+ *   public static void main(String... args) throws Exception {
+ *     ExecController controller = ExecController.builder()
+ *       .bulkhead("jdbc", b -> b.maxThreads(20).maxQueued(100))
+ *       .bulkhead("legacy", b -> b.maxThreads(2))
+ *       .build();
+ *
+ *     try (ExecHarness harness = new DefaultExecHarness(controller)) {
+ *       String value = harness.yield(e ->
+ *         Blocking.bulkhead("jdbc").get(() -> "result")
+ *       ).getValueOrThrow();
+ *
+ *       assertEquals("result", value);
+ *       Bulkhead bulkhead = controller.getBulkhead("jdbc").get();
+ *       assertEquals(0, bulkhead.getRejectedCount());
+ *     }
+ *   }
+ * }
+ * }</pre>
+ *
+ * @see BulkheadSpec
+ * @since 2.0
+ */
+public interface Bulkhead {
+
+  /**
+   * The name of this bulkhead.
+   *
+   * @return the name of this bulkhead
+   */
+  String getName();
+
+  /**
+   * The maximum number of threads that perform operations concurrently.
+   *
+   * @return the maximum number of threads
+   */
+  int getMaxThreads();
+
+  /**
+   * The maximum number of operations that wait for a thread when all threads are busy.
+   *
+   * @return the maximum number of queued operations
+   */
+  int getMaxQueued();
+
+  /**
+   * The approximate number of threads that are performing operations.
+   *
+   * @return the approximate number of threads that are performing operations
+   */
+  int getActiveCount();
+
+  /**
+   * The number of operations waiting for a thread.
+   *
+   * @return the number of operations waiting for a thread
+   */
+  int getQueueDepth();
+
+  /**
+   * The number of operations that have been rejected since the bulkhead was created.
+   * <p>
+   * This includes operations that were performed by the blocking executor instead, due to the {@link BulkheadSpec.RejectionPolicy#USE_BLOCKING_EXECUTOR} policy.
+   *
+   * @return the number of rejected operations
+   */
+  long getRejectedCount();
+
+  /**
+   * Performs a blocking operation on a thread of this bulkhead, returning a promise for its value.
+   * <p>
+   * This is equivalent to {@link Blocking#get(Factory)}, except that the operation is performed by this bulkhead.
+   *
+   * @param factory the operation that blocks
+   * @param <T> the type of value created by the operation
+   * @return a promise for the return value of the given blocking operation
+   */
+  <T> Promise<T> get(Factory<T> factory);
+
+  /**
+   * Performs a blocking operation on a thread of this bulkhead.
+   *
+   * @param block the operation that blocks
+   * @return an operation for the blocking operation
+   * @see #get(Factory)
+   */
+  default Operation op(Block block) {
+    return this.<Void>get(() -> {
+      block.execute();
+      return null;
+    }).operation();
+  }
+
+}
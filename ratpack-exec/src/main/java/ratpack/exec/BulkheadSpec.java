@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec;
+
+import ratpack.func.Action;
+
+/**
+ * A specification of a {@link Bulkhead}.
+ *
+ * @see ExecControllerSpec#bulkhead(String, Action)
+ * @since 2.0
+ */
+public interface BulkheadSpec {
+
+  /**
+   * The default maximum number of threads.
+   */
+  int DEFAULT_MAX_THREADS = 10;
+
+  /**
+   * The default maximum number of queued operations.
+   */
+  int DEFAULT_MAX_QUEUED = 0;
+
+  /**
+   * What to do with an operation when all of a bulkhead's threads are busy and its queue is full.
+   */
+  enum RejectionPolicy {
+
+    /**
+     * The promise for the operation fails with a {@link java.util.concurrent.RejectedExecutionException}.
+     */
+    FAIL,
+
+    /**
+     * The operation is performed by the exec controller's {@link ExecController#getBlockingExecutor() blocking executor}, as if it were not performed via the bulkhead.
+     */
+    USE_BLOCKING_EXECUTOR
+  }
+
+  /**
+   * The maximum number of threads that perform operations concurrently.
+   * <p>
+   * Threads are created as needed, and are stopped after being idle for a minute.
+   * <p>
+   * Defaults to {@link #DEFAULT_MAX_THREADS}.
+   *
+   * @param maxThreads the maximum number of threads
+   * @return {@code this}
+   */
+  BulkheadSpec maxThreads(int maxThreads);
+
+  /**
+   * The maximum number of operations that wait for a thread when all threads are busy.
+   * <p>
+   * Defaults to {@link #DEFAULT_MAX_QUEUED}, which means that operations are rejected when all threads are busy.
+   *
+   * @param maxQueued the maximum number of queued operations
+   * @return {@code this}
+   */
+  BulkheadSpec maxQueued(int maxQueued);
+
+  /**
+   * What to do with operations that are rejected as all threads are busy and the queue is full.
+   * <p>
+   * Defaults to {@link RejectionPolicy#FAIL}.
+   *
+   * @param rejectionPolicy what to do with rejected operations
+   * @return {@code this}
+   */
+  BulkheadSpec rejectionPolicy(RejectionPolicy rejectionPolicy);
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec;
+
+import java.time.Duration;
+
+/**
+ * The lag of compute thread heartbeats, measured by stall detection.
+ * <p>
+ * Lag is how much later than scheduled a heartbeat runs on its compute thread,
+ * which is how long tasks wait to run on a busy or blocked thread.
+ * Lags are recorded in a histogram with exponentially sized buckets, so percentiles are approximate.
+ *
+ * @see ExecController#getEventLoopLag()
+ * @since 2.0
+ */
+public interface EventLoopLag {
+
+  /**
+   * The number of heartbeats recorded.
+   *
+   * @return the number of heartbeats recorded
+   */
+  long getCount();
+
+  /**
+   * The number of stalls detected.
+   *
+   * @return the number of stalls detected
+   */
+  long getStallCount();
+
+  /**
+   * The maximum recorded lag.
+   *
+   * @return the maximum recorded lag
+   */
+  Duration getMax();
+
+  /**
+   * The lag that the given fraction of heartbeats did not exceed.
+   * <p>
+   * The result is the upper bound of the histogram bucket the percentile falls in, so may overstate the lag by up to a factor of 2.
+   *
+   * @param percentile the percentile, between 0 and 1 (e.g. {@code 0.99})
+   * @return the lag at the given percentile
+   */
+  Duration getPercentile(double percentile);
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * A stall of a compute thread, detected while it is stalled.
+ *
+ * @see StallDetectionSpec#onStall(ratpack.func.Action)
+ * @since 2.0
+ */
+public interface EventLoopStall {
+
+  /**
+   * The stalled compute thread.
+   *
+   * @return the stalled compute thread
+   */
+  Thread getThread();
+
+  /**
+   * How long the compute thread had been stalled when the stall was detected.
+   *
+   * @return how long the compute thread had been stalled when the stall was detected
+   */
+  Duration getDuration();
+
+  /**
+   * The stack trace of the compute thread, captured when the stall was detected.
+   *
+   * @return the stack trace of the stalled compute thread
+   */
+  StackTraceElement[] getStackTrace();
+
+  /**
+   * The execution that was running on the compute thread when the stall was detected, if known.
+   * <p>
+   * The execution is not known if the thread was stalled by something other than an execution, such as a Netty channel handler.
+   *
+   * @return the execution that was running on the compute thread
+   */
+  Optional<ExecutionRef> getExecution();
+
+}
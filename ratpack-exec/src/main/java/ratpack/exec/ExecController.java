@@ -114,6 +114,28 @@ public interface ExecController extends AutoCloseable {
    */
   int getNumThreads();
 
+  /**
+   * The lag of compute thread heartbeats, if {@link ExecControllerSpec#stallDetection(ratpack.func.Action) stall detection} is enabled.
+   *
+   * @return the lag of compute thread heartbeats, or empty if stall detection is not enabled
+   * @since 2.0
+   */
+  default Optional<EventLoopLag> getEventLoopLag() {
+    return Optional.empty();
+  }
+
+  /**
+   * The {@link ExecControllerSpec#bulkhead(String, ratpack.func.Action) bulkhead} with the given name.
+   *
+   * @param name the name of the bulkhead
+   * @return the bulkhead with the given name, or empty if there is no such bulkhead
+   * @see Blocking#bulkhead(String)
+   * @since 2.0
+   */
+  default Optional<Bulkhead> getBulkhead(String name) {
+    return Optional.empty();
+  }
+
   /**
    * Adds a callback to run when stopping this exec controller.
    *
@@ -16,6 +16,9 @@
 
 package ratpack.exec;
 
+import ratpack.func.Action;
+import ratpack.func.Exceptions;
+
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.Function;
@@ -34,6 +37,14 @@ public interface ExecControllerBuilder extends ExecControllerSpec {
   @Override
   ExecControllerBuilder numThreads(int n);
 
+  /**
+   * {@inheritDoc}
+   *
+   * @since 2.0
+   */
+  @Override
+  ExecControllerBuilder computeThreadInitializer(Action<? super Integer> initializer);
+
   /**
    * {@inheritDoc}
    */
@@ -46,6 +57,68 @@ public interface ExecControllerBuilder extends ExecControllerSpec {
   @Override
   ExecControllerBuilder blockingExecutor(Function<? super ThreadFactory, ? extends ExecutorService> factory);
 
+  /**
+   * {@inheritDoc}
+   *
+   * @since 2.0
+   */
+  @Override
+  ExecControllerBuilder virtualBlockingThreads(Action<? super VirtualThreadsSpec> spec) throws Exception;
+
+  /**
+   * {@inheritDoc}
+   *
+   * @since 2.0
+   */
+  @Override
+  default ExecControllerBuilder virtualBlockingThreads() {
+    return Exceptions.uncheck(() -> virtualBlockingThreads(Action.noop()));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @since 2.0
+   */
+  @Override
+  ExecControllerBuilder bulkhead(String name, Action<? super BulkheadSpec> spec) throws Exception;
+
+  /**
+   * {@inheritDoc}
+   *
+   * @since 2.0
+   */
+  @Override
+  ExecControllerBuilder stallDetection(Action<? super StallDetectionSpec> spec) throws Exception;
+
+  /**
+   * {@inheritDoc}
+   *
+   * @since 2.0
+   */
+  @Override
+  default ExecControllerBuilder stallDetection() {
+    return Exceptions.uncheck(() -> stallDetection(Action.noop()));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @since 2.0
+   */
+  @Override
+  ExecControllerBuilder timer(Action<? super TimerSpec> spec) throws Exception;
+
+  /**
+   * {@inheritDoc}
+   *
+   * @since 2.0
+   */
+  @Override
+  default ExecControllerBuilder timer() {
+    return Exceptions.uncheck(() -> timer(Action.noop()));
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -16,6 +16,9 @@
 
 package ratpack.exec;
 
+import ratpack.func.Action;
+import ratpack.func.Exceptions;
+
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
@@ -33,12 +36,29 @@ public interface ExecControllerSpec {
    * Sets the number of compute threads to use.
    * <p>
    * Defaults to {@code Runtime.getRuntime().availableProcessors() * 2}.
+   * A value of 0 or less also means the default.
    *
    * @param n the number of compute threads to use
    * @return {@code this}
    */
   ExecControllerSpec numThreads(int n);
 
+  /**
+   * An action to execute on each compute thread when it starts, before it executes any tasks.
+   * <p>
+   * The action receives the index of the thread, from {@code 0} to one less than the {@link #numThreads(int) number of compute threads}.
+   * This is typically used to pin each compute thread to its own CPU core, with a native thread affinity library,
+   * so that event loops are not migrated between cores.
+   * Exceptions thrown by the action are logged, and do not prevent the thread from starting.
+   * <p>
+   * By default, no action is executed.
+   *
+   * @param initializer the action to execute on each compute thread, given its index
+   * @return {@code this}
+   * @since 2.0
+   */
+  ExecControllerSpec computeThreadInitializer(Action<? super Integer> initializer);
+
   /**
    * A factory for creating the executor to use for blocking tasks.
    * <p>
@@ -51,6 +71,167 @@ public interface ExecControllerSpec {
    */
   ExecControllerSpec blockingExecutor(Function<? super ThreadFactory, ? extends ExecutorService> factory);
 
+  /**
+   * Use a new virtual thread for each blocking task, instead of the {@link #blockingExecutor(Function) blocking executor}.
+   * <p>
+   * Virtual threads are cheap to create and to block, which suits applications that perform a large number of concurrent blocking operations,
+   * such as JDBC queries or calls to synchronous client libraries.
+   * Virtual threads used for blocking tasks are bound to the exec controller in the same way as platform blocking threads.
+   * <p>
+   * Virtual threads are available from Java 21.
+   * If they are not available, a warning is logged and the blocking executor is used.
+   *
+   * <pre class="java">{@code
+   * import ratpack.exec.Blocking;
+   * import ratpack.exec.ExecController;
+   *
+   * import java.time.Duration;
+   * import java.util.concurrent.CompletableFuture;
+   *
+   * import static org.junit.jupiter.api.Assertions.assertEquals;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     try (ExecController controller = ExecController.builder()
+   *       .virtualBlockingThreads(v -> v
+   *         .maxConcurrency(100)
+   *         .reportPinning(Duration.ofMillis(20))
+   *       )
+   *       .build()
+   *     ) {
+   *       CompletableFuture<String> future = new CompletableFuture<>();
+   *       controller.fork().start(e ->
+   *         Blocking.get(() -> "foo").then(future::complete)
+   *       );
+   *       assertEquals("foo", future.get());
+   *     }
+   *   }
+   * }
+   * }</pre>
+   *
+   * @param spec the configuration of the virtual threads
+   * @return {@code this}
+   * @throws Exception any thrown by {@code spec}
+   * @since 2.0
+   */
+  ExecControllerSpec virtualBlockingThreads(Action<? super VirtualThreadsSpec> spec) throws Exception;
+
+  /**
+   * Use a new virtual thread for each blocking task, with the default configuration.
+   *
+   * @return {@code this}
+   * @see #virtualBlockingThreads(Action)
+   * @since 2.0
+   */
+  default ExecControllerSpec virtualBlockingThreads() {
+    return Exceptions.uncheck(() -> virtualBlockingThreads(Action.noop()));
+  }
+
+  /**
+   * Defines a {@link Bulkhead bulkhead}, a bounded pool of threads for blocking operations that is isolated from other blocking operations.
+   * <p>
+   * Blocking operations are performed via the bulkhead by obtaining it with {@link Blocking#bulkhead(String)}.
+   * Defining a bulkhead with the same name as a previously defined bulkhead replaces it.
+   *
+   * @param name the name of the bulkhead
+   * @param spec the configuration of the bulkhead
+   * @return {@code this}
+   * @throws Exception any thrown by {@code spec}
+   * @see Bulkhead
+   * @since 2.0
+   */
+  ExecControllerSpec bulkhead(String name, Action<? super BulkheadSpec> spec) throws Exception;
+
+  /**
+   * Detect compute threads that are stalled, typically by blocking operations that should have been performed with {@link Blocking}.
+   * <p>
+   * A stalled compute thread delays every execution and connection it serves.
+   * When enabled, a heartbeat is scheduled on each compute thread, and the lag between when it is due and when it runs is recorded,
+   * and made available via {@link ExecController#getEventLoopLag()}.
+   * A dedicated thread watches the heartbeats.
+   * When a heartbeat is later than the {@link StallDetectionSpec#threshold(java.time.Duration) threshold},
+   * the stack trace of the compute thread and the execution it is running are captured while it is still stalled,
+   * and {@link StallDetectionSpec#onStall(Action) reported}.
+   * <p>
+   * When not enabled, which is the default, nothing is scheduled or recorded.
+   *
+   * <pre class="java">{@code
+   * import ratpack.exec.EventLoopStall;
+   * import ratpack.exec.ExecController;
+   *
+   * import java.time.Duration;
+   * import java.util.concurrent.CompletableFuture;
+   *
+   * import static org.junit.jupiter.api.Assertions.assertEquals;
+   * import static org.junit.jupiter.api.Assertions.assertTrue;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     CompletableFuture<EventLoopStall> stall = new CompletableFuture<>();
+   *     try (ExecController controller = ExecController.builder()
+   *       .numThreads(1)
+   *       .stallDetection(s -> s
+   *         .threshold(Duration.ofMillis(100))
+   *         .onStall(stall::complete)
+   *       )
+   *       .build()
+   *     ) {
+   *       controller.fork().start(e -> Thread.sleep(500));
+   *       assertEquals("sleep", stall.get().getStackTrace()[0].getMethodName());
+   *       assertTrue(stall.get().getExecution().isPresent());
+   *       assertEquals(1, controller.getEventLoopLag().get().getStallCount());
+   *     }
+   *   }
+   * }
+   * }</pre>
+   *
+   * @param spec the configuration of stall detection
+   * @return {@code this}
+   * @throws Exception any thrown by {@code spec}
+   * @since 2.0
+   */
+  ExecControllerSpec stallDetection(Action<? super StallDetectionSpec> spec) throws Exception;
+
+  /**
+   * Detect compute threads that are stalled, with the default configuration.
+   *
+   * @return {@code this}
+   * @see #stallDetection(Action)
+   * @since 2.0
+   */
+  default ExecControllerSpec stallDetection() {
+    return Exceptions.uncheck(() -> stallDetection(Action.noop()));
+  }
+
+  /**
+   * Use a hashed wheel timer for long delays, such as {@link Execution#sleep(java.time.Duration) sleeps} and {@link ratpack.exec.util.ReadWriteAccess access} timeouts.
+   * <p>
+   * By default, each delay is scheduled on the compute thread, which costs a priority queue insertion and removal.
+   * When there are very many concurrent delays, such as timeouts for long polling requests, this can dominate.
+   * A hashed wheel timer has constant time insertion and cancellation, at the cost of precision.
+   * When enabled, delays at or above the {@link TimerSpec#threshold(java.time.Duration) threshold} are scheduled on the wheel,
+   * and may fire up to one {@link TimerSpec#tick(java.time.Duration) tick} late.
+   * Shorter delays continue to be scheduled precisely.
+   * In either case, the delayed work runs on the compute thread of the execution.
+   *
+   * @param spec the configuration of the timer
+   * @return {@code this}
+   * @throws Exception any thrown by {@code spec}
+   * @since 2.0
+   */
+  ExecControllerSpec timer(Action<? super TimerSpec> spec) throws Exception;
+
+  /**
+   * Use a hashed wheel timer for long delays, with the default configuration.
+   *
+   * @return {@code this}
+   * @see #timer(Action)
+   * @since 2.0
+   */
+  default ExecControllerSpec timer() {
+    return Exceptions.uncheck(() -> timer(Action.noop()));
+  }
+
   /**
    * The exec initializers to use for initializing executions.
    *
@@ -20,13 +20,13 @@ import com.google.common.reflect.TypeToken;
 import io.netty.channel.EventLoop;
 import ratpack.exec.internal.DefaultExecution;
 import ratpack.exec.internal.ExecThreadBinding;
+import ratpack.exec.internal.ExecTimer;
 import ratpack.func.Action;
 import ratpack.func.Block;
 import ratpack.exec.registry.MutableRegistry;
 
 import java.time.Duration;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /**
@@ -197,6 +197,16 @@ public interface Execution extends MutableRegistry {
     return getRef().maybeParent();
   }
 
+  /**
+   * The timing of this execution's segments, if recorded by an {@link ExecutionTimingInterceptor}.
+   *
+   * @return the timing of this execution's segments, or empty if timing is not being recorded
+   * @since 2.0
+   */
+  default Optional<ExecutionTiming> getTiming() {
+    return maybeGet(ExecutionTiming.class);
+  }
+
   /**
    * Registers a closeable that will be closed when the execution completes.
    * <p>
@@ -316,7 +326,8 @@ public interface Execution extends MutableRegistry {
       } else {
         return Promise.async(down -> {
           try {
-            current().getEventLoop().schedule(() -> down.success(null), duration.toNanos(), TimeUnit.NANOSECONDS);
+            Execution execution = current();
+            ExecTimer.schedule(execution.getController(), execution.getEventLoop(), () -> down.success(null), duration.toNanos());
           } catch (Throwable e) {
             down.error(e);
           }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * The time spent executing the segments of an execution, and the resources they consumed.
+ * <p>
+ * Timing is recorded by the {@link ExecutionTimingInterceptor}, and is available via {@link Execution#getTiming()} while the execution is in progress.
+ * The values accumulate as segments complete, so a segment that is executing is not included until it completes.
+ * <p>
+ * Time spent waiting for asynchronous operations, such as network I/O, is not spent executing segments, so is not included.
+ *
+ * @see ExecutionTimingInterceptor
+ * @since 2.0
+ */
+public interface ExecutionTiming {
+
+  /**
+   * The number of segments executed on compute threads.
+   *
+   * @return the number of segments executed on compute threads
+   */
+  long getComputeSegmentCount();
+
+  /**
+   * The total wall clock time spent executing segments on compute threads.
+   *
+   * @return the total time spent executing segments on compute threads
+   */
+  Duration getComputeTime();
+
+  /**
+   * The number of segments executed on blocking threads.
+   *
+   * @return the number of segments executed on blocking threads
+   */
+  long getBlockingSegmentCount();
+
+  /**
+   * The total wall clock time spent executing segments on blocking threads.
+   *
+   * @return the total time spent executing segments on blocking threads
+   */
+  Duration getBlockingTime();
+
+  /**
+   * The total CPU time consumed by the threads executing segments, if the JVM supports measuring thread CPU time.
+   *
+   * @return the total CPU time consumed executing segments
+   * @see java.lang.management.ThreadMXBean#isCurrentThreadCpuTimeSupported()
+   */
+  Optional<Duration> getCpuTime();
+
+  /**
+   * The total number of bytes allocated on the heap by the threads executing segments, if the JVM supports measuring thread allocation.
+   * <p>
+   * Measuring allocation is supported by HotSpot based JVMs, via {@code com.sun.management.ThreadMXBean}.
+   * The measurement is an approximation, and includes allocations made by interceptors.
+   *
+   * @return the total number of bytes allocated executing segments
+   */
+  Optional<Long> getAllocatedBytes();
+
+}
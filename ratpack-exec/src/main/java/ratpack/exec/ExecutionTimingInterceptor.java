@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec;
+
+import ratpack.exec.internal.DefaultExecutionTiming;
+import ratpack.func.Block;
+
+/**
+ * An execution interceptor that records the {@link ExecutionTiming timing} of each execution.
+ * <p>
+ * For each execution, the number and total duration of its compute and blocking segments are recorded,
+ * along with the CPU time and heap allocation of the threads executing them, where supported by the JVM.
+ * The timing is available during the execution via {@link Execution#getTiming()},
+ * and for requests via {@code RequestOutcome.getTiming()} once the response has been sent.
+ * This can be used to find request handling that is expensive in terms of CPU or allocation, in production.
+ * <p>
+ * The interceptor should be added to the server registry, or to the exec controller, so that it is applied to all executions.
+ * Measuring CPU time and allocation adds a small overhead to each segment.
+ *
+ * <pre class="java">{@code
+ * import ratpack.exec.Blocking;
+ * import ratpack.exec.Execution;
+ * import ratpack.exec.ExecutionTiming;
+ * import ratpack.exec.ExecutionTimingInterceptor;
+ * import ratpack.test.exec.ExecHarness;
+ *
+ * import static org.junit.jupiter.api.Assertions.assertEquals;
+ *
+ * public class Example {
+ *   public static void main(String... args) throws Exception {
+ *     ExecutionTiming timing = ExecHarness.yieldSingle(
+ *       r -> r.add(ExecutionTimingInterceptor.instance()),
+ *       e -> Blocking.get(() -> "foo")
+ *         .map(String::toUpperCase)
+ *         .map(s -> Execution.current().getTiming().get())
+ *     ).getValueOrThrow();
+ *
+ *     assertEquals(1, timing.getBlockingSegmentCount());
+ *     // The segment that obtained the timing had not completed
+ *     assertEquals(1, timing.getComputeSegmentCount());
+ *   }
+ * }
+ * }</pre>
+ *
+ * @see ExecutionTiming
+ * @since 2.0
+ */
+public final class ExecutionTimingInterceptor implements ExecInterceptor {
+
+  private static final ExecutionTimingInterceptor INSTANCE = new ExecutionTimingInterceptor();
+
+  private ExecutionTimingInterceptor() {
+  }
+
+  /**
+   * The interceptor.
+   *
+   * @return the interceptor
+   */
+  public static ExecutionTimingInterceptor instance() {
+    return INSTANCE;
+  }
+
+  @Override
+  public void intercept(Execution execution, ExecType execType, Block executionSegment) throws Exception {
+    DefaultExecutionTiming.of(execution).record(execType, executionSegment);
+  }
+
+}
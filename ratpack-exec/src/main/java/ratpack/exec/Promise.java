@@ -22,6 +22,7 @@ import ratpack.exec.internal.DefaultExecution;
 import ratpack.exec.internal.DefaultOperation;
 import ratpack.exec.internal.DefaultPromise;
 import ratpack.exec.util.Promised;
+import ratpack.exec.util.retry.HedgePolicy;
 import ratpack.exec.util.retry.RetryPolicy;
 import ratpack.func.*;
 import ratpack.func.Exceptions;
@@ -2477,6 +2478,30 @@ public interface Promise<T> {
     return transform(up -> down -> DefaultPromise.retry(predicate, retryPolicy, up, down, onError));
   }
 
+  /**
+   * Causes {@code this} to be subscribed to again, concurrently, if it does not succeed within a delay, yielding the value of whichever subscription succeeds first.
+   * <p>
+   * This is known as hedging, and reduces tail latency for idempotent operations, such as reads from replicated services.
+   * Each subscription to {@code this} is performed in its own {@link Execution#fork() forked execution}.
+   * The {@code hedgePolicy} determines how long to wait before subscribing again, how many times to subscribe at most,
+   * and limits how often additional subscriptions are made so that hedging does not amplify load on a struggling service.
+   * <p>
+   * The value of the first subscription to succeed is used, and the values of any other subscriptions are ignored.
+   * Subscriptions cannot be cancelled, so care should be taken when the promised value is a resource that must be released.
+   * If all subscriptions fail, the promise fails with the first exception, with any others {@link Throwable#addSuppressed(Throwable) suppressed}.
+   * A failure does not cause another subscription to be started.
+   * Use {@link #retry(RetryPolicy, BiAction)} to retry failures.
+   * <p>
+   * See {@link HedgePolicy} for an example.
+   *
+   * @param hedgePolicy policy to govern this hedging behaviour, shared by all invocations of the operation
+   * @return a promise for the value of the first subscription to succeed
+   * @since 2.0
+   */
+  default Promise<T> hedge(HedgePolicy hedgePolicy) {
+    return transform(up -> down -> DefaultPromise.hedge(hedgePolicy, up, down));
+  }
+
   /**
    * Convert this promise into a {@link CompletableFuture}.
    * <p>
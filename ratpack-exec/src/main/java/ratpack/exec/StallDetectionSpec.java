@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec;
+
+import ratpack.func.Action;
+
+import java.time.Duration;
+
+/**
+ * A specification of the detection of stalled compute threads.
+ *
+ * @see ExecControllerSpec#stallDetection(Action)
+ * @since 2.0
+ */
+public interface StallDetectionSpec {
+
+  /**
+   * The default interval between heartbeats.
+   */
+  Duration DEFAULT_INTERVAL = Duration.ofMillis(50);
+
+  /**
+   * The default threshold of lag that constitutes a stall.
+   */
+  Duration DEFAULT_THRESHOLD = Duration.ofMillis(200);
+
+  /**
+   * The interval between heartbeats on each compute thread.
+   * <p>
+   * Shorter intervals measure lag more precisely, at the cost of more frequent heartbeats.
+   * <p>
+   * Defaults to {@link #DEFAULT_INTERVAL}.
+   *
+   * @param interval the interval between heartbeats
+   * @return {@code this}
+   */
+  StallDetectionSpec interval(Duration interval);
+
+  /**
+   * How late a heartbeat must be for the compute thread to be considered stalled.
+   * <p>
+   * Defaults to {@link #DEFAULT_THRESHOLD}.
+   *
+   * @param threshold the lag that constitutes a stall
+   * @return {@code this}
+   */
+  StallDetectionSpec threshold(Duration threshold);
+
+  /**
+   * The action to execute when a stall is detected.
+   * <p>
+   * The action is executed on a dedicated thread, while the compute thread is still stalled.
+   * It is executed at most once per stall, and should return quickly.
+   * Exceptions thrown by the action are logged.
+   * <p>
+   * By default, stalls are logged as warnings, along with the stack trace of the stalled thread.
+   *
+   * @param action the action to execute when a stall is detected
+   * @return {@code this}
+   */
+  StallDetectionSpec onStall(Action<? super EventLoopStall> action);
+
+}
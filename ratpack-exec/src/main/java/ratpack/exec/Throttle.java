@@ -16,8 +16,10 @@
 
 package ratpack.exec;
 
+import ratpack.exec.internal.AdaptiveThrottle;
 import ratpack.exec.internal.DefaultThrottle;
 import ratpack.exec.internal.UnlimitedThrottle;
+import ratpack.func.Action;
 
 /**
  * Limits the concurrency of operations, typically access to an external resource.
@@ -49,6 +51,52 @@ public interface Throttle {
     return new UnlimitedThrottle();
   }
 
+  /**
+   * Create a new throttle whose size adapts to the round trip times of the promises it throttles.
+   * <p>
+   * The size is reduced when round trip times rise above their long term average, by more than the configured {@link AdaptiveThrottleSpec#rttTolerance(double) tolerance},
+   * and is otherwise gradually increased while the throttle is at least half utilized.
+   * This suits throttling access to a resource whose capacity varies with its load, where the right fixed size is not known.
+   * <p>
+   * Optionally, promises can be rejected rather than queued when too many are {@link AdaptiveThrottleSpec#maxWaiting(int) waiting}.
+   *
+   * <pre class="java">{@code
+   * import ratpack.exec.Promise;
+   * import ratpack.exec.Throttle;
+   * import ratpack.exec.util.ParallelBatch;
+   * import ratpack.test.exec.ExecHarness;
+   *
+   * import java.time.Duration;
+   * import java.util.ArrayList;
+   * import java.util.List;
+   *
+   * import static org.junit.jupiter.api.Assertions.assertEquals;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     Throttle throttle = Throttle.adaptive(t -> t.initialLimit(10).maxLimit(50).maxWaiting(100));
+   *
+   *     List<Promise<String>> promises = new ArrayList<>();
+   *     for (int i = 0; i < 100; i++) {
+   *       promises.add(Promise.value("foo").defer(Duration.ofMillis(1)).throttled(throttle));
+   *     }
+   *
+   *     List<String> results = ExecHarness.yieldSingle(e -> ParallelBatch.of(promises).yield()).getValueOrThrow();
+   *     assertEquals(100, results.size());
+   *     assertEquals(0, throttle.getActive());
+   *   }
+   * }
+   * }</pre>
+   *
+   * @param spec the configuration of the throttle
+   * @return a new adaptive throttle
+   * @throws Exception any thrown by {@code spec}
+   * @since 2.0
+   */
+  static Throttle adaptive(Action<? super AdaptiveThrottleSpec> spec) throws Exception {
+    return AdaptiveThrottle.of(spec);
+  }
+
   /**
    * Throttles the given promise.
    *
@@ -64,6 +112,8 @@ public interface Throttle {
    * The throttle guarantees that no more than this number of promises that were throttled via {@link #throttle(Promise)} will execute at the same time.
    * <p>
    * Returns &lt; 1 if the throttle is unlimited.
+   * For an {@link #adaptive(Action) adaptive} throttle, this is the current limit which varies over time.
+   * When the limit is reduced, more promises than the new limit may be executing until enough of them complete.
    *
    * @return the throttle size
    */
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec;
+
+import java.time.Duration;
+
+/**
+ * The configuration of the {@link ExecControllerSpec#timer(ratpack.func.Action) hashed wheel timer} of an exec controller.
+ *
+ * @since 2.0
+ */
+public interface TimerSpec {
+
+  /**
+   * The default duration of a tick.
+   */
+  Duration DEFAULT_TICK = Duration.ofMillis(100);
+
+  /**
+   * The default number of ticks in the wheel.
+   */
+  int DEFAULT_TICKS_PER_WHEEL = 512;
+
+  /**
+   * The default delay at or above which the wheel is used.
+   */
+  Duration DEFAULT_THRESHOLD = Duration.ofSeconds(1);
+
+  /**
+   * The duration of a tick, which is the precision of delays scheduled on the wheel.
+   * <p>
+   * Tasks may run up to one tick later than their delay.
+   * <p>
+   * Defaults to {@link #DEFAULT_TICK}.
+   *
+   * @param tick the duration of a tick
+   * @return {@code this}
+   */
+  TimerSpec tick(Duration tick);
+
+  /**
+   * The number of ticks in the wheel.
+   * <p>
+   * Delays longer than the wheel's span (ticks × tick) wrap around, so a larger wheel reduces the work per tick when there are many long delays.
+   * The value is rounded up to a power of two.
+   * <p>
+   * Defaults to {@link #DEFAULT_TICKS_PER_WHEEL}.
+   *
+   * @param ticksPerWheel the number of ticks in the wheel
+   * @return {@code this}
+   */
+  TimerSpec ticksPerWheel(int ticksPerWheel);
+
+  /**
+   * The delay at or above which tasks are scheduled on the wheel, rather than precisely on the compute thread.
+   * <p>
+   * This should be large relative to the {@link #tick(Duration) tick}, so that the imprecision of the wheel is not significant.
+   * <p>
+   * Defaults to {@link #DEFAULT_THRESHOLD}.
+   *
+   * @param threshold the delay at or above which the wheel is used
+   * @return {@code this}
+   */
+  TimerSpec threshold(Duration threshold);
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec;
+
+import ratpack.func.Nullable;
+
+import java.time.Duration;
+
+/**
+ * A specification of the virtual threads used for blocking tasks.
+ *
+ * @see ExecControllerSpec#virtualBlockingThreads(ratpack.func.Action)
+ * @since 2.0
+ */
+public interface VirtualThreadsSpec {
+
+  /**
+   * The maximum number of blocking tasks that may execute at the same time.
+   * <p>
+   * Tasks in excess of this number wait for others to complete, on their own virtual threads,
+   * so that a large number of blocking tasks do not overwhelm the resources they use, such as a connection pool.
+   * Compute threads are never blocked by this limit.
+   * The limit does not apply if virtual threads are not available.
+   * <p>
+   * Defaults to {@link Integer#MAX_VALUE}, which effectively means no limit.
+   *
+   * @param maxConcurrency the maximum number of blocking tasks that may execute at the same time
+   * @return {@code this}
+   */
+  VirtualThreadsSpec maxConcurrency(int maxConcurrency);
+
+  /**
+   * Reports blocking tasks that pin their virtual thread to its carrier thread for longer than the given threshold.
+   * <p>
+   * A virtual thread is pinned if it blocks while it cannot be unmounted from its carrier thread,
+   * such as while it holds a monitor or calls native code.
+   * Pinned virtual threads occupy carrier threads, which can starve other virtual threads.
+   * <p>
+   * Pinning is detected by streaming {@code jdk.VirtualThreadPinned} events from Java Flight Recorder,
+   * each of which is logged as a warning along with the stack trace of the pinned thread.
+   * If Java Flight Recorder is not available, pinning is not reported.
+   * <p>
+   * By default, pinning is not reported.
+   *
+   * @param threshold the minimum duration of pinning to report, or {@code null} to not report pinning
+   * @return {@code this}
+   */
+  VirtualThreadsSpec reportPinning(@Nullable Duration threshold);
+
+}
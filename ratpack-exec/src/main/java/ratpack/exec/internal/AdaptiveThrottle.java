@@ -0,0 +1,240 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import com.google.common.base.Preconditions;
+import ratpack.exec.AdaptiveThrottleSpec;
+import ratpack.exec.Downstream;
+import ratpack.exec.Promise;
+import ratpack.exec.Throttle;
+import ratpack.exec.Upstream;
+import ratpack.func.Action;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A throttle whose limit is adjusted by the gradient of the round trip time of throttled promises, relative to its long term average.
+ */
+public class AdaptiveThrottle implements Throttle {
+
+  // The number of samples that the long term average round trip time is averaged over
+  private static final int LONG_RTT_WINDOW = 600;
+
+  // The number of promises allowed to queue at the throttled resource, which allows the limit to grow
+  private static final int QUEUE_SIZE = 4;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double rttTolerance;
+  private final double smoothing;
+  private final int maxWaiting;
+
+  private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger active = new AtomicInteger();
+  private final AtomicInteger waiting = new AtomicInteger();
+
+  private volatile int limit;
+
+  // guarded by this
+  private double estimatedLimit;
+  private double longRtt;
+
+  private AdaptiveThrottle(Spec spec) {
+    Preconditions.checkArgument(spec.minLimit <= spec.maxLimit, "minLimit must be <= maxLimit");
+    this.minLimit = spec.minLimit;
+    this.maxLimit = spec.maxLimit;
+    this.rttTolerance = spec.rttTolerance;
+    this.smoothing = spec.smoothing;
+    this.maxWaiting = spec.maxWaiting;
+    this.estimatedLimit = Math.min(maxLimit, Math.max(minLimit, spec.initialLimit));
+    this.limit = (int) estimatedLimit;
+  }
+
+  public static AdaptiveThrottle of(Action<? super AdaptiveThrottleSpec> spec) throws Exception {
+    return new AdaptiveThrottle(Action.with(new Spec(), spec));
+  }
+
+  @Override
+  public <T> Promise<T> throttle(Promise<T> promise) {
+    return promise.transform(up -> down -> {
+      waiting.incrementAndGet();
+      if (active.getAndIncrement() < limit) {
+        waiting.decrementAndGet();
+        connect(up, down);
+      } else {
+        active.decrementAndGet();
+        if (waiting.get() > maxWaiting) {
+          waiting.decrementAndGet();
+          down.error(new RejectedExecutionException("throttle has " + maxWaiting + " promises waiting to execute"));
+        } else {
+          Promise.<Downstream<? super T>>async(innerDown -> {
+            queue.add(() -> innerDown.success(down));
+            drain();
+          })
+            .then(queuedDown -> connect(up, queuedDown));
+        }
+      }
+    });
+  }
+
+  private <T> void connect(Upstream<? extends T> up, Downstream<? super T> down) throws Exception {
+    long start = System.nanoTime();
+    up.connect(new Downstream<T>() {
+      @Override
+      public void success(T value) {
+        post(start);
+        down.success(value);
+      }
+
+      @Override
+      public void error(Throwable throwable) {
+        post(start);
+        down.error(throwable);
+      }
+
+      @Override
+      public void complete() {
+        post(start);
+        down.complete();
+      }
+    });
+  }
+
+  private void post(long start) {
+    sample(System.nanoTime() - start, active.getAndDecrement());
+    while (drain()) {
+      // admit as many waiting promises as the possibly increased limit allows
+    }
+  }
+
+  private synchronized void sample(long rtt, int inFlight) {
+    rtt = Math.max(1, rtt);
+    if (longRtt == 0) {
+      longRtt = rtt;
+    } else {
+      longRtt += (rtt - longRtt) * 2 / (LONG_RTT_WINDOW + 1);
+      // recover quickly once round trip times drop, such as after a period of overload
+      if (longRtt / rtt > 2) {
+        longRtt *= 0.95;
+      }
+    }
+
+    // don't grow the limit while it is not being reached
+    if (inFlight < estimatedLimit / 2) {
+      return;
+    }
+
+    double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / rtt));
+    double newLimit = estimatedLimit * gradient + QUEUE_SIZE;
+    newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+    estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    limit = (int) estimatedLimit;
+  }
+
+  private boolean drain() {
+    while (!queue.isEmpty()) {
+      if (active.getAndIncrement() < limit) {
+        Runnable job = queue.poll();
+        if (job != null) {
+          waiting.decrementAndGet();
+          job.run();
+          return true;
+        }
+      }
+
+      // A promise that completed while we held a slot may have backed off, so go around again if there is room
+      if (active.decrementAndGet() >= limit) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The current limit, which varies with observed round trip times.
+   */
+  @Override
+  public int getSize() {
+    return limit;
+  }
+
+  @Override
+  public int getActive() {
+    return active.get();
+  }
+
+  @Override
+  public int getWaiting() {
+    return waiting.get();
+  }
+
+  private static final class Spec implements AdaptiveThrottleSpec {
+
+    private int initialLimit = DEFAULT_INITIAL_LIMIT;
+    private int minLimit = DEFAULT_MIN_LIMIT;
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+    private double rttTolerance = DEFAULT_RTT_TOLERANCE;
+    private double smoothing = DEFAULT_SMOOTHING;
+    private int maxWaiting = Integer.MAX_VALUE;
+
+    @Override
+    public AdaptiveThrottleSpec initialLimit(int initialLimit) {
+      Preconditions.checkArgument(initialLimit > 0, "initialLimit must be > 0");
+      this.initialLimit = initialLimit;
+      return this;
+    }
+
+    @Override
+    public AdaptiveThrottleSpec minLimit(int minLimit) {
+      Preconditions.checkArgument(minLimit > 0, "minLimit must be > 0");
+      this.minLimit = minLimit;
+      return this;
+    }
+
+    @Override
+    public AdaptiveThrottleSpec maxLimit(int maxLimit) {
+      Preconditions.checkArgument(maxLimit > 0, "maxLimit must be > 0");
+      this.maxLimit = maxLimit;
+      return this;
+    }
+
+    @Override
+    public AdaptiveThrottleSpec rttTolerance(double rttTolerance) {
+      Preconditions.checkArgument(rttTolerance >= 1, "rttTolerance must be >= 1");
+      this.rttTolerance = rttTolerance;
+      return this;
+    }
+
+    @Override
+    public AdaptiveThrottleSpec smoothing(double smoothing) {
+      Preconditions.checkArgument(smoothing > 0 && smoothing <= 1, "smoothing must be > 0 and <= 1");
+      this.smoothing = smoothing;
+      return this;
+    }
+
+    @Override
+    public AdaptiveThrottleSpec maxWaiting(int maxWaiting) {
+      Preconditions.checkArgument(maxWaiting >= 0, "maxWaiting must be >= 0");
+      this.maxWaiting = maxWaiting;
+      return this;
+    }
+  }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import io.netty.channel.EventLoop;
+import ratpack.exec.ExecController;
+import ratpack.exec.ExecInterceptor;
+import ratpack.exec.Promise;
+import ratpack.exec.Result;
+import ratpack.func.Factory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public abstract class DefaultBlocking {
+
+  private DefaultBlocking() {
+  }
+
+  /**
+   * Performs a blocking operation with the executor selected for the current execution's controller.
+   * <p>
+   * If the executor rejects the operation, the promise fails with the {@link RejectedExecutionException}.
+   */
+  public static <T> Promise<T> get(Factory<T> factory, Function<? super ExecController, ? extends Executor> executorSelector) {
+    return new DefaultPromise<>(downstream -> {
+      DefaultExecution execution = DefaultExecution.require();
+      EventLoop eventLoop = execution.getEventLoop();
+      execution.delimit(downstream::error, continuation ->
+        eventLoop.execute(() -> {
+          CompletableFuture<Result<T>> future;
+          try {
+            future = CompletableFuture.supplyAsync(
+              new Supplier<Result<T>>() {
+                Result<T> result;
+
+                @Override
+                public Result<T> get() {
+                  try {
+                    execution.bindToThread();
+                    DefaultExecution.intercept(execution, ExecInterceptor.ExecType.BLOCKING, execution.getAllInterceptors().iterator(), () -> {
+                      try {
+                        result = Result.success(factory.create());
+                      } catch (Throwable e) {
+                        result = Result.error(e);
+                      }
+                    });
+                    return result;
+                  } catch (Throwable e) {
+                    DefaultExecution.interceptorError(e);
+                    return result;
+                  } finally {
+                    execution.unbindFromThread();
+                  }
+                }
+              }, executorSelector.apply(execution.getController())
+            );
+          } catch (RejectedExecutionException e) {
+            continuation.resume(() -> downstream.error(e));
+            return;
+          }
+          future.thenAcceptAsync(v -> continuation.resume(() -> downstream.accept(v)), eventLoop);
+        })
+      );
+    });
+  }
+
+}
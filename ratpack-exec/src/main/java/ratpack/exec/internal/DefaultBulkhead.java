@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import ratpack.exec.Bulkhead;
+import ratpack.exec.BulkheadSpec;
+import ratpack.exec.Promise;
+import ratpack.func.Factory;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+public class DefaultBulkhead implements Bulkhead {
+
+  private final String name;
+  private final int maxQueued;
+  private final ThreadPoolExecutor threadPool;
+  private final Executor executor;
+  private final LongAdder rejected = new LongAdder();
+
+  public DefaultBulkhead(String name, DefaultBulkheadSpec spec, ThreadFactory threadFactory, Executor blockingExecutor) {
+    this.name = name;
+    this.maxQueued = spec.getMaxQueued();
+    this.threadPool = new ThreadPoolExecutor(
+      spec.getMaxThreads(),
+      spec.getMaxThreads(),
+      60, TimeUnit.SECONDS,
+      maxQueued == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(maxQueued),
+      threadFactory
+    );
+    this.threadPool.allowCoreThreadTimeOut(true);
+
+    boolean useBlockingExecutor = spec.getRejectionPolicy() == BulkheadSpec.RejectionPolicy.USE_BLOCKING_EXECUTOR;
+    this.executor = command -> {
+      try {
+        threadPool.execute(command);
+      } catch (RejectedExecutionException e) {
+        if (threadPool.isShutdown()) {
+          throw e;
+        }
+        rejected.increment();
+        if (useBlockingExecutor) {
+          blockingExecutor.execute(command);
+        } else {
+          throw new RejectedExecutionException("Bulkhead '" + name + "' is full (max threads: " + getMaxThreads() + ", max queued: " + maxQueued + ")");
+        }
+      }
+    };
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public int getMaxThreads() {
+    return threadPool.getMaximumPoolSize();
+  }
+
+  @Override
+  public int getMaxQueued() {
+    return maxQueued;
+  }
+
+  @Override
+  public int getActiveCount() {
+    return threadPool.getActiveCount();
+  }
+
+  @Override
+  public int getQueueDepth() {
+    return threadPool.getQueue().size();
+  }
+
+  @Override
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  @Override
+  public <T> Promise<T> get(Factory<T> factory) {
+    return DefaultBlocking.get(factory, controller -> executor);
+  }
+
+  public void close() {
+    threadPool.shutdown();
+  }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import com.google.common.base.Preconditions;
+import ratpack.exec.BulkheadSpec;
+
+public class DefaultBulkheadSpec implements BulkheadSpec {
+
+  private int maxThreads = DEFAULT_MAX_THREADS;
+  private int maxQueued = DEFAULT_MAX_QUEUED;
+  private RejectionPolicy rejectionPolicy = RejectionPolicy.FAIL;
+
+  @Override
+  public BulkheadSpec maxThreads(int maxThreads) {
+    Preconditions.checkArgument(maxThreads > 0, "maxThreads must be > 0");
+    this.maxThreads = maxThreads;
+    return this;
+  }
+
+  @Override
+  public BulkheadSpec maxQueued(int maxQueued) {
+    Preconditions.checkArgument(maxQueued >= 0, "maxQueued must be >= 0");
+    this.maxQueued = maxQueued;
+    return this;
+  }
+
+  @Override
+  public BulkheadSpec rejectionPolicy(RejectionPolicy rejectionPolicy) {
+    this.rejectionPolicy = Preconditions.checkNotNull(rejectionPolicy, "rejectionPolicy");
+    return this;
+  }
+
+  public int getMaxThreads() {
+    return maxThreads;
+  }
+
+  public int getMaxQueued() {
+    return maxQueued;
+  }
+
+  public RejectionPolicy getRejectionPolicy() {
+    return rejectionPolicy;
+  }
+
+}
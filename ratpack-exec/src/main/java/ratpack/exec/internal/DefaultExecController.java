@@ -17,6 +17,7 @@
 package ratpack.exec.internal;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.util.concurrent.DefaultThreadFactory;
@@ -28,9 +29,13 @@ import ratpack.exec.util.internal.InternalRatpackError;
 import ratpack.exec.util.internal.TransportDetector;
 import ratpack.func.Action;
 import ratpack.func.Block;
+import ratpack.func.Nullable;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import static ratpack.func.Action.noop;
@@ -42,6 +47,10 @@ public class DefaultExecController implements ExecController {
   private static final Logger LOGGER = LoggerFactory.getLogger(ExecController.class);
 
   private final ExecutorService blockingExecutor;
+  private final AutoCloseable pinningReporter;
+  private final ImmutableMap<String, DefaultBulkhead> bulkheads;
+  private final StallDetector stallDetector;
+  private final ExecTimer timer;
   private final EventLoopGroup eventLoopGroup;
   private final int numThreads;
   private final ClassLoader contextClassLoader;
@@ -55,17 +64,49 @@ public class DefaultExecController implements ExecController {
 
   public DefaultExecController(
     int numComputeThreads,
+    Action<? super Integer> computeThreadInitializer,
     Function<? super ThreadFactory, ? extends ExecutorService> blockingExecutorFactory,
+    @Nullable DefaultVirtualThreadsSpec virtualThreads,
+    Map<String, DefaultBulkheadSpec> bulkheads,
+    @Nullable DefaultStallDetectionSpec stallDetection,
+    @Nullable DefaultTimerSpec timer,
     ClassLoader contextClassLoader,
     Iterable<ExecInitializer> execInitializers,
     Iterable<ExecInterceptor> execInterceptors
   ) {
-    this.numThreads = numComputeThreads;
-    this.eventLoopGroup = TransportDetector.eventLoopGroup(Runtime.getRuntime().availableProcessors() * 2, new ExecControllerBindingThreadFactory(true, "ratpack-compute", Thread.MAX_PRIORITY));
-    this.blockingExecutor = blockingExecutorFactory.apply(
-      new ExecControllerBindingThreadFactory(false, "ratpack-blocking", Thread.NORM_PRIORITY)
-    );
+    this.numThreads = numComputeThreads > 0 ? numComputeThreads : Runtime.getRuntime().availableProcessors() * 2;
+    this.eventLoopGroup = TransportDetector.eventLoopGroup(numThreads, new ExecControllerBindingThreadFactory(true, "ratpack-compute", Thread.MAX_PRIORITY, computeThreadInitializer));
     this.contextClassLoader = contextClassLoader;
+
+    ThreadFactory virtualThreadFactory = virtualThreads == null ? null : VirtualThreads.threadFactory("ratpack-blocking-virtual-");
+    if (virtualThreadFactory == null) {
+      if (virtualThreads != null) {
+        LOGGER.warn("Virtual threads are not available, platform threads will be used for blocking tasks");
+      }
+      this.blockingExecutor = blockingExecutorFactory.apply(
+        new ExecControllerBindingThreadFactory(false, "ratpack-blocking", Thread.NORM_PRIORITY, noop())
+      );
+      this.pinningReporter = null;
+    } else {
+      this.blockingExecutor = new ThreadPerTaskExecutorService(
+        r -> virtualThreadFactory.newThread(binding(false, r)),
+        virtualThreads.getMaxConcurrency()
+      );
+      this.pinningReporter = virtualThreads.getPinningThreshold() == null ? null : VirtualThreads.reportPinning(virtualThreads.getPinningThreshold());
+    }
+
+    ImmutableMap.Builder<String, DefaultBulkhead> bulkheadsBuilder = ImmutableMap.builder();
+    bulkheads.forEach((name, spec) -> bulkheadsBuilder.put(name, new DefaultBulkhead(
+      name,
+      spec,
+      new ExecControllerBindingThreadFactory(false, "ratpack-blocking-" + name, Thread.NORM_PRIORITY, noop()),
+      blockingExecutor
+    )));
+    this.bulkheads = bulkheadsBuilder.build();
+
+    this.stallDetector = stallDetection == null ? null : new StallDetector(eventLoopGroup, stallDetection);
+    this.timer = timer == null ? null : new ExecTimer(timer);
+
     this.interceptors = ImmutableList.copyOf(execInterceptors);
     this.initializers = ImmutableList.copyOf(execInitializers);
   }
@@ -124,6 +165,23 @@ public class DefaultExecController implements ExecController {
     });
 
 
+    if (pinningReporter != null) {
+      try {
+        pinningReporter.close();
+      } catch (Exception e) {
+        LOGGER.warn("Exception thrown closing virtual thread pinning reporter will be ignored - ", e);
+      }
+    }
+
+    if (stallDetector != null) {
+      stallDetector.close();
+    }
+
+    if (timer != null) {
+      timer.close();
+    }
+
+    bulkheads.values().forEach(DefaultBulkhead::close);
     blockingExecutor.shutdown();
     eventLoopGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS);
   }
@@ -146,27 +204,57 @@ public class DefaultExecController implements ExecController {
 
   private class ExecControllerBindingThreadFactory extends DefaultThreadFactory {
     private final boolean compute;
+    private final Action<? super Integer> initializer;
+    private final AtomicInteger nextIndex = new AtomicInteger();
 
-    ExecControllerBindingThreadFactory(boolean compute, String name, int priority) {
+    ExecControllerBindingThreadFactory(boolean compute, String name, int priority, Action<? super Integer> initializer) {
       super(name, priority);
       this.compute = compute;
+      this.initializer = initializer;
     }
 
     @Override
     public Thread newThread(final Runnable r) {
-      return super.newThread(() -> {
-        ExecThreadBinding.bind(compute, DefaultExecController.this);
-        Thread.currentThread().setContextClassLoader(contextClassLoader);
+      int index = nextIndex.getAndIncrement();
+      return super.newThread(binding(compute, () -> {
+        try {
+          initializer.execute(index);
+        } catch (Throwable e) {
+          LOGGER.warn("Exception thrown by thread initializer for '" + Thread.currentThread().getName() + "' will be ignored - ", e);
+        }
         r.run();
-      });
+      }));
     }
   }
 
+  private Runnable binding(boolean compute, Runnable r) {
+    return () -> {
+      ExecThreadBinding.bind(compute, DefaultExecController.this);
+      Thread.currentThread().setContextClassLoader(contextClassLoader);
+      r.run();
+    };
+  }
+
   @Override
   public int getNumThreads() {
     return numThreads;
   }
 
+  @Override
+  public Optional<EventLoopLag> getEventLoopLag() {
+    return Optional.ofNullable(stallDetector);
+  }
+
+  @Override
+  public Optional<Bulkhead> getBulkhead(String name) {
+    return Optional.ofNullable(bulkheads.get(name));
+  }
+
+  @Nullable
+  ExecTimer getTimer() {
+    return timer;
+  }
+
   @Override
   public ExecStarter fork() {
     return new ExecStarter() {
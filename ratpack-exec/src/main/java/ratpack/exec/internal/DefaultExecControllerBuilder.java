@@ -16,13 +16,20 @@
 
 package ratpack.exec.internal;
 
+import ratpack.exec.BulkheadSpec;
 import ratpack.exec.ExecController;
 import ratpack.exec.ExecControllerBuilder;
 import ratpack.exec.ExecInitializer;
 import ratpack.exec.ExecInterceptor;
+import ratpack.exec.StallDetectionSpec;
+import ratpack.exec.TimerSpec;
+import ratpack.exec.VirtualThreadsSpec;
+import ratpack.func.Action;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
@@ -31,7 +38,12 @@ import java.util.function.Function;
 public class DefaultExecControllerBuilder implements ExecControllerBuilder {
 
   private int numThreads = Runtime.getRuntime().availableProcessors() * 2;
+  private Action<? super Integer> computeThreadInitializer = Action.noop();
   private Function<? super ThreadFactory, ? extends ExecutorService> blockingExecutorFactory = Executors::newCachedThreadPool;
+  private DefaultVirtualThreadsSpec virtualThreads;
+  private DefaultStallDetectionSpec stallDetection;
+  private DefaultTimerSpec timer;
+  private final Map<String, DefaultBulkheadSpec> bulkheads = new LinkedHashMap<>();
 
   private ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
   private final List<ExecInitializer> execInitializers = new ArrayList<>();
@@ -43,6 +55,12 @@ public class DefaultExecControllerBuilder implements ExecControllerBuilder {
     return this;
   }
 
+  @Override
+  public ExecControllerBuilder computeThreadInitializer(Action<? super Integer> initializer) {
+    this.computeThreadInitializer = initializer;
+    return this;
+  }
+
   @Override
   public ExecControllerBuilder contextClassLoader(ClassLoader classLoader) {
     this.contextClassLoader = classLoader;
@@ -56,6 +74,30 @@ public class DefaultExecControllerBuilder implements ExecControllerBuilder {
 
   }
 
+  @Override
+  public ExecControllerBuilder virtualBlockingThreads(Action<? super VirtualThreadsSpec> spec) throws Exception {
+    this.virtualThreads = Action.with(new DefaultVirtualThreadsSpec(), spec);
+    return this;
+  }
+
+  @Override
+  public ExecControllerBuilder bulkhead(String name, Action<? super BulkheadSpec> spec) throws Exception {
+    bulkheads.put(name, Action.with(new DefaultBulkheadSpec(), spec));
+    return this;
+  }
+
+  @Override
+  public ExecControllerBuilder stallDetection(Action<? super StallDetectionSpec> spec) throws Exception {
+    this.stallDetection = Action.with(new DefaultStallDetectionSpec(), spec);
+    return this;
+  }
+
+  @Override
+  public ExecControllerBuilder timer(Action<? super TimerSpec> spec) throws Exception {
+    this.timer = Action.with(new DefaultTimerSpec(), spec);
+    return this;
+  }
+
   @Override
   public ExecControllerBuilder execInitializers(Iterable<? extends ExecInitializer> initializers) {
     initializers.forEach(this.execInitializers::add);
@@ -72,7 +114,12 @@ public class DefaultExecControllerBuilder implements ExecControllerBuilder {
   public ExecController build() {
     return new DefaultExecController(
       numThreads,
+      computeThreadInitializer,
       blockingExecutorFactory,
+      virtualThreads,
+      bulkheads,
+      stallDetection,
+      timer,
       contextClassLoader,
       execInitializers,
       execInterceptors
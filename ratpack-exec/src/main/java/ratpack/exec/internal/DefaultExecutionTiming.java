@@ -0,0 +1,156 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.exec.ExecInterceptor;
+import ratpack.exec.Execution;
+import ratpack.exec.ExecutionTiming;
+import ratpack.func.Block;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class DefaultExecutionTiming implements ExecutionTiming {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DefaultExecutionTiming.class);
+
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+  private static final boolean CPU_TIME = isCpuTimeEnabled();
+  private static final AllocationMeter ALLOCATION = createAllocationMeter();
+
+  // Compute and blocking segments of an execution may overlap
+  private final LongAdder computeSegments = new LongAdder();
+  private final LongAdder computeNanos = new LongAdder();
+  private final LongAdder blockingSegments = new LongAdder();
+  private final LongAdder blockingNanos = new LongAdder();
+  private final LongAdder cpuNanos = new LongAdder();
+  private final LongAdder allocatedBytes = new LongAdder();
+
+  public static DefaultExecutionTiming of(Execution execution) {
+    DefaultExecutionTiming timing = execution.maybeGet(DefaultExecutionTiming.class).orElse(null);
+    if (timing == null) {
+      timing = new DefaultExecutionTiming();
+      execution.add(DefaultExecutionTiming.class, timing);
+    }
+    return timing;
+  }
+
+  public void record(ExecInterceptor.ExecType execType, Block segment) throws Exception {
+    long threadId = ALLOCATION == null ? 0 : Thread.currentThread().getId();
+    long startAllocated = ALLOCATION == null ? 0 : ALLOCATION.allocatedBytes(threadId);
+    long startCpu = CPU_TIME ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0;
+    long start = System.nanoTime();
+    try {
+      segment.execute();
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      if (execType == ExecInterceptor.ExecType.COMPUTE) {
+        computeSegments.increment();
+        computeNanos.add(elapsed);
+      } else {
+        blockingSegments.increment();
+        blockingNanos.add(elapsed);
+      }
+      if (CPU_TIME) {
+        cpuNanos.add(THREAD_MX_BEAN.getCurrentThreadCpuTime() - startCpu);
+      }
+      if (ALLOCATION != null) {
+        allocatedBytes.add(ALLOCATION.allocatedBytes(threadId) - startAllocated);
+      }
+    }
+  }
+
+  @Override
+  public long getComputeSegmentCount() {
+    return computeSegments.sum();
+  }
+
+  @Override
+  public Duration getComputeTime() {
+    return Duration.ofNanos(computeNanos.sum());
+  }
+
+  @Override
+  public long getBlockingSegmentCount() {
+    return blockingSegments.sum();
+  }
+
+  @Override
+  public Duration getBlockingTime() {
+    return Duration.ofNanos(blockingNanos.sum());
+  }
+
+  @Override
+  public Optional<Duration> getCpuTime() {
+    return CPU_TIME ? Optional.of(Duration.ofNanos(cpuNanos.sum())) : Optional.empty();
+  }
+
+  @Override
+  public Optional<Long> getAllocatedBytes() {
+    return ALLOCATION == null ? Optional.empty() : Optional.of(allocatedBytes.sum());
+  }
+
+  private static boolean isCpuTimeEnabled() {
+    try {
+      return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+    } catch (Exception e) {
+      LOGGER.debug("Thread CPU time is not available", e);
+      return false;
+    }
+  }
+
+  private static AllocationMeter createAllocationMeter() {
+    try {
+      return AllocationMeter.create();
+    } catch (LinkageError e) {
+      LOGGER.debug("Thread allocation measurement is not available", e);
+      return null;
+    }
+  }
+
+  /**
+   * Isolates the use of {@code com.sun.management}, which is not available on all JVMs.
+   */
+  private static final class AllocationMeter {
+
+    private final com.sun.management.ThreadMXBean threadMXBean;
+
+    private AllocationMeter(com.sun.management.ThreadMXBean threadMXBean) {
+      this.threadMXBean = threadMXBean;
+    }
+
+    static AllocationMeter create() {
+      if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+        if (threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+          return new AllocationMeter(threadMXBean);
+        }
+      }
+      return null;
+    }
+
+    long allocatedBytes(long threadId) {
+      return threadMXBean.getThreadAllocatedBytes(threadId);
+    }
+  }
+
+}
@@ -16,11 +16,14 @@
 
 package ratpack.exec.internal;
 
+import io.netty.channel.EventLoop;
 import ratpack.exec.Downstream;
+import ratpack.exec.ExecController;
 import ratpack.exec.Execution;
 import ratpack.exec.ExecutionException;
 import ratpack.exec.Promise;
 import ratpack.exec.Upstream;
+import ratpack.exec.util.retry.HedgePolicy;
 import ratpack.exec.util.retry.RetryPolicy;
 import ratpack.func.Action;
 import ratpack.func.BiAction;
@@ -31,6 +34,8 @@ import ratpack.func.Predicate;
 import ratpack.func.Exceptions;
 
 import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 public class DefaultPromise<T> implements Promise<T> {
 
@@ -172,4 +177,112 @@ public class DefaultPromise<T> implements Promise<T> {
     }));
   }
 
+
+  public static <T> void hedge(HedgePolicy hedgePolicy, Upstream<? extends T> up, Downstream<? super T> down) throws Exception {
+    Execution execution = Execution.current();
+    hedgePolicy.onSubscribe();
+    Promise.<T>async(d ->
+      new Hedge<>(hedgePolicy, up, d, execution.getController(), execution.getEventLoop()).attempt()
+    ).connect(down);
+  }
+
+  private static final class Hedge<T> {
+
+    private final HedgePolicy hedgePolicy;
+    private final Upstream<? extends T> up;
+    private final Downstream<? super T> down;
+    private final ExecController controller;
+    private final EventLoop eventLoop;
+
+    // guarded by this
+    private boolean done;
+    private int started;
+    private int failed;
+    private Throwable error;
+    private ScheduledFuture<?> next;
+
+    Hedge(HedgePolicy hedgePolicy, Upstream<? extends T> up, Downstream<? super T> down, ExecController controller, EventLoop eventLoop) {
+      this.hedgePolicy = hedgePolicy;
+      this.up = up;
+      this.down = down;
+      this.controller = controller;
+      this.eventLoop = eventLoop;
+    }
+
+    void attempt() {
+      synchronized (this) {
+        if (done) {
+          return;
+        }
+        ++started;
+        if (started < hedgePolicy.maxAttempts()) {
+          next = eventLoop.schedule(this::hedge, hedgePolicy.delay().toNanos(), TimeUnit.NANOSECONDS);
+        }
+      }
+
+      long startedAt = System.nanoTime();
+      controller.fork()
+        .onError(this::error)
+        .start(e -> up.connect(new Downstream<T>() {
+          @Override
+          public void success(T value) {
+            hedgePolicy.onSuccess(Duration.ofNanos(System.nanoTime() - startedAt));
+            if (finish()) {
+              down.success(value);
+            }
+          }
+
+          @Override
+          public void error(Throwable throwable) {
+            Hedge.this.error(throwable);
+          }
+
+          @Override
+          public void complete() {
+            if (finish()) {
+              down.complete();
+            }
+          }
+        }));
+    }
+
+    private void hedge() {
+      synchronized (this) {
+        next = null;
+        if (done || !hedgePolicy.tryHedge()) {
+          return;
+        }
+      }
+      attempt();
+    }
+
+    private synchronized boolean finish() {
+      if (done) {
+        return false;
+      }
+      done = true;
+      if (next != null) {
+        next.cancel(false);
+        next = null;
+      }
+      return true;
+    }
+
+    private void error(Throwable throwable) {
+      synchronized (this) {
+        if (error == null) {
+          error = throwable;
+        } else if (error != throwable) {
+          error.addSuppressed(throwable);
+        }
+        if (++failed < started) {
+          return;
+        }
+      }
+      if (finish()) {
+        down.error(error);
+      }
+    }
+  }
+
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.exec.EventLoopStall;
+import ratpack.exec.StallDetectionSpec;
+import ratpack.func.Action;
+
+import java.time.Duration;
+
+public class DefaultStallDetectionSpec implements StallDetectionSpec {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StallDetector.class);
+
+  private static final Action<EventLoopStall> LOG_STALL = stall -> {
+    Throwable stackTrace = new Throwable("stack trace of " + stall.getThread().getName());
+    stackTrace.setStackTrace(stall.getStackTrace());
+    LOGGER.warn(
+      "Compute thread '" + stall.getThread().getName() + "' has been stalled for " + stall.getDuration().toMillis() + "ms"
+        + (stall.getExecution().isPresent() ? " while running an execution" : ""),
+      stackTrace
+    );
+  };
+
+  private Duration interval = DEFAULT_INTERVAL;
+  private Duration threshold = DEFAULT_THRESHOLD;
+  private Action<? super EventLoopStall> onStall = LOG_STALL;
+
+  @Override
+  public StallDetectionSpec interval(Duration interval) {
+    Preconditions.checkArgument(!interval.isNegative() && !interval.isZero(), "interval must be > 0");
+    this.interval = interval;
+    return this;
+  }
+
+  @Override
+  public StallDetectionSpec threshold(Duration threshold) {
+    Preconditions.checkArgument(!threshold.isNegative() && !threshold.isZero(), "threshold must be > 0");
+    this.threshold = threshold;
+    return this;
+  }
+
+  @Override
+  public StallDetectionSpec onStall(Action<? super EventLoopStall> action) {
+    this.onStall = action;
+    return this;
+  }
+
+  public Duration getInterval() {
+    return interval;
+  }
+
+  public Duration getThreshold() {
+    return threshold;
+  }
+
+  public Action<? super EventLoopStall> getOnStall() {
+    return onStall;
+  }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import com.google.common.base.Preconditions;
+import ratpack.exec.TimerSpec;
+
+import java.time.Duration;
+
+public class DefaultTimerSpec implements TimerSpec {
+
+  private Duration tick = DEFAULT_TICK;
+  private int ticksPerWheel = DEFAULT_TICKS_PER_WHEEL;
+  private Duration threshold = DEFAULT_THRESHOLD;
+
+  @Override
+  public TimerSpec tick(Duration tick) {
+    Preconditions.checkArgument(tick.toMillis() >= 1, "tick must be at least 1ms");
+    this.tick = tick;
+    return this;
+  }
+
+  @Override
+  public TimerSpec ticksPerWheel(int ticksPerWheel) {
+    Preconditions.checkArgument(ticksPerWheel > 0 && ticksPerWheel <= 1 << 30, "ticksPerWheel must be > 0 and <= 2^30");
+    this.ticksPerWheel = ticksPerWheel;
+    return this;
+  }
+
+  @Override
+  public TimerSpec threshold(Duration threshold) {
+    Preconditions.checkArgument(!threshold.isNegative(), "threshold must not be negative");
+    this.threshold = threshold;
+    return this;
+  }
+
+  public Duration getTick() {
+    return tick;
+  }
+
+  public int getTicksPerWheel() {
+    return ticksPerWheel;
+  }
+
+  public Duration getThreshold() {
+    return threshold;
+  }
+
+}
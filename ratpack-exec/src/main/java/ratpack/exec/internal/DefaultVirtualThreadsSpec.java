@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import com.google.common.base.Preconditions;
+import ratpack.exec.VirtualThreadsSpec;
+import ratpack.func.Nullable;
+
+import java.time.Duration;
+
+public class DefaultVirtualThreadsSpec implements VirtualThreadsSpec {
+
+  private int maxConcurrency = Integer.MAX_VALUE;
+  private Duration pinningThreshold;
+
+  @Override
+  public VirtualThreadsSpec maxConcurrency(int maxConcurrency) {
+    Preconditions.checkArgument(maxConcurrency > 0, "maxConcurrency must be > 0");
+    this.maxConcurrency = maxConcurrency;
+    return this;
+  }
+
+  @Override
+  public VirtualThreadsSpec reportPinning(@Nullable Duration threshold) {
+    Preconditions.checkArgument(threshold == null || !threshold.isNegative(), "threshold must not be negative");
+    this.pinningThreshold = threshold;
+    return this;
+  }
+
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  @Nullable
+  public Duration getPinningThreshold() {
+    return pinningThreshold;
+  }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import ratpack.exec.ExecController;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules delayed tasks on the compute threads of an exec controller.
+ * <p>
+ * Delays at or above the threshold are added to a hashed wheel timer, which has constant time insertion and cancellation,
+ * at the cost of running tasks up to one tick late.
+ * Shorter delays are scheduled precisely on the event loop, which costs a priority queue insertion and removal.
+ * Either way, the task runs on the given event loop.
+ */
+public final class ExecTimer implements AutoCloseable {
+
+  /**
+   * A handle to a scheduled task.
+   */
+  public interface Cancellable {
+    void cancel();
+  }
+
+  private final HashedWheelTimer wheel;
+  private final long thresholdNanos;
+
+  ExecTimer(DefaultTimerSpec spec) {
+    this.wheel = new HashedWheelTimer(
+      new DefaultThreadFactory("ratpack-timer", true),
+      spec.getTick().toNanos(),
+      TimeUnit.NANOSECONDS,
+      spec.getTicksPerWheel(),
+      false
+    );
+    this.thresholdNanos = spec.getThreshold().toNanos();
+  }
+
+  /**
+   * Schedules the task to run on the event loop after the delay, using the timer of the controller if it has one.
+   *
+   * @param controller the controller that the event loop belongs to
+   * @param eventLoop the event loop to run the task on
+   * @param task the task
+   * @param delayNanos the delay
+   * @return a handle to the scheduled task
+   */
+  public static Cancellable schedule(ExecController controller, EventExecutor eventLoop, Runnable task, long delayNanos) {
+    if (controller instanceof DefaultExecController) {
+      ExecTimer timer = ((DefaultExecController) controller).getTimer();
+      if (timer != null && delayNanos >= timer.thresholdNanos) {
+        Timeout timeout = timer.wheel.newTimeout(t -> eventLoop.execute(task), delayNanos, TimeUnit.NANOSECONDS);
+        return timeout::cancel;
+      }
+    }
+
+    ScheduledFuture<?> future = eventLoop.schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+    return () -> future.cancel(false);
+  }
+
+  @Override
+  public void close() {
+    wheel.stop();
+  }
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.exec.EventLoopLag;
+import ratpack.exec.EventLoopStall;
+import ratpack.exec.ExecutionRef;
+import ratpack.func.Action;
+import ratpack.func.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Schedules a heartbeat on each event loop of a group, and watches them from a dedicated thread.
+ * <p>
+ * Nothing is added to the execution of segments.
+ * The watcher reads the execution bound to a stalled thread without synchronization, as it is only used for diagnostics.
+ */
+final class StallDetector implements EventLoopLag, AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StallDetector.class);
+
+  private static final int BUCKETS = 64;
+
+  private final long intervalNanos;
+  private final long thresholdNanos;
+  private final Action<? super EventLoopStall> onStall;
+  private final List<Heartbeat> heartbeats = new ArrayList<>();
+  private final ScheduledExecutorService watcher;
+
+  // bucket i holds lags of less than 2^i microseconds
+  private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder stalls = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  private volatile boolean closed;
+
+  StallDetector(EventExecutorGroup group, DefaultStallDetectionSpec spec) {
+    this.intervalNanos = spec.getInterval().toNanos();
+    this.thresholdNanos = spec.getThreshold().toNanos();
+    this.onStall = spec.getOnStall();
+
+    for (EventExecutor eventLoop : group) {
+      Heartbeat heartbeat = new Heartbeat(eventLoop);
+      heartbeats.add(heartbeat);
+      heartbeat.schedule();
+    }
+
+    this.watcher = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("ratpack-stall-detector", true));
+    long checkIntervalNanos = Math.max(Math.min(intervalNanos, thresholdNanos) / 2, TimeUnit.MILLISECONDS.toNanos(1));
+    watcher.scheduleWithFixedDelay(this::check, checkIntervalNanos, checkIntervalNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private void check() {
+    long now = System.nanoTime();
+    for (Heartbeat heartbeat : heartbeats) {
+      long due = heartbeat.due;
+      long lag = now - due;
+      if (lag > thresholdNanos && heartbeat.reportedDue != due && heartbeat.thread != null) {
+        heartbeat.reportedDue = due;
+        report(heartbeat, lag);
+      }
+    }
+  }
+
+  private void report(Heartbeat heartbeat, long lag) {
+    Thread thread = heartbeat.thread;
+    StackTraceElement[] stackTrace = thread.getStackTrace();
+    ExecThreadBinding binding = heartbeat.binding;
+    DefaultExecution execution = binding == null ? null : binding.getExecution();
+    Stall stall = new Stall(thread, Duration.ofNanos(lag), stackTrace, execution == null ? null : execution.getRef());
+
+    stalls.increment();
+    try {
+      onStall.execute(stall);
+    } catch (Throwable e) {
+      LOGGER.warn("Exception thrown by stall detection action will be ignored - ", e);
+    }
+  }
+
+  private void record(long lagNanos) {
+    long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(lagNanos, 0));
+    histogram.incrementAndGet(Math.min(BUCKETS - Long.numberOfLeadingZeros(micros), BUCKETS - 1));
+    count.increment();
+    max.accumulate(micros);
+  }
+
+  @Override
+  public long getCount() {
+    return count.sum();
+  }
+
+  @Override
+  public long getStallCount() {
+    return stalls.sum();
+  }
+
+  @Override
+  public Duration getMax() {
+    return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(max.get()));
+  }
+
+  @Override
+  public Duration getPercentile(double percentile) {
+    if (percentile < 0 || percentile > 1) {
+      throw new IllegalArgumentException("percentile must be between 0 and 1 (was " + percentile + ")");
+    }
+
+    long[] counts = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; ++i) {
+      counts[i] = histogram.get(i);
+      total += counts[i];
+    }
+    if (total == 0) {
+      return Duration.ZERO;
+    }
+
+    long rank = Math.max((long) Math.ceil(percentile * total), 1);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; ++i) {
+      seen += counts[i];
+      if (seen >= rank) {
+        long upperBound = i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+        return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(Math.min(upperBound, max.get())));
+      }
+    }
+    return getMax();
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    watcher.shutdownNow();
+  }
+
+  private final class Heartbeat implements Runnable {
+
+    private final EventExecutor eventLoop;
+
+    private volatile long due;
+    // only accessed by the watcher
+    private long reportedDue;
+    private volatile Thread thread;
+    private volatile ExecThreadBinding binding;
+
+    Heartbeat(EventExecutor eventLoop) {
+      this.eventLoop = eventLoop;
+    }
+
+    void schedule() {
+      due = System.nanoTime() + intervalNanos;
+      eventLoop.schedule(this, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void run() {
+      if (thread == null) {
+        thread = Thread.currentThread();
+        binding = ExecThreadBinding.get();
+      }
+      record(System.nanoTime() - due);
+      if (!closed && !eventLoop.isShuttingDown()) {
+        schedule();
+      }
+    }
+  }
+
+  private static final class Stall implements EventLoopStall {
+
+    private final Thread thread;
+    private final Duration duration;
+    private final StackTraceElement[] stackTrace;
+    private final ExecutionRef execution;
+
+    Stall(Thread thread, Duration duration, StackTraceElement[] stackTrace, @Nullable ExecutionRef execution) {
+      this.thread = thread;
+      this.duration = duration;
+      this.stackTrace = stackTrace;
+      this.execution = execution;
+    }
+
+    @Override
+    public Thread getThread() {
+      return thread;
+    }
+
+    @Override
+    public Duration getDuration() {
+      return duration;
+    }
+
+    @Override
+    public StackTraceElement[] getStackTrace() {
+      return stackTrace;
+    }
+
+    @Override
+    public Optional<ExecutionRef> getExecution() {
+      return Optional.ofNullable(execution);
+    }
+  }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import ratpack.func.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An executor that starts a new thread for each task, intended for use with virtual threads.
+ * <p>
+ * The number of tasks that run at once can be limited, in which case excess tasks wait for a permit on their own thread.
+ */
+final class ThreadPerTaskExecutorService extends AbstractExecutorService {
+
+  private final ThreadFactory threadFactory;
+  @Nullable
+  private final Semaphore permits;
+
+  private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+  private final CountDownLatch terminated = new CountDownLatch(1);
+  private volatile boolean shutdown;
+
+  ThreadPerTaskExecutorService(ThreadFactory threadFactory, int maxConcurrency) {
+    this.threadFactory = threadFactory;
+    this.permits = maxConcurrency == Integer.MAX_VALUE ? null : new Semaphore(maxConcurrency, true);
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    if (shutdown) {
+      throw new RejectedExecutionException("executor has been shut down");
+    }
+    Thread thread = threadFactory.newThread(() -> run(task));
+    threads.add(thread);
+    if (shutdown) {
+      threads.remove(thread);
+      tryTerminate();
+      throw new RejectedExecutionException("executor has been shut down");
+    }
+    thread.start();
+  }
+
+  private void run(Runnable task) {
+    try {
+      if (permits == null) {
+        task.run();
+      } else {
+        permits.acquire();
+        try {
+          task.run();
+        } finally {
+          permits.release();
+        }
+      }
+    } catch (InterruptedException e) {
+      // interrupted by shutdownNow() while waiting for a permit
+      Thread.currentThread().interrupt();
+    } finally {
+      threads.remove(Thread.currentThread());
+      tryTerminate();
+    }
+  }
+
+  private void tryTerminate() {
+    if (shutdown && threads.isEmpty()) {
+      terminated.countDown();
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    shutdown = true;
+    tryTerminate();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown();
+    threads.forEach(Thread::interrupt);
+    return Collections.emptyList();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return terminated.getCount() == 0;
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return terminated.await(timeout, unit);
+  }
+
+}
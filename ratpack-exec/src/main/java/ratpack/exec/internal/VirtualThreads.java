@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.func.Nullable;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+/**
+ * Access to virtual threads and their pinning events, which are not available at the Java version that Ratpack is compiled for.
+ */
+final class VirtualThreads {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreads.class);
+
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  private VirtualThreads() {
+  }
+
+  /**
+   * A factory of unstarted virtual threads with the given name prefix, or {@code null} if virtual threads are not available.
+   */
+  @Nullable
+  static ThreadFactory threadFactory(String namePrefix) {
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (Throwable e) {
+      // not available, or a preview feature that is not enabled
+      return null;
+    }
+  }
+
+  /**
+   * Starts logging the pinning of virtual threads for longer than the given threshold.
+   *
+   * @return the stream of pinning events, to be closed to stop reporting, or {@code null} if events are not available
+   */
+  @Nullable
+  static AutoCloseable reportPinning(Duration threshold) {
+    try {
+      Class<?> streamClass = Class.forName("jdk.jfr.consumer.RecordingStream");
+      Class<?> settingsClass = Class.forName("jdk.jfr.EventSettings");
+      Object stream = streamClass.getConstructor().newInstance();
+      Object settings = streamClass.getMethod("enable", String.class).invoke(stream, PINNED_EVENT);
+      settingsClass.getMethod("withThreshold", Duration.class).invoke(settings, threshold);
+      settingsClass.getMethod("withStackTrace").invoke(settings);
+      Consumer<Object> listener = event -> LOGGER.warn("A virtual thread blocked while pinned to its carrier thread: {}", event);
+      streamClass.getMethod("onEvent", String.class, Consumer.class).invoke(stream, PINNED_EVENT, listener);
+      Method startAsync = streamClass.getMethod("startAsync");
+      startAsync.invoke(stream);
+      return (AutoCloseable) stream;
+    } catch (Throwable e) {
+      LOGGER.warn("Pinning of virtual threads will not be reported as flight recorder events are not available", e);
+      return null;
+    }
+  }
+
+}
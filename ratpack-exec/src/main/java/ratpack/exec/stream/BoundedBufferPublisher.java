@@ -0,0 +1,35 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.stream;
+
+/**
+ * A publisher that buffers items from an upstream publisher, up to a bound.
+ *
+ * @param <T> the type of item
+ * @see Streams#buffer(org.reactivestreams.Publisher, ratpack.func.Action)
+ * @since 2.0
+ */
+public interface BoundedBufferPublisher<T> extends TransformablePublisher<T> {
+
+  /**
+   * The number of items dropped due to the buffer being full, across all subscriptions to this publisher.
+   *
+   * @return the number of items dropped due to the buffer being full
+   */
+  long getDroppedCount();
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.stream;
+
+import ratpack.func.Action;
+import ratpack.func.Function;
+
+/**
+ * A specification of a bounded buffer of stream items.
+ *
+ * @param <T> the type of item
+ * @see Streams#buffer(org.reactivestreams.Publisher, Action)
+ * @since 2.0
+ */
+public interface BufferSpec<T> {
+
+  /**
+   * The default maximum number of buffered items.
+   */
+  int DEFAULT_CAPACITY = 128;
+
+  /**
+   * What to do when an item is received and the buffer is full.
+   */
+  enum OverflowStrategy {
+
+    /**
+     * Do not request more items from upstream than fit in the buffer.
+     * <p>
+     * The buffer is filled ahead of demand, but the upstream publisher is slowed to the rate of the subscriber.
+     * If the buffer is bounded by {@link #maxWeight(long, Function) weight}, items beyond demand are requested one at a time,
+     * as their weight is only known once they arrive, so the buffer exceeds the maximum weight by at most one item.
+     */
+    BACKPRESSURE,
+
+    /**
+     * Drop the oldest buffered items until the new item fits.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Drop the new item.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Drop all buffered items, keeping only the new item.
+     */
+    KEEP_LATEST,
+
+    /**
+     * Drop the new item and all buffered items, cancel the upstream subscription, and signal a {@link BufferOverflowException} to the subscriber.
+     */
+    ERROR
+  }
+
+  /**
+   * The maximum number of buffered items.
+   * <p>
+   * Defaults to {@link #DEFAULT_CAPACITY}.
+   *
+   * @param capacity the maximum number of buffered items
+   * @return {@code this}
+   */
+  BufferSpec<T> capacity(int capacity);
+
+  /**
+   * The maximum total weight of buffered items, in addition to the {@link #capacity(int) maximum number}.
+   * <p>
+   * The weight of an item is given by the {@code weigher}, and is typically its size in bytes.
+   * An item that weighs more than the maximum weight is buffered on its own.
+   * <p>
+   * By default, the buffer is not bounded by weight.
+   *
+   * @param maxWeight the maximum total weight of buffered items
+   * @param weigher the function that determines the weight of an item
+   * @return {@code this}
+   */
+  BufferSpec<T> maxWeight(long maxWeight, Function<? super T, Long> weigher);
+
+  /**
+   * What to do when an item is received and the buffer is full.
+   * <p>
+   * Defaults to {@link OverflowStrategy#BACKPRESSURE}.
+   * With any other strategy, the upstream publisher is asked for all of its items at once,
+   * and the buffer is what protects against a subscriber that is slower than the publisher.
+   *
+   * @param strategy what to do when the buffer is full
+   * @return {@code this}
+   */
+  BufferSpec<T> overflow(OverflowStrategy strategy);
+
+  /**
+   * The disposer of items that are dropped, or that are buffered when the stream errors or is cancelled.
+   * <p>
+   * This is typically used to release reference counted items, such as {@link io.netty.buffer.ByteBuf}.
+   * <p>
+   * By default, items are not disposed.
+   *
+   * @param disposer the disposer of dropped and unemitted items
+   * @return {@code this}
+   */
+  BufferSpec<T> disposer(Action<? super T> disposer);
+
+}
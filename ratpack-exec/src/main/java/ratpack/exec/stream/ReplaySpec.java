@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.stream;
+
+import java.time.Duration;
+
+/**
+ * A specification of a publisher that replays recent items to new subscribers.
+ *
+ * @see Streams#replay(org.reactivestreams.Publisher, ratpack.func.Action)
+ * @since 2.0
+ */
+public interface ReplaySpec {
+
+  /**
+   * The default maximum number of items retained for replay.
+   */
+  int DEFAULT_SIZE = 128;
+
+  /**
+   * What to do with a subscriber that falls so far behind that the items it has not yet received are no longer retained.
+   */
+  enum SlowSubscriberStrategy {
+
+    /**
+     * Skip the items that are no longer retained, continuing with the oldest retained item.
+     */
+    SKIP_AHEAD,
+
+    /**
+     * Cancel the subscription, and signal a {@link BufferOverflowException} to the subscriber.
+     */
+    DISCONNECT
+  }
+
+  /**
+   * The maximum number of items retained for replay.
+   * <p>
+   * Items are retained in a ring buffer of this size, regardless of the number of subscribers.
+   * <p>
+   * Defaults to {@link #DEFAULT_SIZE}.
+   *
+   * @param size the maximum number of items retained for replay
+   * @return {@code this}
+   */
+  ReplaySpec size(int size);
+
+  /**
+   * The maximum age of items that are emitted, measured from when the item was received from upstream.
+   * <p>
+   * Older items are not replayed to new subscribers.
+   * Items are not dropped from subscribers that are already subscribed because of their age,
+   * as subscribers that fall behind are handled by the {@link #slowSubscribers(SlowSubscriberStrategy) slow subscriber strategy}.
+   * <p>
+   * By default, items are retained until overwritten regardless of age.
+   *
+   * @param maxAge the maximum age of emitted items
+   * @return {@code this}
+   */
+  ReplaySpec maxAge(Duration maxAge);
+
+  /**
+   * What to do with a subscriber that falls behind the retained items.
+   * <p>
+   * Defaults to {@link SlowSubscriberStrategy#SKIP_AHEAD}.
+   *
+   * @param strategy what to do with slow subscribers
+   * @return {@code this}
+   */
+  ReplaySpec slowSubscribers(SlowSubscriberStrategy strategy);
+
+}
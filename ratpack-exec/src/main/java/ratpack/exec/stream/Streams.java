@@ -24,6 +24,7 @@ import ratpack.exec.*;
 import ratpack.exec.internal.DefaultExecution;
 import ratpack.func.Action;
 import ratpack.func.BiFunction;
+import ratpack.func.Exceptions;
 import ratpack.func.Function;
 import ratpack.func.Predicate;
 import ratpack.exec.registry.Registry;
@@ -362,6 +363,92 @@ public class Streams {
     return new BatchingPublisher<>(new FlatMapPublisher<>(input, function), 1, Action.noop());
   }
 
+  /**
+   * Returns a publisher that publishes items from the given input publisher after transforming each item via the given, promise returning, function,
+   * with up to the given number of promises in flight at once.
+   * <p>
+   * Unlike {@link #flatMap(Publisher, Function)}, which waits for the promise for each item before requesting the next,
+   * this method subscribes to the promises for up to {@code concurrency} items at the same time.
+   * Each promise is subscribed to in its own {@link ratpack.exec.Execution#fork() forked execution}, and may use execution based async APIs such as the HTTP client.
+   * Items are emitted in the order of the input items, so an item whose promise is slow holds back the items after it.
+   * See {@link #flatMapConcurrentUnordered(Publisher, int, Function, Action)} for emitting items as soon as their promise completes.
+   * <p>
+   * Demand is respected.
+   * No more items are requested from the input than have been requested from the returned publisher,
+   * and no more than {@code concurrency} items are in flight or awaiting emission at any time.
+   * If a promise completes without a value, nothing is emitted for its item.
+   * <p>
+   * If the given transformation errors, or if a returned promise fails, the subscription to the input stream is cancelled,
+   * and the exception is forwarded to the subscriber.
+   * Items that have been produced but not emitted, when the stream errors or is cancelled, are given to the disposer.
+   * <p>
+   * The returned publisher is {@link #bindExec(Publisher) execution bound}.
+   *
+   * <pre class="java">{@code
+   * import ratpack.exec.Promise;
+   * import ratpack.exec.stream.Streams;
+   * import ratpack.func.Action;
+   * import ratpack.test.exec.ExecHarness;
+   *
+   * import java.time.Duration;
+   * import java.util.Arrays;
+   * import java.util.List;
+   *
+   * import static org.junit.jupiter.api.Assertions.assertEquals;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     List<Integer> result = ExecHarness.yieldSingle(e ->
+   *       Streams.publish(Arrays.asList(3, 1, 2))
+   *         .flatMapConcurrent(2, i -> Promise.value(i * 10).defer(Duration.ofMillis(i * 20)), Action.noop())
+   *         .toList()
+   *     ).getValueOrThrow();
+   *
+   *     assertEquals(Arrays.asList(30, 10, 20), result);
+   *   }
+   * }
+   * }</pre>
+   *
+   * @param input the stream of input data
+   * @param concurrency the maximum number of promises in flight at once
+   * @param function the transformation
+   * @param disposer the disposer of items that were produced but not emitted
+   * @param <I> the type of input item
+   * @param <O> the type of output item
+   * @return a publisher that applies the given transformation to each item from the input stream
+   * @since 2.0
+   */
+  public static <I, O> TransformablePublisher<O> flatMapConcurrent(Publisher<I> input, int concurrency, Function<? super I, ? extends Promise<? extends O>> function, Action<? super O> disposer) {
+    return flatMapConcurrent(input, concurrency, true, function, disposer);
+  }
+
+  /**
+   * Returns a publisher that publishes items from the given input publisher after transforming each item via the given, promise returning, function,
+   * with up to the given number of promises in flight at once, emitting items in the order that their promises complete.
+   * <p>
+   * This method is identical to {@link #flatMapConcurrent(Publisher, int, Function, Action)}, except that items are not emitted in the order of the input items.
+   * An item whose promise is slow does not hold back the items after it, but does occupy one of the {@code concurrency} slots until it completes.
+   *
+   * @param input the stream of input data
+   * @param concurrency the maximum number of promises in flight at once
+   * @param function the transformation
+   * @param disposer the disposer of items that were produced but not emitted
+   * @param <I> the type of input item
+   * @param <O> the type of output item
+   * @return a publisher that applies the given transformation to each item from the input stream
+   * @since 2.0
+   */
+  public static <I, O> TransformablePublisher<O> flatMapConcurrentUnordered(Publisher<I> input, int concurrency, Function<? super I, ? extends Promise<? extends O>> function, Action<? super O> disposer) {
+    return flatMapConcurrent(input, concurrency, false, function, disposer);
+  }
+
+  private static <I, O> TransformablePublisher<O> flatMapConcurrent(Publisher<I> input, int concurrency, boolean ordered, Function<? super I, ? extends Promise<? extends O>> function, Action<? super O> disposer) {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("concurrency must be > 0 (was " + concurrency + ")");
+    }
+    return new ConcurrentFlatMapPublisher<>(input, concurrency, ordered, function, disposer).bindExec(disposer);
+  }
+
   /**
    * Returns a publisher that allows the given publisher to without respecting demand.
    * <p>
@@ -381,6 +468,60 @@ public class Streams {
     return new BufferingPublisher<>(Action.noop(), publisher);
   }
 
+  /**
+   * Returns a publisher that buffers items from the given publisher, up to a bound.
+   * <p>
+   * Unlike {@link #buffer(Publisher)}, the buffer does not grow without limit when the publisher is faster than the subscriber.
+   * The buffer is bounded by a {@link BufferSpec#capacity(int) number of items}, and optionally by {@link BufferSpec#maxWeight(long, Function) weight} (e.g. bytes).
+   * Items that have been requested by the subscriber, but not yet emitted, do not count towards the bound.
+   * What happens when an item is received and the buffer is full is determined by the {@link BufferSpec#overflow(BufferSpec.OverflowStrategy) overflow strategy}.
+   * By default, no more items are requested from the publisher than fit in the buffer.
+   * The other strategies are for publishers that cannot be slowed down, such as live events sent to a slow client,
+   * and either drop items or fail the stream when the buffer is full.
+   * <p>
+   * Dropped items, and items that are buffered when the stream errors or is cancelled, are given to the {@link BufferSpec#disposer(Action) disposer}.
+   * The number of items dropped is available from the returned publisher.
+   *
+   * <pre class="java">{@code
+   * import ratpack.exec.stream.BoundedBufferPublisher;
+   * import ratpack.exec.stream.BufferSpec;
+   * import ratpack.exec.stream.Streams;
+   * import ratpack.test.exec.ExecHarness;
+   *
+   * import java.util.Arrays;
+   * import java.util.List;
+   *
+   * import static org.junit.jupiter.api.Assertions.assertEquals;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     BoundedBufferPublisher<Integer> buffered = Streams.buffer(
+   *       Streams.publish(Arrays.asList(1, 2, 3, 4, 5)),
+   *       b -> b.capacity(2).overflow(BufferSpec.OverflowStrategy.DROP_OLDEST)
+   *     );
+   *
+   *     List<Integer> result = ExecHarness.yieldSingle(e ->
+   *       buffered.toList()
+   *     ).getValueOrThrow();
+   *
+   *     // the subscriber requested all items, so none were dropped
+   *     assertEquals(Arrays.asList(1, 2, 3, 4, 5), result);
+   *     assertEquals(0, buffered.getDroppedCount());
+   *   }
+   * }
+   * }</pre>
+   *
+   * @param publisher a data source
+   * @param spec the configuration of the buffer
+   * @param <T> the type of item
+   * @return a publisher that buffers items emitted by the given publisher that were not requested, up to a bound
+   * @since 2.0
+   */
+  public static <T> BoundedBufferPublisher<T> buffer(Publisher<T> publisher, Action<? super BufferSpec<T>> spec) {
+    DefaultBufferSpec<T> bufferSpec = Exceptions.uncheck(() -> Action.with(new DefaultBufferSpec<>(), spec));
+    return new BoundedBufferingPublisher<>(publisher, bufferSpec);
+  }
+
   /**
    * Allows requests from the subscriber of the return publisher to be withheld from the given publisher until an externally defined moment.
    * <p>
@@ -468,6 +609,59 @@ public class Streams {
     return new MulticastPublisher<>(publisher);
   }
 
+  /**
+   * Returns a publisher that will stream events emitted from the given publisher to all of its subscribers, replaying recent events to new subscribers.
+   * <p>
+   * Unlike {@link #multicast(Publisher)}, a subscriber receives the most recent items that were emitted before it subscribed,
+   * which suits subscribers that reconnect, such as dashboards or server sent event clients.
+   * The most recent items are retained in a ring buffer of a {@link ReplaySpec#size(int) fixed size},
+   * and optionally only replayed if younger than a {@link ReplaySpec#maxAge(java.time.Duration) maximum age}.
+   * If the given publisher has completed, new subscribers receive the retained items and then the completion signal.
+   * <p>
+   * The given publisher is subscribed to when a subscriber first requests, and is asked for all of its items.
+   * Each subscriber has its own position in the ring buffer, and receives items according to its own demand.
+   * Memory is not retained for slow subscribers.
+   * A subscriber that falls behind the retained items either skips ahead to the oldest retained item,
+   * or is disconnected, depending on the {@link ReplaySpec#slowSubscribers(ReplaySpec.SlowSubscriberStrategy) slow subscriber strategy}.
+   * <p>
+   * The same item instance is emitted to each subscriber, and items are not disposed when they are overwritten.
+   * Therefore, this method is not suitable for reference counted items such as {@link ByteBuf}.
+   *
+   * <pre class="java">{@code
+   * import ratpack.exec.stream.Streams;
+   * import ratpack.exec.stream.TransformablePublisher;
+   * import ratpack.test.exec.ExecHarness;
+   *
+   * import java.util.Arrays;
+   * import java.util.List;
+   *
+   * import static org.junit.jupiter.api.Assertions.assertEquals;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     TransformablePublisher<Integer> replaying = Streams.publish(Arrays.asList(1, 2, 3, 4, 5))
+   *       .replay(r -> r.size(3));
+   *
+   *     List<Integer> first = ExecHarness.yieldSingle(e -> replaying.toList()).getValueOrThrow();
+   *     List<Integer> late = ExecHarness.yieldSingle(e -> replaying.toList()).getValueOrThrow();
+   *
+   *     assertEquals(Arrays.asList(1, 2, 3, 4, 5), first);
+   *     assertEquals(Arrays.asList(3, 4, 5), late);
+   *   }
+   * }
+   * }</pre>
+   *
+   * @param publisher a data source
+   * @param spec the configuration of the replay
+   * @param <T> the type of item
+   * @return a publisher that respects back pressure for each of its subscribers, and replays recent items to new subscribers
+   * @since 2.0
+   */
+  public static <T> TransformablePublisher<T> replay(Publisher<T> publisher, Action<? super ReplaySpec> spec) {
+    DefaultReplaySpec replaySpec = Exceptions.uncheck(() -> Action.with(new DefaultReplaySpec(), spec));
+    return new ReplayingPublisher<>(publisher, replaySpec);
+  }
+
   /**
    * Returns a publisher that publishes each element from Collections that are produced from the given input publisher.
    * <p>
@@ -780,6 +974,121 @@ public class Streams {
     return new BatchingPublisher<>(publisher, batchSize, disposer);
   }
 
+  /**
+   * Collects items into lists, emitting each list when it holds {@code maxSize} items, or when {@code maxDuration} has passed since its first item was received, whichever comes first.
+   * <p>
+   * Unlike {@link #batch(int, Publisher, Action)}, which only changes how items are requested, this method emits lists of items.
+   * It is useful for writing to sinks that are more efficient with batches, such as message brokers or database inserts,
+   * while bounding how long an item may wait for its batch to fill when items arrive slowly.
+   * The duration is timed on the event loop of the subscribing execution.
+   * Empty lists are never emitted.
+   * <p>
+   * Demand is respected.
+   * Items are only requested from upstream when there is demand for a list, and no more items than are needed to fill the current list.
+   * A list that is emitted due to the duration passing, when there is no demand, is held until there is demand.
+   * When the upstream publisher completes, any partially filled list is emitted.
+   * <p>
+   * Items that have been received but not emitted, when the stream errors or is cancelled, are given to the disposer.
+   * <p>
+   * The returned publisher is {@link #bindExec(Publisher) execution bound}.
+   *
+   * <pre class="java">{@code
+   * import ratpack.exec.stream.Streams;
+   * import ratpack.func.Action;
+   * import ratpack.test.exec.ExecHarness;
+   *
+   * import java.time.Duration;
+   * import java.util.Arrays;
+   * import java.util.List;
+   *
+   * import static org.junit.jupiter.api.Assertions.assertEquals;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     List<List<Integer>> result = ExecHarness.yieldSingle(e ->
+   *       Streams.publish(Arrays.asList(1, 2, 3, 4, 5))
+   *         .window(2, Duration.ofSeconds(1), Action.noop())
+   *         .toList()
+   *     ).getValueOrThrow();
+   *
+   *     assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4), Arrays.asList(5)), result);
+   *   }
+   * }
+   * }</pre>
+   *
+   * @param publisher the publisher of items to collect
+   * @param maxSize the maximum number of items in each list
+   * @param maxDuration the maximum time between receiving the first item of a list and emitting it
+   * @param disposer the disposer of items that were received but not emitted
+   * @param <T> the type of item
+   * @return a publisher of lists of items
+   * @since 2.0
+   */
+  public static <T> TransformablePublisher<List<T>> window(Publisher<T> publisher, int maxSize, Duration maxDuration, Action<? super T> disposer) {
+    return window(publisher, maxSize, 0, null, maxDuration, disposer);
+  }
+
+  /**
+   * Collects items into lists, emitting each list when it holds {@code maxSize} items, when its items weigh at least {@code maxWeight},
+   * or when {@code maxDuration} has passed since its first item was received, whichever comes first.
+   * <p>
+   * This method is identical to {@link #window(Publisher, int, Duration, Action)}, except that lists are also bounded by weight.
+   * The weight of an item is given by the {@code weigher}, and is typically its size in bytes.
+   * The item that takes a list to or over the maximum weight is included in it.
+   * If the weigher errors, the subscription to the upstream publisher is cancelled, and the exception is forwarded to the subscriber.
+   *
+   * <pre class="java">{@code
+   * import ratpack.exec.stream.Streams;
+   * import ratpack.func.Action;
+   * import ratpack.test.exec.ExecHarness;
+   *
+   * import java.time.Duration;
+   * import java.util.Arrays;
+   * import java.util.List;
+   *
+   * import static org.junit.jupiter.api.Assertions.assertEquals;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     List<List<String>> result = ExecHarness.yieldSingle(e ->
+   *       Streams.publish(Arrays.asList("aaaa", "bb", "cc", "dddddd", "e"))
+   *         .window(10, 5, s -> (long) s.length(), Duration.ofSeconds(1), Action.noop())
+   *         .toList()
+   *     ).getValueOrThrow();
+   *
+   *     assertEquals(Arrays.asList(Arrays.asList("aaaa", "bb"), Arrays.asList("cc", "dddddd"), Arrays.asList("e")), result);
+   *   }
+   * }
+   * }</pre>
+   *
+   * @param publisher the publisher of items to collect
+   * @param maxSize the maximum number of items in each list
+   * @param maxWeight the total weight of items at which a list is emitted
+   * @param weigher the function that determines the weight of an item
+   * @param maxDuration the maximum time between receiving the first item of a list and emitting it
+   * @param disposer the disposer of items that were received but not emitted
+   * @param <T> the type of item
+   * @return a publisher of lists of items
+   * @since 2.0
+   */
+  public static <T> TransformablePublisher<List<T>> window(Publisher<T> publisher, int maxSize, long maxWeight, Function<? super T, Long> weigher, Duration maxDuration, Action<? super T> disposer) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be > 0 (was " + maxSize + ")");
+    }
+    if (weigher != null && maxWeight < 1) {
+      throw new IllegalArgumentException("maxWeight must be > 0 (was " + maxWeight + ")");
+    }
+    if (maxDuration.isNegative() || maxDuration.isZero()) {
+      throw new IllegalArgumentException("maxDuration must be positive (was " + maxDuration + ")");
+    }
+    return new WindowingPublisher<>(publisher, maxSize, maxWeight, weigher, maxDuration, disposer)
+      .bindExec(items -> {
+        for (T item : items) {
+          disposer.execute(item);
+        }
+      });
+  }
+
   /**
    * Creates a single publisher from a publisher of publishers.
    * <p>
@@ -25,6 +25,7 @@ import ratpack.func.BiFunction;
 import ratpack.func.Function;
 import ratpack.func.Predicate;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -60,6 +61,34 @@ public interface TransformablePublisher<T> extends Publisher<T> {
     return Streams.flatMap(this, function);
   }
 
+  /**
+   * See {@link Streams#flatMapConcurrent(Publisher, int, Function, Action)}.
+   *
+   * @param concurrency the maximum number of promises in flight at once
+   * @param function the transformation
+   * @param disposer the disposer of items that were produced but not emitted
+   * @param <O> the type of transformed item
+   * @return the transformed publisher
+   * @since 2.0
+   */
+  default <O> TransformablePublisher<O> flatMapConcurrent(int concurrency, Function<? super T, ? extends Promise<? extends O>> function, Action<? super O> disposer) {
+    return Streams.flatMapConcurrent(this, concurrency, function, disposer);
+  }
+
+  /**
+   * See {@link Streams#flatMapConcurrentUnordered(Publisher, int, Function, Action)}.
+   *
+   * @param concurrency the maximum number of promises in flight at once
+   * @param function the transformation
+   * @param disposer the disposer of items that were produced but not emitted
+   * @param <O> the type of transformed item
+   * @return the transformed publisher
+   * @since 2.0
+   */
+  default <O> TransformablePublisher<O> flatMapConcurrentUnordered(int concurrency, Function<? super T, ? extends Promise<? extends O>> function, Action<? super O> disposer) {
+    return Streams.flatMapConcurrentUnordered(this, concurrency, function, disposer);
+  }
+
   /**
    * See {@link Streams#buffer(Publisher)}.
    *
@@ -69,6 +98,17 @@ public interface TransformablePublisher<T> extends Publisher<T> {
     return Streams.buffer(this);
   }
 
+  /**
+   * See {@link Streams#buffer(Publisher, Action)}.
+   *
+   * @param spec the configuration of the buffer
+   * @return a publisher that buffers items, up to a bound
+   * @since 2.0
+   */
+  default BoundedBufferPublisher<T> buffer(Action<? super BufferSpec<T>> spec) {
+    return Streams.buffer(this, spec);
+  }
+
   /**
    * See {@link Streams#gate(Publisher, Action)}.
    *
@@ -98,6 +138,17 @@ public interface TransformablePublisher<T> extends Publisher<T> {
     return Streams.multicast(this);
   }
 
+  /**
+   * See {@link Streams#replay(Publisher, Action)}.
+   *
+   * @param spec the configuration of the replay
+   * @return a publisher that respects back pressure for each of its subscribers, and replays recent items to new subscribers
+   * @since 2.0
+   */
+  default TransformablePublisher<T> replay(Action<? super ReplaySpec> spec) {
+    return Streams.replay(this, spec);
+  }
+
   /**
    * See {@link Streams#toPromise(Publisher)}.
    *
@@ -291,4 +342,24 @@ public interface TransformablePublisher<T> extends Publisher<T> {
     return Streams.batch(batchSize, this, disposer);
   }
 
+  /**
+   * See {@link Streams#window(Publisher, int, Duration, Action)}.
+   *
+   * @return a publisher of lists of items
+   * @since 2.0
+   */
+  default TransformablePublisher<List<T>> window(int maxSize, Duration maxDuration, Action<? super T> disposer) {
+    return Streams.window(this, maxSize, maxDuration, disposer);
+  }
+
+  /**
+   * See {@link Streams#window(Publisher, int, long, Function, Duration, Action)}.
+   *
+   * @return a publisher of lists of items
+   * @since 2.0
+   */
+  default TransformablePublisher<List<T>> window(int maxSize, long maxWeight, Function<? super T, Long> weigher, Duration maxDuration, Action<? super T> disposer) {
+    return Streams.window(this, maxSize, maxWeight, weigher, maxDuration, disposer);
+  }
+
 }
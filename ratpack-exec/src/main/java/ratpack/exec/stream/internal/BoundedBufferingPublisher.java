@@ -0,0 +1,222 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.stream.internal;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import ratpack.exec.stream.BoundedBufferPublisher;
+import ratpack.exec.stream.BufferOverflowException;
+import ratpack.exec.stream.BufferSpec.OverflowStrategy;
+import ratpack.func.Action;
+import ratpack.func.Function;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffers items from upstream, up to a number of items and optionally a total weight, applying an overflow strategy when full.
+ * <p>
+ * With {@link OverflowStrategy#BACKPRESSURE}, no more items are requested from upstream than have been requested downstream, plus those that fit in the buffer.
+ * When bounded by weight, items beyond downstream demand are requested one at a time, until the buffer is full.
+ * Otherwise, all items are requested from upstream when the subscriber first requests.
+ */
+public class BoundedBufferingPublisher<T> implements BoundedBufferPublisher<T> {
+
+  private final Publisher<T> input;
+  private final int capacity;
+  private final long maxWeight;
+  private final Function<? super T, Long> weigher;
+  private final OverflowStrategy overflow;
+  private final Action<? super T> disposer;
+  private final LongAdder dropped = new LongAdder();
+
+  public BoundedBufferingPublisher(Publisher<T> input, DefaultBufferSpec<T> spec) {
+    this.input = input;
+    this.capacity = spec.getCapacity();
+    this.maxWeight = spec.getMaxWeight();
+    this.weigher = spec.getWeigher();
+    this.overflow = spec.getOverflow();
+    this.disposer = spec.getDisposer();
+  }
+
+  @Override
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    input.subscribe(new Buffer(subscriber));
+  }
+
+  private static final class Entry<T> {
+    private final T item;
+    private final long weight;
+
+    Entry(T item, long weight) {
+      this.item = item;
+      this.weight = weight;
+    }
+  }
+
+  private final class Buffer extends DrainingSubscription<T, T, T> {
+
+    // guarded by this
+    private final Deque<Entry<T>> buffer = new ArrayDeque<>();
+    private long weight;
+
+    Buffer(Subscriber<? super T> downstream) {
+      super(downstream, disposer);
+    }
+
+    @Override
+    public void onNext(T item) {
+      long itemWeight = 0;
+      if (weigher != null) {
+        try {
+          itemWeight = weigher.apply(item);
+        } catch (Throwable e) {
+          dispose(item);
+          synchronized (this) {
+            fail(e);
+          }
+          drain();
+          return;
+        }
+      }
+
+      List<T> drops = null;
+      synchronized (this) {
+        if (isStopped()) {
+          drops = new ArrayList<>(1);
+          drops.add(item);
+        } else {
+          received();
+          if (isFull(itemWeight)) {
+            switch (overflow) {
+              case BACKPRESSURE:
+                add(item, itemWeight);
+                break;
+              case DROP_OLDEST:
+                drops = new ArrayList<>();
+                while (isFull(itemWeight)) {
+                  drops.add(remove());
+                }
+                add(item, itemWeight);
+                break;
+              case DROP_NEWEST:
+                drops = new ArrayList<>(1);
+                drops.add(item);
+                break;
+              case KEEP_LATEST:
+                drops = new ArrayList<>(buffer.size());
+                while (!buffer.isEmpty()) {
+                  drops.add(remove());
+                }
+                add(item, itemWeight);
+                break;
+              case ERROR:
+                drops = new ArrayList<>(1);
+                drops.add(item);
+                fail(new BufferOverflowException("buffer is full (" + buffer.size() + " items buffered, capacity " + capacity + ")"));
+                break;
+              default:
+                throw new IllegalStateException("unhandled overflow strategy: " + overflow);
+            }
+            if (overflow != OverflowStrategy.BACKPRESSURE) {
+              dropped.add(drops.size());
+            }
+          } else {
+            add(item, itemWeight);
+          }
+        }
+      }
+
+      if (drops != null) {
+        drops.forEach(this::dispose);
+      }
+      drain();
+    }
+
+    // must hold lock
+    // items that will be emitted to satisfy outstanding demand are not counted
+    private boolean isFull(long itemWeight) {
+      long unrequested = buffer.size() - demand;
+      return unrequested >= capacity || (unrequested >= 0 && !buffer.isEmpty() && weight + itemWeight > maxWeight);
+    }
+
+    // must hold lock
+    private void add(T item, long itemWeight) {
+      buffer.add(new Entry<>(item, itemWeight));
+      weight += itemWeight;
+    }
+
+    // must hold lock
+    private T remove() {
+      Entry<T> entry = buffer.poll();
+      weight -= entry.weight;
+      return entry.item;
+    }
+
+    @Override
+    protected boolean hasNext() {
+      return !buffer.isEmpty();
+    }
+
+    @Override
+    protected T next() {
+      return remove();
+    }
+
+    @Override
+    protected boolean isEmpty() {
+      return buffer.isEmpty();
+    }
+
+    @Override
+    protected long toRequest() {
+      if (!started) {
+        return 0;
+      } else if (overflow != OverflowStrategy.BACKPRESSURE) {
+        return upstreamPending == 0 ? Long.MAX_VALUE : 0;
+      } else if (weigher == null) {
+        long wanted = demand > Long.MAX_VALUE - capacity ? Long.MAX_VALUE : demand + capacity;
+        return wanted - buffer.size() - upstreamPending;
+      } else if (demand > upstreamPending) {
+        return demand - upstreamPending;
+      } else if (upstreamPending == 0 && buffer.size() < capacity && weight < maxWeight) {
+        // weights are only known once items arrive, so items beyond demand are requested one at a time to overshoot the max weight by at most one item
+        return 1;
+      } else {
+        return 0;
+      }
+    }
+
+    @Override
+    protected List<T> removeAll() {
+      List<T> discard = new ArrayList<>(buffer.size());
+      while (!buffer.isEmpty()) {
+        discard.add(remove());
+      }
+      return discard;
+    }
+  }
+
+}
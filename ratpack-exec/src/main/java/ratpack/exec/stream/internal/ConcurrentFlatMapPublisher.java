@@ -0,0 +1,168 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.stream.internal;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import ratpack.exec.ExecController;
+import ratpack.exec.ExecResult;
+import ratpack.exec.Promise;
+import ratpack.exec.Result;
+import ratpack.exec.stream.TransformablePublisher;
+import ratpack.func.Action;
+import ratpack.func.Function;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Maps each item to a promise that is subscribed to in its own execution, with up to a fixed number of promises in flight.
+ * <p>
+ * No more items are requested from upstream than have been requested downstream.
+ * Signals from the forked executions are serialized by a drain loop, and should be bound to an execution by the caller.
+ */
+public class ConcurrentFlatMapPublisher<I, O> implements TransformablePublisher<O> {
+
+  private final Publisher<I> input;
+  private final int concurrency;
+  private final boolean ordered;
+  private final Function<? super I, ? extends Promise<? extends O>> function;
+  private final Action<? super O> disposer;
+
+  public ConcurrentFlatMapPublisher(Publisher<I> input, int concurrency, boolean ordered, Function<? super I, ? extends Promise<? extends O>> function, Action<? super O> disposer) {
+    this.input = input;
+    this.concurrency = concurrency;
+    this.ordered = ordered;
+    this.function = function;
+    this.disposer = disposer;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super O> subscriber) {
+    input.subscribe(new Mapper(subscriber, ExecController.require()));
+  }
+
+  private static final class Slot<O> {
+    private boolean done;
+    private boolean empty;
+    private O value;
+  }
+
+  private final class Mapper extends DrainingSubscription<I, O, O> {
+
+    private final ExecController controller;
+
+    // guarded by this
+    // when ordered, all slots in the order of their items, otherwise only done slots
+    private final Deque<Slot<O>> slots = new ArrayDeque<>();
+    private int inFlight;
+
+    Mapper(Subscriber<? super O> downstream, ExecController controller) {
+      super(downstream, disposer);
+      this.controller = controller;
+    }
+
+    @Override
+    public void onNext(I item) {
+      Slot<O> slot = new Slot<>();
+      synchronized (this) {
+        if (isStopped()) {
+          return;
+        }
+        received();
+        ++inFlight;
+        if (ordered) {
+          slots.add(slot);
+        }
+      }
+
+      controller.fork()
+        .onError(e -> complete(slot, ExecResult.of(Result.error(e))))
+        .start(e -> function.apply(item).result(result -> complete(slot, result)));
+    }
+
+    private void complete(Slot<O> slot, ExecResult<? extends O> result) {
+      O discard = null;
+      synchronized (this) {
+        --inFlight;
+        if (isStopped()) {
+          discard = result.getValue();
+        } else if (result.isError()) {
+          fail(result.getThrowable());
+        } else {
+          slot.done = true;
+          slot.empty = result.isComplete();
+          slot.value = result.getValue();
+          if (!ordered) {
+            slots.add(slot);
+          }
+        }
+      }
+      if (discard != null) {
+        dispose(discard);
+      }
+      drain();
+    }
+
+    // must hold lock
+    private Slot<O> head() {
+      Slot<O> head = slots.peek();
+      while (head != null && head.done && head.empty) {
+        slots.poll();
+        head = slots.peek();
+      }
+      return head;
+    }
+
+    @Override
+    protected boolean hasNext() {
+      Slot<O> head = head();
+      return head != null && head.done;
+    }
+
+    @Override
+    protected O next() {
+      return slots.poll().value;
+    }
+
+    @Override
+    protected boolean isEmpty() {
+      return inFlight == 0 && head() == null;
+    }
+
+    @Override
+    protected long toRequest() {
+      long outstanding = upstreamPending + (ordered ? slots.size() : inFlight + slots.size());
+      return Math.min(concurrency, demand) - outstanding;
+    }
+
+    @Override
+    protected List<O> removeAll() {
+      List<O> done = new ArrayList<>();
+      for (Slot<O> slot : slots) {
+        if (slot.done && !slot.empty && slot.value != null) {
+          done.add(slot.value);
+        }
+      }
+      slots.clear();
+      return done;
+    }
+  }
+
+}
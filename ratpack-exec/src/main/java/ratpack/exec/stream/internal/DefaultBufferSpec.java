@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.stream.internal;
+
+import com.google.common.base.Preconditions;
+import ratpack.exec.stream.BufferSpec;
+import ratpack.func.Action;
+import ratpack.func.Function;
+
+public class DefaultBufferSpec<T> implements BufferSpec<T> {
+
+  private int capacity = DEFAULT_CAPACITY;
+  private long maxWeight = Long.MAX_VALUE;
+  private Function<? super T, Long> weigher;
+  private OverflowStrategy overflow = OverflowStrategy.BACKPRESSURE;
+  private Action<? super T> disposer = Action.noop();
+
+  @Override
+  public BufferSpec<T> capacity(int capacity) {
+    Preconditions.checkArgument(capacity > 0, "capacity must be > 0");
+    this.capacity = capacity;
+    return this;
+  }
+
+  @Override
+  public BufferSpec<T> maxWeight(long maxWeight, Function<? super T, Long> weigher) {
+    Preconditions.checkArgument(maxWeight > 0, "maxWeight must be > 0");
+    this.maxWeight = maxWeight;
+    this.weigher = Preconditions.checkNotNull(weigher, "weigher");
+    return this;
+  }
+
+  @Override
+  public BufferSpec<T> overflow(OverflowStrategy strategy) {
+    this.overflow = Preconditions.checkNotNull(strategy, "strategy");
+    return this;
+  }
+
+  @Override
+  public BufferSpec<T> disposer(Action<? super T> disposer) {
+    this.disposer = Preconditions.checkNotNull(disposer, "disposer");
+    return this;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public long getMaxWeight() {
+    return maxWeight;
+  }
+
+  public Function<? super T, Long> getWeigher() {
+    return weigher;
+  }
+
+  public OverflowStrategy getOverflow() {
+    return overflow;
+  }
+
+  public Action<? super T> getDisposer() {
+    return disposer;
+  }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.stream.internal;
+
+import com.google.common.base.Preconditions;
+import ratpack.exec.stream.ReplaySpec;
+
+import java.time.Duration;
+
+public class DefaultReplaySpec implements ReplaySpec {
+
+  private int size = DEFAULT_SIZE;
+  private Duration maxAge;
+  private SlowSubscriberStrategy slowSubscribers = SlowSubscriberStrategy.SKIP_AHEAD;
+
+  @Override
+  public ReplaySpec size(int size) {
+    Preconditions.checkArgument(size > 0, "size must be > 0");
+    this.size = size;
+    return this;
+  }
+
+  @Override
+  public ReplaySpec maxAge(Duration maxAge) {
+    Preconditions.checkArgument(!maxAge.isNegative() && !maxAge.isZero(), "maxAge must be positive");
+    this.maxAge = maxAge;
+    return this;
+  }
+
+  @Override
+  public ReplaySpec slowSubscribers(SlowSubscriberStrategy strategy) {
+    this.slowSubscribers = Preconditions.checkNotNull(strategy, "strategy");
+    return this;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public Duration getMaxAge() {
+    return maxAge;
+  }
+
+  public SlowSubscriberStrategy getSlowSubscribers() {
+    return slowSubscribers;
+  }
+
+}
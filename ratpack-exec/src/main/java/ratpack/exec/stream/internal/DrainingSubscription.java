@@ -0,0 +1,254 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.stream.internal;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.func.Action;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A processor that holds items between its upstream and downstream, emitting them according to downstream demand.
+ * <p>
+ * All signals update state while holding the lock on this object, then call {@link #drain()}.
+ * The drain loop serializes all signals to the upstream and downstream, which are never sent while holding the lock.
+ * Subclasses decide what is ready to emit and how much to request from upstream.
+ *
+ * @param <I> the type of upstream items
+ * @param <O> the type of downstream items
+ * @param <D> the type of held items that are disposed of when the stream is terminated early
+ */
+public abstract class DrainingSubscription<I, O, D> implements Subscriber<I>, Subscription {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DrainingSubscription.class);
+
+  protected final Subscriber<? super O> downstream;
+  private final Action<? super D> disposer;
+  private final AtomicInteger wip = new AtomicInteger();
+
+  // guarded by this
+  private Subscription upstream;
+  protected long demand;
+  protected long upstreamPending;
+  protected boolean started;
+  protected boolean upstreamDone;
+  private boolean cancelled;
+  private boolean terminated;
+  private Throwable error;
+
+  protected DrainingSubscription(Subscriber<? super O> downstream, Action<? super D> disposer) {
+    this.downstream = downstream;
+    this.disposer = disposer;
+  }
+
+  /**
+   * Whether an item is ready to be emitted.
+   * Must hold lock.
+   */
+  protected abstract boolean hasNext();
+
+  /**
+   * Removes the item to emit, when {@link #hasNext()}.
+   * Must hold lock.
+   */
+  protected abstract O next();
+
+  /**
+   * Whether nothing is held or in progress, so that the stream can complete once upstream has.
+   * Must hold lock.
+   */
+  protected abstract boolean isEmpty();
+
+  /**
+   * How many more items to request from upstream, given the {@link #demand} and the {@link #upstreamPending pending} upstream requests.
+   * Only called while the upstream is not done, and nothing can be emitted.
+   * Must hold lock.
+   */
+  protected abstract long toRequest();
+
+  /**
+   * Removes all held items, to be disposed of when the stream is cancelled or fails.
+   * Must hold lock.
+   */
+  protected abstract List<D> removeAll();
+
+  /**
+   * Called when upstream completes.
+   * Must hold lock.
+   */
+  protected void onUpstreamComplete() {
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    synchronized (this) {
+      upstream = subscription;
+    }
+    downstream.onSubscribe(this);
+    drain();
+  }
+
+  @Override
+  public void request(long n) {
+    synchronized (this) {
+      if (n < 1) {
+        fail(new IllegalArgumentException("3.9 While the Subscription is not cancelled, Subscription.request(long n) MUST throw a java.lang.IllegalArgumentException if the argument is <= 0."));
+      } else {
+        started = true;
+        demand += n;
+        if (demand < 0) {
+          demand = Long.MAX_VALUE;
+        }
+      }
+    }
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    synchronized (this) {
+      cancelled = true;
+    }
+    drain();
+  }
+
+  @Override
+  public void onError(Throwable t) {
+    synchronized (this) {
+      upstreamDone = true;
+      fail(t);
+    }
+    drain();
+  }
+
+  @Override
+  public void onComplete() {
+    synchronized (this) {
+      upstreamDone = true;
+      onUpstreamComplete();
+    }
+    drain();
+  }
+
+  /**
+   * Whether the stream is terminated or about to be, in which case new items should be disposed of.
+   * Must hold lock.
+   */
+  protected boolean isStopped() {
+    return terminated || cancelled || error != null;
+  }
+
+  /**
+   * Accounts for an item received from upstream.
+   * Must hold lock.
+   */
+  protected void received() {
+    if (upstreamPending > 0) {
+      --upstreamPending;
+    }
+  }
+
+  /**
+   * Fails the stream, unless it has already failed.
+   * Must hold lock.
+   */
+  protected void fail(Throwable failure) {
+    if (error == null) {
+      error = failure;
+    }
+  }
+
+  protected final void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    do {
+      while (true) {
+        O next = null;
+        boolean emit = false;
+        boolean cancelUpstream = false;
+        boolean complete = false;
+        Throwable failure = null;
+        List<D> discard = null;
+        long toRequest = 0;
+        Subscription upstream;
+
+        synchronized (this) {
+          upstream = this.upstream;
+          if (upstream == null || terminated) {
+            break;
+          }
+          if (cancelled || error != null) {
+            terminated = true;
+            cancelUpstream = !upstreamDone;
+            failure = cancelled ? null : error;
+            discard = removeAll();
+          } else if (demand > 0 && hasNext()) {
+            next = next();
+            emit = true;
+            --demand;
+          } else if (upstreamDone && isEmpty()) {
+            terminated = true;
+            complete = true;
+          } else if (!upstreamDone) {
+            toRequest = toRequest();
+            if (toRequest > 0) {
+              upstreamPending += toRequest;
+              if (upstreamPending < 0) {
+                upstreamPending = Long.MAX_VALUE;
+              }
+            }
+          }
+        }
+
+        if (emit) {
+          downstream.onNext(next);
+          continue;
+        }
+        if (discard != null) {
+          discard.forEach(this::dispose);
+        }
+        if (cancelUpstream) {
+          upstream.cancel();
+        }
+        if (failure != null) {
+          downstream.onError(failure);
+        } else if (complete) {
+          downstream.onComplete();
+        } else if (toRequest > 0) {
+          upstream.request(toRequest);
+        }
+        break;
+      }
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  protected void dispose(D item) {
+    try {
+      disposer.execute(item);
+    } catch (Exception e) {
+      LOGGER.warn("exception raised disposing of " + item + " - will be ignored", e);
+    }
+  }
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.stream.internal;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import ratpack.exec.stream.BufferOverflowException;
+import ratpack.exec.stream.ReplaySpec.SlowSubscriberStrategy;
+import ratpack.exec.stream.TransformablePublisher;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multicasts items from upstream, retaining the most recent items in a ring buffer to replay to new subscribers.
+ * <p>
+ * Each subscriber has a cursor into the ring buffer, and is emitted items according to its own demand.
+ * The max age only applies when positioning a new cursor, so that subscribers that are already live are subject to the slow subscriber strategy instead.
+ * The upstream publisher is subscribed to when a subscriber first requests, and is asked for all of its items.
+ */
+public class ReplayingPublisher<T> implements TransformablePublisher<T> {
+
+  private final Publisher<? extends T> upstreamPublisher;
+  private final int size;
+  private final long maxAgeNanos;
+  private final SlowSubscriberStrategy slowSubscribers;
+
+  private final Queue<Cursor> cursors = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean requestedUpstream = new AtomicBoolean();
+
+  // guarded by this
+  private final Object[] items;
+  private final long[] receivedAt;
+  private long tail;
+  private boolean done;
+  private Throwable error;
+
+  public ReplayingPublisher(Publisher<? extends T> upstreamPublisher, DefaultReplaySpec spec) {
+    this.upstreamPublisher = upstreamPublisher;
+    this.size = spec.getSize();
+    this.maxAgeNanos = spec.getMaxAge() == null ? Long.MAX_VALUE : spec.getMaxAge().toNanos();
+    this.slowSubscribers = spec.getSlowSubscribers();
+    this.items = new Object[size];
+    this.receivedAt = new long[size];
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    Cursor cursor = new Cursor(subscriber);
+    cursors.add(cursor);
+    subscriber.onSubscribe(cursor);
+    cursor.drain();
+  }
+
+  private void tryUpstreamSubscribe() {
+    if (requestedUpstream.compareAndSet(false, true)) {
+      upstreamPublisher.subscribe(new Subscriber<T>() {
+        @Override
+        public void onSubscribe(Subscription s) {
+          s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(T t) {
+          synchronized (ReplayingPublisher.this) {
+            int index = index(tail);
+            items[index] = t;
+            receivedAt[index] = System.nanoTime();
+            ++tail;
+          }
+          drainAll();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+          synchronized (ReplayingPublisher.this) {
+            done = true;
+            error = t;
+          }
+          drainAll();
+        }
+
+        @Override
+        public void onComplete() {
+          synchronized (ReplayingPublisher.this) {
+            done = true;
+          }
+          drainAll();
+        }
+      });
+    }
+  }
+
+  private void drainAll() {
+    for (Cursor cursor : cursors) {
+      cursor.drain();
+    }
+  }
+
+  private int index(long sequence) {
+    return (int) (sequence % size);
+  }
+
+  // must hold lock
+  private long oldest() {
+    return Math.max(0, tail - size);
+  }
+
+  private final class Cursor implements Subscription {
+
+    private final Subscriber<? super T> downstream;
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean cancelled;
+
+    // guarded by ReplayingPublisher.this
+    private long position;
+    private long demand;
+    private Throwable protocolError;
+
+    Cursor(Subscriber<? super T> downstream) {
+      this.downstream = downstream;
+      synchronized (ReplayingPublisher.this) {
+        long position = oldest();
+        if (maxAgeNanos != Long.MAX_VALUE) {
+          long now = System.nanoTime();
+          while (position < tail && now - receivedAt[index(position)] > maxAgeNanos) {
+            ++position;
+          }
+        }
+        this.position = position;
+      }
+    }
+
+    @Override
+    public void request(long n) {
+      synchronized (ReplayingPublisher.this) {
+        if (n < 1) {
+          protocolError = new IllegalArgumentException("3.9 While the Subscription is not cancelled, Subscription.request(long n) MUST throw a java.lang.IllegalArgumentException if the argument is <= 0.");
+        } else {
+          demand += n;
+          if (demand < 0) {
+            demand = Long.MAX_VALUE;
+          }
+        }
+      }
+      tryUpstreamSubscribe();
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      cursors.remove(this);
+    }
+
+    @SuppressWarnings("unchecked")
+    void drain() {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+      int missed = 1;
+      do {
+        while (!cancelled) {
+          T next = null;
+          boolean terminate = false;
+          Throwable failure = null;
+
+          synchronized (ReplayingPublisher.this) {
+            long oldest = oldest();
+            if (protocolError != null) {
+              terminate = true;
+              failure = protocolError;
+            } else if (position < oldest && slowSubscribers == SlowSubscriberStrategy.DISCONNECT) {
+              terminate = true;
+              failure = new BufferOverflowException("subscriber fell behind by " + (tail - position) + " items, but only " + size + " are retained");
+            } else {
+              position = Math.max(position, oldest);
+              if (position < tail) {
+                if (demand > 0) {
+                  next = (T) items[index(position)];
+                  ++position;
+                  --demand;
+                }
+              } else if (done) {
+                terminate = true;
+                failure = error;
+              }
+            }
+          }
+
+          if (next != null) {
+            downstream.onNext(next);
+          } else {
+            if (terminate) {
+              cancel();
+              if (failure == null) {
+                downstream.onComplete();
+              } else {
+                downstream.onError(failure);
+              }
+            }
+            break;
+          }
+        }
+        missed = wip.addAndGet(-missed);
+      } while (missed != 0);
+    }
+  }
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.stream.internal;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import ratpack.exec.Execution;
+import ratpack.exec.stream.TransformablePublisher;
+import ratpack.func.Action;
+import ratpack.func.Function;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects items into lists, emitting each when it reaches a maximum size or weight, or when a maximum duration has passed since its first item.
+ * <p>
+ * Items are only requested from upstream while no closed window is waiting for downstream demand,
+ * and no more are requested than can fit in the current window.
+ * Signals from the timer are serialized by a drain loop, and should be bound to an execution by the caller.
+ */
+public class WindowingPublisher<T> implements TransformablePublisher<List<T>> {
+
+  private final Publisher<T> input;
+  private final int maxSize;
+  private final long maxWeight;
+  private final Function<? super T, Long> weigher;
+  private final Duration maxDuration;
+  private final Action<? super T> disposer;
+
+  public WindowingPublisher(Publisher<T> input, int maxSize, long maxWeight, Function<? super T, Long> weigher, Duration maxDuration, Action<? super T> disposer) {
+    this.input = input;
+    this.maxSize = maxSize;
+    this.maxWeight = maxWeight;
+    this.weigher = weigher;
+    this.maxDuration = maxDuration;
+    this.disposer = disposer;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super List<T>> subscriber) {
+    input.subscribe(new Windower(subscriber, Execution.current().getEventLoop()));
+  }
+
+  private final class Windower extends DrainingSubscription<T, List<T>, T> {
+
+    private final ScheduledExecutorService scheduler;
+
+    // guarded by this
+    private final Deque<List<T>> closed = new ArrayDeque<>();
+    private List<T> window = new ArrayList<>();
+    private long weight;
+    private ScheduledFuture<?> timer;
+    private int generation;
+
+    Windower(Subscriber<? super List<T>> downstream, ScheduledExecutorService scheduler) {
+      super(downstream, disposer);
+      this.scheduler = scheduler;
+    }
+
+    @Override
+    public void onNext(T item) {
+      long itemWeight = 0;
+      if (weigher != null) {
+        try {
+          itemWeight = weigher.apply(item);
+        } catch (Throwable e) {
+          dispose(item);
+          synchronized (this) {
+            fail(e);
+          }
+          drain();
+          return;
+        }
+      }
+
+      boolean discard = false;
+      synchronized (this) {
+        if (isStopped()) {
+          discard = true;
+        } else {
+          received();
+          if (window.isEmpty()) {
+            int timerGeneration = ++generation;
+            timer = scheduler.schedule(() -> onTimeout(timerGeneration), maxDuration.toNanos(), TimeUnit.NANOSECONDS);
+          }
+          window.add(item);
+          weight += itemWeight;
+          if (window.size() >= maxSize || (weigher != null && weight >= maxWeight)) {
+            close();
+          }
+        }
+      }
+      if (discard) {
+        dispose(item);
+      } else {
+        drain();
+      }
+    }
+
+    private void onTimeout(int timerGeneration) {
+      synchronized (this) {
+        if (timerGeneration != generation || window.isEmpty() || isStopped()) {
+          return;
+        }
+        timer = null;
+        close();
+      }
+      drain();
+    }
+
+    // must hold lock
+    private void close() {
+      if (timer != null) {
+        timer.cancel(false);
+        timer = null;
+      }
+      ++generation;
+      closed.add(window);
+      window = new ArrayList<>();
+      weight = 0;
+    }
+
+    @Override
+    protected void onUpstreamComplete() {
+      if (!window.isEmpty()) {
+        close();
+      }
+    }
+
+    @Override
+    protected boolean hasNext() {
+      return !closed.isEmpty();
+    }
+
+    @Override
+    protected List<T> next() {
+      return closed.poll();
+    }
+
+    @Override
+    protected boolean isEmpty() {
+      return closed.isEmpty();
+    }
+
+    @Override
+    protected long toRequest() {
+      return closed.isEmpty() && demand > 0 ? maxSize - window.size() - upstreamPending : 0;
+    }
+
+    @Override
+    protected List<T> removeAll() {
+      if (!window.isEmpty()) {
+        close();
+      }
+      List<T> discard = new ArrayList<>();
+      for (List<T> items : closed) {
+        discard.addAll(items);
+      }
+      closed.clear();
+      return discard;
+    }
+  }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util;
+
+import ratpack.exec.Promise;
+import ratpack.exec.Upstream;
+import ratpack.exec.util.internal.DefaultCircuitBreaker;
+import ratpack.exec.util.internal.DefaultCircuitBreakerSpec;
+import ratpack.func.Action;
+import ratpack.func.Function;
+
+/**
+ * Fails promises fast when the operation they perform is failing or slow, instead of waiting for each to fail.
+ * <p>
+ * When a dependency such as a remote service is down, every call to it may wait for a timeout,
+ * tying up connections and memory for each execution that calls it.
+ * A circuit breaker records the outcome of calls, and when too many fail or are slow, <i>opens</i>.
+ * While open, calls are not made, and promises fail immediately with a {@link CircuitBreakerOpenException}.
+ * After a {@link CircuitBreakerSpec#openDuration(java.time.Duration) while}, the breaker is <i>half open</i>,
+ * and a limited number of calls are made to probe whether the dependency has recovered.
+ * If they succeed, the breaker <i>closes</i> and calls are made as normal, otherwise it opens again.
+ * <p>
+ * Failure and slow call rates are computed over a {@link CircuitBreakerSpec#window(java.time.Duration) rolling window} of recent calls,
+ * using lock free counters.
+ * A single circuit breaker should be used for all calls to a given dependency.
+ * <p>
+ * Promises are guarded via {@link #guard(Promise)}, or {@link #guard(Upstream)} for use with {@link Promise#transform(Function)}.
+ *
+ * <pre class="java">{@code
+ * import ratpack.exec.Promise;
+ * import ratpack.exec.util.CircuitBreaker;
+ * import ratpack.exec.util.CircuitBreakerOpenException;
+ * import ratpack.test.exec.ExecHarness;
+ *
+ * import java.time.Duration;
+ * import java.util.concurrent.atomic.AtomicInteger;
+ *
+ * import static org.junit.jupiter.api.Assertions.assertEquals;
+ *
+ * public class Example {
+ *   public static void main(String... args) throws Exception {
+ *     AtomicInteger calls = new AtomicInteger();
+ *     CircuitBreaker breaker = CircuitBreaker.of(s -> s
+ *       .minimumCalls(5)
+ *       .failureRateThreshold(0.5)
+ *       .openDuration(Duration.ofMinutes(1))
+ *     );
+ *
+ *     try (ExecHarness harness = ExecHarness.harness()) {
+ *       for (int i = 0; i < 10; ++i) {
+ *         String result = harness.yield(e ->
+ *           Promise.<String>sync(() -> {
+ *             calls.incrementAndGet();
+ *             throw new IllegalStateException("down");
+ *           })
+ *             .apply(breaker::guard)
+ *             .mapError(CircuitBreakerOpenException.class, t -> "fallback")
+ *             .mapError(IllegalStateException.class, t -> "failed")
+ *         ).getValueOrThrow();
+ *
+ *         assertEquals(i < 5 ? "failed" : "fallback", result);
+ *       }
+ *     }
+ *
+ *     assertEquals(5, calls.get());
+ *     assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+ *   }
+ * }
+ * }</pre>
+ *
+ * @since 2.0
+ */
+public interface CircuitBreaker {
+
+  /**
+   * The state of a circuit breaker.
+   */
+  enum State {
+
+    /**
+     * Calls are made, and their outcomes recorded.
+     */
+    CLOSED,
+
+    /**
+     * Calls are not made, and fail immediately.
+     */
+    OPEN,
+
+    /**
+     * A limited number of calls are made to determine whether to close or open.
+     */
+    HALF_OPEN
+  }
+
+  /**
+   * Creates a new circuit breaker.
+   *
+   * @param spec the configuration of the circuit breaker
+   * @return a new circuit breaker
+   * @throws Exception any thrown by {@code spec}
+   */
+  static CircuitBreaker of(Action<? super CircuitBreakerSpec> spec) throws Exception {
+    return new DefaultCircuitBreaker(Action.with(new DefaultCircuitBreakerSpec(), spec));
+  }
+
+  /**
+   * The current state of this circuit breaker.
+   *
+   * @return the current state of this circuit breaker
+   */
+  State getState();
+
+  /**
+   * The rate of failed calls in the current window, from 0 to 1.
+   *
+   * @return the rate of failed calls in the current window
+   */
+  double getFailureRate();
+
+  /**
+   * The rate of slow calls in the current window, from 0 to 1.
+   *
+   * @return the rate of slow calls in the current window
+   */
+  double getSlowCallRate();
+
+  /**
+   * The number of calls that were not made because this circuit breaker was open, or half open with all probe calls in progress.
+   *
+   * @return the number of calls that were not made
+   */
+  long getRejectedCount();
+
+  /**
+   * Decorates the given upstream, for use with {@link Promise#transform(Function)}.
+   * <p>
+   * When subscribed to, if this breaker does not permit the call, the downstream receives a {@link CircuitBreakerOpenException} and the upstream is not connected.
+   * Otherwise, the upstream is connected, and the outcome and duration of the call recorded.
+   *
+   * @param upstream the upstream to guard
+   * @param <T> the type of value
+   * @return a guarded upstream
+   */
+  <T> Upstream<T> guard(Upstream<? extends T> upstream);
+
+  /**
+   * Decorates the given promise, for use with {@link Promise#apply(Function)}.
+   *
+   * @param promise the promise to guard
+   * @param <T> the type of value
+   * @return a guarded promise
+   * @see #guard(Upstream)
+   */
+  default <T> Promise<T> guard(Promise<T> promise) {
+    return promise.transform(this::guard);
+  }
+
+  /**
+   * Decorates the given promise, yielding the promise returned by the given fallback function when this breaker does not permit the call.
+   * <p>
+   * The fallback is only used when the call is not made.
+   * Failures of calls that are made are propagated.
+   *
+   * @param promise the promise to guard
+   * @param fallback the provider of the value to use when the call is not permitted
+   * @param <T> the type of value
+   * @return a guarded promise
+   * @see #guard(Upstream)
+   */
+  default <T> Promise<T> guard(Promise<T> promise, Function<? super CircuitBreakerOpenException, ? extends Promise<T>> fallback) {
+    return guard(promise).flatMapError(CircuitBreakerOpenException.class, fallback);
+  }
+
+}
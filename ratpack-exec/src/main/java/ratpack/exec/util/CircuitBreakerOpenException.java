@@ -0,0 +1,51 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util;
+
+/**
+ * Thrown when a {@link CircuitBreaker} does not permit a call.
+ * <p>
+ * As these exceptions are expected to be frequent when a breaker is open, they do not capture a stack trace.
+ *
+ * @since 2.0
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+  private static final long serialVersionUID = 0;
+
+  private final CircuitBreaker.State state;
+
+  /**
+   * Constructor.
+   *
+   * @param state the state of the circuit breaker when the call was not permitted
+   */
+  public CircuitBreakerOpenException(CircuitBreaker.State state) {
+    super("circuit breaker is " + state.name().toLowerCase().replace('_', ' '), null, false, false);
+    this.state = state;
+  }
+
+  /**
+   * The state of the circuit breaker when the call was not permitted.
+   *
+   * @return the state of the circuit breaker when the call was not permitted
+   */
+  public CircuitBreaker.State getState() {
+    return state;
+  }
+
+}
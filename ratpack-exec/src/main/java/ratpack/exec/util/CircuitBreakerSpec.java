@@ -0,0 +1,184 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util;
+
+import ratpack.func.BiAction;
+import ratpack.func.Predicate;
+
+import java.time.Duration;
+
+/**
+ * A specification of a {@link CircuitBreaker}.
+ *
+ * @see CircuitBreaker#of(ratpack.func.Action)
+ * @since 2.0
+ */
+public interface CircuitBreakerSpec {
+
+  /**
+   * The default failure rate at which the breaker opens.
+   */
+  double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+
+  /**
+   * The default slow call rate at which the breaker opens, which means that slow calls do not open the breaker unless all calls are slow.
+   */
+  double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 1;
+
+  /**
+   * The default duration of a call that is considered slow.
+   */
+  Duration DEFAULT_SLOW_CALL_DURATION = Duration.ofSeconds(60);
+
+  /**
+   * The default duration of the rolling window that rates are computed over.
+   */
+  Duration DEFAULT_WINDOW = Duration.ofSeconds(60);
+
+  /**
+   * The default minimum number of calls in the window before rates are considered.
+   */
+  int DEFAULT_MINIMUM_CALLS = 10;
+
+  /**
+   * The default time to stay open before probing.
+   */
+  Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+  /**
+   * The default number of calls made when half open.
+   */
+  int DEFAULT_HALF_OPEN_CALLS = 3;
+
+  /**
+   * The default maximum time to stay half open waiting for probe calls to complete.
+   */
+  Duration DEFAULT_HALF_OPEN_DURATION = Duration.ofSeconds(60);
+
+  /**
+   * The rate of failed calls, from 0 to 1, at or above which the breaker opens.
+   * <p>
+   * Defaults to {@link #DEFAULT_FAILURE_RATE_THRESHOLD}.
+   *
+   * @param threshold the failure rate at which the breaker opens
+   * @return {@code this}
+   */
+  CircuitBreakerSpec failureRateThreshold(double threshold);
+
+  /**
+   * The rate of slow calls, from 0 to 1, at or above which the breaker opens.
+   * <p>
+   * Defaults to {@link #DEFAULT_SLOW_CALL_RATE_THRESHOLD}.
+   *
+   * @param threshold the slow call rate at which the breaker opens
+   * @return {@code this}
+   * @see #slowCallDuration(Duration)
+   */
+  CircuitBreakerSpec slowCallRateThreshold(double threshold);
+
+  /**
+   * The duration at or above which a call is considered slow, regardless of whether it succeeds.
+   * <p>
+   * Defaults to {@link #DEFAULT_SLOW_CALL_DURATION}.
+   *
+   * @param duration the duration at which a call is slow
+   * @return {@code this}
+   */
+  CircuitBreakerSpec slowCallDuration(Duration duration);
+
+  /**
+   * The duration of the rolling window of recent calls that rates are computed over.
+   * <p>
+   * The window is divided into 10 buckets, and the oldest bucket is discarded as time passes.
+   * <p>
+   * Defaults to {@link #DEFAULT_WINDOW}.
+   *
+   * @param window the duration of the rolling window
+   * @return {@code this}
+   */
+  CircuitBreakerSpec window(Duration window);
+
+  /**
+   * The minimum number of calls in the window before the breaker may open.
+   * <p>
+   * Defaults to {@link #DEFAULT_MINIMUM_CALLS}.
+   *
+   * @param minimumCalls the minimum number of calls in the window
+   * @return {@code this}
+   */
+  CircuitBreakerSpec minimumCalls(int minimumCalls);
+
+  /**
+   * How long the breaker stays open before becoming half open.
+   * <p>
+   * Defaults to {@link #DEFAULT_OPEN_DURATION}.
+   *
+   * @param duration how long the breaker stays open
+   * @return {@code this}
+   */
+  CircuitBreakerSpec openDuration(Duration duration);
+
+  /**
+   * The number of calls that are made when half open, to determine whether to close or open again.
+   * <p>
+   * Calls beyond this number, while the probe calls are in progress, are rejected.
+   * Once they have completed, the breaker closes if the failure and slow call rates of the probe calls are below the thresholds, and opens otherwise.
+   * <p>
+   * Defaults to {@link #DEFAULT_HALF_OPEN_CALLS}.
+   *
+   * @param calls the number of calls made when half open
+   * @return {@code this}
+   */
+  CircuitBreakerSpec halfOpenCalls(int calls);
+
+  /**
+   * The maximum time the breaker stays half open waiting for the probe calls to complete.
+   * <p>
+   * If a probe call has not completed within this duration, such as when its upstream never signals, the breaker opens again on the next call.
+   * <p>
+   * Defaults to {@link #DEFAULT_HALF_OPEN_DURATION}.
+   *
+   * @param duration the maximum time to stay half open
+   * @return {@code this}
+   * @see #halfOpenCalls(int)
+   */
+  CircuitBreakerSpec halfOpenDuration(Duration duration);
+
+  /**
+   * Which errors are recorded as failures.
+   * <p>
+   * Calls that fail with other errors are recorded as successful, as is typical for errors caused by the caller, such as validation errors.
+   * <p>
+   * By default, all errors are recorded as failures.
+   *
+   * @param predicate whether an error is a failure
+   * @return {@code this}
+   */
+  CircuitBreakerSpec recordFailures(Predicate<? super Throwable> predicate);
+
+  /**
+   * Adds a listener for state changes, such as for publishing metrics.
+   * <p>
+   * The listener receives the previous and new states.
+   * Exceptions thrown by the listener are logged.
+   *
+   * @param listener the listener for state changes
+   * @return {@code this}
+   */
+  CircuitBreakerSpec onStateChange(BiAction<? super CircuitBreaker.State, ? super CircuitBreaker.State> listener);
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util;
+
+import ratpack.exec.Downstream;
+import ratpack.exec.ExecResult;
+import ratpack.exec.Promise;
+import ratpack.exec.Result;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces concurrent promises for the same key, so that only one of them is subscribed to at a time.
+ * <p>
+ * This is sometimes known as “single flight” or “request collapsing”,
+ * and is useful for avoiding many identical calls to a backend service when many executions need the same value at the same time,
+ * such as when a cached value expires.
+ * <p>
+ * The promise returned by {@link #coalesce(Object, Promise)} subscribes to the given promise, unless a promise for an equal key is already in flight.
+ * If one is in flight, the given promise is never subscribed to, and the result of the in flight promise is used instead.
+ * Either way, the result is received on the subscribing execution.
+ * Once the in flight promise completes, the next promise for the key is subscribed to.
+ * That is, results are not cached beyond the time it takes to compute them.
+ * <p>
+ * Coalescing works across executions, regardless of the threads that they are bound to.
+ * All coalesced executions receive the same value or error.
+ * If the subscribing execution completes without a value or error, so do the coalesced executions.
+ *
+ * <pre class="java">{@code
+ * import ratpack.exec.Execution;
+ * import ratpack.exec.Promise;
+ * import ratpack.exec.util.Coalescer;
+ * import ratpack.exec.util.ParallelBatch;
+ * import ratpack.test.exec.ExecHarness;
+ *
+ * import java.time.Duration;
+ * import java.util.ArrayList;
+ * import java.util.Arrays;
+ * import java.util.List;
+ * import java.util.concurrent.atomic.AtomicInteger;
+ *
+ * import static org.junit.jupiter.api.Assertions.assertEquals;
+ *
+ * public class Example {
+ *   public static void main(String... args) throws Exception {
+ *     Coalescer<String, Integer> coalescer = new Coalescer<>();
+ *     AtomicInteger calls = new AtomicInteger();
+ *
+ *     List<Promise<Integer>> promises = new ArrayList<>();
+ *     for (int i = 0; i < 10; ++i) {
+ *       promises.add(coalescer.coalesce("key", Promise.sync(calls::incrementAndGet).defer(Duration.ofMillis(100))));
+ *     }
+ *
+ *     List<Integer> results = ExecHarness.yieldSingle(e -> ParallelBatch.of(promises).yield()).getValueOrThrow();
+ *
+ *     assertEquals(1, calls.get());
+ *     assertEquals(Arrays.asList(1, 1, 1, 1, 1, 1, 1, 1, 1, 1), results);
+ *     assertEquals(1, coalescer.getOriginatingCount());
+ *     assertEquals(9, coalescer.getCoalescedCount());
+ *   }
+ * }
+ * }</pre>
+ *
+ * @param <K> the type of key, which must implement {@link Object#equals(Object)} and {@link Object#hashCode()}
+ * @param <T> the type of promised value
+ * @since 2.0
+ */
+public final class Coalescer<K, T> {
+
+  private final ConcurrentMap<K, Promised<T>> inFlight = new ConcurrentHashMap<>();
+  private final LongAdder originating = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+
+  /**
+   * Decorates the given promise so that it is coalesced with any concurrent promise for an equal key.
+   * <p>
+   * The given promise is only subscribed to if there is no promise in flight for the key when the returned promise is subscribed to.
+   *
+   * @param key the key that identifies the value
+   * @param promise the promise for the value
+   * @return a promise for the value, that may be the result of a concurrent promise for the same key
+   */
+  public Promise<T> coalesce(K key, Promise<T> promise) {
+    return Promise.flatten(() -> {
+      Promised<T> promised = new Promised<>();
+      Promised<T> existing = inFlight.putIfAbsent(key, promised);
+      if (existing != null) {
+        coalesced.increment();
+        return existing.promise();
+      }
+
+      originating.increment();
+      return promise.transform(up -> down -> {
+        AtomicBoolean settled = new AtomicBoolean();
+        try {
+          up.connect(new Downstream<T>() {
+            @Override
+            public void success(T value) {
+              settle(key, promised, settled, ExecResult.of(Result.success(value)));
+              down.success(value);
+            }
+
+            @Override
+            public void error(Throwable throwable) {
+              settle(key, promised, settled, ExecResult.of(Result.error(throwable)));
+              down.error(throwable);
+            }
+
+            @Override
+            public void complete() {
+              settle(key, promised, settled, ExecResult.complete());
+              down.complete();
+            }
+          });
+        } catch (Throwable throwable) {
+          // the upstream failed without signalling, so the coalesced promises would otherwise never complete
+          if (settle(key, promised, settled, ExecResult.of(Result.error(throwable)))) {
+            down.error(throwable);
+          } else {
+            throw throwable;
+          }
+        }
+      });
+    });
+  }
+
+  private boolean settle(K key, Promised<T> promised, AtomicBoolean settled, ExecResult<T> result) {
+    if (settled.compareAndSet(false, true)) {
+      inFlight.remove(key, promised);
+      promised.accept(result);
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  /**
+   * The number of promises that were subscribed to, because no promise was in flight for their key.
+   *
+   * @return the number of promises that were subscribed to
+   */
+  public long getOriginatingCount() {
+    return originating.sum();
+  }
+
+  /**
+   * The number of promises that were not subscribed to, and instead received the result of an in flight promise for their key.
+   *
+   * @return the number of promises that were coalesced
+   */
+  public long getCoalescedCount() {
+    return coalesced.sum();
+  }
+
+  /**
+   * The number of keys for which a promise is currently in flight.
+   *
+   * @return the number of keys for which a promise is currently in flight
+   */
+  public int getInFlightCount() {
+    return inFlight.size();
+  }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util;
+
+import ratpack.exec.Operation;
+import ratpack.exec.Promise;
+import ratpack.exec.util.internal.DefaultKeyedRateLimiter;
+import ratpack.exec.util.internal.DefaultRateLimiterSpec;
+import ratpack.func.Action;
+
+/**
+ * A {@link RateLimiter} per key, such as per tenant or per client address.
+ * <p>
+ * Each key has an independent limiter, created on first use with the same specification.
+ * Limiters for keys that have not been used for long enough to have replenished all of their permits are discarded,
+ * as a new limiter would behave identically.
+ * The memory used is therefore proportional to the number of recently active keys.
+ *
+ * @param <K> the type of key, which must implement {@link Object#equals(Object)} and {@link Object#hashCode()}
+ * @see RateLimiter
+ * @since 2.0
+ */
+public interface KeyedRateLimiter<K> {
+
+  /**
+   * Creates a new keyed rate limiter.
+   *
+   * @param spec the configuration of the rate limiter for each key
+   * @param <K> the type of key
+   * @return a new keyed rate limiter
+   * @throws Exception any thrown by {@code spec}
+   */
+  static <K> KeyedRateLimiter<K> of(Action<? super RateLimiterSpec> spec) throws Exception {
+    return new DefaultKeyedRateLimiter<>(Action.with(new DefaultRateLimiterSpec(), spec));
+  }
+
+  /**
+   * The rate limiter for the given key.
+   *
+   * @param key the key
+   * @return the rate limiter for the key
+   */
+  RateLimiter get(K key);
+
+  /**
+   * Decorates the given promise so that it is not subscribed to until a permit is available for the given key.
+   *
+   * @param key the key
+   * @param promise the promise to limit
+   * @param <T> the type of value
+   * @return a rate limited promise
+   * @see RateLimiter#limit(Promise)
+   */
+  default <T> Promise<T> limit(K key, Promise<T> promise) {
+    return Promise.flatten(() -> get(key).limit(promise));
+  }
+
+  /**
+   * An operation that completes when a permit is available for the given key.
+   *
+   * @param key the key
+   * @return an operation that completes when a permit is available
+   * @see RateLimiter#acquire()
+   */
+  default Operation acquire(K key) {
+    return Operation.flatten(() -> get(key).acquire());
+  }
+
+}
@@ -78,6 +78,20 @@ public interface ParallelBatch<T> extends Batch<T> {
    */
   ParallelBatch<T> execInit(Action<? super Execution> execInit);
 
+  /**
+   * Limits the number of promises that will be processed at any one time.
+   * <p>
+   * By default, an execution is forked for every promise in the batch immediately.
+   * When a limit is given, at most {@code concurrency} executions will be in flight,
+   * with the next promise being taken from the iterable as each completes.
+   * This bounds the resources used when fanning out over a large number of promises.
+   *
+   * @param concurrency the maximum number of promises to process concurrently, must be greater than 0
+   * @return a new batch, configured to use the given concurrency limit
+   * @since 2.0
+   */
+  ParallelBatch<T> concurrency(int concurrency);
+
   /**
    * {@inheritDoc}
    */
@@ -146,6 +160,10 @@ public interface ParallelBatch<T> extends Batch<T> {
   /**
    * {@inheritDoc}
    * <p>
+   * Items are emitted in the order that they complete, not the order of the batch.
+   * Promises are only forked as items are requested by the subscriber,
+   * and no more than the {@link #concurrency(int) concurrency limit} are in flight at any one time.
+   * <p>
    * Any errors that occur after the initial will be ignored.
    */
   @Override
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a {@link RateLimiter} cannot grant a permit within its maximum wait.
+ * <p>
+ * As these exceptions are expected to be frequent when a limit is reached, they do not capture a stack trace.
+ *
+ * @since 2.0
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+  private static final long serialVersionUID = 0;
+
+  private final Duration retryAfter;
+
+  /**
+   * Constructor.
+   *
+   * @param retryAfter how long until a permit would have been granted
+   */
+  public RateLimitExceededException(Duration retryAfter) {
+    super("rate limit exceeded, retry after " + retryAfter, null, false, false);
+    this.retryAfter = retryAfter;
+  }
+
+  /**
+   * How long until a permit would have been granted, at the time the permit was requested.
+   * <p>
+   * This is suitable for a {@code Retry-After} response header.
+   *
+   * @return how long until a permit would have been granted
+   */
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+
+}
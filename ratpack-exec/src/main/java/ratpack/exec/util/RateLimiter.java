@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util;
+
+import ratpack.exec.Operation;
+import ratpack.exec.Promise;
+import ratpack.exec.util.internal.DefaultRateLimiter;
+import ratpack.exec.util.internal.DefaultRateLimiterSpec;
+import ratpack.func.Action;
+
+import java.time.Duration;
+
+/**
+ * Limits the rate at which promises are subscribed to.
+ * <p>
+ * Unlike {@link ratpack.exec.Throttle}, which limits how many promises are in flight at once,
+ * a rate limiter limits how many promises may start in a period of time, regardless of how long they take.
+ * This is useful for staying within the quota of a third party service, or for limiting the request rate of a tenant.
+ * <p>
+ * The limiter is a token bucket, implemented with the generic cell rate algorithm.
+ * Permits are replenished at a steady {@link RateLimiterSpec#rate(long, Duration) rate},
+ * and up to {@link RateLimiterSpec#burst(int) burst} permits may be used at once after a quiet period.
+ * The state is a single timestamp that is updated with compare and set, so acquiring a permit takes no locks.
+ * <p>
+ * When a permit is not available, the promise is {@link Promise#defer(Duration) deferred} until it will be, on the execution's event loop.
+ * No thread is blocked while waiting.
+ * If the wait would be longer than the {@link RateLimiterSpec#maxWait(Duration) maximum wait},
+ * the promise fails immediately with a {@link RateLimitExceededException} instead, and no permit is used.
+ *
+ * <pre class="java">{@code
+ * import ratpack.exec.Promise;
+ * import ratpack.exec.util.RateLimitExceededException;
+ * import ratpack.exec.util.RateLimiter;
+ * import ratpack.test.exec.ExecHarness;
+ *
+ * import java.time.Duration;
+ *
+ * import static org.junit.jupiter.api.Assertions.assertEquals;
+ * import static org.junit.jupiter.api.Assertions.assertTrue;
+ *
+ * public class Example {
+ *   public static void main(String... args) throws Exception {
+ *     RateLimiter limiter = RateLimiter.of(s -> s.rate(10, Duration.ofSeconds(1)).burst(2));
+ *
+ *     ExecHarness.runSingle(e -> {
+ *       limiter.limit(Promise.value(1)).then(v -> assertEquals(1, v.intValue()));
+ *       limiter.limit(Promise.value(2)).then(v -> assertEquals(2, v.intValue()));
+ *       limiter.limit(Promise.value(3)).result(r -> assertTrue(r.getThrowable() instanceof RateLimitExceededException));
+ *     });
+ *
+ *     assertEquals(1, limiter.getRejectedCount());
+ *   }
+ * }
+ * }</pre>
+ *
+ * @see KeyedRateLimiter
+ * @since 2.0
+ */
+public interface RateLimiter {
+
+  /**
+   * Creates a new rate limiter.
+   *
+   * @param spec the configuration of the rate limiter
+   * @return a new rate limiter
+   * @throws Exception any thrown by {@code spec}
+   */
+  static RateLimiter of(Action<? super RateLimiterSpec> spec) throws Exception {
+    return new DefaultRateLimiter(Action.with(new DefaultRateLimiterSpec(), spec));
+  }
+
+  /**
+   * The number of permits that were not granted because the wait would have exceeded the maximum wait.
+   *
+   * @return the number of permits that were not granted
+   */
+  long getRejectedCount();
+
+  /**
+   * Reserves a permit, returning how long the caller must wait before using it.
+   * <p>
+   * A zero duration means the permit may be used immediately.
+   * This is the primitive that the other methods are built on, and is useful for integrating with other scheduling mechanisms.
+   *
+   * @return how long to wait before using the permit
+   * @throws RateLimitExceededException if the wait would exceed the maximum wait, in which case no permit is reserved
+   */
+  Duration reserve() throws RateLimitExceededException;
+
+  /**
+   * Decorates the given promise so that it is not subscribed to until a permit is available.
+   *
+   * @param promise the promise to limit
+   * @param <T> the type of value
+   * @return a rate limited promise
+   * @see #reserve()
+   */
+  default <T> Promise<T> limit(Promise<T> promise) {
+    return Promise.flatten(() -> {
+      Duration wait = reserve();
+      return wait.isZero() ? promise : promise.defer(wait);
+    });
+  }
+
+  /**
+   * An operation that completes when a permit is available.
+   *
+   * @return an operation that completes when a permit is available
+   * @see #reserve()
+   */
+  default Operation acquire() {
+    return limit(Promise.value(true)).operation();
+  }
+
+}
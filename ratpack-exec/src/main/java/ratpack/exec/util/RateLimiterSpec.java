@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util;
+
+import java.time.Duration;
+
+/**
+ * A specification of a {@link RateLimiter}.
+ *
+ * @see RateLimiter#of(ratpack.func.Action)
+ * @see KeyedRateLimiter#of(ratpack.func.Action)
+ * @since 2.0
+ */
+public interface RateLimiterSpec {
+
+  /**
+   * The default number of permits that may be used at once.
+   */
+  int DEFAULT_BURST = 1;
+
+  /**
+   * The default maximum time to wait for a permit, which means that permits are never waited for.
+   */
+  Duration DEFAULT_MAX_WAIT = Duration.ZERO;
+
+  /**
+   * The steady rate at which permits are granted.
+   * <p>
+   * Permits are replenished evenly over the period.
+   * For example, a rate of {@code 10} per second grants a permit every 100 milliseconds.
+   * <p>
+   * This must be specified.
+   *
+   * @param permits the number of permits per period
+   * @param period the period
+   * @return {@code this}
+   */
+  RateLimiterSpec rate(long permits, Duration period);
+
+  /**
+   * The number of permits that may be used at once, after a period of no use.
+   * <p>
+   * Defaults to {@link #DEFAULT_BURST}.
+   *
+   * @param burst the number of permits that may be used at once
+   * @return {@code this}
+   */
+  RateLimiterSpec burst(int burst);
+
+  /**
+   * The maximum time to wait for a permit, before failing with {@link RateLimitExceededException}.
+   * <p>
+   * If zero, promises are never deferred and either proceed immediately or fail.
+   * <p>
+   * Defaults to {@link #DEFAULT_MAX_WAIT}.
+   *
+   * @param maxWait the maximum time to wait for a permit
+   * @return {@code this}
+   */
+  RateLimiterSpec maxWait(Duration maxWait);
+
+}
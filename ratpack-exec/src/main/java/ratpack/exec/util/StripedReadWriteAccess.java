@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util;
+
+import ratpack.exec.Promise;
+import ratpack.exec.util.internal.DefaultStripedReadWriteAccess;
+
+import java.time.Duration;
+
+/**
+ * Provides read/write serialization per key, using a fixed number of {@link ReadWriteAccess} stripes.
+ * <p>
+ * A single {@link ReadWriteAccess} guards a single resource.
+ * This type can be used when there are many resources, such as one per account or per file,
+ * that are each to be serialized independently without creating an access object per resource.
+ * <p>
+ * Each key is mapped to a stripe by its {@link Object#hashCode()}.
+ * Promises for keys that map to the same stripe are serialized with each other, even if the keys are not equal.
+ * The number of stripes bounds the memory used regardless of the number of distinct keys,
+ * with more stripes reducing contention between unrelated keys.
+ * <p>
+ * The semantics of each stripe are exactly those of {@link ReadWriteAccess}.
+ * Access is not reentrant, and deadlocks are not detected or prevented.
+ * In particular, nesting access for two different keys may deadlock if they map to the same stripe.
+ *
+ * <pre class="java">{@code
+ * import ratpack.exec.Promise;
+ * import ratpack.exec.util.ParallelBatch;
+ * import ratpack.exec.util.StripedReadWriteAccess;
+ * import ratpack.test.exec.ExecHarness;
+ *
+ * import java.time.Duration;
+ * import java.util.ArrayList;
+ * import java.util.List;
+ * import java.util.Map;
+ * import java.util.concurrent.ConcurrentHashMap;
+ *
+ * import static org.junit.jupiter.api.Assertions.assertEquals;
+ *
+ * public class Example {
+ *   public static void main(String... args) throws Exception {
+ *     StripedReadWriteAccess<String> access = StripedReadWriteAccess.create(64, Duration.ofSeconds(5));
+ *     Map<String, Integer> balances = new ConcurrentHashMap<>();
+ *
+ *     List<Promise<Integer>> promises = new ArrayList<>();
+ *     for (int i = 0; i < 100; ++i) {
+ *       String account = "account-" + (i % 4);
+ *       promises.add(access.write(account, Promise.sync(() -> {
+ *         int balance = balances.getOrDefault(account, 0);
+ *         return balance + 1;
+ *       }).next(balance -> balances.put(account, balance))));
+ *     }
+ *
+ *     ExecHarness.yieldSingle(e -> ParallelBatch.of(promises).yield()).getValueOrThrow();
+ *
+ *     assertEquals(Integer.valueOf(25), balances.get("account-0"));
+ *     assertEquals(Integer.valueOf(25), balances.get("account-3"));
+ *   }
+ * }
+ * }</pre>
+ *
+ * @param <K> the type of key, which must implement {@link Object#hashCode()}
+ * @see ReadWriteAccess
+ * @since 2.0
+ */
+public interface StripedReadWriteAccess<K> {
+
+  /**
+   * Create a new striped read/write access object.
+   * <p>
+   * The number of stripes is rounded up to the next power of two.
+   *
+   * @param stripes the minimum number of stripes (must be greater than 0)
+   * @param defaultTimeout the default maximum amount of time to wait for access (must not be negative, 0 == infinite)
+   * @param <K> the type of key
+   * @return a new striped read/write access object
+   */
+  static <K> StripedReadWriteAccess<K> create(int stripes, Duration defaultTimeout) {
+    return new DefaultStripedReadWriteAccess<>(stripes, defaultTimeout);
+  }
+
+  /**
+   * The default timeout value.
+   *
+   * @return the default timeout value
+   */
+  Duration getDefaultTimeout();
+
+  /**
+   * The number of stripes.
+   *
+   * @return the number of stripes
+   */
+  int getStripes();
+
+  /**
+   * The read/write access object that serializes promises for the given key.
+   * <p>
+   * The same object is returned for all keys that map to the same stripe.
+   *
+   * @param key the key
+   * @return the read/write access for the key
+   */
+  ReadWriteAccess get(K key);
+
+  /**
+   * Decorates the given promise with read serialization for the given key.
+   *
+   * @param key the key of the resource being read
+   * @param promise the promise to decorate
+   * @param <T> the type of promised value
+   * @return a decorated promise
+   * @see ReadWriteAccess#read(Promise)
+   */
+  default <T> Promise<T> read(K key, Promise<T> promise) {
+    return get(key).read(promise);
+  }
+
+  /**
+   * Decorates the given promise with read serialization for the given key and the given timeout.
+   *
+   * @param key the key of the resource being read
+   * @param promise the promise to decorate
+   * @param timeout the maximum amount of time to wait for access (must not be negative, 0 == infinite)
+   * @param <T> the type of promised value
+   * @return a decorated promise
+   * @see ReadWriteAccess#read(Promise, Duration)
+   */
+  default <T> Promise<T> read(K key, Promise<T> promise, Duration timeout) {
+    return get(key).read(promise, timeout);
+  }
+
+  /**
+   * Decorates the given promise with write serialization for the given key.
+   *
+   * @param key the key of the resource being written
+   * @param promise the promise to decorate
+   * @param <T> the type of promised value
+   * @return a decorated promise
+   * @see ReadWriteAccess#write(Promise)
+   */
+  default <T> Promise<T> write(K key, Promise<T> promise) {
+    return get(key).write(promise);
+  }
+
+  /**
+   * Decorates the given promise with write serialization for the given key and the given timeout.
+   *
+   * @param key the key of the resource being written
+   * @param promise the promise to decorate
+   * @param timeout the maximum amount of time to wait for access (must not be negative, 0 == infinite)
+   * @param <T> the type of promised value
+   * @return a decorated promise
+   * @see ReadWriteAccess#write(Promise, Duration)
+   */
+  default <T> Promise<T> write(K key, Promise<T> promise, Duration timeout) {
+    return get(key).write(promise, timeout);
+  }
+
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.exec.Downstream;
+import ratpack.exec.Upstream;
+import ratpack.exec.util.CircuitBreaker;
+import ratpack.exec.util.CircuitBreakerOpenException;
+import ratpack.func.BiAction;
+import ratpack.func.Predicate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+public class DefaultCircuitBreaker implements CircuitBreaker {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+
+  private static final int BUCKETS = 10;
+
+  private final double failureRateThreshold;
+  private final double slowCallRateThreshold;
+  private final long slowCallNanos;
+  private final long bucketNanos;
+  private final int minimumCalls;
+  private final long openNanos;
+  private final int halfOpenCalls;
+  private final long halfOpenNanos;
+  private final Predicate<? super Throwable> recordFailures;
+  private final List<BiAction<? super State, ? super State>> listeners;
+
+  private final long origin = System.nanoTime();
+  private final LongAdder rejected = new LongAdder();
+  private final AtomicReference<Phase> phase;
+
+  public DefaultCircuitBreaker(DefaultCircuitBreakerSpec spec) {
+    this.failureRateThreshold = spec.getFailureRateThreshold();
+    this.slowCallRateThreshold = spec.getSlowCallRateThreshold();
+    this.slowCallNanos = spec.getSlowCallDuration().toNanos();
+    this.bucketNanos = spec.getWindow().toNanos() / BUCKETS;
+    this.minimumCalls = spec.getMinimumCalls();
+    this.openNanos = spec.getOpenDuration().toNanos();
+    this.halfOpenCalls = spec.getHalfOpenCalls();
+    this.halfOpenNanos = spec.getHalfOpenDuration().toNanos();
+    this.recordFailures = spec.getRecordFailures();
+    this.listeners = spec.getListeners();
+    this.phase = new AtomicReference<>(Phase.closed());
+  }
+
+  @Override
+  public State getState() {
+    return phase.get().state;
+  }
+
+  @Override
+  public double getFailureRate() {
+    return counts(phase.get().window, System.nanoTime()).failureRate();
+  }
+
+  @Override
+  public double getSlowCallRate() {
+    return counts(phase.get().window, System.nanoTime()).slowCallRate();
+  }
+
+  @Override
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  @Override
+  public <T> Upstream<T> guard(Upstream<? extends T> upstream) {
+    return down -> {
+      Phase permitted;
+      try {
+        permitted = acquire();
+      } catch (CircuitBreakerOpenException e) {
+        down.error(e);
+        return;
+      }
+
+      long start = System.nanoTime();
+      AtomicBoolean signalled = new AtomicBoolean();
+      try {
+        upstream.connect(new Downstream<T>() {
+          @Override
+          public void success(T value) {
+            if (signalled.compareAndSet(false, true)) {
+              record(permitted, false, start);
+            }
+            down.success(value);
+          }
+
+          @Override
+          public void error(Throwable throwable) {
+            if (signalled.compareAndSet(false, true)) {
+              record(permitted, isFailure(throwable), start);
+            }
+            down.error(throwable);
+          }
+
+          @Override
+          public void complete() {
+            if (signalled.compareAndSet(false, true)) {
+              record(permitted, false, start);
+            }
+            down.complete();
+          }
+        });
+      } catch (Throwable throwable) {
+        // the upstream failed without signalling, so the call would otherwise never be recorded
+        if (signalled.compareAndSet(false, true)) {
+          record(permitted, isFailure(throwable), start);
+          down.error(throwable);
+        } else {
+          throw throwable;
+        }
+      }
+    };
+  }
+
+  private boolean isFailure(Throwable throwable) {
+    try {
+      return recordFailures.apply(throwable);
+    } catch (Throwable e) {
+      throwable.addSuppressed(e);
+      return true;
+    }
+  }
+
+  private Phase acquire() {
+    while (true) {
+      Phase current = phase.get();
+      switch (current.state) {
+        case CLOSED:
+          return current;
+        case OPEN:
+          long now = System.nanoTime();
+          if (now - current.since < openNanos) {
+            rejected.increment();
+            throw new CircuitBreakerOpenException(State.OPEN);
+          }
+          transition(current, Phase.halfOpen(current.window, now));
+          break;
+        case HALF_OPEN:
+          if (current.permits.getAndIncrement() < halfOpenCalls) {
+            return current;
+          }
+          if (System.nanoTime() - current.since >= halfOpenNanos) {
+            // probes that never complete would otherwise keep the breaker half open forever
+            transition(current, Phase.open(current.window, System.nanoTime()));
+            break;
+          }
+          rejected.increment();
+          throw new CircuitBreakerOpenException(State.HALF_OPEN);
+        default:
+          throw new IllegalStateException("unhandled state: " + current.state);
+      }
+    }
+  }
+
+  private void record(Phase permitted, boolean failure, long start) {
+    long now = System.nanoTime();
+    boolean slow = now - start >= slowCallNanos;
+    if (phase.get() != permitted) {
+      return;
+    }
+
+    if (permitted.state == State.CLOSED) {
+      Bucket bucket = bucket(permitted.window, now);
+      bucket.calls.increment();
+      if (failure) {
+        bucket.failures.increment();
+      }
+      if (slow) {
+        bucket.slowCalls.increment();
+      }
+      Counts counts = counts(permitted.window, now);
+      if (counts.calls >= minimumCalls && exceedsThresholds(counts)) {
+        transition(permitted, Phase.open(permitted.window, now));
+      }
+    } else if (permitted.state == State.HALF_OPEN) {
+      if (failure) {
+        permitted.probeFailures.incrementAndGet();
+      }
+      if (slow) {
+        permitted.probeSlowCalls.incrementAndGet();
+      }
+      if (permitted.probeCalls.incrementAndGet() == halfOpenCalls) {
+        Counts counts = new Counts(halfOpenCalls, permitted.probeFailures.get(), permitted.probeSlowCalls.get());
+        transition(permitted, exceedsThresholds(counts) ? Phase.open(permitted.window, now) : Phase.closed());
+      }
+    }
+  }
+
+  private boolean exceedsThresholds(Counts counts) {
+    return counts.failureRate() >= failureRateThreshold || counts.slowCallRate() >= slowCallRateThreshold;
+  }
+
+  private void transition(Phase from, Phase to) {
+    if (phase.compareAndSet(from, to)) {
+      for (BiAction<? super State, ? super State> listener : listeners) {
+        try {
+          listener.execute(from.state, to.state);
+        } catch (Exception e) {
+          LOGGER.warn("exception raised by circuit breaker state change listener - will be ignored", e);
+        }
+      }
+    }
+  }
+
+  private long epoch(long now) {
+    return (now - origin) / bucketNanos;
+  }
+
+  private Bucket bucket(Bucket[] window, long now) {
+    long epoch = epoch(now);
+    Bucket bucket = window[(int) (epoch % BUCKETS)];
+    long bucketEpoch = bucket.epoch.get();
+    if (bucketEpoch < epoch && bucket.epoch.compareAndSet(bucketEpoch, epoch)) {
+      // counts recorded concurrently with the reset may be lost, which is tolerable for rates
+      bucket.calls.reset();
+      bucket.failures.reset();
+      bucket.slowCalls.reset();
+    }
+    return bucket;
+  }
+
+  private Counts counts(Bucket[] window, long now) {
+    long epoch = epoch(now);
+    long calls = 0;
+    long failures = 0;
+    long slowCalls = 0;
+    for (Bucket bucket : window) {
+      if (bucket.epoch.get() > epoch - BUCKETS) {
+        calls += bucket.calls.sum();
+        failures += bucket.failures.sum();
+        slowCalls += bucket.slowCalls.sum();
+      }
+    }
+    return new Counts(calls, failures, slowCalls);
+  }
+
+  private static final class Bucket {
+    private final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder slowCalls = new LongAdder();
+  }
+
+  private static final class Counts {
+    private final long calls;
+    private final long failures;
+    private final long slowCalls;
+
+    Counts(long calls, long failures, long slowCalls) {
+      this.calls = calls;
+      this.failures = failures;
+      this.slowCalls = slowCalls;
+    }
+
+    double failureRate() {
+      return calls == 0 ? 0 : (double) failures / calls;
+    }
+
+    double slowCallRate() {
+      return calls == 0 ? 0 : (double) slowCalls / calls;
+    }
+  }
+
+  private static final class Phase {
+    private final State state;
+    // the window of the most recent closed phase
+    private final Bucket[] window;
+    // when the phase started, for open and half open phases
+    private final long since;
+    private final AtomicInteger permits = new AtomicInteger();
+    private final AtomicInteger probeCalls = new AtomicInteger();
+    private final AtomicInteger probeFailures = new AtomicInteger();
+    private final AtomicInteger probeSlowCalls = new AtomicInteger();
+
+    private Phase(State state, Bucket[] window, long since) {
+      this.state = state;
+      this.window = window;
+      this.since = since;
+    }
+
+    static Phase closed() {
+      Bucket[] window = new Bucket[BUCKETS];
+      for (int i = 0; i < BUCKETS; ++i) {
+        window[i] = new Bucket();
+      }
+      return new Phase(State.CLOSED, window, 0);
+    }
+
+    static Phase open(Bucket[] window, long now) {
+      return new Phase(State.OPEN, window, now);
+    }
+
+    static Phase halfOpen(Bucket[] window, long now) {
+      return new Phase(State.HALF_OPEN, window, now);
+    }
+  }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util.internal;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import ratpack.exec.util.CircuitBreaker;
+import ratpack.exec.util.CircuitBreakerSpec;
+import ratpack.func.BiAction;
+import ratpack.func.Predicate;
+
+import java.time.Duration;
+
+public class DefaultCircuitBreakerSpec implements CircuitBreakerSpec {
+
+  private double failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+  private double slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+  private Duration slowCallDuration = DEFAULT_SLOW_CALL_DURATION;
+  private Duration window = DEFAULT_WINDOW;
+  private int minimumCalls = DEFAULT_MINIMUM_CALLS;
+  private Duration openDuration = DEFAULT_OPEN_DURATION;
+  private int halfOpenCalls = DEFAULT_HALF_OPEN_CALLS;
+  private Duration halfOpenDuration = DEFAULT_HALF_OPEN_DURATION;
+  private Predicate<? super Throwable> recordFailures = Predicate.alwaysTrue();
+  private final ImmutableList.Builder<BiAction<? super CircuitBreaker.State, ? super CircuitBreaker.State>> listeners = ImmutableList.builder();
+
+  @Override
+  public CircuitBreakerSpec failureRateThreshold(double threshold) {
+    Preconditions.checkArgument(threshold > 0 && threshold <= 1, "failureRateThreshold must be > 0 and <= 1");
+    this.failureRateThreshold = threshold;
+    return this;
+  }
+
+  @Override
+  public CircuitBreakerSpec slowCallRateThreshold(double threshold) {
+    Preconditions.checkArgument(threshold > 0 && threshold <= 1, "slowCallRateThreshold must be > 0 and <= 1");
+    this.slowCallRateThreshold = threshold;
+    return this;
+  }
+
+  @Override
+  public CircuitBreakerSpec slowCallDuration(Duration duration) {
+    Preconditions.checkArgument(!duration.isNegative() && !duration.isZero(), "slowCallDuration must be positive");
+    this.slowCallDuration = duration;
+    return this;
+  }
+
+  @Override
+  public CircuitBreakerSpec window(Duration window) {
+    Preconditions.checkArgument(window.toMillis() >= 10, "window must be at least 10ms");
+    this.window = window;
+    return this;
+  }
+
+  @Override
+  public CircuitBreakerSpec minimumCalls(int minimumCalls) {
+    Preconditions.checkArgument(minimumCalls > 0, "minimumCalls must be > 0");
+    this.minimumCalls = minimumCalls;
+    return this;
+  }
+
+  @Override
+  public CircuitBreakerSpec openDuration(Duration duration) {
+    Preconditions.checkArgument(!duration.isNegative(), "openDuration must not be negative");
+    this.openDuration = duration;
+    return this;
+  }
+
+  @Override
+  public CircuitBreakerSpec halfOpenCalls(int calls) {
+    Preconditions.checkArgument(calls > 0, "halfOpenCalls must be > 0");
+    this.halfOpenCalls = calls;
+    return this;
+  }
+
+  @Override
+  public CircuitBreakerSpec halfOpenDuration(Duration duration) {
+    Preconditions.checkArgument(!duration.isNegative() && !duration.isZero(), "halfOpenDuration must be positive");
+    this.halfOpenDuration = duration;
+    return this;
+  }
+
+  @Override
+  public CircuitBreakerSpec recordFailures(Predicate<? super Throwable> predicate) {
+    this.recordFailures = Preconditions.checkNotNull(predicate, "predicate");
+    return this;
+  }
+
+  @Override
+  public CircuitBreakerSpec onStateChange(BiAction<? super CircuitBreaker.State, ? super CircuitBreaker.State> listener) {
+    listeners.add(listener);
+    return this;
+  }
+
+  public double getFailureRateThreshold() {
+    return failureRateThreshold;
+  }
+
+  public double getSlowCallRateThreshold() {
+    return slowCallRateThreshold;
+  }
+
+  public Duration getSlowCallDuration() {
+    return slowCallDuration;
+  }
+
+  public Duration getWindow() {
+    return window;
+  }
+
+  public int getMinimumCalls() {
+    return minimumCalls;
+  }
+
+  public Duration getOpenDuration() {
+    return openDuration;
+  }
+
+  public int getHalfOpenCalls() {
+    return halfOpenCalls;
+  }
+
+  public Duration getHalfOpenDuration() {
+    return halfOpenDuration;
+  }
+
+  public Predicate<? super Throwable> getRecordFailures() {
+    return recordFailures;
+  }
+
+  public ImmutableList<BiAction<? super CircuitBreaker.State, ? super CircuitBreaker.State>> getListeners() {
+    return listeners.build();
+  }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util.internal;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import ratpack.exec.util.KeyedRateLimiter;
+import ratpack.exec.util.RateLimiter;
+
+import java.util.concurrent.TimeUnit;
+
+public class DefaultKeyedRateLimiter<K> implements KeyedRateLimiter<K> {
+
+  private final LoadingCache<K, RateLimiter> limiters;
+
+  public DefaultKeyedRateLimiter(DefaultRateLimiterSpec spec) {
+    // after this long without use, a limiter has replenished all permits and is equivalent to a new one
+    long idleNanos = spec.getMaxWait().toNanos() + spec.getIntervalNanos() * spec.getBurst();
+    this.limiters = CacheBuilder.newBuilder()
+      .expireAfterAccess(idleNanos, TimeUnit.NANOSECONDS)
+      .build(CacheLoader.<RateLimiter>from(() -> new DefaultRateLimiter(spec)));
+  }
+
+  @Override
+  public RateLimiter get(K key) {
+    return limiters.getUnchecked(key);
+  }
+
+}
@@ -16,6 +16,7 @@
 
 package ratpack.exec.util.internal;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import org.reactivestreams.Subscription;
 import ratpack.exec.ExecResult;
@@ -33,23 +34,33 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class DefaultParallelBatch<T> implements ParallelBatch<T> {
 
   private final Iterable<? extends Promise<T>> promises;
   private final Action<? super Execution> execInit;
+  private final int concurrency;
 
   public DefaultParallelBatch(Iterable<? extends Promise<? extends T>> promises, Action<? super Execution> execInit) {
+    this(promises, execInit, Integer.MAX_VALUE);
+  }
+
+  public DefaultParallelBatch(Iterable<? extends Promise<? extends T>> promises, Action<? super Execution> execInit, int concurrency) {
     this.promises = Types.cast(promises);
     this.execInit = execInit;
+    this.concurrency = concurrency;
   }
 
   @Override
   public ParallelBatch<T> execInit(Action<? super Execution> execInit) {
-    return new DefaultParallelBatch<>(promises, execInit);
+    return new DefaultParallelBatch<>(promises, execInit, concurrency);
+  }
+
+  @Override
+  public ParallelBatch<T> concurrency(int concurrency) {
+    Preconditions.checkArgument(concurrency > 0, "concurrency must be > 0 (was %s)", concurrency);
+    return new DefaultParallelBatch<>(promises, execInit, concurrency);
   }
 
   @Override
@@ -60,27 +71,20 @@ public class DefaultParallelBatch<T> implements ParallelBatch<T> {
     }
 
     List<ExecResult<T>> results = Types.cast(promises);
-    AtomicInteger counter = new AtomicInteger(promises.size());
 
-    return Promise.async(d -> {
-      for (int i = 0; i < promises.size(); ++i) {
-        final int finalI = i;
-        //noinspection CodeBlock2Expr
-        Execution.fork()
-          .onStart(execInit)
-          .onComplete(e -> {
-            if (counter.decrementAndGet() == 0) {
-              d.success(results);
-            }
-          })
-          .start(e ->
-            promises.get(finalI).result(t -> {
-              results.set(finalI, t);
-            })
-          );
-      }
-    });
+    return Promise.async(d ->
+      new Forker<T>(promises.iterator(), execInit, concurrency, Long.MAX_VALUE) {
+        @Override
+        void execute(int i, Promise<T> promise) {
+          promise.result(t -> results.set(i, t));
+        }
 
+        @Override
+        void onDone() {
+          d.success(results);
+        }
+      }.fill()
+    );
   }
 
   @Override
@@ -91,111 +95,187 @@ public class DefaultParallelBatch<T> implements ParallelBatch<T> {
     }
 
     List<T> results = Types.cast(promises);
-    return Promise.async(d -> forEach(promises, execInit, results::set).onError(d::error).then(() -> d.success(results)));
+    return Promise.async(d -> forEach(promises, execInit, concurrency, results::set).onError(d::error).then(() -> d.success(results)));
   }
 
   @Override
   public Operation forEach(BiAction<? super Integer, ? super T> consumer) {
-    return forEach(promises, execInit, consumer);
+    return forEach(promises, execInit, concurrency, consumer);
   }
 
-  private static <T> Operation forEach(Iterable<? extends Promise<T>> promises, Action<? super Execution> execInit, BiAction<? super Integer, ? super T> consumer) {
+  private static <T> Operation forEach(Iterable<? extends Promise<T>> promises, Action<? super Execution> execInit, int concurrency, BiAction<? super Integer, ? super T> consumer) {
     AtomicReference<Throwable> error = new AtomicReference<>();
-    AtomicBoolean done = new AtomicBoolean();
-    AtomicInteger wip = new AtomicInteger();
-
-    return Promise.async(d -> {
-      int i = 0;
-      Iterator<? extends Promise<T>> iterator = promises.iterator();
-      while (iterator.hasNext()) {
-        Promise<T> promise = iterator.next();
-        final int finalI = i++;
-        wip.incrementAndGet();
-        if (!iterator.hasNext()) {
-          done.set(true);
-        }
 
-        Execution.fork()
-          .onStart(execInit)
-          .onComplete(e -> {
-            if (wip.decrementAndGet() == 0 && done.get()) {
-              Throwable t = error.get();
-              if (t == null) {
-                d.success(null);
-              } else {
-                d.error(t);
-              }
-            }
-          })
-          .start(e -> {
-            //noinspection ThrowableResultOfMethodCallIgnored
-            if (error.get() == null) {
-              promise.result(t -> {
-                if (t.isError()) {
-                  Throwable thisError = t.getThrowable();
-                  if (!error.compareAndSet(null, thisError)) {
-                    //noinspection ThrowableResultOfMethodCallIgnored
-                    Throwable firstError = error.get();
-                    if (firstError != thisError) {
-                      firstError.addSuppressed(thisError);
-                    }
-                  }
+    return Promise.async(d ->
+      new Forker<T>(promises.iterator(), execInit, concurrency, Long.MAX_VALUE) {
+        @Override
+        void execute(int i, Promise<T> promise) {
+          //noinspection ThrowableResultOfMethodCallIgnored
+          if (error.get() == null) {
+            promise.result(t -> {
+              if (t.isError()) {
+                Throwable thisError = t.getThrowable();
+                if (error.compareAndSet(null, thisError)) {
+                  halt();
                 } else {
-                  consumer.execute(finalI, t.getValue());
+                  //noinspection ThrowableResultOfMethodCallIgnored
+                  Throwable firstError = error.get();
+                  if (firstError != thisError) {
+                    firstError.addSuppressed(thisError);
+                  }
                 }
-              });
-            }
-          });
-      }
-      if (i == 0) {
-        d.success(null);
-      }
-    }).operation();
+              } else {
+                consumer.execute(i, t.getValue());
+              }
+            });
+          }
+        }
+
+        @Override
+        void onDone() {
+          Throwable t = error.get();
+          if (t == null) {
+            d.success(null);
+          } else {
+            d.error(t);
+          }
+        }
+      }.fill()
+    ).operation();
   }
 
   @Override
   public TransformablePublisher<T> publisher() {
     Iterator<? extends Promise<T>> iterator = promises.iterator();
     return new BufferingPublisher<>(Action.noop(), write -> {
-      return new Subscription() {
-        volatile boolean cancelled;
-        volatile boolean complete;
-        final AtomicLong finished = new AtomicLong();
-        volatile long started;
-
+      AtomicBoolean stopped = new AtomicBoolean();
+      Forker<T> forker = new Forker<T>(iterator, execInit, concurrency, 0) {
         @Override
-        public void request(long n) {
-          while (n-- > 0 && !cancelled) {
-            if (iterator.hasNext()) {
-              ++started;
-              Promise<T> promise = iterator.next();
-              if (!iterator.hasNext()) {
-                complete = true;
+        void execute(int i, Promise<T> promise) {
+          promise
+            .onError(e -> {
+              if (stopped.compareAndSet(false, true)) {
+                halt();
+                write.error(e);
               }
-              Execution.fork()
-                .onStart(execInit)
-                .onComplete(e -> {
-                  long finished = this.finished.incrementAndGet();
-                  if (finished == started && complete && !cancelled) {
-                    write.complete();
-                  }
-                })
-                .start(e -> promise.onError(write::error).then(write::item));
-            } else {
-              if (started == 0) {
-                write.complete();
+            })
+            .then(item -> {
+              if (!stopped.get()) {
+                write.item(item);
               }
-              return;
-            }
+            });
+        }
+
+        @Override
+        void onDone() {
+          if (stopped.compareAndSet(false, true)) {
+            write.complete();
           }
         }
+      };
+
+      return new Subscription() {
+        @Override
+        public void request(long n) {
+          forker.request(n);
+        }
 
         @Override
         public void cancel() {
-          cancelled = true;
+          stopped.set(true);
+          forker.halt();
         }
       };
     });
   }
 
+  /**
+   * Forks an execution for each promise, keeping no more than {@code concurrency} in flight and starting no more than have been requested.
+   * <p>
+   * The next promise is forked as each execution completes, so only as many promises are pulled from the iterator as are needed.
+   */
+  private abstract static class Forker<T> {
+
+    private final Iterator<? extends Promise<T>> iterator;
+    private final Action<? super Execution> execInit;
+    private final int concurrency;
+
+    private long demand;
+    private int index;
+    private int inFlight;
+    private boolean halted;
+    private boolean done;
+
+    Forker(Iterator<? extends Promise<T>> iterator, Action<? super Execution> execInit, int concurrency, long demand) {
+      this.iterator = iterator;
+      this.execInit = execInit;
+      this.concurrency = concurrency;
+      this.demand = demand;
+    }
+
+    abstract void execute(int i, Promise<T> promise) throws Exception;
+
+    abstract void onDone() throws Exception;
+
+    void request(long n) throws Exception {
+      synchronized (this) {
+        demand += n;
+        if (demand < 0) {
+          demand = Long.MAX_VALUE;
+        }
+      }
+      fill();
+    }
+
+    void halt() throws Exception {
+      synchronized (this) {
+        halted = true;
+      }
+      fill();
+    }
+
+    void fill() throws Exception {
+      while (true) {
+        Promise<T> promise;
+        int i;
+        synchronized (this) {
+          if (done) {
+            return;
+          } else if (halted || !iterator.hasNext()) {
+            if (inFlight > 0) {
+              return;
+            }
+            done = true;
+            promise = null;
+            i = -1;
+          } else if (inFlight >= concurrency || demand == 0) {
+            return;
+          } else {
+            promise = iterator.next();
+            i = index++;
+            ++inFlight;
+            if (demand != Long.MAX_VALUE) {
+              --demand;
+            }
+          }
+        }
+
+        if (promise == null) {
+          onDone();
+          return;
+        }
+
+        Execution.fork()
+          .onStart(execInit)
+          .onComplete(e -> {
+            synchronized (this) {
+              --inFlight;
+            }
+            fill();
+          })
+          .start(e -> execute(i, promise));
+      }
+    }
+  }
+
 }
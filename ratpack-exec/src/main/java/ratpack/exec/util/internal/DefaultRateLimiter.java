@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util.internal;
+
+import ratpack.exec.util.RateLimitExceededException;
+import ratpack.exec.util.RateLimiter;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class DefaultRateLimiter implements RateLimiter {
+
+  private final long intervalNanos;
+  private final long toleranceNanos;
+  private final long maxWaitNanos;
+
+  // the theoretical arrival time of the next permit, in System.nanoTime() terms
+  private final AtomicLong nextArrival = new AtomicLong(System.nanoTime());
+  private final LongAdder rejected = new LongAdder();
+
+  public DefaultRateLimiter(DefaultRateLimiterSpec spec) {
+    this.intervalNanos = spec.getIntervalNanos();
+    this.toleranceNanos = intervalNanos * (spec.getBurst() - 1);
+    this.maxWaitNanos = spec.getMaxWait().toNanos();
+  }
+
+  @Override
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  @Override
+  public Duration reserve() throws RateLimitExceededException {
+    long now = System.nanoTime();
+    while (true) {
+      long current = nextArrival.get();
+      long arrival = current - now > 0 ? current : now;
+      long wait = arrival - now - toleranceNanos;
+      if (wait > maxWaitNanos) {
+        rejected.increment();
+        throw new RateLimitExceededException(Duration.ofNanos(wait));
+      }
+      if (nextArrival.compareAndSet(current, arrival + intervalNanos)) {
+        return wait > 0 ? Duration.ofNanos(wait) : Duration.ZERO;
+      }
+    }
+  }
+
+}
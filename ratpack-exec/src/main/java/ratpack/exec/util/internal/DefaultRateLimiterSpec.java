@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util.internal;
+
+import com.google.common.base.Preconditions;
+import ratpack.exec.util.RateLimiterSpec;
+
+import java.time.Duration;
+
+public class DefaultRateLimiterSpec implements RateLimiterSpec {
+
+  private long permits;
+  private Duration period;
+  private int burst = DEFAULT_BURST;
+  private Duration maxWait = DEFAULT_MAX_WAIT;
+
+  @Override
+  public RateLimiterSpec rate(long permits, Duration period) {
+    Preconditions.checkArgument(permits > 0, "permits must be > 0");
+    Preconditions.checkArgument(!period.isNegative() && !period.isZero(), "period must be positive");
+    this.permits = permits;
+    this.period = period;
+    return this;
+  }
+
+  @Override
+  public RateLimiterSpec burst(int burst) {
+    Preconditions.checkArgument(burst > 0, "burst must be > 0");
+    this.burst = burst;
+    return this;
+  }
+
+  @Override
+  public RateLimiterSpec maxWait(Duration maxWait) {
+    Preconditions.checkArgument(!maxWait.isNegative(), "maxWait must not be negative");
+    this.maxWait = maxWait;
+    return this;
+  }
+
+  public long getIntervalNanos() {
+    Preconditions.checkState(period != null, "rate must be specified");
+    return Math.max(1, period.toNanos() / permits);
+  }
+
+  public int getBurst() {
+    return burst;
+  }
+
+  public Duration getMaxWait() {
+    return maxWait;
+  }
+
+}
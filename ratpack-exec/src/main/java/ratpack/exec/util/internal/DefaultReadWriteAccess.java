@@ -16,18 +16,17 @@
 
 package ratpack.exec.util.internal;
 
-import io.netty.util.concurrent.ScheduledFuture;
 import ratpack.exec.Downstream;
 import ratpack.exec.Promise;
 import ratpack.exec.Upstream;
 import ratpack.exec.internal.Continuation;
 import ratpack.exec.internal.DefaultExecution;
+import ratpack.exec.internal.ExecTimer;
 import ratpack.exec.util.ReadWriteAccess;
 
 import java.time.Duration;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
@@ -101,7 +100,7 @@ public class DefaultReadWriteAccess implements ReadWriteAccess {
     private boolean fired;
 
     private Continuation continuation;
-    private ScheduledFuture<?> timeoutFuture;
+    private ExecTimer.Cancellable timeoutFuture;
 
     private Access(boolean read, Upstream<? extends T> upstream, Duration timeout, Downstream<? super T> downstream) {
       if (timeout.isNegative()) {
@@ -121,7 +120,7 @@ public class DefaultReadWriteAccess implements ReadWriteAccess {
         }
       }, continuation -> {
         if (!timeout.isZero()) {
-          timeoutFuture = execution.getEventLoop().schedule(this::timeout, timeout.toMillis(), TimeUnit.MILLISECONDS);
+          timeoutFuture = ExecTimer.schedule(execution.getController(), execution.getEventLoop(), this::timeout, timeout.toNanos());
         }
         this.continuation = continuation;
         addToQueue(this);
@@ -155,7 +154,7 @@ public class DefaultReadWriteAccess implements ReadWriteAccess {
 
       if (fire()) {
         if (timeoutFuture != null) {
-          timeoutFuture.cancel(false);
+          timeoutFuture.cancel();
         }
         continuation.resume(() ->
           upstream.connect(new Downstream<T>() {
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util.internal;
+
+import ratpack.exec.util.ReadWriteAccess;
+import ratpack.exec.util.StripedReadWriteAccess;
+
+import java.time.Duration;
+
+public class DefaultStripedReadWriteAccess<K> implements StripedReadWriteAccess<K> {
+
+  private static final int MAX_STRIPES = 1 << 16;
+
+  private final ReadWriteAccess[] stripes;
+  private final int mask;
+  private final Duration defaultTimeout;
+
+  public DefaultStripedReadWriteAccess(int stripes, Duration defaultTimeout) {
+    if (stripes < 1) {
+      throw new IllegalArgumentException("stripes must be greater than 0");
+    }
+    if (stripes > MAX_STRIPES) {
+      throw new IllegalArgumentException("stripes must not be greater than " + MAX_STRIPES);
+    }
+    if (defaultTimeout.isNegative()) {
+      throw new IllegalArgumentException("defaultTimeout must not be negative");
+    }
+
+    int size = Integer.highestOneBit(stripes - 1) << 1;
+    if (size == 0) {
+      size = 1;
+    }
+
+    this.defaultTimeout = defaultTimeout;
+    this.mask = size - 1;
+    this.stripes = new ReadWriteAccess[size];
+    for (int i = 0; i < size; ++i) {
+      this.stripes[i] = new DefaultReadWriteAccess(defaultTimeout);
+    }
+  }
+
+  @Override
+  public Duration getDefaultTimeout() {
+    return defaultTimeout;
+  }
+
+  @Override
+  public int getStripes() {
+    return stripes.length;
+  }
+
+  @Override
+  public ReadWriteAccess get(K key) {
+    return stripes[spread(key.hashCode()) & mask];
+  }
+
+  // Same as ConcurrentHashMap, so that keys differing only in their high bits don't collide
+  private static int spread(int hashCode) {
+    return hashCode ^ (hashCode >>> 16);
+  }
+
+}
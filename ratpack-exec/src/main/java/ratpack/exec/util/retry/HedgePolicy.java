@@ -0,0 +1,118 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util.retry;
+
+import ratpack.exec.Promise;
+import ratpack.exec.util.retry.internal.DefaultHedgePolicyBuilder;
+import ratpack.func.Action;
+
+import java.time.Duration;
+
+/**
+ * A strategy object to govern hedging, where further copies of an operation are started if it is slow, and the first to succeed is used.
+ * <p>
+ * Hedging reduces tail latency for idempotent operations, such as reads from a replicated service,
+ * at the cost of performing some operations more than once.
+ * Unlike a {@link RetryPolicy}, which governs a single subscription to a promise,
+ * a hedge policy maintains state across all subscriptions to promises that use it, such as observed latencies and the rate of hedging.
+ * Therefore, a single instance should be used for all invocations of a given operation.
+ *
+ * <pre class="java">{@code
+ * import ratpack.exec.Promise;
+ * import ratpack.exec.util.retry.HedgePolicy;
+ * import ratpack.test.exec.ExecHarness;
+ *
+ * import java.time.Duration;
+ * import java.util.concurrent.atomic.AtomicInteger;
+ *
+ * import static org.junit.jupiter.api.Assertions.assertEquals;
+ *
+ * public class Example {
+ *   public static void main(String... args) throws Exception {
+ *     AtomicInteger calls = new AtomicInteger();
+ *
+ *     HedgePolicy hedgePolicy = HedgePolicy.of(b -> b
+ *       .delay(Duration.ofMillis(50))
+ *     );
+ *
+ *     String result = ExecHarness.yieldSingle(exec ->
+ *       Promise.sync(calls::incrementAndGet)
+ *         // the first call is slow, the second is fast
+ *         .flatMap(i -> Promise.value("call " + i).defer(Duration.ofMillis(i == 1 ? 2000 : 10)))
+ *         .hedge(hedgePolicy)
+ *     ).getValueOrThrow();
+ *
+ *     assertEquals("call 2", result);
+ *   }
+ * }
+ * }</pre>
+ *
+ * @see Promise#hedge(HedgePolicy)
+ * @since 2.0
+ */
+public interface HedgePolicy {
+
+  /**
+   * Builds a new hedge policy from the given definition.
+   *
+   * @param definition the hedge policy definition
+   * @return a hedge policy
+   * @throws Exception any thrown by building the hedge policy
+   */
+  static HedgePolicy of(Action<? super HedgePolicyBuilder> definition) throws Exception {
+    return definition.with(new DefaultHedgePolicyBuilder()).build();
+  }
+
+  /**
+   * The maximum number of attempts for a single subscription, including the initial attempt.
+   *
+   * @return the maximum number of attempts
+   */
+  int maxAttempts();
+
+  /**
+   * How long to wait for an attempt to succeed before starting another.
+   *
+   * @return how long to wait before starting another attempt
+   */
+  Duration delay();
+
+  /**
+   * Called when a hedged promise is subscribed to, before its initial attempt is started.
+   */
+  void onSubscribe();
+
+  /**
+   * Called when an attempt is due to be started after the initial attempt, to determine whether it should be.
+   * <p>
+   * This is used to limit how many operations are hedged, so that hedging does not amplify load on a struggling service.
+   * An implementation that returns {@code true} may assume that an attempt is started.
+   *
+   * @return whether the attempt should be started
+   */
+  boolean tryHedge();
+
+  /**
+   * Called when an attempt succeeds, with the time it took.
+   * <p>
+   * This is called for all successful attempts, including those that complete after another attempt succeeded.
+   *
+   * @param latency the time the attempt took
+   */
+  void onSuccess(Duration latency);
+
+}
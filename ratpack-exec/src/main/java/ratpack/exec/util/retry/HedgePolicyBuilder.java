@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util.retry;
+
+import ratpack.func.Action;
+
+import java.time.Duration;
+
+/**
+ * Builds a {@link HedgePolicy}.
+ *
+ * @see HedgePolicy#of(Action)
+ * @since 2.0
+ */
+public interface HedgePolicyBuilder {
+
+  /**
+   * By default, another attempt is started if the previous has not succeeded after 100 milliseconds.
+   */
+  Duration DEFAULT_DELAY = Duration.ofMillis(100);
+
+  /**
+   * By default, at most one additional attempt is started.
+   */
+  int DEFAULT_MAX_ATTEMPTS = 2;
+
+  /**
+   * By default, at most 10% of subscriptions start additional attempts.
+   */
+  double DEFAULT_MAX_HEDGE_RATIO = 0.1;
+
+  /**
+   * By default, the latency percentile is derived from the 1000 most recent successful attempts.
+   */
+  int DEFAULT_SAMPLE_SIZE = 1000;
+
+  /**
+   * Builds a {@link HedgePolicy}.
+   *
+   * @return a hedge policy
+   */
+  HedgePolicy build();
+
+  /**
+   * A fixed delay before starting another attempt.
+   * <p>
+   * If a {@link #percentile(double) percentile} is also specified, this is the delay until enough latencies have been observed.
+   *
+   * @param delay the delay before starting another attempt
+   * @return this
+   */
+  HedgePolicyBuilder delay(Duration delay);
+
+  /**
+   * Derive the delay before starting another attempt from the given percentile of observed latencies of successful attempts.
+   * <p>
+   * For example, a value of {@code 95} starts another attempt when an attempt has taken longer than 95% of recent successful attempts.
+   * Until a tenth of the {@link #sampleSize(int) sample size} have been observed, the {@link #delay(Duration) fixed delay} is used.
+   *
+   * @param percentile the percentile of latencies, greater than 0 and less than 100
+   * @return this
+   */
+  HedgePolicyBuilder percentile(double percentile);
+
+  /**
+   * The number of most recent latencies that the {@link #percentile(double) percentile} is derived from.
+   *
+   * @param sampleSize the number of recent latencies to retain
+   * @return this
+   */
+  HedgePolicyBuilder sampleSize(int sampleSize);
+
+  /**
+   * The maximum number of attempts for a single subscription, including the initial attempt.
+   *
+   * @param maxAttempts the maximum number of attempts
+   * @return this
+   */
+  HedgePolicyBuilder maxAttempts(int maxAttempts);
+
+  /**
+   * The maximum ratio of additional attempts to subscriptions.
+   * <p>
+   * Each subscription earns this fraction of an additional attempt, and up to 10 unused additional attempts may be accrued to absorb bursts.
+   * The policy starts with 10 additional attempts available.
+   * When none are available, no additional attempts are started, and subscriptions wait for their initial attempt.
+   * This stops hedging from amplifying load when all operations are slow, such as when the service being called is overloaded.
+   *
+   * @param maxHedgeRatio the maximum ratio of additional attempts to subscriptions
+   * @return this
+   */
+  HedgePolicyBuilder maxHedgeRatio(double maxHedgeRatio);
+
+}
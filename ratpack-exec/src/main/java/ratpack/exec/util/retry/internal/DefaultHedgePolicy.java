@@ -0,0 +1,95 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util.retry.internal;
+
+import ratpack.exec.util.retry.HedgePolicy;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+public class DefaultHedgePolicy implements HedgePolicy {
+
+  private static final double MAX_HEDGE_TOKENS = 10;
+
+  private final Duration fixedDelay;
+  private final double percentile;
+  private final int maxAttempts;
+  private final double maxHedgeRatio;
+
+  // guarded by this
+  private final long[] samples;
+  private long sampleCount;
+  private long computedAt;
+  private Duration percentileDelay;
+  private double hedgeTokens = MAX_HEDGE_TOKENS;
+
+  public DefaultHedgePolicy(Duration fixedDelay, double percentile, int sampleSize, int maxAttempts, double maxHedgeRatio) {
+    this.fixedDelay = fixedDelay;
+    this.percentile = percentile;
+    this.maxAttempts = maxAttempts;
+    this.maxHedgeRatio = maxHedgeRatio;
+    this.samples = percentile > 0 ? new long[sampleSize] : null;
+  }
+
+  @Override
+  public int maxAttempts() {
+    return maxAttempts;
+  }
+
+  @Override
+  public synchronized Duration delay() {
+    if (samples == null) {
+      return fixedDelay;
+    }
+    long recomputeEvery = Math.max(1, samples.length / 10);
+    if (sampleCount < recomputeEvery) {
+      return fixedDelay;
+    }
+    if (percentileDelay == null || sampleCount - computedAt >= recomputeEvery) {
+      int n = (int) Math.min(sampleCount, samples.length);
+      long[] sorted = Arrays.copyOf(samples, n);
+      Arrays.sort(sorted);
+      int index = (int) Math.ceil(percentile / 100 * n) - 1;
+      percentileDelay = Duration.ofNanos(sorted[Math.max(0, index)]);
+      computedAt = sampleCount;
+    }
+    return percentileDelay;
+  }
+
+  @Override
+  public synchronized void onSubscribe() {
+    hedgeTokens = Math.min(MAX_HEDGE_TOKENS, hedgeTokens + maxHedgeRatio);
+  }
+
+  @Override
+  public synchronized boolean tryHedge() {
+    if (hedgeTokens >= 1) {
+      hedgeTokens -= 1;
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public synchronized void onSuccess(Duration latency) {
+    if (samples != null) {
+      samples[(int) (sampleCount++ % samples.length)] = latency.toNanos();
+    }
+  }
+
+}
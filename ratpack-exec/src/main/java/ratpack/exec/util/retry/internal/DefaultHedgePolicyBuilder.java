@@ -0,0 +1,73 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util.retry.internal;
+
+import com.google.common.base.Preconditions;
+import ratpack.exec.util.retry.HedgePolicy;
+import ratpack.exec.util.retry.HedgePolicyBuilder;
+
+import java.time.Duration;
+
+public class DefaultHedgePolicyBuilder implements HedgePolicyBuilder {
+
+  private Duration delay = DEFAULT_DELAY;
+  private double percentile;
+  private int sampleSize = DEFAULT_SAMPLE_SIZE;
+  private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+  private double maxHedgeRatio = DEFAULT_MAX_HEDGE_RATIO;
+
+  @Override
+  public HedgePolicyBuilder delay(Duration delay) {
+    Preconditions.checkArgument(!delay.isNegative(), "delay must not be negative");
+    this.delay = delay;
+    return this;
+  }
+
+  @Override
+  public HedgePolicyBuilder percentile(double percentile) {
+    Preconditions.checkArgument(percentile > 0 && percentile < 100, "percentile must be > 0 and < 100");
+    this.percentile = percentile;
+    return this;
+  }
+
+  @Override
+  public HedgePolicyBuilder sampleSize(int sampleSize) {
+    Preconditions.checkArgument(sampleSize > 0, "sampleSize must be > 0");
+    this.sampleSize = sampleSize;
+    return this;
+  }
+
+  @Override
+  public HedgePolicyBuilder maxAttempts(int maxAttempts) {
+    Preconditions.checkArgument(maxAttempts > 0, "maxAttempts must be > 0");
+    this.maxAttempts = maxAttempts;
+    return this;
+  }
+
+  @Override
+  public HedgePolicyBuilder maxHedgeRatio(double maxHedgeRatio) {
+    Preconditions.checkArgument(maxHedgeRatio >= 0, "maxHedgeRatio must be >= 0");
+    this.maxHedgeRatio = maxHedgeRatio;
+    return this;
+  }
+
+  @Override
+  public HedgePolicy build() {
+    return new DefaultHedgePolicy(delay, percentile, sampleSize, maxAttempts, maxHedgeRatio);
+  }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec
+
+import ratpack.func.Action
+import ratpack.test.exec.ExecHarness
+import ratpack.test.exec.internal.DefaultExecHarness
+import ratpack.test.internal.BaseRatpackSpec
+import spock.lang.AutoCleanup
+import spock.util.concurrent.PollingConditions
+
+/**
+ * For specs of exec controller features that need a differently configured controller per feature.
+ */
+abstract class BaseExecControllerSpec extends BaseRatpackSpec {
+
+  @AutoCleanup
+  ExecHarness harness
+
+  PollingConditions polling = new PollingConditions(timeout: 5)
+
+  void createHarness(Action<? super ExecControllerSpec> spec = Action.noop()) {
+    def builder = ExecController.builder()
+    spec.execute(builder)
+    harness = new DefaultExecHarness(builder.build())
+  }
+
+  ExecController getController() {
+    harness.controller
+  }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec
+
+import ratpack.exec.internal.ExecThreadBinding
+import ratpack.exec.util.ParallelBatch
+import ratpack.func.Action
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.RejectedExecutionException
+
+class BlockingBulkheadSpec extends BaseExecControllerSpec {
+
+  Bulkhead getBulkhead() {
+    harness.controller.getBulkhead("test").get()
+  }
+
+  def "operations are performed on bulkhead threads bound to the exec controller"() {
+    given:
+    createHarness { it.bulkhead("test", Action.noop()) }
+
+    when:
+    def result = harness.yield {
+      Blocking.bulkhead("test").get { [Thread.currentThread().name, ExecThreadBinding.require()] }
+    }.valueOrThrow
+
+    then:
+    result[0].startsWith("ratpack-blocking-test-")
+    !result[1].compute
+    result[1].execController.is(harness.controller)
+  }
+
+  def "rejects operations when threads are busy and queue is full"() {
+    given:
+    createHarness { it.bulkhead("test") { it.maxThreads(1).maxQueued(1) } }
+    def latch = new CountDownLatch(1)
+    def results = new ConcurrentLinkedQueue<ExecResult<Integer>>()
+
+    when:
+    (1..3).each { i ->
+      harness.fork().start {
+        Blocking.bulkhead("test").get { latch.await(); i }.result { results << it }
+      }
+    }
+
+    then:
+    polling.eventually {
+      assert bulkhead.rejectedCount == 1
+      assert results.size() == 1
+    }
+    results.peek().throwable instanceof RejectedExecutionException
+
+    when:
+    latch.countDown()
+
+    then:
+    polling.eventually {
+      assert results.size() == 3
+    }
+    results.count { it.success } == 2
+
+    cleanup:
+    latch.countDown()
+  }
+
+  def "can perform rejected operations on the blocking executor"() {
+    given:
+    createHarness { it.bulkhead("test") { it.maxThreads(1).rejectionPolicy(BulkheadSpec.RejectionPolicy.USE_BLOCKING_EXECUTOR) } }
+
+    when:
+    def threads = harness.yield {
+      ParallelBatch.of((1..3).collect {
+        Blocking.bulkhead("test").get { sleep 100; Thread.currentThread().name }
+      }).yield()
+    }.valueOrThrow
+
+    then:
+    threads.count { it.startsWith("ratpack-blocking-test-") } == 1
+    bulkhead.rejectedCount == 2
+  }
+
+  def "reports active count and queue depth"() {
+    given:
+    createHarness { it.bulkhead("test") { it.maxThreads(1).maxQueued(5) } }
+    def started = new CountDownLatch(1)
+    def latch = new CountDownLatch(1)
+
+    when:
+    (1..3).each {
+      harness.fork().start {
+        Blocking.bulkhead("test").op { started.countDown(); latch.await() }.then()
+      }
+    }
+    started.await()
+
+    then:
+    polling.eventually {
+      assert bulkhead.activeCount == 1
+      assert bulkhead.queueDepth == 2
+    }
+
+    cleanup:
+    latch.countDown()
+  }
+
+  def "fails if bulkhead is not defined"() {
+    given:
+    createHarness { it.bulkhead("test", Action.noop()) }
+
+    when:
+    harness.yield { Blocking.bulkhead("other").get { 1 } }.valueOrThrow
+
+    then:
+    thrown IllegalArgumentException
+  }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec
+
+import ratpack.test.internal.BaseRatpackSpec
+
+import java.util.concurrent.ConcurrentHashMap
+
+class ComputeThreadsSpec extends BaseRatpackSpec {
+
+  def "event loop group is sized by the number of threads"() {
+    when:
+    def controller = ExecController.builder().numThreads(3).build()
+
+    then:
+    controller.numThreads == 3
+    controller.eventLoopGroup.iterator().size() == 3
+
+    cleanup:
+    controller?.close()
+  }
+
+  def "compute threads are initialized with their index"() {
+    given:
+    def indexes = ConcurrentHashMap.newKeySet()
+    def controller = ExecController.builder()
+      .numThreads(2)
+      .computeThreadInitializer { indexes << it }
+      .build()
+
+    when:
+    controller.eventLoopGroup.each { it.submit {}.get() }
+
+    then:
+    indexes == [0, 1] as Set
+
+    cleanup:
+    controller?.close()
+  }
+
+}
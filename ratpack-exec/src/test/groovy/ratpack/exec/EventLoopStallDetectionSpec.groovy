@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec
+
+import ratpack.func.Action
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+
+class EventLoopStallDetectionSpec extends BaseExecControllerSpec {
+
+  def "reports stalled compute threads"() {
+    given:
+    def stalls = new CompletableFuture<EventLoopStall>()
+    createHarness { it.numThreads(1).stallDetection { it.interval(Duration.ofMillis(10)).threshold(Duration.ofMillis(50)).onStall(stalls.&complete) } }
+    def execution = new CompletableFuture<ExecutionRef>()
+
+    when:
+    controller.fork().start {
+      execution.complete(it.ref)
+      sleep 300
+    }
+    def stall = stalls.get(5, TimeUnit.SECONDS)
+
+    then:
+    stall.thread.name.startsWith("ratpack-compute-")
+    stall.duration >= Duration.ofMillis(50)
+    stall.stackTrace.any { it.methodName == "sleep" }
+    stall.execution.get().is(execution.get())
+  }
+
+  def "records lag of heartbeats"() {
+    given:
+    createHarness { it.numThreads(1).stallDetection { it.interval(Duration.ofMillis(10)).threshold(Duration.ofMillis(50)).onStall(Action.noop()) } }
+    def lag = controller.eventLoopLag.get()
+
+    when:
+    controller.fork().start { sleep 200 }
+    polling.eventually {
+      assert lag.stallCount == 1
+      assert lag.max >= Duration.ofMillis(150)
+    }
+
+    then:
+    lag.count > 1
+    lag.getPercentile(1) == lag.max
+    lag.getPercentile(0.01) < Duration.ofMillis(50)
+  }
+
+  def "lag is not available if stall detection is not enabled"() {
+    when:
+    createHarness()
+
+    then:
+    !controller.eventLoopLag.present
+  }
+
+  def "rejects invalid configuration"() {
+    when:
+    createHarness { it.numThreads(1).stallDetection { it.threshold(Duration.ZERO) } }
+
+    then:
+    thrown IllegalArgumentException
+  }
+
+}
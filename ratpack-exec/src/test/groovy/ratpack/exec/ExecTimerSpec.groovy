@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec
+
+import ratpack.exec.util.Promised
+import ratpack.exec.util.ReadWriteAccess
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+
+class ExecTimerSpec extends BaseExecControllerSpec {
+
+  Duration timeSleep(Duration duration) {
+    def result = new CompletableFuture<Duration>()
+    controller.fork().start {
+      def start = System.nanoTime()
+      Execution.sleep(duration) {
+        assert Execution.isComputeThread()
+        result.complete(Duration.ofNanos(System.nanoTime() - start))
+      }
+    }
+    result.get(5, TimeUnit.SECONDS)
+  }
+
+  // the wheel only fires at tick boundaries, so a delay much shorter than the tick measurably rounds up to it when on the wheel
+  def "long sleeps are scheduled on the wheel"() {
+    given:
+    createHarness { it.timer { it.tick(Duration.ofMillis(300)).threshold(Duration.ofMillis(50)) } }
+
+    expect:
+    timeSleep(Duration.ofMillis(60)) >= Duration.ofMillis(250)
+  }
+
+  def "short sleeps are scheduled precisely"() {
+    given:
+    createHarness { it.timer { it.tick(Duration.ofMillis(300)).threshold(Duration.ofMillis(100)) } }
+
+    expect:
+    timeSleep(Duration.ofMillis(60)) < Duration.ofMillis(250)
+  }
+
+  def "sleeps are scheduled precisely without a timer"() {
+    given:
+    createHarness()
+
+    expect:
+    timeSleep(Duration.ofMillis(60)) < Duration.ofMillis(250)
+  }
+
+  def "access timeouts are scheduled on the wheel"() {
+    given:
+    createHarness { it.numThreads(1).timer { it.tick(Duration.ofMillis(300)).threshold(Duration.ofMillis(10)) } }
+    def access = ReadWriteAccess.create(Duration.ofMillis(50))
+    def held = new Promised<Void>()
+    def result = new CompletableFuture<Throwable>()
+    long start = 0
+
+    when:
+    controller.fork().start { access.write(held.promise()).then {} }
+    controller.fork().start {
+      start = System.nanoTime()
+      access.read(Promise.value(1)).onError { result.complete(it); held.success(null) }.then {}
+    }
+
+    then:
+    result.get(5, TimeUnit.SECONDS) instanceof ReadWriteAccess.TimeoutException
+    Duration.ofNanos(System.nanoTime() - start) >= Duration.ofMillis(250)
+  }
+
+  def "rejects invalid tick"() {
+    when:
+    createHarness { it.timer { it.tick(Duration.ZERO) } }
+
+    then:
+    thrown IllegalArgumentException
+  }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec
+
+import ratpack.test.exec.ExecHarness
+import ratpack.test.internal.BaseRatpackSpec
+import spock.lang.AutoCleanup
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+
+class ExecutionTimingInterceptorSpec extends BaseRatpackSpec {
+
+  @AutoCleanup
+  ExecHarness harness = ExecHarness.harness()
+
+  PollingConditions polling = new PollingConditions(timeout: 5)
+
+  def "records compute and blocking segments"() {
+    given:
+    ExecutionTiming timing
+
+    when:
+    harness.run({ it.add(ExecutionTimingInterceptor.instance()) }) {
+      timing = Execution.current().timing.get()
+      Blocking.get { sleep 100; "foo" }
+        .then { sleep 50 }
+    }
+
+    then:
+    polling.eventually {
+      assert timing.computeSegmentCount == 2
+    }
+    timing.computeTime >= Duration.ofMillis(50)
+    timing.blockingSegmentCount == 1
+    timing.blockingTime >= Duration.ofMillis(100)
+  }
+
+  def "records allocation when supported"() {
+    given:
+    ExecutionTiming timing
+
+    when:
+    harness.run({ it.add(ExecutionTimingInterceptor.instance()) }) {
+      timing = Execution.current().timing.get()
+      def bytes = new byte[1024 * 1024]
+      assert bytes.length == 1024 * 1024
+    }
+
+    then:
+    polling.eventually {
+      assert timing.computeSegmentCount == 1
+    }
+    timing.allocatedBytes.map { it >= 1024 * 1024 }.orElse(true)
+    timing.cpuTime.map { !it.negative }.orElse(true)
+  }
+
+  def "timing is not available if not recorded"() {
+    expect:
+    !harness.yield { Promise.value(Execution.current().timing) }.valueOrThrow.present
+  }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec
+
+import ratpack.exec.util.retry.HedgePolicy
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+
+class PromiseHedgeSpec extends BaseExecutionSpec {
+
+  def polling = new PollingConditions(timeout: 5)
+  def calls = new AtomicInteger()
+
+  Promise<String> call(Closure<Duration> latency) {
+    Promise.sync { calls.incrementAndGet() }
+      .flatMap { i -> Promise.value("call $i".toString()).defer(latency(i)) }
+  }
+
+  def "does not hedge if the first attempt succeeds within the delay"() {
+    given:
+    def policy = HedgePolicy.of { it.delay(Duration.ofMillis(200)) }
+
+    when:
+    def result = execHarness.yield { call { Duration.ofMillis(10) }.hedge(policy) }.valueOrThrow
+
+    then:
+    result == "call 1"
+    calls.get() == 1
+  }
+
+  def "uses the first attempt to succeed"() {
+    given:
+    def policy = HedgePolicy.of { it.delay(Duration.ofMillis(50)) }
+
+    when:
+    def result = execHarness.yield {
+      call { it == 1 ? Duration.ofSeconds(2) : Duration.ofMillis(10) }.hedge(policy)
+    }.valueOrThrow
+
+    then:
+    result == "call 2"
+    calls.get() == 2
+  }
+
+  def "starts no more than the maximum attempts"() {
+    given:
+    def policy = HedgePolicy.of { it.delay(Duration.ofMillis(10)).maxAttempts(3) }
+
+    when:
+    def result = execHarness.yield { call { Duration.ofMillis(300) }.hedge(policy) }.valueOrThrow
+
+    then:
+    result == "call 1"
+    calls.get() == 3
+  }
+
+  def "fails with all errors when all attempts fail"() {
+    given:
+    def policy = HedgePolicy.of { it.delay(Duration.ofMillis(10)).maxAttempts(3) }
+
+    when:
+    def error = execHarness.yield {
+      Promise.sync { calls.incrementAndGet() }
+        .flatMap { i -> Promise.<String> error(new IllegalStateException("$i")).defer(Duration.ofMillis(100)) }
+        .hedge(policy)
+    }.throwable
+
+    then:
+    error instanceof IllegalStateException
+    error.message == "1"
+    error.suppressed*.message.sort() == ["2", "3"]
+  }
+
+  def "limits the ratio of hedged subscriptions"() {
+    given:
+    def policy = HedgePolicy.of { it.delay(Duration.ofMillis(5)).maxHedgeRatio(0) }
+
+    when:
+    15.times {
+      execHarness.yield { call { Duration.ofMillis(30) }.hedge(policy) }.valueOrThrow
+    }
+
+    then:
+    polling.eventually {
+      // 10 hedges are initially available
+      assert calls.get() == 25
+    }
+  }
+
+  def "derives the delay from observed latencies"() {
+    given:
+    def policy = HedgePolicy.of { it.delay(Duration.ofSeconds(10)).percentile(50).sampleSize(20) }
+
+    expect:
+    policy.delay() == Duration.ofSeconds(10)
+
+    when:
+    10.times { i ->
+      execHarness.yield { Promise.value(i).defer(Duration.ofMillis(10 + i)).hedge(policy) }.valueOrThrow
+    }
+
+    then:
+    policy.delay() >= Duration.ofMillis(10)
+    policy.delay() < Duration.ofSeconds(1)
+  }
+
+}
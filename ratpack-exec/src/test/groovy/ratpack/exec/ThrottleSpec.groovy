@@ -17,14 +17,18 @@
 package ratpack.exec
 
 import ratpack.exec.util.ParallelBatch
+import ratpack.func.Action
 import ratpack.test.exec.ExecHarness
 import ratpack.test.internal.BaseRatpackSpec
 import spock.lang.AutoCleanup
 import spock.util.concurrent.PollingConditions
 
+import java.time.Duration
 import java.util.concurrent.ConcurrentLinkedQueue
 import java.util.concurrent.CountDownLatch
 import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
 
 class ThrottleSpec extends BaseRatpackSpec {
 
@@ -150,4 +154,105 @@ class ThrottleSpec extends BaseRatpackSpec {
     then:
     results == (0..10) + ([null] * 89)
   }
+
+  def "adaptive throttle limits concurrency to its initial limit"() {
+    given:
+    def q = new LinkedBlockingQueue<Downstream<Integer>>()
+    def t = Throttle.adaptive { it.initialLimit(3) }
+
+    when:
+    10.times {
+      execHarness.fork().start { Promise.async { q << it }.throttled(t).then {} }
+    }
+
+    then:
+    polling.eventually {
+      q.size() == 3
+      t.active == 3
+      t.waiting == 7
+    }
+
+    when:
+    10.times { q.take().success(1) }
+
+    then:
+    polling.eventually {
+      t.active == 0
+      t.waiting == 0
+    }
+  }
+
+  def "adaptive throttle rejects promises when too many are waiting"() {
+    given:
+    def t = Throttle.adaptive { it.initialLimit(2).maxLimit(2).maxWaiting(3) }
+    def promises = (1..10).collect { Promise.value(it).defer(Duration.ofMillis(100)).throttled(t) }
+
+    when:
+    def results = execHarness.yield { ParallelBatch.of(promises).yieldAll() }.valueOrThrow
+
+    then:
+    results.count { it.success } == 5
+    results.findAll { it.error }*.throwable.every { it instanceof RejectedExecutionException }
+    t.active == 0
+    t.waiting == 0
+  }
+
+  def "adaptive throttle reduces its limit when round trip times increase"() {
+    given:
+    def t = Throttle.adaptive { it.initialLimit(10).minLimit(2) }
+    def run = { Closure<Promise<Integer>> promise ->
+      execHarness.yield { ParallelBatch.of((1..100).collect { promise(it).throttled(t) }).yield() }.valueOrThrow
+    }
+
+    when:
+    run { Promise.value(it) }
+
+    then:
+    t.size == 10
+
+    when:
+    run { Promise.value(it).defer(Duration.ofMillis(20)) }
+
+    then:
+    t.size < 10
+    t.size >= 2
+    t.active == 0
+  }
+
+  def "adaptive throttle completes all promises when contended across event loops"() {
+    given:
+    def t = Throttle.adaptive { it.initialLimit(1).minLimit(1).maxLimit(1) }
+    def n = 10_000
+    def latch = new CountDownLatch(n)
+
+    when:
+    n.times { i ->
+      execHarness.fork().start {
+        Blocking.get { i }.throttled(t).then { latch.countDown() }
+      }
+    }
+
+    then:
+    latch.await(20, TimeUnit.SECONDS)
+    polling.eventually {
+      t.active == 0
+      t.waiting == 0
+    }
+  }
+
+  def "adaptive throttle spec is validated"() {
+    when:
+    Throttle.adaptive(spec)
+
+    then:
+    thrown IllegalArgumentException
+
+    where:
+    spec << [
+      { it.minLimit(0) } as Action,
+      { it.minLimit(10).maxLimit(5) } as Action,
+      { it.rttTolerance(0.5) } as Action,
+      { it.smoothing(0) } as Action,
+    ]
+  }
 }
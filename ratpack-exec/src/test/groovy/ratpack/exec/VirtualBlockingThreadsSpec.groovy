@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec
+
+import ratpack.exec.internal.ExecThreadBinding
+import ratpack.exec.util.ParallelBatch
+import spock.lang.Requires
+
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+
+class VirtualBlockingThreadsSpec extends BaseExecControllerSpec {
+
+  def "blocking tasks are bound to the exec controller"() {
+    given:
+    createHarness { it.virtualBlockingThreads() }
+
+    when:
+    def binding = harness.yield { Blocking.get { ExecThreadBinding.require() } }.valueOrThrow
+
+    then:
+    !binding.compute
+    binding.execController.is(harness.controller)
+  }
+
+  @Requires({ jvm.isJavaVersionCompatible(21) })
+  def "blocking tasks execute on virtual threads"() {
+    given:
+    createHarness { it.virtualBlockingThreads() }
+
+    when:
+    def thread = harness.yield { Blocking.get { Thread.currentThread() } }.valueOrThrow
+
+    then:
+    thread.virtual
+    thread.name.startsWith("ratpack-blocking-virtual-")
+  }
+
+  @Requires({ jvm.isJavaVersionCompatible(21) })
+  def "limits the number of concurrent blocking tasks"() {
+    given:
+    createHarness { it.virtualBlockingThreads { it.maxConcurrency(2) } }
+    def active = new AtomicInteger()
+    def maxActive = new AtomicInteger()
+    def promises = (1..10).collect {
+      Blocking.get {
+        maxActive.accumulateAndGet(active.incrementAndGet(), Math.&max)
+        sleep 50
+        active.decrementAndGet()
+      }
+    }
+
+    when:
+    harness.yield { ParallelBatch.of(promises).yield() }.valueOrThrow
+
+    then:
+    maxActive.get() <= 2
+  }
+
+  @Requires({ jvm.isJavaVersionCompatible(21) })
+  def "can report pinning"() {
+    given:
+    createHarness { it.virtualBlockingThreads { it.reportPinning(Duration.ofMillis(10)) } }
+    def monitor = new Object()
+
+    expect:
+    harness.yield {
+      Blocking.get {
+        synchronized (monitor) {
+          sleep 50
+        }
+        1
+      }
+    }.valueOrThrow == 1
+  }
+
+}
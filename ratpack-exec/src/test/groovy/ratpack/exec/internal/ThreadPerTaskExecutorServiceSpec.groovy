@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal
+
+import ratpack.test.internal.BaseRatpackSpec
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class ThreadPerTaskExecutorServiceSpec extends BaseRatpackSpec {
+
+  def "runs each task on a new thread"() {
+    given:
+    def executor = new ThreadPerTaskExecutorService({ new Thread(it) }, Integer.MAX_VALUE)
+    def threads = [].asSynchronized()
+    def latch = new CountDownLatch(3)
+
+    when:
+    3.times { executor.execute { threads << Thread.currentThread(); latch.countDown() } }
+    latch.await()
+
+    then:
+    threads.toSet().size() == 3
+
+    cleanup:
+    executor.shutdown()
+  }
+
+  def "limits the number of concurrent tasks"() {
+    given:
+    def executor = new ThreadPerTaskExecutorService({ new Thread(it) }, 2)
+    def active = new AtomicInteger()
+    def maxActive = new AtomicInteger()
+    def latch = new CountDownLatch(10)
+
+    when:
+    10.times {
+      executor.execute {
+        maxActive.accumulateAndGet(active.incrementAndGet(), Math.&max)
+        sleep 20
+        active.decrementAndGet()
+        latch.countDown()
+      }
+    }
+    latch.await()
+
+    then:
+    maxActive.get() == 2
+
+    cleanup:
+    executor.shutdown()
+  }
+
+  def "terminates once shut down and all tasks complete"() {
+    given:
+    def executor = new ThreadPerTaskExecutorService({ new Thread(it) }, 1)
+    def release = new CountDownLatch(1)
+    executor.execute { release.await() }
+    executor.execute { }
+
+    when:
+    executor.shutdown()
+
+    then:
+    executor.shutdown
+    !executor.terminated
+
+    when:
+    executor.execute { }
+
+    then:
+    thrown RejectedExecutionException
+
+    when:
+    release.countDown()
+
+    then:
+    executor.awaitTermination(5, TimeUnit.SECONDS)
+    executor.terminated
+  }
+
+}
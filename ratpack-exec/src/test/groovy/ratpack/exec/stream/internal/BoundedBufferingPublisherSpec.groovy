@@ -0,0 +1,232 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.stream.internal
+
+import org.reactivestreams.Publisher
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
+import ratpack.exec.stream.BufferOverflowException
+import ratpack.exec.stream.BufferSpec.OverflowStrategy
+import ratpack.exec.stream.Streams
+import ratpack.test.internal.BaseRatpackSpec
+
+import java.util.concurrent.ConcurrentLinkedQueue
+
+class BoundedBufferingPublisherSpec extends BaseRatpackSpec {
+
+  Subscriber<? super Integer> upstream
+  long requested
+  boolean cancelled
+  def disposed = new ConcurrentLinkedQueue()
+
+  def source = new Publisher<Integer>() {
+    @Override
+    void subscribe(Subscriber<? super Integer> s) {
+      upstream = s
+      s.onSubscribe(new Subscription() {
+        @Override
+        void request(long n) {
+          requested += n
+        }
+
+        @Override
+        void cancel() {
+          cancelled = true
+        }
+      })
+    }
+  }
+
+  def subscriber = new CollectingSubscriber<Integer>()
+
+  def buffer(OverflowStrategy strategy) {
+    Streams.buffer(source) { it.capacity(3).overflow(strategy).disposer(disposed.&add) }
+  }
+
+  void emit(Iterable<Integer> items) {
+    items.each { upstream.onNext(it) }
+  }
+
+  def "requests no more than demand plus capacity with backpressure"() {
+    when:
+    buffer(OverflowStrategy.BACKPRESSURE).subscribe(subscriber)
+
+    then:
+    requested == 0
+
+    when:
+    subscriber.subscription.request(1)
+
+    then:
+    requested == 4
+
+    when:
+    emit(1..4)
+
+    then:
+    subscriber.received == [1]
+    requested == 4
+
+    when:
+    subscriber.subscription.request(2)
+
+    then:
+    subscriber.received == [1, 2, 3]
+    requested == 6
+  }
+
+  def "overflow strategy #strategy"() {
+    given:
+    def p = buffer(strategy)
+
+    when:
+    p.subscribe(subscriber)
+    subscriber.subscription.request(1)
+
+    then:
+    requested == Long.MAX_VALUE
+
+    when:
+    emit(1..8)
+    subscriber.subscription.request(10)
+    upstream.onComplete()
+
+    then:
+    subscriber.received == received
+    disposed.toList() == dropped
+    p.droppedCount == dropped.size()
+    subscriber.complete
+
+    where:
+    strategy                    | received        | dropped
+    OverflowStrategy.DROP_OLDEST | [1, 6, 7, 8]    | [2, 3, 4, 5]
+    OverflowStrategy.DROP_NEWEST | [1, 2, 3, 4]    | [5, 6, 7, 8]
+    OverflowStrategy.KEEP_LATEST | [1, 8]          | [2, 3, 4, 5, 6, 7]
+  }
+
+  def "error overflow strategy fails the stream"() {
+    given:
+    def p = buffer(OverflowStrategy.ERROR)
+
+    when:
+    p.subscribe(subscriber)
+    subscriber.subscription.request(1)
+    emit(1..5)
+
+    then:
+    subscriber.received == [1]
+    subscriber.error instanceof BufferOverflowException
+    cancelled
+    disposed.toList() == [5, 2, 3, 4]
+    p.droppedCount == 1
+  }
+
+  def "bounded by weight"() {
+    given:
+    def p = Streams.buffer(source) {
+      it.capacity(10).maxWeight(5, { it.longValue() }).overflow(OverflowStrategy.DROP_OLDEST)
+    }
+
+    when:
+    p.subscribe(subscriber)
+    subscriber.subscription.request(1)
+    emit([1, 2, 2, 1, 3])
+    subscriber.subscription.request(10)
+
+    then:
+    subscriber.received == [1, 1, 3]
+    p.droppedCount == 2
+  }
+
+  def "requests items beyond demand one at a time when bounded by weight with backpressure"() {
+    given:
+    def p = Streams.buffer(source) {
+      it.capacity(10).maxWeight(5, { it.longValue() }).overflow(OverflowStrategy.BACKPRESSURE)
+    }
+
+    when:
+    p.subscribe(subscriber)
+    subscriber.subscription.request(2)
+
+    then:
+    requested == 2
+
+    when:
+    emit([1, 1])
+
+    then:
+    subscriber.received == [1, 1]
+    requested == 3
+
+    when:
+    emit([3])
+
+    then:
+    requested == 4
+
+    when:
+    emit([4])
+
+    then:
+    requested == 4
+
+    when:
+    subscriber.subscription.request(2)
+
+    then:
+    subscriber.received == [1, 1, 3, 4]
+    requested == 5
+  }
+
+  def "buffered are disposed of when cancelled"() {
+    when:
+    buffer(OverflowStrategy.BACKPRESSURE).subscribe(subscriber)
+    subscriber.subscription.request(1)
+    emit(1..3)
+    subscriber.subscription.cancel()
+
+    then:
+    subscriber.received == [1]
+    disposed.toList() == [2, 3]
+    cancelled
+  }
+
+  def "buffered are disposed of on error"() {
+    given:
+    def exception = new RuntimeException("!")
+
+    when:
+    buffer(OverflowStrategy.BACKPRESSURE).subscribe(subscriber)
+    subscriber.subscription.request(1)
+    emit(1..3)
+    upstream.onError(exception)
+
+    then:
+    subscriber.received == [1]
+    subscriber.error == exception
+    disposed.toList() == [2, 3]
+  }
+
+  def "invalid capacity is rejected"() {
+    when:
+    Streams.buffer(source) { it.capacity(0) }
+
+    then:
+    thrown IllegalArgumentException
+  }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.stream.internal
+
+import ratpack.exec.BaseExecutionSpec
+import ratpack.exec.Promise
+import ratpack.exec.stream.Streams
+import ratpack.func.Action
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+
+class ConcurrentFlatMapPublisherSpec extends BaseExecutionSpec {
+
+  def polling = new PollingConditions(timeout: 5)
+
+  def "limits the number of promises in flight"() {
+    given:
+    def max = new MaxAwareCounter()
+
+    when:
+    def result = execHarness.yield {
+      Streams.publish(1..50)
+        .flatMapConcurrent(5, { i ->
+          Promise.sync { max.inc() }
+            .defer(Duration.ofMillis(i % 3))
+            .map { max.dec(); i }
+        }, Action.noop())
+        .toList()
+    }.valueOrThrow
+
+    then:
+    result == (1..50).toList()
+    max.max() > 1
+    max.max() <= 5
+  }
+
+  def "unordered variant emits items as they complete"() {
+    when:
+    def result = execHarness.yield {
+      Streams.publish([3, 1, 2])
+        .flatMapConcurrentUnordered(3, { i -> Promise.value(i).defer(Duration.ofMillis(i * 50)) }, Action.noop())
+        .toList()
+    }.valueOrThrow
+
+    then:
+    result == [1, 2, 3]
+  }
+
+  def "does not request more than demanded from upstream"() {
+    expect:
+    def c = new MaxAwareCounter()
+    execHarness.yield {
+      Streams.yield { c.inc() }
+        .flatMapConcurrent(4, { Promise.value(2).next { c.dec() } }, Action.noop())
+        .take(100)
+        .toList()
+    }.valueOrThrow.size() == 100
+
+    c.max() <= 4
+  }
+
+  def "promises that complete without a value are skipped"() {
+    expect:
+    execHarness.yield {
+      Streams.publish(1..6)
+        .flatMapConcurrent(2, { i -> i % 2 == 0 ? Promise.value(i) : Promise.async { it.complete() } }, Action.noop())
+        .toList()
+    }.valueOrThrow == [2, 4, 6]
+  }
+
+  def "errors are propagated"() {
+    expect:
+    execHarness.yield {
+      Streams.publish(1..10)
+        .flatMapConcurrent(3, { i -> i == 5 ? Promise.error(new Exception("!")) : Promise.value(i) }, Action.noop())
+        .toList()
+    }.throwable.message == "!"
+  }
+
+  def "items produced after cancellation are disposed"() {
+    given:
+    def disposed = new AtomicInteger()
+
+    when:
+    def result = execHarness.yield {
+      Streams.publish(1..10)
+        .flatMapConcurrent(4, { i -> Promise.value(i).defer(Duration.ofMillis(10)) }, { disposed.incrementAndGet() } as Action)
+        .take(2)
+        .toList()
+    }.valueOrThrow
+
+    then:
+    result == [1, 2]
+    polling.eventually {
+      assert disposed.get() > 0
+    }
+  }
+
+}
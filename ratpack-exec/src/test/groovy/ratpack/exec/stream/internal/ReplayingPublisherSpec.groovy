@@ -0,0 +1,207 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.stream.internal
+
+import org.reactivestreams.Publisher
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
+import ratpack.exec.stream.BufferOverflowException
+import ratpack.exec.stream.ReplaySpec.SlowSubscriberStrategy
+import ratpack.exec.stream.Streams
+import ratpack.test.internal.BaseRatpackSpec
+
+import java.time.Duration
+
+class ReplayingPublisherSpec extends BaseRatpackSpec {
+
+  Subscriber<? super Integer> upstream
+  int subscriptions
+
+  def source = new Publisher<Integer>() {
+    @Override
+    void subscribe(Subscriber<? super Integer> s) {
+      upstream = s
+      ++subscriptions
+      s.onSubscribe(new Subscription() {
+        @Override
+        void request(long n) {
+        }
+
+        @Override
+        void cancel() {
+        }
+      })
+    }
+  }
+
+  def subscribe(Publisher<Integer> publisher, long n) {
+    def subscriber = new CollectingSubscriber<Integer>()
+    publisher.subscribe(subscriber)
+    subscriber.subscription.request(n)
+    subscriber
+  }
+
+  void emit(Iterable<Integer> items) {
+    items.each { upstream.onNext(it) }
+  }
+
+  def "replays retained items to late subscribers"() {
+    given:
+    def p = Streams.replay(source) { it.size(3) }
+
+    when:
+    def first = subscribe(p, Long.MAX_VALUE)
+    emit(1..5)
+    def late = subscribe(p, Long.MAX_VALUE)
+    emit(6..7)
+    upstream.onComplete()
+
+    then:
+    subscriptions == 1
+    first.received == (1..7).toList()
+    late.received == (3..7).toList()
+    first.complete
+    late.complete
+  }
+
+  def "subscribers after completion receive retained items and completion"() {
+    given:
+    def p = Streams.replay(source) { it.size(2) }
+
+    when:
+    subscribe(p, 1)
+    emit(1..3)
+    upstream.onComplete()
+    def late = subscribe(p, 10)
+
+    then:
+    late.received == [2, 3]
+    late.complete
+  }
+
+  def "subscribers after error receive retained items and error"() {
+    given:
+    def p = Streams.replay(source) { it.size(2) }
+    def error = new RuntimeException("!")
+
+    when:
+    subscribe(p, 1)
+    emit(1..3)
+    upstream.onError(error)
+    def late = subscribe(p, 10)
+
+    then:
+    late.received == [2, 3]
+    late.error == error
+  }
+
+  def "each subscriber receives items according to its own demand"() {
+    given:
+    def p = Streams.replay(source) { it.size(10) }
+
+    when:
+    def a = subscribe(p, 2)
+    def b = subscribe(p, 4)
+    emit(1..5)
+
+    then:
+    a.received == [1, 2]
+    b.received == [1, 2, 3, 4]
+
+    when:
+    a.subscription.request(1)
+
+    then:
+    a.received == [1, 2, 3]
+  }
+
+  def "slow subscribers skip ahead"() {
+    given:
+    def p = Streams.replay(source) { it.size(3) }
+
+    when:
+    def slow = subscribe(p, 1)
+    emit(1..6)
+    slow.subscription.request(10)
+
+    then:
+    slow.received == [1, 4, 5, 6]
+    slow.error == null
+  }
+
+  def "slow subscribers can be disconnected"() {
+    given:
+    def p = Streams.replay(source) { it.size(3).slowSubscribers(SlowSubscriberStrategy.DISCONNECT) }
+
+    when:
+    def fast = subscribe(p, Long.MAX_VALUE)
+    def slow = subscribe(p, 1)
+    emit(1..6)
+
+    then:
+    fast.received == (1..6).toList()
+    slow.received == [1]
+    slow.error instanceof BufferOverflowException
+  }
+
+  def "items older than the max age are not replayed"() {
+    given:
+    def p = Streams.replay(source) { it.size(10).maxAge(Duration.ofMillis(100)) }
+
+    when:
+    def first = subscribe(p, Long.MAX_VALUE)
+    emit(1..2)
+    sleep 200
+    emit([3])
+    def late = subscribe(p, Long.MAX_VALUE)
+
+    then:
+    first.received == [1, 2, 3]
+    late.received == [3]
+  }
+
+  def "live subscribers without demand do not lose items older than the max age"() {
+    given:
+    def p = Streams.replay(source) { it.size(10).maxAge(Duration.ofMillis(100)) }
+
+    when:
+    def slow = subscribe(p, 1)
+    emit(1..3)
+    sleep 200
+    slow.subscription.request(10)
+
+    then:
+    slow.received == [1, 2, 3]
+    slow.error == null
+  }
+
+  def "live subscribers that fall behind are disconnected regardless of the max age"() {
+    given:
+    def p = Streams.replay(source) { it.size(3).maxAge(Duration.ofMillis(100)).slowSubscribers(SlowSubscriberStrategy.DISCONNECT) }
+
+    when:
+    def slow = subscribe(p, 1)
+    emit(1..2)
+    sleep 200
+    emit(3..5)
+
+    then:
+    slow.received == [1]
+    slow.error instanceof BufferOverflowException
+  }
+
+}
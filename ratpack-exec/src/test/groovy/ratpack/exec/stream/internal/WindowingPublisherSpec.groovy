@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.stream.internal
+
+import ratpack.exec.BaseExecutionSpec
+import ratpack.exec.stream.Streams
+import ratpack.func.Action
+
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+
+class WindowingPublisherSpec extends BaseExecutionSpec {
+
+  def "emits when the maximum size is reached"() {
+    expect:
+    execHarness.yield {
+      Streams.publish(1..7)
+        .window(3, Duration.ofSeconds(10), Action.noop())
+        .toList()
+    }.valueOrThrow == [[1, 2, 3], [4, 5, 6], [7]]
+  }
+
+  def "emits when the maximum duration has passed"() {
+    when:
+    def result = execHarness.yield { e ->
+      Streams.periodically(e.controller.executor, Duration.ofMillis(20)) { it < 10 ? it : null }
+        .window(100, Duration.ofMillis(70), Action.noop())
+        .toList()
+    }.valueOrThrow
+
+    then:
+    result.size() > 1
+    result.flatten() == (0..9).toList()
+  }
+
+  def "emits when the maximum weight is reached"() {
+    expect:
+    execHarness.yield {
+      Streams.publish(["aaaa", "bb", "cc", "dddddd", "e"])
+        .window(10, 5, { it.length().longValue() }, Duration.ofSeconds(10), Action.noop())
+        .toList()
+    }.valueOrThrow == [["aaaa", "bb"], ["cc", "dddddd"], ["e"]]
+  }
+
+  def "does not request more than fits in a window"() {
+    given:
+    def requested = new AtomicInteger()
+
+    when:
+    def result = execHarness.yield {
+      Streams.yield { requested.incrementAndGet(); it.requestNum < 20 ? it.requestNum : null }
+        .window(4, Duration.ofSeconds(10), Action.noop())
+        .take(2)
+        .toList()
+    }.valueOrThrow
+
+    then:
+    result == [[0, 1, 2, 3], [4, 5, 6, 7]]
+    requested.get() == 8
+  }
+
+  def "weigher errors are propagated"() {
+    expect:
+    execHarness.yield {
+      Streams.publish(["a", "b"])
+        .window(10, 5, { throw new Exception("!") }, Duration.ofSeconds(10), Action.noop())
+        .toList()
+    }.throwable.message == "!"
+  }
+
+  def "items received but not emitted are disposed on cancel"() {
+    given:
+    def disposed = [].asSynchronized()
+
+    when:
+    def result = execHarness.yield {
+      Streams.publish(1..7)
+        .window(3, Duration.ofSeconds(10), { disposed << it } as Action)
+        .take(1)
+        .toList()
+    }.valueOrThrow
+
+    then:
+    result == [[1, 2, 3]]
+    disposed == [4, 5, 6]
+  }
+
+  def "invalid arguments are rejected"() {
+    when:
+    Streams.window(Streams.publish([1]), 0, Duration.ofSeconds(1), Action.noop())
+
+    then:
+    thrown IllegalArgumentException
+
+    when:
+    Streams.window(Streams.publish([1]), 1, Duration.ZERO, Action.noop())
+
+    then:
+    thrown IllegalArgumentException
+  }
+
+}
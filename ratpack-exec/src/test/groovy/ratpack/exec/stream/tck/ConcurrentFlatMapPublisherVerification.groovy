@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.stream.tck
+
+import org.reactivestreams.Publisher
+import org.reactivestreams.Subscriber
+import org.reactivestreams.tck.PublisherVerification
+import org.reactivestreams.tck.TestEnvironment
+import org.testng.annotations.AfterClass
+import ratpack.exec.Blocking
+import ratpack.exec.stream.Streams
+import ratpack.func.Action
+import ratpack.test.exec.ExecHarness
+
+class ConcurrentFlatMapPublisherVerification extends PublisherVerification<Integer> {
+
+  ConcurrentFlatMapPublisherVerification() {
+    super(new TestEnvironment(500L))
+  }
+
+  private ExecHarness execHarness = ExecHarness.harness()
+
+  @Override
+  Publisher<Integer> createPublisher(long elements) {
+    return new Publisher<Integer>() {
+      @Override
+      void subscribe(Subscriber<? super Integer> s) {
+        if (s == null) {
+          throw null
+        }
+
+        execHarness.fork().start {
+          def stream = Streams.yield {
+            it.requestNum < elements ? elements : null
+          }
+
+          stream.bindExec().flatMapConcurrent(4, { n ->
+            Blocking.get { n * 2 }
+          }, Action.noop()).subscribe(s)
+        }
+      }
+    }
+  }
+
+  @Override
+  Publisher<Integer> createFailedPublisher() {
+    null // because subscription always succeeds. Nothing is attempted until a request is received.
+  }
+
+  @AfterClass
+  void shutdown() throws Exception {
+    execHarness.close()
+  }
+}
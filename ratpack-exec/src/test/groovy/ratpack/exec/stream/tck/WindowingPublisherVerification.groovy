@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.stream.tck
+
+import org.reactivestreams.Publisher
+import org.reactivestreams.Subscriber
+import org.reactivestreams.tck.PublisherVerification
+import org.reactivestreams.tck.TestEnvironment
+import org.testng.annotations.AfterClass
+import ratpack.exec.stream.Streams
+import ratpack.func.Action
+import ratpack.test.exec.ExecHarness
+
+import java.time.Duration
+
+class WindowingPublisherVerification extends PublisherVerification<List<Long>> {
+
+  WindowingPublisherVerification() {
+    super(new TestEnvironment(500L))
+  }
+
+  private ExecHarness execHarness = ExecHarness.harness()
+
+  @Override
+  Publisher<List<Long>> createPublisher(long elements) {
+    return new Publisher<List<Long>>() {
+      @Override
+      void subscribe(Subscriber<? super List<Long>> s) {
+        if (s == null) {
+          throw null
+        }
+
+        execHarness.fork().start {
+          Streams.yield {
+            it.requestNum < elements * 2 ? it.requestNum : null
+          }.window(2, Duration.ofSeconds(10), Action.noop()).subscribe(s)
+        }
+      }
+    }
+  }
+
+  @Override
+  Publisher<List<Long>> createFailedPublisher() {
+    null // because subscription always succeeds. Nothing is attempted until a request is received.
+  }
+
+  @AfterClass
+  void shutdown() throws Exception {
+    execHarness.close()
+  }
+}
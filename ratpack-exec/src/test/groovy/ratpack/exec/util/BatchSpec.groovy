@@ -195,4 +195,54 @@ class BatchSpec extends BaseRatpackSpec {
     exec.yield { ParallelBatch.of(iterable).yield() }.valueOrThrow == [1, 2, 3]
     exec.yield { SerialBatch.of(createIterable.apply([1, 2, 3])).yield() }.valueOrThrow == [1, 2, 3]
   }
+
+  def "parallel batch respects concurrency limit"() {
+    given:
+    def active = new AtomicInteger()
+    def max = new AtomicInteger()
+    def promises = (1..20).collect { i ->
+      Promise.sync { active.incrementAndGet() }
+        .flatMap { n -> max.accumulateAndGet(n) { a, b -> Math.max(a, b) }; Blocking.get { sleep 5; i } }
+        .wiretap { active.decrementAndGet() }
+    }
+
+    when:
+    def r = exec.yield { ParallelBatch.of(promises).concurrency(3).yield() }.valueOrThrow
+
+    then:
+    r == (1..20).toList()
+    max.get() <= 3
+  }
+
+  def "parallel publisher emits in completion order"() {
+    given:
+    def promises = [30, 10, 20].collect { i -> Blocking.get { sleep i * 5; i } }
+
+    when:
+    def l = exec.yield { ParallelBatch.of(promises).publisher().toList() }.valueOrThrow
+
+    then:
+    l == [10, 20, 30]
+  }
+
+  def "parallel publisher stops forking when cancelled"() {
+    given:
+    def started = new AtomicInteger()
+    def promises = (1..10).collect { i -> Promise.sync { started.incrementAndGet(); i } }
+
+    when:
+    def l = exec.yield { ParallelBatch.of(promises).concurrency(2).publisher().take(3).toList() }.valueOrThrow
+
+    then:
+    l.size() == 3
+    started.get() <= 5
+  }
+
+  def "concurrency must be positive"() {
+    when:
+    ParallelBatch.of(Promise.value(1)).concurrency(0)
+
+    then:
+    thrown IllegalArgumentException
+  }
 }
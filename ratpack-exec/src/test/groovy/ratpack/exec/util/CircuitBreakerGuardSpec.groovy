@@ -0,0 +1,243 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util
+
+import ratpack.exec.BaseExecutionSpec
+import ratpack.exec.Downstream
+import ratpack.exec.Promise
+import ratpack.exec.Upstream
+
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+
+import static ratpack.exec.util.CircuitBreaker.State.CLOSED
+import static ratpack.exec.util.CircuitBreaker.State.HALF_OPEN
+import static ratpack.exec.util.CircuitBreaker.State.OPEN
+
+class CircuitBreakerGuardSpec extends BaseExecutionSpec {
+
+  def calls = new AtomicInteger()
+  def changes = [].asSynchronized()
+
+  CircuitBreaker breaker(@DelegatesTo(CircuitBreakerSpec) Closure<?> config = {}) {
+    CircuitBreaker.of { s ->
+      s.minimumCalls(4)
+        .openDuration(Duration.ofMillis(100))
+        .halfOpenCalls(2)
+        .onStateChange { from, to -> changes << "$from->$to".toString() }
+      config.delegate = s
+      config.call()
+    }
+  }
+
+  def call(CircuitBreaker breaker, boolean fail) {
+    execHarness.yield {
+      Promise.sync {
+        calls.incrementAndGet()
+        if (fail) {
+          throw new IOException("!")
+        }
+        "ok"
+      }.apply(breaker.&guard)
+    }
+  }
+
+  def "opens when the failure rate reaches the threshold"() {
+    given:
+    def breaker = breaker()
+
+    when:
+    [true, false, true].each { call(breaker, it) }
+
+    then:
+    breaker.state == CLOSED
+
+    when:
+    call(breaker, false)
+
+    then:
+    breaker.state == OPEN
+    breaker.failureRate == 0.5d
+    changes == ["CLOSED->OPEN"]
+  }
+
+  def "fails fast when open"() {
+    given:
+    def breaker = breaker()
+    4.times { call(breaker, true) }
+
+    when:
+    def result = call(breaker, false)
+
+    then:
+    result.throwable instanceof CircuitBreakerOpenException
+    result.throwable.stackTrace.length == 0
+    calls.get() == 4
+    breaker.rejectedCount == 1
+  }
+
+  def "can use a fallback when open"() {
+    given:
+    def breaker = breaker()
+    4.times { call(breaker, true) }
+
+    expect:
+    execHarness.yield {
+      breaker.guard(Promise.value("value")) { Promise.value("fallback") }
+    }.valueOrThrow == "fallback"
+  }
+
+  def "can guard via transform"() {
+    given:
+    def breaker = breaker()
+
+    expect:
+    execHarness.yield {
+      Promise.value("value").transform(breaker.&guard)
+    }.valueOrThrow == "value"
+  }
+
+  def "closes after successful probes when half open"() {
+    given:
+    def breaker = breaker()
+    4.times { call(breaker, true) }
+
+    when:
+    sleep 150
+    call(breaker, false)
+
+    then:
+    breaker.state == HALF_OPEN
+
+    when:
+    call(breaker, false)
+
+    then:
+    breaker.state == CLOSED
+    breaker.failureRate == 0d
+    changes == ["CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"]
+  }
+
+  def "opens again after failed probes when half open"() {
+    given:
+    def breaker = breaker()
+    4.times { call(breaker, true) }
+
+    when:
+    sleep 150
+    call(breaker, true)
+    call(breaker, true)
+
+    then:
+    breaker.state == OPEN
+    changes == ["CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN"]
+  }
+
+  def "opens when the slow call rate reaches the threshold"() {
+    given:
+    def breaker = breaker {
+      slowCallDuration(Duration.ofMillis(20))
+      slowCallRateThreshold(0.5)
+    }
+
+    when:
+    4.times {
+      execHarness.yield { breaker.guard(Promise.value(1).defer(Duration.ofMillis(30))) }.valueOrThrow
+    }
+
+    then:
+    breaker.state == OPEN
+    breaker.slowCallRate == 1d
+  }
+
+  def "only records matching errors as failures"() {
+    given:
+    def breaker = breaker {
+      recordFailures { !(it instanceof IOException) }
+    }
+
+    when:
+    4.times { call(breaker, true) }
+
+    then:
+    breaker.state == CLOSED
+    breaker.failureRate == 0d
+  }
+
+  def "calls outside the window are not counted"() {
+    given:
+    def breaker = breaker {
+      window(Duration.ofMillis(100))
+    }
+
+    when:
+    3.times { call(breaker, true) }
+    sleep 150
+    call(breaker, true)
+
+    then:
+    breaker.state == CLOSED
+  }
+
+  def "records upstreams that throw when connected as failures"() {
+    given:
+    def breaker = breaker()
+    def throwing = breaker.guard({ down -> throw new IOException("!") } as Upstream<String>)
+
+    when:
+    def results = (1..4).collect { execHarness.yield { Promise.async(throwing) } }
+
+    then:
+    results.every { it.throwable instanceof IOException }
+    breaker.state == OPEN
+    breaker.failureRate == 1d
+  }
+
+  def "opens again when probes do not complete within the half open duration"() {
+    given:
+    def breaker = breaker {
+      halfOpenDuration(Duration.ofMillis(100))
+    }
+    4.times { call(breaker, true) }
+    def hanging = breaker.guard({ down -> } as Upstream<String>)
+
+    when:
+    sleep 150
+    2.times { hanging.connect(Mock(Downstream)) }
+
+    then:
+    breaker.state == HALF_OPEN
+    call(breaker, false).throwable instanceof CircuitBreakerOpenException
+
+    when:
+    sleep 150
+    def result = call(breaker, false)
+
+    then:
+    result.throwable instanceof CircuitBreakerOpenException
+    breaker.state == OPEN
+    changes == ["CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN"]
+
+    when:
+    sleep 150
+    2.times { call(breaker, false) }
+
+    then:
+    breaker.state == CLOSED
+  }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util
+
+import ratpack.exec.Promise
+import ratpack.exec.Upstream
+import ratpack.test.exec.ExecHarness
+import ratpack.test.internal.BaseRatpackSpec
+import spock.lang.AutoCleanup
+
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+
+class CoalescerSpec extends BaseRatpackSpec {
+
+  @AutoCleanup
+  def harness = ExecHarness.harness()
+  def coalescer = new Coalescer<String, Integer>()
+  def calls = new AtomicInteger()
+
+  Promise<Integer> call(String key) {
+    coalescer.coalesce(key, Promise.sync { calls.incrementAndGet() }.defer(Duration.ofMillis(100)))
+  }
+
+  def "coalesces concurrent promises for the same key"() {
+    when:
+    def results = harness.yield {
+      ParallelBatch.of((1..10).collect { call("a") } + (1..5).collect { call("b") }).yield()
+    }.valueOrThrow
+
+    then:
+    calls.get() == 2
+    results.toSet() == [1, 2].toSet()
+    results.take(10).toSet().size() == 1
+    results.drop(10).toSet().size() == 1
+    coalescer.originatingCount == 2
+    coalescer.coalescedCount == 13
+    coalescer.inFlightCount == 0
+  }
+
+  def "does not coalesce sequential promises"() {
+    when:
+    def results = harness.yield {
+      call("a").flatMap { first -> call("a").map { [first, it] } }
+    }.valueOrThrow
+
+    then:
+    results == [1, 2]
+    coalescer.originatingCount == 2
+    coalescer.coalescedCount == 0
+  }
+
+  def "coalesced promises receive the error"() {
+    given:
+    def error = new RuntimeException("!")
+    def promises = (1..3).collect {
+      coalescer.coalesce("a", Promise.<Integer> error(error).defer(Duration.ofMillis(100)))
+    }
+
+    when:
+    def results = harness.yield { ParallelBatch.of(promises).yieldAll() }.valueOrThrow
+
+    then:
+    results*.throwable == [error, error, error]
+    coalescer.originatingCount == 1
+    coalescer.inFlightCount == 0
+  }
+
+  def "later promises for the key complete when the upstream throws"() {
+    given:
+    def error = new RuntimeException("!")
+    def throwing = Promise.value(0).transform { up -> { down -> throw error } as Upstream<Integer> }
+
+    when:
+    def first = harness.yield { coalescer.coalesce("a", throwing) }
+    def second = harness.yield { call("a") }
+
+    then:
+    first.throwable == error
+    second.valueOrThrow == 1
+    coalescer.originatingCount == 2
+    coalescer.inFlightCount == 0
+  }
+
+}
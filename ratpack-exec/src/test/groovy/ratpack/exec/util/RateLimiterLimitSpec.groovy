@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util
+
+import ratpack.exec.BaseExecutionSpec
+import ratpack.exec.Promise
+
+import java.time.Duration
+
+class RateLimiterLimitSpec extends BaseExecutionSpec {
+
+  def "grants burst immediately then rejects"() {
+    given:
+    def limiter = RateLimiter.of { it.rate(1, Duration.ofMinutes(1)).burst(3) }
+
+    expect:
+    3.times { assert limiter.reserve() == Duration.ZERO }
+
+    when:
+    limiter.reserve()
+
+    then:
+    def e = thrown RateLimitExceededException
+    e.retryAfter > Duration.ofSeconds(59)
+    e.retryAfter <= Duration.ofMinutes(1)
+    limiter.rejectedCount == 1
+  }
+
+  def "rejections do not use permits"() {
+    given:
+    def limiter = RateLimiter.of { it.rate(1, Duration.ofMinutes(1)) }
+    limiter.reserve()
+
+    when:
+    3.times {
+      try {
+        limiter.reserve()
+      } catch (RateLimitExceededException ignore) {
+      }
+    }
+    limiter.reserve()
+
+    then:
+    def e = thrown RateLimitExceededException
+    e.retryAfter <= Duration.ofMinutes(1)
+    limiter.rejectedCount == 4
+  }
+
+  def "defers promises within max wait"() {
+    given:
+    def limiter = RateLimiter.of { it.rate(20, Duration.ofSeconds(1)).maxWait(Duration.ofSeconds(1)) }
+
+    when:
+    def start = System.nanoTime()
+    def values = execHarness.yield {
+      ParallelBatch.of((1..5).collect { limiter.limit(Promise.value(it)) }).yield()
+    }.valueOrThrow
+    def elapsed = Duration.ofNanos(System.nanoTime() - start)
+
+    then:
+    values == [1, 2, 3, 4, 5]
+    elapsed >= Duration.ofMillis(150)
+    limiter.rejectedCount == 0
+  }
+
+  def "fails promises beyond max wait"() {
+    given:
+    def limiter = RateLimiter.of { it.rate(1, Duration.ofMinutes(1)) }
+
+    when:
+    execHarness.yield { limiter.limit(Promise.value(1)) }.valueOrThrow
+    execHarness.yield { limiter.limit(Promise.value(2)) }.valueOrThrow
+
+    then:
+    thrown RateLimitExceededException
+  }
+
+  def "keyed limiters are independent"() {
+    given:
+    def limiter = KeyedRateLimiter.<String> of { it.rate(1, Duration.ofMinutes(1)) }
+
+    expect:
+    limiter.get("a").is(limiter.get("a"))
+    execHarness.yield { limiter.limit("a", Promise.value(1)) }.valueOrThrow == 1
+    execHarness.yield { limiter.limit("b", Promise.value(2)) }.valueOrThrow == 2
+    execHarness.yield { limiter.limit("a", Promise.value(3)) }.throwable instanceof RateLimitExceededException
+  }
+
+  def "rate must be specified"() {
+    when:
+    RateLimiter.of {}
+
+    then:
+    thrown IllegalStateException
+  }
+
+}
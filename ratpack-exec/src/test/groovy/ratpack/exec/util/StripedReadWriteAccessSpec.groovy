@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.util
+
+import ratpack.exec.BaseExecutionSpec
+import ratpack.exec.Promise
+
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+class StripedReadWriteAccessSpec extends BaseExecutionSpec {
+
+  def access = StripedReadWriteAccess.<Integer> create(16, Duration.ofMinutes(1))
+
+  def "rounds stripes up to power of two"() {
+    expect:
+    StripedReadWriteAccess.create(stripes, Duration.ZERO).stripes == rounded
+
+    where:
+    stripes | rounded
+    1       | 1
+    2       | 2
+    3       | 4
+    16      | 16
+    17      | 32
+  }
+
+  def "rejects invalid stripes"() {
+    when:
+    StripedReadWriteAccess.create(0, Duration.ZERO)
+
+    then:
+    thrown IllegalArgumentException
+  }
+
+  def "equal keys share access"() {
+    expect:
+    access.get(1).is(access.get(1))
+    access.get(1).defaultTimeout == access.defaultTimeout
+  }
+
+  def "serializes writes per key"() {
+    when:
+    def keys = 8
+    def counters = new ConcurrentHashMap<Integer, AtomicInteger>()
+    (0..<keys).each { counters[it] = new AtomicInteger() }
+
+    def p = (0..<1000).collect { n ->
+      def key = n % keys
+      Promise.sync {
+        assert counters[key].incrementAndGet() == 1
+        n
+      }.next {
+        assert counters[key].decrementAndGet() == 0
+      }.apply { access.write(key, it) }
+    }
+
+    def values = execHarness.yield {
+      ParallelBatch.of(p).yield()
+    }.valueOrThrow
+
+    then:
+    values.size() == 1000
+  }
+
+  def "keys on different stripes do not block each other"() {
+    expect:
+    access.get(1) != access.get(2)
+    execHarness.yield {
+      access.write(1, access.write(2, Promise.value("ok")))
+    }.valueOrThrow == "ok"
+  }
+
+}
@@ -98,6 +98,11 @@ public class DefaultHandlingResult implements HandlingResult {
 
       private final List<Action<? super RequestOutcome>> outcomeListeners = Lists.newArrayList();
 
+      @Override
+      public void forceCompress() {
+
+      }
+
       @Override
       public void transmit(HttpResponseStatus status, ByteBuf byteBuf) {
         sentResponse = true;
@@ -115,6 +120,11 @@ public class DefaultHandlingResult implements HandlingResult {
         latch.countDown();
       }
 
+      @Override
+      public void transmit(HttpResponseStatus status, Path file, ByteRangesBody ranges) {
+        transmit(status, file);
+      }
+
       @Override
       public void transmit(HttpResponseStatus status, Publisher<? extends ByteBuf> publisher, boolean drainRequestAfterResponse) {
         throw new UnsupportedOperationException("streaming not supported while unit testing");